@@ -35,7 +35,8 @@ public class DataLoader implements CommandLineRunner {
 
     @Override
     public void run(String... args) throws Exception {
-        loadInitialData();
+        // Seeds every organization
+        TenantContext.runUnscoped(this::loadInitialData);
     }
 
     private void loadInitialData() {
@@ -2,6 +2,7 @@ package com.example.carrental.config;
 
 import com.example.carrental.services.CustomUserDetailsService;
 import com.example.carrental.services.JwtService;
+import com.example.carrental.services.TokenRevocationService;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -28,6 +29,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(
@@ -51,6 +53,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             username = jwtService.extractUsername(jwt);
 
+            // Logged-out tokens stay unauthenticated; almost always answered by the in-memory filter
+            if (tokenRevocationService.isRevoked(jwtService.extractTokenId(jwt))) {
+                log.debug("Rejected revoked token of user {}", username);
+                filterChain.doFilter(request, response);
+                return;
+            }
+
             // If username is present and no authentication is set in SecurityContext
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
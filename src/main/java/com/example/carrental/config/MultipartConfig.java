@@ -0,0 +1,36 @@
+package com.example.carrental.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.util.regex.Pattern;
+
+/**
+ * Multipart bodies are parsed up front as usual, except for the bulk inspection upload, which
+ * reads the raw body with MultipartStreamReader so its photos are not spooled by the container.
+ */
+@Configuration
+public class MultipartConfig {
+
+    private static final Pattern STREAMED_UPLOAD = Pattern.compile("/api/v1/vehicle-photos/rentals/[^/]+/inspection/[^/]+");
+
+    // Replaces Spring Boot's resolver (it backs off when one is defined)
+    @Bean(name = DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME)
+    public MultipartResolver multipartResolver() {
+        return new StandardServletMultipartResolver() {
+            @Override
+            public boolean isMultipart(HttpServletRequest request) {
+                return super.isMultipart(request) && !isStreamedUpload(request);
+            }
+        };
+    }
+
+    static boolean isStreamedUpload(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return STREAMED_UPLOAD.matcher(path).matches();
+    }
+}
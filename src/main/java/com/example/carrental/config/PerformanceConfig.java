@@ -1,5 +1,6 @@
 package com.example.carrental.config;
 
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizer;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -12,6 +13,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
 import org.springframework.web.filter.CommonsRequestLoggingFilter;
 
 import java.util.Arrays;
@@ -58,6 +60,32 @@ public class PerformanceConfig {
         return executor;
     }
 
+    /**
+     * Wake-ups of the job worker and outbox dispatcher after a commit. A wake-up that finds the
+     * pool busy is dropped, never run on the committing request thread: the scheduled polls pick
+     * the work up, and a running pass already coalesces further wake-ups.
+     */
+    @Bean(name = "wakeUpExecutor")
+    public Executor wakeUpExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(2);
+        executor.setThreadNamePrefix("CarRental-Wake-");
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.DiscardPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Allow PROPAGATION_NESTED, i.e. JDBC savepoints. Only plain JDBC statements may run inside
+     * one: a failed Hibernate statement marks the whole transaction rollback-only regardless.
+     */
+    @Bean
+    public TransactionManagerCustomizer<AbstractPlatformTransactionManager> nestedTransactionsCustomizer() {
+        return transactionManager -> transactionManager.setNestedTransactionAllowed(true);
+    }
+
     /**
      * Configure request logging for performance monitoring in development
      */
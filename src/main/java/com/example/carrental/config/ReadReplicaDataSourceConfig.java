@@ -0,0 +1,99 @@
+package com.example.carrental.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Primary + read replica pools. Only active when app.datasource.replicas.enabled=true,
+ * otherwise Spring Boot's single auto-configured pool is used as before.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+@ConditionalOnProperty(prefix = "app.datasource.replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    public ReadReplicaRoutingDataSource routingDataSource(DataSourceProperties dataSourceProperties,
+                                                          ReadReplicaProperties replicaProperties,
+                                                          Environment environment,
+                                                          ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("carrental-primary");
+        if (meterRegistry != null) {
+            primary.setMetricRegistry(meterRegistry);
+        }
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        int index = 1;
+        for (ReadReplicaProperties.Node node : replicaProperties.getNodes()) {
+            String name = node.getName() != null ? node.getName() : "replica-" + index;
+            index++;
+
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(node.getUrl())
+                    .username(node.getUsername() != null ? node.getUsername() : dataSourceProperties.determineUsername())
+                    .password(node.getPassword() != null ? node.getPassword() : dataSourceProperties.determinePassword())
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .build();
+            replica.setPoolName("carrental-" + name);
+            replica.setMaximumPoolSize(node.getMaximumPoolSize());
+            replica.setMinimumIdle(node.getMinimumIdle());
+            replica.setReadOnly(true);
+            if (meterRegistry != null) {
+                replica.setMetricRegistry(meterRegistry);
+            }
+
+            replicas.put(name, replica);
+        }
+
+        ReadReplicaRoutingDataSource routingDataSource = new ReadReplicaRoutingDataSource(
+                primary, replicas, replicaProperties.getLagQuery(), replicaProperties.getMaxLagSeconds());
+
+        if (meterRegistry != null) {
+            replicas.keySet().forEach(name ->
+                    Gauge.builder("carrental.datasource.replica.lag", routingDataSource, ds -> ds.getReplicaLagSeconds(name))
+                            .tag("pool", "carrental-" + name)
+                            .baseUnit("seconds")
+                            .description("Replication lag measured by the read replica health check")
+                            .register(meterRegistry));
+        }
+
+        log.info("Read replica routing enabled with {} replica(s): {}", replicas.size(), replicas.keySet());
+        return routingDataSource;
+    }
+
+    /**
+     * The lazy proxy defers getConnection() until the first statement, after
+     * the transaction manager has flagged the transaction as read-only.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
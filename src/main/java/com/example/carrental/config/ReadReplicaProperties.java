@@ -0,0 +1,46 @@
+package com.example.carrental.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica pools used by {@link ReadReplicaRoutingDataSource}.
+ * Credentials fall back to the primary spring.datasource values when not set per node.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.datasource.replicas")
+public class ReadReplicaProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Replicas lagging more than this are skipped and reads fall back to the primary
+     */
+    private double maxLagSeconds = 10.0;
+
+    private long lagCheckIntervalMs = 5000;
+
+    /**
+     * Query returning the replica lag in seconds. Blank means "connectivity check only".
+     */
+    private String lagQuery = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private List<Node> nodes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Node {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        private int minimumIdle = 2;
+    }
+}
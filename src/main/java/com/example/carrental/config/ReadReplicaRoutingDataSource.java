@@ -0,0 +1,139 @@
+package com.example.carrental.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes @Transactional(readOnly = true) work to the healthy read replicas (round robin)
+ * and everything else to the primary. Must be wrapped in a LazyConnectionDataSourceProxy
+ * so the physical connection is fetched after the transaction read-only flag is set.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY_KEY = "primary";
+
+    private final Map<String, ReplicaNode> replicas = new LinkedHashMap<>();
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private volatile List<String> healthyReplicas = List.of();
+
+    public ReadReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicaDataSources,
+                                        String lagQuery, double maxLagSeconds) {
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY_KEY, primary);
+        replicaDataSources.forEach((name, dataSource) -> {
+            replicas.put(name, new ReplicaNode(dataSource));
+            targets.put(name, dataSource);
+        });
+
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        refreshReplicaHealth();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY_KEY;
+        }
+
+        List<String> candidates = healthyReplicas;
+        if (candidates.isEmpty()) {
+            return PRIMARY_KEY;
+        }
+        return candidates.get(Math.floorMod(cursor.getAndIncrement(), candidates.size()));
+    }
+
+    /**
+     * Measure lag on every replica and rebuild the list of replicas eligible for reads
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.lag-check-interval-ms:5000}")
+    public void refreshReplicaHealth() {
+        List<String> healthy = new ArrayList<>();
+
+        replicas.forEach((name, node) -> {
+            boolean wasHealthy = node.healthy;
+            try {
+                node.lagSeconds = measureLag(node.dataSource);
+                node.healthy = node.lagSeconds <= maxLagSeconds;
+            } catch (SQLException e) {
+                node.lagSeconds = Double.NaN;
+                node.healthy = false;
+                log.debug("Replica {} lag check failed: {}", name, e.getMessage());
+            }
+
+            if (node.healthy) {
+                healthy.add(name);
+            }
+            if (wasHealthy != node.healthy) {
+                if (node.healthy) {
+                    log.info("Replica {} back in rotation (lag {}s)", name, node.lagSeconds);
+                } else {
+                    log.warn("Replica {} removed from rotation (lag {}s, max {}s), reads fall back to primary",
+                            name, node.lagSeconds, maxLagSeconds);
+                }
+            }
+        });
+
+        this.healthyReplicas = List.copyOf(healthy);
+    }
+
+    private double measureLag(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                if (!connection.isValid(2)) {
+                    throw new SQLException("Connection is not valid");
+                }
+                return 0.0;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                return resultSet.next() ? resultSet.getDouble(1) : 0.0;
+            }
+        }
+    }
+
+    public double getReplicaLagSeconds(String name) {
+        ReplicaNode node = replicas.get(name);
+        return node != null ? node.lagSeconds : Double.NaN;
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    private static class ReplicaNode {
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile double lagSeconds = 0.0;
+
+        ReplicaNode(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
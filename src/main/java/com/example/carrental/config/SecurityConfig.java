@@ -5,6 +5,7 @@ import com.example.carrental.services.JwtService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -83,6 +84,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/v1/maintenance/**").permitAll() // Allow public maintenance access
                         .requestMatchers("/api/v1/reservations/**").permitAll() // Allow public reservation access
                         .requestMatchers("/api/v1/customers/**").permitAll() // Allow customer management access
+                        .requestMatchers(HttpMethod.GET, "/uploads/vehicle-photos/**").permitAll() // Photo files; PhotoFileController serves only GENERAL photos anonymously
                         // Protected endpoints
                         .requestMatchers("/users/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
@@ -0,0 +1,54 @@
+package com.example.carrental.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Schema-per-tenant / database-per-tenant routing for organizations that are
+ * moved out of the shared tables (see TenantStorageMigrationService).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.tenancy")
+public class TenancyProperties {
+
+    private boolean isolationEnabled = false;
+
+    /**
+     * Statement run on a shared connection handed to a SCHEMA tenant, %s is the schema name.
+     * Shared reference tables (users, organizations, roles) resolve through public.
+     */
+    private String schemaSearchPathSql = "SET search_path TO %s, public";
+
+    private String resetSearchPathSql = "SET search_path TO public";
+
+    /**
+     * How long a request waits for a tenant that is being cut over before failing
+     */
+    private long cutoverWaitMs = 10000;
+
+    /**
+     * How long a cutover waits for in-flight transactions of the tenant to finish
+     */
+    private long drainTimeoutMs = 30000;
+
+    private int copyChunkSize = 1000;
+
+    /**
+     * DATABASE tenants, keyed by Organization.storageKey
+     */
+    private Map<String, Database> databases = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Database {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.carrental.config;
+
+import com.example.carrental.model.Organization.StorageMode;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Hibernate connection provider that routes each session by organization:
+ * SHARED tenants use the primary pool as before, SCHEMA tenants get a primary
+ * connection with the search path pointed at their schema, DATABASE tenants get
+ * a connection from their own pool. Sessions without a tenant get a primary
+ * connection without waiting: a cutover only holds back the organization it moves.
+ */
+@Slf4j
+public class TenantConnectionProvider implements MultiTenantConnectionProvider<String>, DisposableBean {
+
+    private static final Pattern SCHEMA_NAME = Pattern.compile("^[a-z][a-z0-9_]{0,62}$");
+
+    private final DataSource sharedDataSource;
+    private final TenantStorageRegistry registry;
+    private final TenancyProperties properties;
+    private final Map<String, HikariDataSource> tenantDataSources = new ConcurrentHashMap<>();
+
+    public TenantConnectionProvider(DataSource sharedDataSource, TenantStorageRegistry registry,
+                                    TenancyProperties properties) {
+        this.sharedDataSource = sharedDataSource;
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return sharedDataSource.getConnection();
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public Connection getConnection(String tenantIdentifier) throws SQLException {
+        Long tenantId = toTenantId(tenantIdentifier);
+        if (tenantId == null) {
+            return getAnyConnection();
+        }
+
+        registry.enter(tenantId, properties.getCutoverWaitMs());
+        try {
+            TenantStorageRegistry.TenantStorage storage = registry.lookup(tenantId);
+            switch (storage.getMode()) {
+                case SCHEMA:
+                    Connection connection = sharedDataSource.getConnection();
+                    try {
+                        execute(connection, String.format(properties.getSchemaSearchPathSql(),
+                                validateSchemaName(storage.getStorageKey())));
+                    } catch (SQLException e) {
+                        connection.close();
+                        throw e;
+                    }
+                    return connection;
+                case DATABASE:
+                    return dataSourceFor(storage.getStorageKey()).getConnection();
+                default:
+                    return sharedDataSource.getConnection();
+            }
+        } catch (SQLException | RuntimeException e) {
+            registry.exit(tenantId);
+            throw e;
+        }
+    }
+
+    @Override
+    public void releaseConnection(String tenantIdentifier, Connection connection) throws SQLException {
+        Long tenantId = toTenantId(tenantIdentifier);
+        if (tenantId == null) {
+            releaseAnyConnection(connection);
+            return;
+        }
+        try {
+            if (registry.lookup(tenantId).getMode() == StorageMode.SCHEMA) {
+                execute(connection, properties.getResetSearchPathSql());
+            }
+        } finally {
+            connection.close();
+            registry.exit(tenantId);
+        }
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isInstance(this);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (unwrapType.isInstance(this)) {
+            return unwrapType.cast(this);
+        }
+        throw new IllegalArgumentException("Cannot unwrap TenantConnectionProvider as " + unwrapType.getName());
+    }
+
+    /**
+     * Pool for a DATABASE tenant, created on first use from app.tenancy.databases.&lt;key&gt;
+     */
+    public DataSource dataSourceFor(String storageKey) {
+        return tenantDataSources.computeIfAbsent(storageKey, key -> {
+            TenancyProperties.Database database = properties.getDatabases().get(key);
+            if (database == null) {
+                throw new IllegalStateException("No app.tenancy.databases entry for storage key " + key);
+            }
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("carrental-tenant-" + key);
+            dataSource.setJdbcUrl(database.getUrl());
+            dataSource.setUsername(database.getUsername());
+            dataSource.setPassword(database.getPassword());
+            dataSource.setMaximumPoolSize(database.getMaximumPoolSize());
+            log.info("Created connection pool for tenant database {}", key);
+            return dataSource;
+        });
+    }
+
+    public static String validateSchemaName(String schema) {
+        if (schema == null || !SCHEMA_NAME.matcher(schema).matches()) {
+            throw new IllegalArgumentException("Invalid tenant schema name: " + schema);
+        }
+        return schema;
+    }
+
+    @Override
+    public void destroy() {
+        tenantDataSources.values().forEach(HikariDataSource::close);
+    }
+
+    private Long toTenantId(String tenantIdentifier) {
+        if (tenantIdentifier == null || TenantIdentifierResolver.SHARED_TENANT.equals(tenantIdentifier)) {
+            return null;
+        }
+        return Long.valueOf(tenantIdentifier);
+    }
+
+    private void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.carrental.config;
 
+import java.util.function.Supplier;
+
 public class TenantContext {
 
     private static final ThreadLocal<Long> CONTEXT = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> UNSCOPED = new ThreadLocal<>();
 
     public static void setTenantId(Long tenantId) {
         CONTEXT.set(tenantId);
@@ -19,6 +22,7 @@ public class TenantContext {
 
     public static void clear() {
         CONTEXT.remove();
+        UNSCOPED.remove();
     }
 
     public static boolean hasTenant() {
@@ -28,4 +32,70 @@ public class TenantContext {
     public static void setDefaultTenant() {
         setTenantId(1L);
     }
-}
\ No newline at end of file
+
+    /**
+     * True inside {@link #callUnscoped}: the thread works on every organization's rows
+     */
+    public static boolean isUnscoped() {
+        return CONTEXT.get() == null && Boolean.TRUE.equals(UNSCOPED.get());
+    }
+
+    /**
+     * Run a system task that spans organizations (startup loaders, cross-tenant schedulers).
+     * Outside of it a thread without a tenant may not use tenant-scoped repositories, and the
+     * tenantFilter matches no rows. The filter is set when a transaction opens its
+     * EntityManager, so the action must start its own transactions.
+     */
+    public static <T> T callUnscoped(Supplier<T> action) {
+        Long previousTenant = CONTEXT.get();
+        Boolean previousUnscoped = UNSCOPED.get();
+        CONTEXT.remove();
+        UNSCOPED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            restore(previousTenant, previousUnscoped);
+        }
+    }
+
+    public static void runUnscoped(Runnable action) {
+        callUnscoped(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run one organization's work, e.g. from a scheduler thread, restoring the previous context after
+     */
+    public static <T> T callAs(Long tenantId, Supplier<T> action) {
+        Long previousTenant = CONTEXT.get();
+        Boolean previousUnscoped = UNSCOPED.get();
+        CONTEXT.set(tenantId);
+        try {
+            return action.get();
+        } finally {
+            restore(previousTenant, previousUnscoped);
+        }
+    }
+
+    public static void runAs(Long tenantId, Runnable action) {
+        callAs(tenantId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private static void restore(Long tenantId, Boolean unscoped) {
+        if (tenantId != null) {
+            CONTEXT.set(tenantId);
+        } else {
+            CONTEXT.remove();
+        }
+        if (unscoped != null) {
+            UNSCOPED.set(unscoped);
+        } else {
+            UNSCOPED.remove();
+        }
+    }
+}
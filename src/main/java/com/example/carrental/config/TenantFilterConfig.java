@@ -0,0 +1,74 @@
+package com.example.carrental.config;
+
+import com.example.carrental.repository.TenantScopedRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.hibernate.Session;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+/**
+ * Enables the Hibernate "tenantFilter" (declared in the model package) on every
+ * EntityManager, so all JPQL/criteria queries on tenant-owned entities get an
+ * organization_id predicate. Unscoped access is explicit: only threads inside
+ * {@link TenantContext#callUnscoped} (startup loaders, cross-tenant schedulers) run
+ * without the filter. On any other thread without a tenant the filter matches no rows,
+ * and {@link TenantScopedRepository} methods throw.
+ */
+@Slf4j
+@Configuration
+public class TenantFilterConfig {
+
+    public static final String TENANT_FILTER = "tenantFilter";
+    public static final String TENANT_PARAMETER = "tenantId";
+
+    // Organization ids are generated from 1, so this matches no rows
+    static final Long NO_TENANT = -1L;
+
+    @Bean
+    public static BeanPostProcessor tenantFilterEntityManagerInitializer() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean entityManagerFactoryBean) {
+                    entityManagerFactoryBean.setEntityManagerInitializer(TenantFilterConfig::enableTenantFilter);
+                    log.debug("Tenant filter registered on entity manager factory {}", beanName);
+                } else if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+                    repositoryFactoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor(TenantFilterConfig::guardTenantScoped));
+                }
+                return bean;
+            }
+        };
+    }
+
+    public static void enableTenantFilter(EntityManager entityManager) {
+        if (TenantContext.isUnscoped()) {
+            return;
+        }
+        entityManager.unwrap(Session.class)
+                .enableFilter(TENANT_FILTER)
+                .setParameter(TENANT_PARAMETER, TenantContext.hasTenant() ? TenantContext.getTenantId() : NO_TENANT);
+    }
+
+    private static void guardTenantScoped(ProxyFactory proxyFactory, RepositoryInformation repository) {
+        if (!TenantScopedRepository.class.isAssignableFrom(repository.getRepositoryInterface())) {
+            return;
+        }
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            if (invocation.getMethod().getDeclaringClass() != Object.class
+                    && !TenantContext.hasTenant() && !TenantContext.isUnscoped()) {
+                throw new RuntimeException(repository.getRepositoryInterface().getSimpleName() + "."
+                        + invocation.getMethod().getName() + " called without a tenant; "
+                        + "cross-tenant system tasks must run in TenantContext.runUnscoped");
+            }
+            return invocation.proceed();
+        });
+    }
+}
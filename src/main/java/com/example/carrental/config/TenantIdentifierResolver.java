@@ -0,0 +1,22 @@
+package com.example.carrental.config;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Hands the TenantContext organization to Hibernate so TenantConnectionProvider
+ * can pick the tenant's schema or database. Threads without a tenant use shared storage.
+ */
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String> {
+
+    public static final String SHARED_TENANT = "shared";
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.hasTenant() ? String.valueOf(TenantContext.getTenantId()) : SHARED_TENANT;
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+}
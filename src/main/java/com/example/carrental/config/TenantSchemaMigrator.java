@@ -0,0 +1,91 @@
+package com.example.carrental.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keeps SCHEMA tenants on the same table structure as the shared tables: runs the tenant
+ * migrations (db/migration/tenant) against a schema when it is provisioned and against every
+ * tenant schema on each deploy, right after the shared migrations. Schemas provisioned before
+ * they were versioned are baselined at V1. A schema whose columns still differ from public
+ * afterwards (a shared migration without its tenant counterpart) fails the start instead of
+ * failing its organization's queries later.
+ */
+@Slf4j
+public class TenantSchemaMigrator {
+
+    private static final String TENANT_MIGRATIONS = "classpath:db/migration/tenant";
+    private static final String HISTORY_TABLE = "flyway_schema_history";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public TenantSchemaMigrator(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Create the schema if needed and bring it to the latest tenant migration
+     */
+    public void migrate(String schema) {
+        TenantConnectionProvider.validateSchemaName(schema);
+        int applied = Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(schema)
+                .locations(TENANT_MIGRATIONS)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate()
+                .migrationsExecuted;
+        if (applied > 0) {
+            log.info("Applied {} tenant migration(s) to schema {}", applied, schema);
+        }
+        verify(schema);
+    }
+
+    public void migrateAll() {
+        List<String> schemas = jdbcTemplate.queryForList(
+                "SELECT DISTINCT storage_key FROM organizations WHERE storage_mode = 'SCHEMA'", String.class);
+        for (String schema : schemas) {
+            migrate(schema);
+        }
+        log.info("Tenant schemas up to date: {}", schemas);
+    }
+
+    private void verify(String schema) {
+        Set<String> tenantColumns = columns(schema);
+        Set<String> tables = new TreeSet<>();
+        tenantColumns.forEach(column -> tables.add(column.substring(0, column.indexOf('.'))));
+        tables.remove(HISTORY_TABLE);
+
+        Set<String> sharedColumns = columns("public");
+        sharedColumns.removeIf(column -> !tables.contains(column.substring(0, column.indexOf('.'))));
+        tenantColumns.removeIf(column -> column.startsWith(HISTORY_TABLE + "."));
+
+        List<String> differences = new ArrayList<>();
+        sharedColumns.stream().filter(column -> !tenantColumns.contains(column))
+                .forEach(column -> differences.add("missing " + column));
+        tenantColumns.stream().filter(column -> !sharedColumns.contains(column))
+                .forEach(column -> differences.add("unexpected " + column));
+        if (!differences.isEmpty()) {
+            throw new IllegalStateException("Tenant schema " + schema + " differs from the shared tables "
+                    + differences + "; add a tenant migration under db/migration/tenant");
+        }
+    }
+
+    // table.column:type of every column in the schema
+    private Set<String> columns(String schema) {
+        return new TreeSet<>(jdbcTemplate.queryForList(
+                "SELECT table_name || '.' || column_name || ':' || data_type FROM information_schema.columns " +
+                        "WHERE table_schema = ?", String.class, schema));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.carrental.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Switches Hibernate to multi-tenant connection routing when app.tenancy.isolation-enabled=true.
+ * With it off every organization stays in the shared tables, scoped by the tenantFilter.
+ * Tenant schemas are migrated together with the shared tables on every start.
+ */
+@Configuration
+@EnableConfigurationProperties(TenancyProperties.class)
+@ConditionalOnProperty(prefix = "app.tenancy", name = "isolation-enabled", havingValue = "true")
+public class TenantStorageConfig {
+
+    @Bean
+    public TenantStorageRegistry tenantStorageRegistry(DataSource dataSource) {
+        return new TenantStorageRegistry(dataSource);
+    }
+
+    @Bean
+    public TenantConnectionProvider tenantConnectionProvider(DataSource dataSource,
+                                                             TenantStorageRegistry tenantStorageRegistry,
+                                                             TenancyProperties tenancyProperties) {
+        return new TenantConnectionProvider(dataSource, tenantStorageRegistry, tenancyProperties);
+    }
+
+    @Bean
+    public TenantSchemaMigrator tenantSchemaMigrator(DataSource dataSource) {
+        return new TenantSchemaMigrator(dataSource);
+    }
+
+    // Tenant tables are copied from the shared ones, so they are migrated after them
+    @Bean
+    public FlywayMigrationStrategy tenantSchemaMigrationStrategy(TenantSchemaMigrator tenantSchemaMigrator) {
+        return flyway -> {
+            flyway.migrate();
+            tenantSchemaMigrator.migrateAll();
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer tenantHibernatePropertiesCustomizer(TenantConnectionProvider tenantConnectionProvider) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER, tenantConnectionProvider);
+            hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new TenantIdentifierResolver());
+        };
+    }
+}
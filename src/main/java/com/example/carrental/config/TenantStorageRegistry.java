@@ -0,0 +1,159 @@
+package com.example.carrental.config;
+
+import com.example.carrental.model.Organization.StorageMode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of which organizations live outside the shared tables, plus a
+ * per-tenant gate used to drain in-flight transactions during a storage cutover.
+ * Only the organization being moved is held back: background work on tenant rows runs
+ * as the organization it belongs to (job and outbox rows carry it, cross-tenant
+ * schedulers go through CrossTenantTaskRunner), so sessions without a tenant only
+ * touch shared tables and pass no gate. Read with plain JDBC so lookups never recurse
+ * into Hibernate.
+ */
+@Slf4j
+public class TenantStorageRegistry {
+
+    private static final TenantStorage SHARED = new TenantStorage(StorageMode.SHARED, null);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, TenantStorage> storageByTenant = new ConcurrentHashMap<>();
+    private final Map<Long, TenantGate> gates = new ConcurrentHashMap<>();
+
+    public TenantStorageRegistry(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        storageByTenant.clear();
+        jdbcTemplate.query(
+                "SELECT id, storage_mode, storage_key FROM organizations WHERE storage_mode IN ('SCHEMA', 'DATABASE')",
+                rs -> {
+                    storageByTenant.put(rs.getLong("id"),
+                            new TenantStorage(StorageMode.valueOf(rs.getString("storage_mode")), rs.getString("storage_key")));
+                });
+        log.info("Loaded {} organization(s) with isolated storage", storageByTenant.size());
+    }
+
+    public TenantStorage lookup(Long tenantId) {
+        return tenantId == null ? SHARED : storageByTenant.getOrDefault(tenantId, SHARED);
+    }
+
+    public void register(Long tenantId, StorageMode mode, String storageKey) {
+        if (mode == StorageMode.SHARED) {
+            storageByTenant.remove(tenantId);
+        } else {
+            storageByTenant.put(tenantId, new TenantStorage(mode, storageKey));
+        }
+    }
+
+    /**
+     * Called when a connection is handed out for the tenant; blocks while a cutover is in progress
+     */
+    public void enter(Long tenantId, long waitMs) throws SQLException {
+        gateFor(tenantId).enter(waitMs);
+    }
+
+    public void exit(Long tenantId) {
+        TenantGate gate = gates.get(tenantId);
+        if (gate != null) {
+            gate.exit();
+        }
+    }
+
+    /**
+     * Stop handing out connections for the tenant and wait for the open ones to be released.
+     * The gate stays paused until {@link #resume}, also on timeout.
+     */
+    public boolean pauseAndDrain(Long tenantId, long timeoutMs) throws InterruptedException {
+        TenantGate gate = gateFor(tenantId);
+        gate.pause();
+        return gate.awaitDrained(System.currentTimeMillis() + timeoutMs);
+    }
+
+    public void resume(Long tenantId) {
+        TenantGate gate = gates.get(tenantId);
+        if (gate != null) {
+            gate.resume();
+        }
+    }
+
+    private TenantGate gateFor(Long tenantId) {
+        return gates.computeIfAbsent(tenantId, id -> new TenantGate("Tenant " + id));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class TenantStorage {
+        private final StorageMode mode;
+        private final String storageKey;
+    }
+
+    private static class TenantGate {
+        private final String name;
+        private int active;
+        private boolean paused;
+
+        TenantGate(String name) {
+            this.name = name;
+        }
+
+        synchronized void enter(long waitMs) throws SQLException {
+            long deadline = System.currentTimeMillis() + waitMs;
+            while (paused) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new SQLException(name + " is paused for a storage cutover, try again shortly");
+                }
+                try {
+                    wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while " + name + " is paused for a storage cutover", e);
+                }
+            }
+            active++;
+        }
+
+        synchronized void exit() {
+            if (active > 0) {
+                active--;
+            }
+            if (active == 0) {
+                notifyAll();
+            }
+        }
+
+        synchronized void pause() {
+            paused = true;
+        }
+
+        synchronized boolean awaitDrained(long deadline) throws InterruptedException {
+            while (active > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                wait(remaining);
+            }
+            return true;
+        }
+
+        synchronized void resume() {
+            paused = false;
+            notifyAll();
+        }
+    }
+}
@@ -64,11 +64,25 @@ public class AuthController {
         }
     }
 
+    /**
+     * Revokes the bearer token, plus the refresh token if sent as {"refreshToken": "..."}
+     */
     @PostMapping("/logout")
-    public ResponseEntity<?> logout() {
-        // For JWT, logout is handled client-side by removing the token
-        // In a more complex implementation, you might maintain a blacklist of tokens
-        return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                    @RequestBody(required = false) Map<String, String> body) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("error", "Invalid authorization header"));
+            }
+
+            authService.logout(authHeader.substring(7), body != null ? body.get("refreshToken") : null);
+            return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
+        } catch (Exception e) {
+            log.error("Logout failed", e);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Logout failed", "message", e.getMessage()));
+        }
     }
 
     @GetMapping("/me")
@@ -0,0 +1,35 @@
+package com.example.carrental.controller;
+
+import com.example.carrental.dto.AutocompleteSuggestionDTO;
+import com.example.carrental.services.AutocompleteService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/autocomplete")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+public class AutocompleteController {
+
+    private final AutocompleteService autocompleteService;
+
+    @GetMapping
+    public ResponseEntity<?> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "all") String type,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        if (!type.equals("all") && !type.equals("vehicles") && !type.equals("customers")) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Invalid type",
+                    "message", "type must be one of: all, vehicles, customers"
+            ));
+        }
+        List<AutocompleteSuggestionDTO> suggestions = autocompleteService.suggest(q, type, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+}
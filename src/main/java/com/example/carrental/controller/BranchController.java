@@ -0,0 +1,99 @@
+package com.example.carrental.controller;
+
+import com.example.carrental.dto.BranchDTO;
+import com.example.carrental.dto.FleetDistributionDTO;
+import com.example.carrental.services.BranchService;
+import com.example.carrental.services.FleetDistributionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/branches")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+public class BranchController {
+
+    private final BranchService branchService;
+    private final FleetDistributionService fleetDistributionService;
+
+    @GetMapping
+    public ResponseEntity<List<BranchDTO>> getBranches() {
+        return ResponseEntity.ok(branchService.getBranches());
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> createBranch(@Valid @RequestBody BranchDTO branchDTO) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(branchService.createBranch(branchDTO));
+        } catch (RuntimeException e) {
+            log.error("Error creating branch: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Invalid branch",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> updateBranch(@PathVariable Long id, @Valid @RequestBody BranchDTO branchDTO) {
+        try {
+            return ResponseEntity.ok(branchService.updateBranch(id, branchDTO));
+        } catch (RuntimeException e) {
+            log.error("Error updating branch {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "error", "Branch not found",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Record that a vehicle is now parked at the branch, e.g. once a recommended transfer is done
+     */
+    @PutMapping("/{id}/vehicles/{vehicleId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ResponseEntity<?> assignVehicle(@PathVariable Long id, @PathVariable Long vehicleId) {
+        try {
+            branchService.assignVehicle(id, vehicleId);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            log.error("Error assigning vehicle {} to branch {}: {}", vehicleId, id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "error", "Assignment failed",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Projected vehicles per branch and category over the next days, with recommended transfers.
+     * With a branch code only that branch's rows and transfers are returned, including the daily series.
+     */
+    @GetMapping("/distribution")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getDistribution(
+            @RequestParam(defaultValue = "90") int days,
+            @RequestParam(required = false) String branch) {
+        try {
+            FleetDistributionDTO distribution = fleetDistributionService.getDistribution(days, branch);
+            return ResponseEntity.ok(distribution);
+        } catch (RuntimeException e) {
+            log.error("Error projecting fleet distribution: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Distribution failed",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+}
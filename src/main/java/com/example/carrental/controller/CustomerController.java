@@ -1,21 +1,33 @@
 package com.example.carrental.controller;
 
+import com.example.carrental.config.TenantContext;
 import com.example.carrental.dto.*;
 import com.example.carrental.enums.CustomerSegment;
 import com.example.carrental.enums.CustomerStatus;
+import com.example.carrental.enums.JobType;
+import com.example.carrental.model.Job;
+import com.example.carrental.services.CustomerAnalyticsService;
+import com.example.carrental.services.CustomerEngagementService;
 import com.example.carrental.services.CustomerService;
+import com.example.carrental.services.JobQueueService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/v1/customers")
 @RequiredArgsConstructor
@@ -23,6 +35,9 @@ import java.util.List;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final CustomerAnalyticsService customerAnalyticsService;
+    private final CustomerEngagementService customerEngagementService;
+    private final JobQueueService jobQueueService;
 
     // Basic CRUD Operations
 
@@ -149,21 +164,53 @@ public class CustomerController {
     // Customer Analytics Endpoints
 
     @GetMapping("/analytics/segments")
-    public ResponseEntity<Object> getCustomersBySegmentAnalytics() {
-        // This could be expanded to return detailed analytics
-        return ResponseEntity.ok("Segment analytics endpoint - to be implemented");
+    public ResponseEntity<?> getCustomersBySegmentAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            LocalDate end = to != null ? to : LocalDate.now();
+            return ResponseEntity.ok(customerAnalyticsService.getSegmentAnalytics(defaultFrom(from, end), end));
+        } catch (RuntimeException e) {
+            return analyticsError(e);
+        }
     }
 
     @GetMapping("/analytics/spending")
-    public ResponseEntity<Object> getSpendingAnalytics() {
-        // This could be expanded to return spending analytics
-        return ResponseEntity.ok("Spending analytics endpoint - to be implemented");
+    public ResponseEntity<?> getSpendingAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String category) {
+        try {
+            LocalDate end = to != null ? to : LocalDate.now();
+            return ResponseEntity.ok(customerAnalyticsService.getSpendingAnalytics(defaultFrom(from, end), end, category));
+        } catch (RuntimeException e) {
+            return analyticsError(e);
+        }
     }
 
     @GetMapping("/analytics/activity")
-    public ResponseEntity<Object> getActivityAnalytics() {
-        // This could be expanded to return activity analytics
-        return ResponseEntity.ok("Activity analytics endpoint - to be implemented");
+    public ResponseEntity<?> getActivityAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            LocalDate end = to != null ? to : LocalDate.now();
+            return ResponseEntity.ok(customerAnalyticsService.getActivityAnalytics(defaultFrom(from, end), end));
+        } catch (RuntimeException e) {
+            return analyticsError(e);
+        }
+    }
+
+    // Twelve calendar months up to the end date
+    private static LocalDate defaultFrom(LocalDate from, LocalDate end) {
+        return from != null ? from : end.withDayOfMonth(1).minusMonths(11);
+    }
+
+    private ResponseEntity<?> analyticsError(RuntimeException e) {
+        log.error("Error computing customer analytics: {}", e.getMessage());
+        return ResponseEntity.badRequest().body(Map.of(
+                "error", "Analytics failed",
+                "message", e.getMessage()
+        ));
     }
 
     // Utility Endpoints
@@ -191,9 +238,33 @@ public class CustomerController {
     }
 
     @GetMapping("/{id}/engagement-score")
-    public ResponseEntity<Object> getCustomerEngagementScore(@PathVariable Long id) {
-        // This would calculate and return customer engagement score
-        return ResponseEntity.ok("Engagement score calculation - to be implemented");
+    public ResponseEntity<?> getCustomerEngagementScore(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(customerEngagementService.getScore(id));
+        } catch (RuntimeException e) {
+            log.error("Error reading engagement score of customer {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "error", "Customer not found",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    @GetMapping("/engagement-scores")
+    public ResponseEntity<Page<EngagementScoreDTO>> getEngagementRanking(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(customerEngagementService.getRanking(PageRequest.of(page, size)));
+    }
+
+    /**
+     * Rescore every customer of this organization on the job queue
+     */
+    @PostMapping("/engagement-scores/recompute")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> recomputeEngagementScores() {
+        Job job = jobQueueService.enqueue(JobType.ENGAGEMENT_SCORING, TenantContext.getTenantId(), Map.of());
+        return ResponseEntity.accepted().body(Map.of("jobId", job.getId()));
     }
 
     // Exception handling would be done by global exception handler
@@ -1,11 +1,20 @@
 package com.example.carrental.controller;
 
+import com.example.carrental.config.TenantContext;
 import com.example.carrental.dto.DashboardKPIsDTO;
+import com.example.carrental.enums.JobType;
+import com.example.carrental.model.Job;
 import com.example.carrental.services.DashboardService;
+import com.example.carrental.services.JobQueueService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
+@Slf4j
 @RestController
 @RequestMapping("/api/v1/dashboard")
 @RequiredArgsConstructor
@@ -13,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final JobQueueService jobQueueService;
 
     @GetMapping("/kpis")
     public ResponseEntity<DashboardKPIsDTO> getDashboardKPIs() {
@@ -21,8 +31,19 @@ public class DashboardController {
     }
 
     @GetMapping("/revenue-chart")
-    public ResponseEntity<?> getRevenueChart(@RequestParam(defaultValue = "7") int days) {
-        return ResponseEntity.ok(dashboardService.getRevenueChart(days));
+    public ResponseEntity<?> getRevenueChart(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Long vehicleId) {
+        try {
+            return ResponseEntity.ok(dashboardService.getRevenueChart(days, category, vehicleId));
+        } catch (RuntimeException e) {
+            log.error("Error building revenue chart: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Invalid chart request",
+                    "message", e.getMessage()
+            ));
+        }
     }
 
     @GetMapping("/vehicle-utilization")
@@ -32,6 +53,24 @@ public class DashboardController {
 
     @GetMapping("/reservation-trends")
     public ResponseEntity<?> getReservationTrends(@RequestParam(defaultValue = "30") int days) {
-        return ResponseEntity.ok(dashboardService.getReservationTrends(days));
+        try {
+            return ResponseEntity.ok(dashboardService.getReservationTrends(days));
+        } catch (RuntimeException e) {
+            log.error("Error building reservation trends: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Invalid chart request",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Rebuild this organization's daily rollups from its reservations on the job queue
+     */
+    @PostMapping("/rollups/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> backfillRollups() {
+        Job job = jobQueueService.enqueue(JobType.DAILY_ROLLUP_BACKFILL, TenantContext.getTenantId(), Map.of());
+        return ResponseEntity.accepted().body(Map.of("jobId", job.getId()));
     }
 }
\ No newline at end of file
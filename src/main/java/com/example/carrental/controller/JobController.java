@@ -0,0 +1,46 @@
+package com.example.carrental.controller;
+
+import com.example.carrental.enums.JobType;
+import com.example.carrental.services.JobQueueService;
+import com.example.carrental.services.JobWorker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin/jobs")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class JobController {
+
+    private final JobQueueService jobQueueService;
+    private final JobWorker jobWorker;
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats() {
+        return ResponseEntity.ok(jobQueueService.getStats(jobWorker.getConcurrency()));
+    }
+
+    @GetMapping("/dead")
+    public ResponseEntity<?> getDeadJobs(@RequestParam(required = false) JobType type) {
+        return ResponseEntity.ok(jobQueueService.getDeadJobs(type));
+    }
+
+    @PostMapping("/{id}/retry")
+    public ResponseEntity<?> retryJob(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(jobQueueService.retry(id));
+        } catch (Exception e) {
+            log.error("Error retrying job {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Job not retried",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+}
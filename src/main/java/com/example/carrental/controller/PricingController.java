@@ -0,0 +1,151 @@
+package com.example.carrental.controller;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.dto.BatchQuoteRequestDTO;
+import com.example.carrental.dto.PriceQuoteDTO;
+import com.example.carrental.dto.PricingRuleDTO;
+import com.example.carrental.services.FleetQuoteService;
+import com.example.carrental.services.PricingService;
+import com.example.carrental.services.QuoteSnapshot;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/pricing")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+public class PricingController {
+
+    private final PricingService pricingService;
+    private final FleetQuoteService fleetQuoteService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/quote")
+    public ResponseEntity<?> getQuote(
+            @RequestParam Long vehicleId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            PriceQuoteDTO quote = pricingService.quote(vehicleId, startDate, endDate);
+            return ResponseEntity.ok(quote);
+        } catch (RuntimeException e) {
+            log.error("Error quoting vehicle {}: {}", vehicleId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Quote failed",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Prices of every available vehicle for each date range, streamed as
+     * {"ranges":[{"startDate","endDate","totalDays","quotes":[{"vehicleId","totalCents"}]}]}.
+     * Vehicles booked or out of service in a range are left out of it.
+     */
+    @PostMapping("/quotes/batch")
+    public void getBatchQuotes(@Valid @RequestBody BatchQuoteRequestDTO request, HttpServletResponse response) throws IOException {
+        QuoteSnapshot snapshot = fleetQuoteService.snapshot(TenantContext.getTenantId());
+
+        for (BatchQuoteRequestDTO.DateRange range : request.getRanges()) {
+            if (!snapshot.covers((int) range.getStartDate().toEpochDay(), (int) range.getEndDate().toEpochDay())) {
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writeValue(response.getOutputStream(), Map.of(
+                        "error", "Invalid date range",
+                        "message", "Ranges must start today or later, end on or after their start and lie within the pricing horizon: "
+                                + range.getStartDate() + " - " + range.getEndDate()
+                ));
+                return;
+            }
+        }
+
+        int[] indexes;
+        if (request.getVehicleIds() == null || request.getVehicleIds().isEmpty()) {
+            indexes = new int[snapshot.vehicleCount()];
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = i;
+            }
+        } else {
+            indexes = request.getVehicleIds().stream()
+                    .mapToInt(snapshot::indexOf)
+                    .filter(index -> index >= 0)
+                    .toArray();
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("ranges");
+            for (BatchQuoteRequestDTO.DateRange range : request.getRanges()) {
+                int startDay = (int) range.getStartDate().toEpochDay();
+                int endDay = (int) range.getEndDate().toEpochDay();
+                json.writeStartObject();
+                json.writeStringField("startDate", range.getStartDate().toString());
+                json.writeStringField("endDate", range.getEndDate().toString());
+                json.writeNumberField("totalDays", endDay - startDay + 1);
+                json.writeArrayFieldStart("quotes");
+                fleetQuoteService.quoteRange(snapshot, indexes, startDay, endDay, (vehicleId, totalCents) -> {
+                    json.writeStartObject();
+                    json.writeNumberField("vehicleId", vehicleId);
+                    json.writeNumberField("totalCents", totalCents);
+                    json.writeEndObject();
+                });
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    @GetMapping("/rules")
+    public ResponseEntity<List<PricingRuleDTO>> getRules() {
+        return ResponseEntity.ok(pricingService.getRules());
+    }
+
+    @PostMapping("/rules")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> createRule(@Valid @RequestBody PricingRuleDTO ruleDTO) {
+        try {
+            PricingRuleDTO rule = pricingService.createRule(ruleDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).body(rule);
+        } catch (RuntimeException e) {
+            log.error("Error creating pricing rule: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Invalid pricing rule",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    @DeleteMapping("/rules/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> deleteRule(@PathVariable Long id) {
+        try {
+            pricingService.deleteRule(id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            log.error("Error deleting pricing rule {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "error", "Pricing rule not found",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+}
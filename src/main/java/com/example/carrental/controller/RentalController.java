@@ -0,0 +1,102 @@
+package com.example.carrental.controller;
+
+import com.example.carrental.dto.CheckInRequestDTO;
+import com.example.carrental.dto.CheckOutRequestDTO;
+import com.example.carrental.services.RentalService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/rentals")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+public class RentalController {
+
+    private final RentalService rentalService;
+
+    @PostMapping("/checkout")
+    public ResponseEntity<?> checkOut(@Valid @RequestBody CheckOutRequestDTO request, Authentication authentication) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(rentalService.checkOut(request, authentication.getName()));
+        } catch (Exception e) {
+            log.error("Error checking out reservation {}: {}", request.getReservationCode(), e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Check-out failed",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    @PostMapping("/checkin")
+    public ResponseEntity<?> checkIn(@Valid @RequestBody CheckInRequestDTO request, Authentication authentication) {
+        try {
+            return ResponseEntity.ok(rentalService.checkIn(request, authentication.getName()));
+        } catch (Exception e) {
+            log.error("Error checking in rental {}: {}", request.getCode(), e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Check-in failed",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    @PostMapping("/checkout/batch")
+    public ResponseEntity<?> checkOutBatch(@Valid @RequestBody List<@Valid CheckOutRequestDTO> requests,
+                                           Authentication authentication) {
+        try {
+            return ResponseEntity.ok(rentalService.checkOutBatch(requests, authentication.getName()));
+        } catch (Exception e) {
+            log.error("Error in batch check-out: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Batch check-out failed",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    @PostMapping("/checkin/batch")
+    public ResponseEntity<?> checkInBatch(@Valid @RequestBody List<@Valid CheckInRequestDTO> requests,
+                                          Authentication authentication) {
+        try {
+            return ResponseEntity.ok(rentalService.checkInBatch(requests, authentication.getName()));
+        } catch (Exception e) {
+            log.error("Error in batch check-in: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Batch check-in failed",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    @GetMapping("/active")
+    public ResponseEntity<?> getActiveRentals() {
+        return ResponseEntity.ok(rentalService.getActiveRentals());
+    }
+
+    @GetMapping("/overdue")
+    public ResponseEntity<?> getOverdueRentals() {
+        return ResponseEntity.ok(rentalService.getOverdueRentals());
+    }
+
+    @GetMapping("/{code}")
+    public ResponseEntity<?> getRental(@PathVariable String code) {
+        try {
+            return ResponseEntity.ok(rentalService.getRental(code));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "error", "Rental not found",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+}
@@ -3,11 +3,13 @@ package com.example.carrental.controller;
 import com.example.carrental.dto.CreateReservationRequestDTO;
 import com.example.carrental.dto.ReservationResponseDTO;
 import com.example.carrental.enums.ReservationStatus;
+import com.example.carrental.services.DailyManifestService;
 import com.example.carrental.services.ReservationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -25,6 +27,7 @@ import java.util.Map;
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final DailyManifestService dailyManifestService;
 
     @PostMapping
     public ResponseEntity<?> createReservation(
@@ -134,10 +137,10 @@ public class ReservationController {
 
     @GetMapping("/admin/pickups/{date}")
     public ResponseEntity<?> getPickupsForDate(
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String location) {
         try {
-            List<ReservationResponseDTO> pickups = reservationService.getPickupsForDate(date);
-            return ResponseEntity.ok(pickups);
+            return manifestResponse(dailyManifestService.getManifest(DailyManifestService.Kind.PICKUPS, date, location));
         } catch (Exception e) {
             log.error("Error fetching pickups for date: {}", date, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -147,10 +150,10 @@ public class ReservationController {
 
     @GetMapping("/admin/returns/{date}")
     public ResponseEntity<?> getReturnsForDate(
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String location) {
         try {
-            List<ReservationResponseDTO> returns = reservationService.getReturnsForDate(date);
-            return ResponseEntity.ok(returns);
+            return manifestResponse(dailyManifestService.getManifest(DailyManifestService.Kind.RETURNS, date, location));
         } catch (Exception e) {
             log.error("Error fetching returns for date: {}", date, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -238,4 +241,17 @@ public class ReservationController {
                     .body(Map.of("error", "Failed to update vehicle statuses", "message", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Spring answers 304 itself when If-None-Match matches the ETag; no-cache makes clients revalidate every refresh
+     */
+    private ResponseEntity<?> manifestResponse(DailyManifestService.ManifestView view) {
+        if (view.getEtag() == null) {
+            return ResponseEntity.ok(view.getReservations());
+        }
+        return ResponseEntity.ok()
+                .eTag(view.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(view.getReservations());
+    }
+}
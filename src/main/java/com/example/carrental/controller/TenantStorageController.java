@@ -0,0 +1,66 @@
+package com.example.carrental.controller;
+
+import com.example.carrental.dto.TenantMigrationStatusDTO;
+import com.example.carrental.model.Organization.StorageMode;
+import com.example.carrental.services.TenantStorageMigrationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin/tenants")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@ConditionalOnProperty(prefix = "app.tenancy", name = "isolation-enabled", havingValue = "true")
+public class TenantStorageController {
+
+    private final TenantStorageMigrationService migrationService;
+
+    @PostMapping("/{organizationId}/storage/migrate")
+    public ResponseEntity<?> startMigration(@PathVariable Long organizationId,
+                                            @RequestParam StorageMode mode,
+                                            @RequestParam String storageKey) {
+        try {
+            TenantMigrationStatusDTO status = migrationService.startMigration(organizationId, mode, storageKey);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        } catch (Exception e) {
+            log.error("Error starting storage migration for organization {}: {}", organizationId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Migration not started",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    @GetMapping("/{organizationId}/storage/migration")
+    public ResponseEntity<?> getMigrationStatus(@PathVariable Long organizationId) {
+        try {
+            return ResponseEntity.ok(migrationService.getStatus(organizationId));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "error", "Migration not found",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    @PostMapping("/{organizationId}/storage/purge-shared")
+    public ResponseEntity<?> purgeSharedCopy(@PathVariable Long organizationId) {
+        try {
+            return ResponseEntity.ok(migrationService.purgeSharedCopy(organizationId));
+        } catch (Exception e) {
+            log.error("Error purging shared copy for organization {}: {}", organizationId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Purge failed",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+}
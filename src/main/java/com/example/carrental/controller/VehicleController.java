@@ -1,20 +1,27 @@
 package com.example.carrental.controller;
 
+import com.example.carrental.dto.VehicleCatalogResultDTO;
 import com.example.carrental.dto.VehicleRequestDTO;
 import com.example.carrental.dto.VehicleResponseDTO;
 import com.example.carrental.enums.VehicleStatus;
+import com.example.carrental.services.VehicleFacetIndex;
 import com.example.carrental.services.VehicleService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @RestController
@@ -115,6 +122,37 @@ public class VehicleController {
         return ResponseEntity.ok(vehicles);
     }
 
+    @GetMapping("/catalog")
+    public ResponseEntity<?> searchCatalog(
+            @RequestParam(required = false) Set<String> category,
+            @RequestParam(required = false) Set<String> transmission,
+            @RequestParam(required = false) Set<String> fuelType,
+            @RequestParam(required = false) Set<String> seats,
+            @RequestParam(required = false) Set<String> priceBucket,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        if ((startDate == null) != (endDate == null) || (startDate != null && endDate.isBefore(startDate))) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Invalid date range",
+                    "message", "startDate and endDate must be given together and startDate must not be after endDate"
+            ));
+        }
+
+        Map<String, Set<String>> filters = new HashMap<>();
+        filters.put(VehicleFacetIndex.CATEGORY, category);
+        filters.put(VehicleFacetIndex.TRANSMISSION, transmission);
+        filters.put(VehicleFacetIndex.FUEL_TYPE, fuelType);
+        filters.put(VehicleFacetIndex.SEATS, seats);
+        filters.put(VehicleFacetIndex.PRICE_BUCKET, priceBucket);
+
+        VehicleCatalogResultDTO result = vehicleService.searchCatalog(filters, startDate, endDate,
+                Math.max(page, 0), Math.min(Math.max(size, 1), 100));
+        return ResponseEntity.ok(result);
+    }
+
     // Statistics endpoints
     @GetMapping("/stats/count-by-status")
     public ResponseEntity<Long> countVehiclesByStatus(@RequestParam VehicleStatus status) {
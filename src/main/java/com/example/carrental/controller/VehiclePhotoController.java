@@ -2,9 +2,13 @@ package com.example.carrental.controller;
 
 import com.example.carrental.model.VehiclePhoto;
 import com.example.carrental.model.User;
+import com.example.carrental.services.MultipartStreamReader;
 import com.example.carrental.services.VehiclePhotoService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -12,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @RestController
@@ -21,6 +26,8 @@ public class VehiclePhotoController {
 
     private final VehiclePhotoService vehiclePhotoService;
 
+    private static final long MAX_STREAM_UPLOAD_SIZE = 10 * 1024 * 1024; // 10MB
+
     @PostMapping("/upload")
     @PreAuthorize("hasPermission('VEHICLE_PHOTO_UPLOAD', 'CREATE')")
     public ResponseEntity<VehiclePhoto> uploadPhoto(
@@ -42,6 +49,77 @@ public class VehiclePhotoController {
         }
     }
 
+    /**
+     * Streaming upload: the request body is the raw image (Content-Type image/jpeg, image/png or image/webp)
+     */
+    @PostMapping(value = "/upload/stream", consumes = {"image/jpeg", "image/png", "image/webp"})
+    @PreAuthorize("hasPermission('VEHICLE_PHOTO_UPLOAD', 'CREATE')")
+    public ResponseEntity<?> uploadPhotoStream(
+            @RequestParam("vehicleId") Long vehicleId,
+            @RequestParam("photoType") String photoType,
+            @RequestParam(value = "description", required = false) String description,
+            @RequestParam(value = "inspectionType", required = false) String inspectionType,
+            @AuthenticationPrincipal User currentUser,
+            HttpServletRequest request) {
+
+        if (request.getContentLengthLong() > MAX_STREAM_UPLOAD_SIZE) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of(
+                    "error", "Upload failed",
+                    "message", "File size exceeds maximum allowed size (10MB)"
+            ));
+        }
+
+        try {
+            VehiclePhoto photo = vehiclePhotoService.uploadPhotoStream(
+                vehicleId, request.getInputStream(), photoType, description, inspectionType, currentUser.getId()
+            );
+            return ResponseEntity.ok(photo);
+        } catch (Exception e) {
+            log.error("Error streaming photo upload for vehicle {}: {}", vehicleId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Upload failed",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Bulk inspection upload for a rental in one multipart/form-data request; each file part's
+     * field name is its photo type. The body is read as a stream (MultipartConfig leaves this path
+     * unparsed), so only path variables are used here: reading request parameters would make the
+     * container parse (and spool) the parts. All photos are stored or none.
+     */
+    @PostMapping(value = "/rentals/{rentalId}/inspection/{inspectionType}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasPermission('VEHICLE_PHOTO_UPLOAD', 'CREATE')")
+    public ResponseEntity<?> uploadInspectionPhotos(
+            @PathVariable Long rentalId,
+            @PathVariable String inspectionType,
+            @AuthenticationPrincipal User currentUser,
+            HttpServletRequest request) {
+
+        String boundary = MultipartStreamReader.boundaryOf(request.getContentType());
+        if (boundary == null) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Upload failed",
+                    "message", "Missing multipart boundary"
+            ));
+        }
+
+        try {
+            MultipartStreamReader multipart = new MultipartStreamReader(request.getInputStream(), boundary);
+            List<VehiclePhoto> photos = vehiclePhotoService.uploadInspectionPhotos(
+                rentalId, inspectionType.toUpperCase(), multipart, currentUser.getId()
+            );
+            return ResponseEntity.ok(photos);
+        } catch (Exception e) {
+            log.error("Error uploading inspection photos for rental {}: {}", rentalId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Upload failed",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
     @GetMapping("/vehicle/{vehicleId}")
     public ResponseEntity<List<VehiclePhoto>> getVehiclePhotos(@PathVariable Long vehicleId) {
         try {
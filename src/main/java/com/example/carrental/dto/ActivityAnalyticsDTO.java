@@ -0,0 +1,33 @@
+package com.example.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityAnalyticsDTO {
+
+    private LocalDate from;
+    private LocalDate to;
+    private LocalDateTime snapshotTakenAt;
+
+    // Reservations started in the range
+    private Long reservations;
+    private Double cancellationRate;
+    private Double averageLeadDays; // booking to pickup
+    private List<AnalyticsBucketDTO> reservationsByStatus;
+    private List<AnalyticsBucketDTO> reservationsByWeekday; // day the booking was made
+
+    // Customers
+    private Long newCustomers; // signed up in the range
+    private List<AnalyticsBucketDTO> newCustomersByMonth;
+    private List<AnalyticsBucketDTO> customersByRecency; // days since the last rental started
+}
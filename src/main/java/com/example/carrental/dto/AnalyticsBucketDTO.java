@@ -0,0 +1,19 @@
+package com.example.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsBucketDTO {
+
+    private String label;
+    private Long count;
+    private BigDecimal amount; // revenue or lifetime spend, depending on the report
+}
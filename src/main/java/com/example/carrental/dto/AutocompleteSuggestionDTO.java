@@ -0,0 +1,19 @@
+package com.example.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutocompleteSuggestionDTO {
+
+    private String type;  // VEHICLE, CUSTOMER
+    private Long id;
+    private String field; // LICENSE_PLATE, CUSTOMER_CODE, EMAIL, LAST_NAME
+    private String value; // the matched key
+    private String label; // display text, e.g. "ABC-123 · Toyota Corolla"
+}
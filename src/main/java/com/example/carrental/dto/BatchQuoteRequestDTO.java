@@ -0,0 +1,38 @@
+package com.example.carrental.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchQuoteRequestDTO {
+
+    // Empty or missing = every vehicle of the organization
+    @Size(max = 10000)
+    private List<Long> vehicleIds;
+
+    @NotEmpty(message = "At least one date range is required")
+    @Size(max = 100)
+    @Valid
+    private List<DateRange> ranges;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DateRange {
+        @NotNull
+        private LocalDate startDate;
+
+        @NotNull
+        private LocalDate endDate;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.carrental.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BranchDTO {
+
+    private Long id;
+
+    @NotBlank(message = "El código es obligatorio")
+    @Size(max = 20)
+    private String code;
+
+    @NotBlank(message = "El nombre es obligatorio")
+    @Size(max = 200)
+    private String name;
+
+    @Size(max = 300)
+    private String address;
+
+    @Size(max = 100)
+    private String city;
+
+    private Boolean active;
+
+    private Long vehicleCount;
+}
@@ -0,0 +1,30 @@
+package com.example.carrental.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckOutRequestDTO {
+
+    @NotBlank(message = "Reservation code is required")
+    private String reservationCode;
+
+    @NotNull(message = "Pickup mileage is required")
+    @Min(value = 0, message = "Mileage cannot be negative")
+    private Integer mileage;
+
+    @NotBlank(message = "Fuel level is required")
+    @Pattern(regexp = "(?i)full|3/4|1/2|1/4|empty", message = "Fuel level must be Full, 3/4, 1/2, 1/4 or Empty")
+    private String fuelLevel;
+
+    @Size(max = 1000, message = "Notes must not exceed 1000 characters")
+    private String notes;
+}
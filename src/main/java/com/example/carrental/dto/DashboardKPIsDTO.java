@@ -35,6 +35,10 @@ public class DashboardKPIsDTO {
     private Long cancelledReservations;
     private Double cancellationRate; // percentage
 
+    // Rental KPIs
+    private Long overdueRentals;
+    private BigDecimal accruedLateFees;
+
     // Customer KPIs
     private Long totalCustomers;
     private Long newCustomersThisMonth;
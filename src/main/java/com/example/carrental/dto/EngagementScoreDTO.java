@@ -0,0 +1,30 @@
+package com.example.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EngagementScoreDTO {
+
+    private Long customerId;
+    private String customerCode; // ranking only
+    private String customerName; // ranking only
+    private Long rank; // ranking only
+    private Integer score; // 0-100
+    private String rfm; // e.g. 543: recency 5, frequency 4, monetary 3
+    private Integer recencyScore;
+    private Integer frequencyScore;
+    private Integer monetaryScore;
+    private Integer recencyDays; // since the last reservation started; null if never
+    private Integer frequency; // reservations started in the last year
+    private BigDecimal monetary; // completed spend in the last year
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,54 @@
+package com.example.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FleetDistributionDTO {
+
+    private LocalDate startDate;
+    private Integer days;
+    private Integer safetyStock;
+
+    private List<BranchProjection> projections;
+    private List<TransferRecommendation> transfers;
+
+    private Integer unassignedVehicles; // no current branch, left out of the projection
+    private Integer unresolvedLocations; // pickups/returns whose location matches no branch
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BranchProjection {
+        private String branchCode;
+        private String category;
+        private Integer onHand;
+        private Integer minimum;
+        private LocalDate minimumDate;
+        private LocalDate firstShortageDate;
+        private Integer shortfall; // vehicles needed to stay at the safety stock
+        private Integer uncovered; // part of the shortfall no transfer covers
+        private int[] daily; // only when a single branch is requested
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TransferRecommendation {
+        private String category;
+        private String fromBranch;
+        private String toBranch;
+        private Integer vehicles;
+        private LocalDate neededBy;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.carrental.dto;
+
+import com.example.carrental.enums.JobType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobDTO {
+
+    private Long id;
+    private Long organizationId;
+    private JobType type;
+    private String status;
+    private Integer attempts;
+    private Integer maxAttempts;
+    private LocalDateTime runAt;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,21 @@
+package com.example.carrental.dto;
+
+import com.example.carrental.enums.JobType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobQueueStatsDTO {
+
+    private JobType type;
+    private int concurrency;
+    private long queued;
+    private long running;
+    private long dead;
+    private long oldestQueuedSeconds; // how long the oldest runnable job has been waiting
+}
@@ -0,0 +1,30 @@
+package com.example.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuoteDTO {
+
+    private Long vehicleId;
+    private String category;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Integer totalDays;
+
+    private BigDecimal baseDailyRate;
+    private BigDecimal baseAmount;        // baseDailyRate x totalDays
+    private BigDecimal seasonalAmount;    // after season and weekend rules
+    private BigDecimal longStayMultiplier;
+    private BigDecimal surgeMultiplier;
+    private BigDecimal totalAmount;
+    private BigDecimal averageDailyRate;
+}
@@ -0,0 +1,47 @@
+package com.example.carrental.dto;
+
+import com.example.carrental.enums.PricingRuleType;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PricingRuleDTO {
+
+    private Long id;
+
+    @NotBlank(message = "El nombre es obligatorio")
+    @Size(max = 100)
+    private String name;
+
+    @NotNull(message = "El tipo de regla es obligatorio")
+    private PricingRuleType ruleType;
+
+    @Size(max = 50)
+    private String category; // null = all categories
+
+    @NotNull(message = "El multiplicador es obligatorio")
+    @DecimalMin(value = "0.01", message = "El multiplicador debe ser mayor a 0")
+    @DecimalMax(value = "10.00", message = "El multiplicador no puede superar 10")
+    private BigDecimal multiplier;
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Min(value = 1)
+    private Integer minDays;
+
+    @DecimalMin(value = "0.00")
+    @DecimalMax(value = "1.00")
+    private BigDecimal utilizationThreshold;
+
+    private Boolean active;
+}
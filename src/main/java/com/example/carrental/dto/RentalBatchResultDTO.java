@@ -0,0 +1,21 @@
+package com.example.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a batch check-out/check-in; items succeed or fail independently
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RentalBatchResultDTO {
+
+    private String code;
+    private boolean success;
+    private RentalResponseDTO rental;
+    private String error;
+}
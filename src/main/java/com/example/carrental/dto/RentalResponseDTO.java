@@ -0,0 +1,42 @@
+package com.example.carrental.dto;
+
+import com.example.carrental.enums.RentalStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RentalResponseDTO {
+
+    private Long id;
+    private String rentalCode;
+    private RentalStatus status;
+    private String reservationCode;
+
+    private Long vehicleId;
+    private String vehicleLicensePlate;
+    private Long customerId;
+    private String customerFullName;
+
+    private LocalDateTime pickupDateTime;
+    private LocalDateTime expectedReturnDateTime;
+    private LocalDateTime actualReturnDateTime;
+    private Integer pickupMileage;
+    private Integer returnMileage;
+    private Integer distanceDriven;
+    private String fuelLevelPickup;
+    private String fuelLevelReturn;
+
+    private BigDecimal rentalAmount;
+    private BigDecimal lateReturnFee;
+    private BigDecimal fuelFee;
+    private BigDecimal damageFee;
+    private BigDecimal totalFee;
+}
@@ -0,0 +1,40 @@
+package com.example.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SegmentAnalyticsDTO {
+
+    private LocalDate from;
+    private LocalDate to;
+    private LocalDateTime snapshotTakenAt;
+
+    private List<Segment> segments;
+    private List<AnalyticsBucketDTO> preferredCategories; // customers by preferred vehicle category
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Segment {
+        private String segment; // "UNASSIGNED" for customers and walk-in reservations without one
+        private Long customers;
+        private BigDecimal lifetimeSpent;
+        private BigDecimal averageLifetimeSpent;
+        private Long reservations; // started in the range, cancellations excluded
+        private Long completedReservations;
+        private BigDecimal revenue; // completed reservations started in the range
+        private Double averageRentalDays;
+    }
+}
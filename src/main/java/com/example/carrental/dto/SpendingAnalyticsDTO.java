@@ -0,0 +1,34 @@
+package com.example.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendingAnalyticsDTO {
+
+    private LocalDate from;
+    private LocalDate to;
+    private String category;
+    private LocalDateTime snapshotTakenAt;
+
+    // Completed reservations started in the range
+    private BigDecimal totalRevenue;
+    private Long completedReservations;
+    private BigDecimal averageTicket;
+    private BigDecimal averageDailyRevenue; // per rented day
+
+    private List<AnalyticsBucketDTO> revenueByCategory;
+    private List<AnalyticsBucketDTO> revenueByMonth;
+    private List<AnalyticsBucketDTO> revenueBySegment;
+    private List<AnalyticsBucketDTO> customersBySpend; // lifetime completed spend, whatever the range
+}
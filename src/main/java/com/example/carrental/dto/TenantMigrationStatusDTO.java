@@ -0,0 +1,28 @@
+package com.example.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantMigrationStatusDTO {
+
+    private Long organizationId;
+    private String targetMode;
+    private String storageKey;
+
+    // PROVISIONING, COPYING, CATCHING_UP, CUTOVER, COMPLETED, FAILED
+    private String phase;
+    private Map<String, Long> rowsCopied;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private String error;
+}
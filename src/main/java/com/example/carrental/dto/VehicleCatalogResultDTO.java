@@ -0,0 +1,24 @@
+package com.example.carrental.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleCatalogResultDTO {
+
+    private List<VehicleResponseDTO> vehicles;
+    private long totalElements;
+    private int page;
+    private int size;
+
+    // facet -> value -> number of matching vehicles (ignoring that facet's own filter)
+    private Map<String, Map<String, Integer>> facets;
+}
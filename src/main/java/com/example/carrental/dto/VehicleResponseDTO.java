@@ -29,4 +29,6 @@ public class VehicleResponseDTO {
     private LocalDateTime nextMaintenanceDate;
     private boolean needsMaintenance;
     private boolean availableForRental;
+    private String primaryPhotoUrl;
+    private String primaryPhotoThumbnailUrl;
 }
\ No newline at end of file
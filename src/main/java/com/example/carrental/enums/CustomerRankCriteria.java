@@ -0,0 +1,26 @@
+package com.example.carrental.enums;
+
+public enum CustomerRankCriteria {
+    SPENDING("Total spent", "totalSpent"),
+    RESERVATIONS("Total reservations", "totalReservations"),
+    LIFETIME_VALUE("Customer lifetime value", "customerLifetimeValue");
+
+    private final String description;
+    private final String customerField;
+
+    CustomerRankCriteria(String description, String customerField) {
+        this.description = description;
+        this.customerField = customerField;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Customer attribute the ranking orders by
+     */
+    public String getCustomerField() {
+        return customerField;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.carrental.enums;
+
+public enum CustomerSummaryDimension {
+    SEGMENT("Customer segment"),
+    SPEND_BAND("Lifetime spend band"),
+    PREFERRED_CATEGORY("Preferred vehicle category");
+
+    private final String description;
+
+    CustomerSummaryDimension(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
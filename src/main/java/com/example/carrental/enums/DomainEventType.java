@@ -0,0 +1,20 @@
+package com.example.carrental.enums;
+
+public enum DomainEventType {
+    RESERVATION_CREATED("Reservation created"),
+    RESERVATION_CONFIRMED("Reservation confirmed"),
+    RESERVATION_CANCELLED("Reservation cancelled"),
+    RESERVATION_COMPLETED("Reservation completed"),
+    VEHICLE_STATUS_CHANGED("Vehicle status changed"),
+    MAINTENANCE_RECORDED("Maintenance recorded");
+
+    private final String description;
+
+    DomainEventType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
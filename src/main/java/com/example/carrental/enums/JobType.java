@@ -0,0 +1,39 @@
+package com.example.carrental.enums;
+
+public enum JobType {
+    MAINTENANCE_ALERT("Maintenance alert fan-out", 2, 5),
+    PHOTO_VARIANTS("Vehicle photo variant generation", 2, 3),
+    CUSTOMER_STATS_RECONCILE("Customer statistics reconciliation", 1, 3),
+    OVERDUE_RENTAL_ALERT("Overdue rental alert fan-out", 1, 5),
+    DAILY_ROLLUP_BACKFILL("Daily rollup rebuild", 1, 3),
+    ENGAGEMENT_SCORING("Customer engagement scoring", 1, 3);
+
+    private final String description;
+    private final int defaultConcurrency;
+    private final int defaultMaxAttempts;
+
+    JobType(String description, int defaultConcurrency, int defaultMaxAttempts) {
+        this.description = description;
+        this.defaultConcurrency = defaultConcurrency;
+        this.defaultMaxAttempts = defaultMaxAttempts;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public int getDefaultConcurrency() {
+        return defaultConcurrency;
+    }
+
+    public int getDefaultMaxAttempts() {
+        return defaultMaxAttempts;
+    }
+
+    /**
+     * Property key suffix, e.g. photo-variants
+     */
+    public String getPropertyKey() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.carrental.enums;
+
+public enum PricingRuleType {
+    SEASON("Seasonal multiplier for a date range"),
+    WEEKEND("Multiplier applied on Saturdays and Sundays"),
+    LONG_STAY("Multiplier on the whole rental from a minimum number of days"),
+    SURGE("Multiplier on the whole rental from a category utilization threshold");
+
+    private final String description;
+
+    PricingRuleType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.carrental.enums;
+
+public enum RollupScope {
+    ORGANIZATION("Whole organization"),
+    CATEGORY("Vehicle category"),
+    VEHICLE("Single vehicle");
+
+    private final String description;
+
+    RollupScope(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.carrental.events;
+
+import com.example.carrental.enums.DomainEventType;
+import com.example.carrental.repository.CustomerRepository;
+import com.example.carrental.services.CustomerEngagementService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rescores a customer against the last batch bounds when one of their reservations is created
+ * or changes status. Recomputed from the reservations, so redelivery is harmless.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerEngagementEventHandler implements DomainEventHandler {
+
+    private final CustomerRepository customerRepository;
+    private final CustomerEngagementService customerEngagementService;
+
+    @Override
+    public boolean supports(DomainEventType type) {
+        return type == DomainEventType.RESERVATION_CREATED
+                || type == DomainEventType.RESERVATION_CONFIRMED
+                || type == DomainEventType.RESERVATION_CANCELLED
+                || type == DomainEventType.RESERVATION_COMPLETED;
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        Long customerId = event.getLong("customerId");
+        if (customerId == null || !customerRepository.existsById(customerId)) {
+            return;
+        }
+        customerEngagementService.rescore(event.getOrganizationId(), customerId);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.carrental.events;
+
+import com.example.carrental.enums.CustomerSegment;
+import com.example.carrental.enums.DomainEventType;
+import com.example.carrental.enums.ReservationStatus;
+import com.example.carrental.model.Customer;
+import com.example.carrental.model.Reservation;
+import com.example.carrental.repository.CustomerRepository;
+import com.example.carrental.repository.ReservationRepository;
+import com.example.carrental.services.CustomerSummaryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Recomputes a customer's reservation statistics and segment when one of their reservations
+ * is created or changes status, and moves the customer in the materialized summaries.
+ * Recomputed from scratch, so redelivery is harmless.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CustomerStatsEventHandler implements DomainEventHandler {
+
+    private final CustomerRepository customerRepository;
+    private final ReservationRepository reservationRepository;
+    private final CustomerSummaryService customerSummaryService;
+
+    @Override
+    public boolean supports(DomainEventType type) {
+        return type == DomainEventType.RESERVATION_CREATED
+                || type == DomainEventType.RESERVATION_CONFIRMED
+                || type == DomainEventType.RESERVATION_CANCELLED
+                || type == DomainEventType.RESERVATION_COMPLETED;
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        Long customerId = event.getLong("customerId");
+        if (customerId == null) {
+            return;
+        }
+        customerRepository.findById(customerId).ifPresent(customer -> recalculate(customer, true));
+    }
+
+    /**
+     * Also used by the nightly reconciliation job, which rebuilds the summaries once at the end
+     *
+     * @param updateSummaries apply the change to the materialized customer summaries
+     */
+    public void recalculate(Customer customer, boolean updateSummaries) {
+        log.debug("Updating reservation statistics for customer: {}", customer.getCustomerCode());
+        CustomerSummaryService.Entry before = CustomerSummaryService.Entry.of(customer);
+
+        // Get all reservations for this customer
+        List<Reservation> customerReservations = reservationRepository.findByCustomerOrderByCreatedAtDesc(customer);
+
+        // Calculate statistics
+        int totalReservations = customerReservations.size();
+        BigDecimal totalSpent = customerReservations.stream()
+                .filter(res -> res.getStatus() == ReservationStatus.COMPLETED)
+                .map(Reservation::getTotalAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        // Calculate average rental days
+        double averageRentalDays = customerReservations.stream()
+                .filter(res -> res.getStatus() == ReservationStatus.COMPLETED)
+                .mapToInt(Reservation::getTotalDays)
+                .average()
+                .orElse(0.0);
+
+        // Find last rental date
+        LocalDateTime lastRentalDate = customerReservations.stream()
+                .filter(res -> res.getStatus() == ReservationStatus.COMPLETED)
+                .map(Reservation::getCreatedAt)
+                .max(LocalDateTime::compareTo)
+                .orElse(null);
+
+        // Update customer statistics (lifetime value: total spent)
+        customer.setTotalReservations(totalReservations);
+        customer.setTotalSpent(totalSpent);
+        customer.setAverageRentalDays(BigDecimal.valueOf(averageRentalDays));
+        customer.setLastRentalDate(lastRentalDate);
+        customer.setCustomerLifetimeValue(totalSpent);
+
+        // Update customer segment based on reservations
+        if (totalReservations == 0) {
+            customer.setSegment(CustomerSegment.NEW);
+        } else if (totalReservations <= 3) {
+            customer.setSegment(CustomerSegment.REGULAR);
+        } else if (totalReservations <= 10) {
+            customer.setSegment(CustomerSegment.PREMIUM);
+        } else {
+            customer.setSegment(CustomerSegment.VIP);
+        }
+
+        customerRepository.save(customer);
+        if (updateSummaries) {
+            customerSummaryService.customerChanged(before, customer);
+        }
+
+        log.debug("Customer {} statistics updated: {} reservations, {} total spent",
+                customer.getCustomerCode(), totalReservations, totalSpent);
+    }
+}
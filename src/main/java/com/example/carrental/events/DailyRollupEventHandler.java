@@ -0,0 +1,87 @@
+package com.example.carrental.events;
+
+import com.example.carrental.enums.DomainEventType;
+import com.example.carrental.enums.ReservationStatus;
+import com.example.carrental.model.ProcessedEvent;
+import com.example.carrental.model.Reservation;
+import com.example.carrental.repository.OutboxEventRepository;
+import com.example.carrental.repository.ProcessedEventRepository;
+import com.example.carrental.repository.ReservationRepository;
+import com.example.carrental.services.DailyRollupService;
+import com.example.carrental.services.RollupAccumulator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Adds each reservation event to the daily rollups: a creation or cancellation on its day, a
+ * completion over the rented days. Increments are not idempotent on their own; the processed-event
+ * marker committed with them keeps redelivery from counting twice. The backfill job marks the
+ * events whose changes it already counted, see {@link #skipUnhandled}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DailyRollupEventHandler implements DomainEventHandler {
+
+    private static final Set<DomainEventType> EVENT_TYPES = EnumSet.of(DomainEventType.RESERVATION_CREATED,
+            DomainEventType.RESERVATION_CANCELLED, DomainEventType.RESERVATION_COMPLETED);
+
+    private final ReservationRepository reservationRepository;
+    private final DailyRollupService dailyRollupService;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ProcessedEventRepository processedEventRepository;
+
+    @Override
+    public boolean supports(DomainEventType type) {
+        return EVENT_TYPES.contains(type);
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        Reservation reservation = reservationRepository.findById(event.getAggregateId()).orElse(null);
+        if (reservation == null || event.getOrganizationId() == null) {
+            return;
+        }
+
+        RollupAccumulator deltas = new RollupAccumulator();
+        switch (event.getType()) {
+            case RESERVATION_CREATED -> deltas.reservationCreated(reservation);
+            case RESERVATION_CANCELLED -> deltas.reservationCancelled(reservation);
+            case RESERVATION_COMPLETED -> {
+                if (reservation.getStatus() == ReservationStatus.COMPLETED) {
+                    deltas.reservationCompleted(reservation);
+                }
+            }
+            default -> { }
+        }
+        if (!deltas.isEmpty()) {
+            dailyRollupService.apply(event.getOrganizationId(), deltas);
+            log.debug("Daily rollups updated for {} of reservation {}", event.getType(), reservation.getReservationCode());
+        }
+    }
+
+    /**
+     * Mark the organization's events not applied yet as processed by this handler. Called in the
+     * transaction that read the backfill's reservations, from the same snapshot: an event is
+     * visible exactly when the change it reports was counted. Events committed later are still
+     * applied, on top of the rebuilt rows.
+     *
+     * @return the number of events marked
+     */
+    public int skipUnhandled(Long organizationId) {
+        List<Long> eventIds = outboxEventRepository.findUnhandledIds(organizationId, EVENT_TYPES, getName());
+        processedEventRepository.saveAll(eventIds.stream()
+                .map(eventId -> ProcessedEvent.builder()
+                        .id(ProcessedEvent.idOf(getName(), eventId))
+                        .eventId(eventId)
+                        .handler(getName())
+                        .build())
+                .toList());
+        return eventIds.size();
+    }
+}
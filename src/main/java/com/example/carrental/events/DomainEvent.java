@@ -0,0 +1,31 @@
+package com.example.carrental.events;
+
+import com.example.carrental.enums.DomainEventType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * An outbox event as seen by a {@link DomainEventHandler}: the row's identity plus its parsed payload.
+ */
+@Getter
+@AllArgsConstructor
+public class DomainEvent {
+
+    private final Long id;
+    private final DomainEventType type;
+    private final Long organizationId;
+    private final Long aggregateId;
+    private final Map<String, Object> payload;
+
+    public String getString(String key) {
+        Object value = payload.get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    public Long getLong(String key) {
+        Object value = payload.get(key);
+        return value instanceof Number number ? number.longValue() : null;
+    }
+}
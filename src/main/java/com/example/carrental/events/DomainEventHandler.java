@@ -0,0 +1,22 @@
+package com.example.carrental.events;
+
+import com.example.carrental.enums.DomainEventType;
+
+/**
+ * In-process consumer of outbox events. Delivery is at-least-once: each handler runs in its own
+ * transaction together with its processed-event marker, so a handler that committed is skipped on
+ * redelivery and one that failed is retried without re-running the others.
+ */
+public interface DomainEventHandler {
+
+    boolean supports(DomainEventType type);
+
+    void handle(DomainEvent event);
+
+    /**
+     * Stable name used in the processed-event markers; renaming a handler re-delivers pending events to it.
+     */
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+}
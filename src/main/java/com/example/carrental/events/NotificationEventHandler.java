@@ -0,0 +1,39 @@
+package com.example.carrental.events;
+
+import com.example.carrental.enums.DomainEventType;
+import com.example.carrental.repository.VehicleRepository;
+import com.example.carrental.services.NotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admin notifications for vehicle status changes and recorded maintenance.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationEventHandler implements DomainEventHandler {
+
+    private final NotificationService notificationService;
+    private final VehicleRepository vehicleRepository;
+
+    @Override
+    public boolean supports(DomainEventType type) {
+        return type == DomainEventType.VEHICLE_STATUS_CHANGED || type == DomainEventType.MAINTENANCE_RECORDED;
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        Long vehicleId = event.getType() == DomainEventType.VEHICLE_STATUS_CHANGED
+                ? event.getAggregateId()
+                : event.getLong("vehicleId");
+        vehicleRepository.findById(vehicleId).ifPresent(vehicle -> {
+            if (event.getType() == DomainEventType.VEHICLE_STATUS_CHANGED) {
+                notificationService.createVehicleStatusChangeNotification(vehicle,
+                        event.getString("oldStatus"), event.getString("newStatus"), event.getLong("changedByUserId"));
+            } else {
+                notificationService.createMaintenanceCompletedNotification(vehicle,
+                        event.getString("serviceProvider"), event.getString("description"));
+            }
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.carrental.events;
+
+import com.example.carrental.enums.DomainEventType;
+import com.example.carrental.enums.ReservationStatus;
+import com.example.carrental.enums.VehicleStatus;
+import com.example.carrental.model.Reservation;
+import com.example.carrental.model.VehicleModel;
+import com.example.carrental.repository.ReservationRepository;
+import com.example.carrental.repository.VehicleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Keeps the vehicle status in line with its reservations: a confirmed reservation that is active
+ * today reserves the vehicle, a cancelled or completed one releases it. Works from the current
+ * reservation state rather than the event, so stale or repeated deliveries are no-ops.
+ * VehicleStatusScheduler covers reservations that become active on later days.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VehicleStatusEventHandler implements DomainEventHandler {
+
+    private final ReservationRepository reservationRepository;
+    private final VehicleRepository vehicleRepository;
+
+    @Override
+    public boolean supports(DomainEventType type) {
+        return type == DomainEventType.RESERVATION_CONFIRMED
+                || type == DomainEventType.RESERVATION_CANCELLED
+                || type == DomainEventType.RESERVATION_COMPLETED;
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        Reservation reservation = reservationRepository.findById(event.getAggregateId()).orElse(null);
+        if (reservation == null) {
+            return;
+        }
+        VehicleModel vehicle = reservation.getVehicle();
+        LocalDate today = LocalDate.now();
+
+        if (reservation.getStatus() == ReservationStatus.CONFIRMED) {
+            boolean activeToday = !today.isBefore(reservation.getStartDate()) && !today.isAfter(reservation.getEndDate());
+            if (activeToday && vehicle.getStatus() == VehicleStatus.AVAILABLE) {
+                vehicle.setStatus(VehicleStatus.RESERVED);
+                vehicleRepository.save(vehicle);
+                log.info("Vehicle {} set to RESERVED for active reservation {}",
+                        vehicle.getLicensePlate(), reservation.getReservationCode());
+            }
+        } else if ((reservation.getStatus() == ReservationStatus.CANCELLED
+                || reservation.getStatus() == ReservationStatus.COMPLETED)
+                && vehicle.getStatus() == VehicleStatus.RESERVED) {
+            vehicle.setStatus(VehicleStatus.AVAILABLE);
+            vehicleRepository.save(vehicle);
+            log.info("Vehicle {} released back to AVAILABLE status", vehicle.getLicensePlate());
+        }
+    }
+}
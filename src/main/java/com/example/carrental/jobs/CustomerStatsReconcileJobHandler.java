@@ -0,0 +1,59 @@
+package com.example.carrental.jobs;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.enums.JobType;
+import com.example.carrental.events.CustomerStatsEventHandler;
+import com.example.carrental.model.Customer;
+import com.example.carrental.repository.CustomerRepository;
+import com.example.carrental.services.CustomerSummaryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+/**
+ * Recomputes the statistics of every customer of the job's organization, one page per
+ * transaction, to repair drift from events that were dead-lettered or edited data, then
+ * rebuilds the organization's materialized customer summaries.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CustomerStatsReconcileJobHandler implements JobHandler {
+
+    private static final int PAGE_SIZE = 200;
+
+    private final CustomerRepository customerRepository;
+    private final CustomerStatsEventHandler customerStatsEventHandler;
+    private final CustomerSummaryService customerSummaryService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public JobType getType() {
+        return JobType.CUSTOMER_STATS_RECONCILE;
+    }
+
+    @Override
+    public void run(Map<String, Object> payload) {
+        int updated = 0;
+        Page<Customer> customers;
+        int page = 0;
+        do {
+            PageRequest request = PageRequest.of(page++, PAGE_SIZE, Sort.by("id"));
+            customers = transactionTemplate.execute(status -> {
+                Page<Customer> current = customerRepository.findAll(request);
+                current.forEach(customer -> customerStatsEventHandler.recalculate(customer, false));
+                return current;
+            });
+            updated += customers.getNumberOfElements();
+        } while (customers.hasNext());
+        log.info("Customer statistics reconciled for {} customers", updated);
+
+        customerSummaryService.rebuild(TenantContext.getTenantId());
+    }
+}
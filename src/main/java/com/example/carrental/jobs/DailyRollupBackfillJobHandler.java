@@ -0,0 +1,85 @@
+package com.example.carrental.jobs;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.enums.JobType;
+import com.example.carrental.enums.ReservationStatus;
+import com.example.carrental.events.DailyRollupEventHandler;
+import com.example.carrental.model.Reservation;
+import com.example.carrental.repository.ReservationRepository;
+import com.example.carrental.services.DailyRollupService;
+import com.example.carrental.services.RollupAccumulator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+/**
+ * Rebuilds the organization's daily rollups from its reservations. Used to seed the rollups and
+ * to repair drift from dead-lettered events.
+ * <p>
+ * Reservation events keep committing while the job runs. The reservations are read page by page
+ * in one REPEATABLE READ transaction, which also marks the reservation events visible in its
+ * snapshot as handled and replaces the activity counts: a change is then counted once, by the
+ * backfill when it committed before the snapshot, by its event otherwise. A rollup event handled
+ * concurrently conflicts on its marker or its rows, and the losing side is retried.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DailyRollupBackfillJobHandler implements JobHandler {
+
+    private static final int PAGE_SIZE = 500;
+
+    private final ReservationRepository reservationRepository;
+    private final DailyRollupService dailyRollupService;
+    private final DailyRollupEventHandler dailyRollupEventHandler;
+    private final PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public JobType getType() {
+        return JobType.DAILY_ROLLUP_BACKFILL;
+    }
+
+    @Override
+    public void run(Map<String, Object> payload) {
+        Long organizationId = TenantContext.getTenantId();
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshot.executeWithoutResult(status -> {
+            RollupAccumulator totals = new RollupAccumulator();
+            int read = 0;
+            Page<Reservation> reservations;
+            int page = 0;
+            do {
+                reservations = reservationRepository.findPageForRollups(PageRequest.of(page++, PAGE_SIZE, Sort.by("id")));
+                for (Reservation reservation : reservations) {
+                    totals.reservationCreated(reservation);
+                    if (reservation.getStatus() == ReservationStatus.CANCELLED) {
+                        totals.reservationCancelled(reservation);
+                    } else if (reservation.getStatus() == ReservationStatus.COMPLETED) {
+                        totals.reservationCompleted(reservation);
+                    }
+                }
+                read += reservations.getNumberOfElements();
+                entityManager.clear(); // only the totals are kept across pages
+            } while (reservations.hasNext());
+
+            int skipped = dailyRollupEventHandler.skipUnhandled(organizationId);
+            dailyRollupService.replace(organizationId, totals);
+            log.info("Daily rollups of organization {} rebuilt from {} reservations, {} pending events counted",
+                    organizationId, read, skipped);
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.carrental.jobs;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.enums.JobType;
+import com.example.carrental.services.CustomerEngagementService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Rescores every customer of the job's organization and refreshes its quintile bounds.
+ * Queued nightly and on demand.
+ */
+@Component
+@RequiredArgsConstructor
+public class EngagementScoringJobHandler implements JobHandler {
+
+    private final CustomerEngagementService customerEngagementService;
+
+    @Override
+    public JobType getType() {
+        return JobType.ENGAGEMENT_SCORING;
+    }
+
+    @Override
+    public void run(Map<String, Object> payload) {
+        customerEngagementService.rescoreAll(TenantContext.getTenantId());
+    }
+}
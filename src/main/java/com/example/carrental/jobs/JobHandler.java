@@ -0,0 +1,17 @@
+package com.example.carrental.jobs;
+
+import com.example.carrental.enums.JobType;
+
+import java.util.Map;
+
+/**
+ * Runs one type of {@link com.example.carrental.model.Job}. Called outside a transaction with the
+ * job's organization set in TenantContext; a thrown exception schedules a retry. Jobs can run more
+ * than once (retries, a worker dying mid-run), so handlers must be safe to repeat.
+ */
+public interface JobHandler {
+
+    JobType getType();
+
+    void run(Map<String, Object> payload) throws Exception;
+}
@@ -0,0 +1,35 @@
+package com.example.carrental.jobs;
+
+import com.example.carrental.enums.JobType;
+import com.example.carrental.repository.VehicleRepository;
+import com.example.carrental.services.NotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Fans a maintenance alert out to every admin and employee. The notifications are written in one
+ * transaction, so a retried job never leaves a partial set behind.
+ */
+@Component
+@RequiredArgsConstructor
+public class MaintenanceAlertJobHandler implements JobHandler {
+
+    private final VehicleRepository vehicleRepository;
+    private final NotificationService notificationService;
+
+    @Override
+    public JobType getType() {
+        return JobType.MAINTENANCE_ALERT;
+    }
+
+    @Override
+    public void run(Map<String, Object> payload) {
+        Long vehicleId = ((Number) payload.get("vehicleId")).longValue();
+        Number mileage = (Number) payload.get("mileage");
+        vehicleRepository.findById(vehicleId).ifPresent(vehicle ->
+                notificationService.createMaintenanceAlert(vehicle, (String) payload.get("reason"),
+                        mileage != null ? mileage.intValue() : 0));
+    }
+}
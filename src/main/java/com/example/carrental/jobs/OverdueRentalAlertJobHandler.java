@@ -0,0 +1,40 @@
+package com.example.carrental.jobs;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.enums.JobType;
+import com.example.carrental.repository.RentalRepository;
+import com.example.carrental.services.NotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Notifies an organization's admins and employees about the rentals OverdueRentalEngine found
+ * overdue in one tick. The notifications of a job are saved in one transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class OverdueRentalAlertJobHandler implements JobHandler {
+
+    private final RentalRepository rentalRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public JobType getType() {
+        return JobType.OVERDUE_RENTAL_ALERT;
+    }
+
+    @Override
+    public void run(Map<String, Object> payload) {
+        List<Long> rentalIds = ((List<?>) payload.get("rentalIds")).stream()
+                .map(id -> ((Number) id).longValue())
+                .toList();
+        transactionTemplate.executeWithoutResult(status ->
+                notificationService.createOverdueRentalAlerts(TenantContext.getTenantId(),
+                        rentalRepository.findWithReservationByIdIn(rentalIds)));
+    }
+}
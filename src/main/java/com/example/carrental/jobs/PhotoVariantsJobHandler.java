@@ -0,0 +1,29 @@
+package com.example.carrental.jobs;
+
+import com.example.carrental.enums.JobType;
+import com.example.carrental.services.VehiclePhotoProcessingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Generates the variants of an uploaded vehicle photo. Photos that are no longer PENDING are
+ * skipped, so a repeated job is a no-op.
+ */
+@Component
+@RequiredArgsConstructor
+public class PhotoVariantsJobHandler implements JobHandler {
+
+    private final VehiclePhotoProcessingService vehiclePhotoProcessingService;
+
+    @Override
+    public JobType getType() {
+        return JobType.PHOTO_VARIANTS;
+    }
+
+    @Override
+    public void run(Map<String, Object> payload) {
+        vehiclePhotoProcessingService.process(((Number) payload.get("photoId")).longValue());
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.carrental.mapper;
+
+import com.example.carrental.dto.ReservationResponseDTO;
+import com.example.carrental.model.Reservation;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReservationMapper {
+
+    public ReservationResponseDTO toResponseDTO(Reservation reservation) {
+        ReservationResponseDTO.ReservationResponseDTOBuilder builder = ReservationResponseDTO.builder()
+                .id(reservation.getId())
+                .reservationCode(reservation.getReservationCode())
+                .startDate(reservation.getStartDate())
+                .endDate(reservation.getEndDate())
+                .pickupLocation(reservation.getPickupLocation())
+                .returnLocation(reservation.getReturnLocation())
+                .status(reservation.getStatus())
+                .dailyRate(reservation.getDailyRate())
+                .totalDays(reservation.getTotalDays())
+                .totalAmount(reservation.getTotalAmount())
+                .specialRequests(reservation.getSpecialRequests())
+                .createdAt(reservation.getCreatedAt())
+                .confirmedAt(reservation.getConfirmedAt())
+                .vehicleId(reservation.getVehicle().getId())
+                .vehicleBrand(reservation.getVehicle().getBrand())
+                .vehicleModel(reservation.getVehicle().getModel())
+                .vehicleLicensePlate(reservation.getVehicle().getLicensePlate())
+                .vehicleCategory(reservation.getVehicle().getCategory())
+                .userId(reservation.getUser().getId())
+                .userFullName(reservation.getUser().getFullName())
+                .userEmail(reservation.getUser().getEmail());
+
+        // Add customer information if exists
+        if (reservation.getCustomer() != null) {
+            builder.customerId(reservation.getCustomer().getId())
+                    .customerCode(reservation.getCustomer().getCustomerCode())
+                    .customerFullName(reservation.getCustomer().getFullName())
+                    .customerEmail(reservation.getCustomer().getEmail())
+                    .customerPhone(reservation.getCustomer().getPhoneNumber());
+        }
+
+        // Add rental information if exists
+        if (reservation.getRental() != null) {
+            builder.rentalId(reservation.getRental().getId())
+                    .rentalCode(reservation.getRental().getRentalCode())
+                    .pickupDateTime(reservation.getRental().getPickupDateTime())
+                    .expectedReturnDateTime(reservation.getRental().getExpectedReturnDateTime())
+                    .actualReturnDateTime(reservation.getRental().getActualReturnDateTime());
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.carrental.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pickup/return location. Reservations keep free-text locations; they are matched to a
+ * branch by code or name (case-insensitive), see BranchService#resolve.
+ */
+@Entity
+@Table(name = "branches", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_branches_org_code", columnNames = {"organization_id", "code"})
+})
+@Filter(name = "tenantFilter")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Branch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "organization_id", nullable = false)
+    private Organization organization;
+
+    @Column(name = "code", nullable = false, length = 20)
+    private String code;
+
+    @Column(name = "name", nullable = false, length = 200)
+    private String name;
+
+    @Column(name = "address", length = 300)
+    private String address;
+
+    @Column(name = "city", length = 100)
+    private String city;
+
+    @Column(name = "active", nullable = false)
+    @Builder.Default
+    private Boolean active = true;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
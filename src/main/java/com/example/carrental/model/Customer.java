@@ -2,8 +2,10 @@ package com.example.carrental.model;
 
 import com.example.carrental.enums.CustomerSegment;
 import com.example.carrental.enums.CustomerStatus;
+import com.example.carrental.services.SearchIndexEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Filter;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -11,7 +13,14 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "customers")
+@Table(name = "customers", indexes = {
+        @Index(name = "idx_customers_org_status", columnList = "organization_id, status"),
+        @Index(name = "idx_customers_org_email", columnList = "organization_id, email"),
+        @Index(name = "idx_customers_org_code", columnList = "organization_id, customer_code"),
+        @Index(name = "idx_customers_org_total_spent", columnList = "organization_id, total_spent")
+})
+@Filter(name = "tenantFilter")
+@EntityListeners(SearchIndexEntityListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
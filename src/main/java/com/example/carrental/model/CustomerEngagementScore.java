@@ -0,0 +1,61 @@
+package com.example.carrental.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A customer's latest recency / frequency / monetary engagement score, over the trailing
+ * window of reservations. Maintained by CustomerEngagementService; not tenant-filtered,
+ * every query names the organization.
+ */
+@Entity
+@Table(name = "customer_engagement_scores", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_customer_engagement_scores_customer", columnNames = {"customer_id"})
+}, indexes = {
+        @Index(name = "idx_customer_engagement_scores_rank", columnList = "organization_id, score")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerEngagementScore {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "recency_days")
+    private Integer recencyDays; // since the last reservation started, null when none
+
+    @Column(name = "frequency", nullable = false)
+    private Integer frequency; // reservations started in the window, cancellations excluded
+
+    @Column(name = "monetary_cents", nullable = false)
+    private Long monetaryCents; // completed reservations started in the window
+
+    @Column(name = "recency_score", nullable = false)
+    private Integer recencyScore;
+
+    @Column(name = "frequency_score", nullable = false)
+    private Integer frequencyScore;
+
+    @Column(name = "monetary_score", nullable = false)
+    private Integer monetaryScore;
+
+    @Column(name = "score", nullable = false)
+    private Integer score; // 0-100
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+}
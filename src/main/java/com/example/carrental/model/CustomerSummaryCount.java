@@ -0,0 +1,45 @@
+package com.example.carrental.model;
+
+import com.example.carrental.enums.CustomerSummaryDimension;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of customers and their lifetime spend per segment, spend band or preferred category.
+ * Maintained by CustomerSummaryService; not tenant-filtered, every query names the organization.
+ */
+@Entity
+@Table(name = "customer_summary_counts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_customer_summary_counts_bucket", columnNames = {"organization_id", "dimension", "bucket"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerSummaryCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension", nullable = false, length = 20)
+    private CustomerSummaryDimension dimension;
+
+    @Column(name = "bucket", nullable = false, length = 50)
+    private String bucket; // segment name, spend band index or lower-case category
+
+    @Column(name = "customers", nullable = false)
+    @Builder.Default
+    private Long customers = 0L;
+
+    @Column(name = "spent_cents", nullable = false)
+    @Builder.Default
+    private Long spentCents = 0L;
+}
@@ -0,0 +1,43 @@
+package com.example.carrental.model;
+
+import com.example.carrental.enums.CustomerRankCriteria;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One of an organization's highest-ranked customers for a criteria. The rows of a criteria are
+ * always the exact top of the ranking, possibly fewer than the capacity; see CustomerSummaryService.
+ * Not tenant-filtered, every query names the organization.
+ */
+@Entity
+@Table(name = "customer_top_ranks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_customer_top_ranks_customer", columnNames = {"organization_id", "criteria", "customer_id"})
+}, indexes = {
+        @Index(name = "idx_customer_top_ranks_score", columnList = "organization_id, criteria, score")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerTopRank {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "criteria", nullable = false, length = 20)
+    private CustomerRankCriteria criteria;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "score", nullable = false)
+    private Long score; // cents for money criteria
+}
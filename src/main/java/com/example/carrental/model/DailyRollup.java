@@ -0,0 +1,62 @@
+package com.example.carrental.model;
+
+import com.example.carrental.enums.RollupScope;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One day of activity for an organization, a category (scopeKey = lower-case category) or a
+ * vehicle (scopeKey = vehicle id). Rows only exist for days with activity or a fleet snapshot.
+ * Maintained by DailyRollupService; not tenant-filtered, every query names the organization.
+ */
+@Entity
+@Table(name = "daily_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_rollups_scope_day", columnNames = {"organization_id", "scope", "scope_key", "rollup_date"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", nullable = false, length = 20)
+    private RollupScope scope;
+
+    @Column(name = "scope_key", nullable = false, length = 50)
+    private String scopeKey; // "" for ORGANIZATION
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "rented_days", nullable = false)
+    @Builder.Default
+    private Long rentedDays = 0L; // vehicles out on a completed rental that day
+
+    @Column(name = "revenue_cents", nullable = false)
+    @Builder.Default
+    private Long revenueCents = 0L; // completed rentals' amount, spread evenly over their days
+
+    @Column(name = "reservations", nullable = false)
+    @Builder.Default
+    private Long reservations = 0L; // created that day
+
+    @Column(name = "cancellations", nullable = false)
+    @Builder.Default
+    private Long cancellations = 0L; // cancelled that day
+
+    @Column(name = "fleet_size")
+    private Integer fleetSize; // nightly snapshot, null when not taken
+}
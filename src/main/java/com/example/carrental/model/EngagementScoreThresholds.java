@@ -0,0 +1,43 @@
+package com.example.carrental.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Quintile bounds of an organization's last engagement scoring batch, comma-separated and
+ * ascending, so customers rescored between batches are scored against the same population.
+ */
+@Entity
+@Table(name = "engagement_score_thresholds", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_engagement_score_thresholds_org", columnNames = {"organization_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EngagementScoreThresholds {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    @Column(name = "recency_bounds", nullable = false, length = 100)
+    private String recencyBounds; // days
+
+    @Column(name = "frequency_bounds", nullable = false, length = 100)
+    private String frequencyBounds; // reservations
+
+    @Column(name = "monetary_bounds", nullable = false, length = 100)
+    private String monetaryBounds; // cents
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+}
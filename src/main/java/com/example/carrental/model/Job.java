@@ -0,0 +1,78 @@
+package com.example.carrental.model;
+
+import com.example.carrental.enums.JobType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable background job run by JobWorker. QUEUED jobs become RUNNING when claimed (locked until
+ * lockedUntil; a crashed worker's jobs are re-queued once it passes), then SUCCEEDED, or back to
+ * QUEUED with a later runAt after a failure, or DEAD once maxAttempts is reached.
+ * Not tenant-filtered: the worker claims jobs of every organization.
+ */
+@Entity
+@Table(name = "jobs", indexes = {
+        @Index(name = "idx_jobs_type_status_run_at", columnList = "job_type, status, run_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Job {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "organization_id")
+    private Long organizationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "job_type", nullable = false, length = 50)
+    private JobType jobType;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload; // JSON
+
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private String status = "QUEUED"; // QUEUED, RUNNING, SUCCEEDED, DEAD
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "max_attempts", nullable = false)
+    private Integer maxAttempts;
+
+    @Column(name = "run_at", nullable = false)
+    private LocalDateTime runAt;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (runAt == null) {
+            runAt = createdAt;
+        }
+    }
+}
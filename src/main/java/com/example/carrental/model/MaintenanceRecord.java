@@ -7,12 +7,18 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "maintenance_records")
+@Table(name = "maintenance_records", indexes = {
+        @Index(name = "idx_maintenance_org_status", columnList = "organization_id, status"),
+        @Index(name = "idx_maintenance_org_vehicle", columnList = "organization_id, vehicle_id"),
+        @Index(name = "idx_maintenance_vehicle_service_date", columnList = "vehicle_id, service_date")
+})
+@Filter(name = "tenantFilter")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
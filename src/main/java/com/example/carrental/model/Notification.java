@@ -5,11 +5,17 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_org_user_read", columnList = "organization_id, user_id, is_read"),
+        @Index(name = "idx_notifications_org_created", columnList = "organization_id, created_at"),
+        @Index(name = "idx_notifications_user_read_created", columnList = "user_id, is_read, created_at")
+})
+@Filter(name = "tenantFilter")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -38,6 +38,14 @@ public class Organization {
     @Column(columnDefinition = "TEXT")
     private String settings;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "storage_mode", length = 20)
+    private StorageMode storageMode = StorageMode.SHARED;
+
+    // Schema name (SCHEMA) or app.tenancy.databases key (DATABASE)
+    @Column(name = "storage_key", length = 63)
+    private String storageKey;
+
     @JsonIgnore
     @OneToMany(mappedBy = "organization", cascade = CascadeType.ALL)
     private List<User> users;
@@ -54,6 +62,10 @@ public class Organization {
         ACTIVE, SUSPENDED, CANCELLED, TRIAL
     }
 
+    public enum StorageMode {
+        SHARED, SCHEMA, DATABASE
+    }
+
     public Organization() {}
 
     public Organization(String name, String slug) {
@@ -135,6 +147,29 @@ public class Organization {
         this.settings = settings;
     }
 
+    public StorageMode getStorageMode() {
+        return storageMode;
+    }
+
+    public void setStorageMode(StorageMode storageMode) {
+        this.storageMode = storageMode;
+    }
+
+    public String getStorageKey() {
+        return storageKey;
+    }
+
+    public void setStorageKey(String storageKey) {
+        this.storageKey = storageKey;
+    }
+
+    /**
+     * Only ENTERPRISE organizations may be moved to their own schema or database
+     */
+    public boolean canUseIsolatedStorage() {
+        return planType == PlanType.ENTERPRISE;
+    }
+
     public List<User> getUsers() {
         return users;
     }
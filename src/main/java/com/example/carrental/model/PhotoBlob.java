@@ -0,0 +1,43 @@
+package com.example.carrental.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reference-counted, content-addressed photo bytes. Shared across tenants: the key is the
+ * SHA-256 of the content, so identical uploads are stored once.
+ */
+@Entity
+@Table(name = "photo_blobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PhotoBlob {
+
+    @Id
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
+    @Column(name = "extension", nullable = false, length = 10)
+    private String extension;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    @Column(name = "reference_count", nullable = false)
+    private Integer referenceCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
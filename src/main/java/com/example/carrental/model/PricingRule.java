@@ -0,0 +1,79 @@
+package com.example.carrental.model;
+
+import com.example.carrental.enums.PricingRuleType;
+import com.example.carrental.services.QuoteSnapshotEntityListener;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A pricing rule compiled by PricingService into per-category rate tables. Rules with a null
+ * category apply to every category.
+ */
+@Entity
+@Table(name = "pricing_rules", indexes = {
+        @Index(name = "idx_pricing_rules_org_active", columnList = "organization_id, active")
+})
+@Filter(name = "tenantFilter")
+@EntityListeners(QuoteSnapshotEntityListener.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PricingRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "organization_id", nullable = false)
+    private Organization organization;
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rule_type", nullable = false, length = 20)
+    private PricingRuleType ruleType;
+
+    @Column(name = "category", length = 50)
+    private String category; // null = all categories
+
+    @Column(name = "multiplier", nullable = false, precision = 6, scale = 4)
+    private BigDecimal multiplier; // 1.2500 = +25%, 0.9000 = -10%
+
+    // SEASON: inclusive date range
+    @Column(name = "start_date")
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    // LONG_STAY: minimum rental days
+    @Column(name = "min_days")
+    private Integer minDays;
+
+    // SURGE: share of the category rented or reserved, 0.0000 - 1.0000
+    @Column(name = "utilization_threshold", precision = 5, scale = 4)
+    private BigDecimal utilizationThreshold;
+
+    @Column(name = "active", nullable = false)
+    @Builder.Default
+    private Boolean active = true;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
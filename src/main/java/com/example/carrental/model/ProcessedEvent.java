@@ -0,0 +1,44 @@
+package com.example.carrental.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks an outbox event as handled by one handler. Written in the handler's transaction, so a
+ * redelivered event skips the handlers whose work already committed.
+ */
+@Entity
+@Table(name = "processed_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProcessedEvent {
+
+    @Id
+    @Column(name = "id", length = 150)
+    private String id; // handler name + ":" + event id
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "handler", nullable = false, length = 100)
+    private String handler;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+
+    public static String idOf(String handler, Long eventId) {
+        return handler + ":" + eventId;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        processedAt = LocalDateTime.now();
+    }
+}
@@ -3,12 +3,17 @@ package com.example.carrental.model;
 import com.example.carrental.enums.RentalStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Filter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "rentals")
+// No organization column: scoped through the reservation, so per-organization passes only see their own rentals
+@Filter(name = "tenantFilter",
+        condition = "{alias}.reservation_id IN (SELECT res.id FROM reservations res WHERE res.organization_id = :tenantId)",
+        deduceAliasInjectionPoints = false)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -125,7 +130,8 @@ public class Rental {
 
         // Update vehicle and reservation status
         if (reservation != null && reservation.getVehicle() != null) {
-            reservation.getVehicle().changeStatus(com.example.carrental.enums.VehicleStatus.WASHING);
+            // RENTED can only move to RETURNED (then CLEANING/AVAILABLE), not straight to WASHING
+            reservation.getVehicle().changeStatus(com.example.carrental.enums.VehicleStatus.RETURNED);
             reservation.changeStatus(com.example.carrental.enums.ReservationStatus.COMPLETED);
         }
     }
@@ -135,8 +141,7 @@ public class Rental {
 
         // Calculate late return fee
         if (actualReturnDateTime != null && actualReturnDateTime.isAfter(expectedReturnDateTime)) {
-            long hoursLate = java.time.Duration.between(expectedReturnDateTime, actualReturnDateTime).toHours();
-            this.lateReturnFee = BigDecimal.valueOf(hoursLate * 10); // $10 per hour late
+            this.lateReturnFee = lateReturnFee(expectedReturnDateTime, actualReturnDateTime);
             totalAdditional = totalAdditional.add(lateReturnFee);
         }
 
@@ -169,8 +174,19 @@ public class Rental {
         };
     }
 
+    /**
+     * $10 per full hour late; also used by OverdueRentalEngine to accrue the fee while the vehicle is out
+     */
+    public static BigDecimal lateReturnFee(LocalDateTime expectedReturn, LocalDateTime at) {
+        if (!at.isAfter(expectedReturn)) {
+            return BigDecimal.ZERO;
+        }
+        long hoursLate = java.time.Duration.between(expectedReturn, at).toHours();
+        return BigDecimal.valueOf(hoursLate * 10);
+    }
+
     public boolean isOverdue() {
-        return status == RentalStatus.ACTIVE &&
+        return (status == RentalStatus.ACTIVE || status == RentalStatus.OVERDUE) &&
                LocalDateTime.now().isAfter(expectedReturnDateTime);
     }
 
@@ -200,6 +216,6 @@ public class Rental {
 
     private void generateRentalCode() {
         this.rentalCode = "RNT" + System.currentTimeMillis() +
-                         String.valueOf((int)(Math.random() * 1000)).substring(0, 3);
+                         String.format("%03d", (int) (Math.random() * 1000));
     }
 }
\ No newline at end of file
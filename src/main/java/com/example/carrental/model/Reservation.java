@@ -1,8 +1,11 @@
 package com.example.carrental.model;
 
 import com.example.carrental.enums.ReservationStatus;
+import com.example.carrental.services.DailyManifestEntityListener;
+import com.example.carrental.services.QuoteSnapshotEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Filter;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -10,7 +13,19 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        @Index(name = "idx_reservations_org_status", columnList = "organization_id, status"),
+        @Index(name = "idx_reservations_org_start", columnList = "organization_id, start_date"),
+        @Index(name = "idx_reservations_org_end", columnList = "organization_id, end_date"),
+        @Index(name = "idx_reservations_org_created", columnList = "organization_id, created_at"),
+        @Index(name = "idx_reservations_org_vehicle_dates", columnList = "organization_id, vehicle_id, start_date, end_date"),
+        @Index(name = "idx_reservations_vehicle_status_dates", columnList = "vehicle_id, status, start_date, end_date"),
+        @Index(name = "idx_reservations_status_start", columnList = "status, start_date"),
+        @Index(name = "idx_reservations_status_end", columnList = "status, end_date"),
+        @Index(name = "idx_reservations_customer_created", columnList = "customer_id, created_at")
+})
+@Filter(name = "tenantFilter")
+@EntityListeners({QuoteSnapshotEntityListener.class, DailyManifestEntityListener.class})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -169,7 +184,10 @@ public class Reservation {
 
     @PrePersist
     protected void onCreate() {
-        calculateTotalAmount();
+        // Keep a quoted price; only fall back to dailyRate x days when none was set
+        if (totalAmount == null) {
+            calculateTotalAmount();
+        }
         if (reservationCode == null) {
             generateReservationCode();
         }
@@ -1,16 +1,27 @@
 package com.example.carrental.model;
 
 import com.example.carrental.enums.VehicleStatus;
+import com.example.carrental.services.QuoteSnapshotEntityListener;
+import com.example.carrental.services.SearchIndexEntityListener;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Filter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "vehicles")
+@Table(name = "vehicles", indexes = {
+        @Index(name = "idx_vehicles_org_status", columnList = "organization_id, status"),
+        @Index(name = "idx_vehicles_org_category_status", columnList = "organization_id, category, status"),
+        @Index(name = "idx_vehicles_org_plate", columnList = "organization_id, license_plate"),
+        @Index(name = "idx_vehicles_current_branch", columnList = "current_branch_id")
+})
+@Filter(name = "tenantFilter")
+@EntityListeners({SearchIndexEntityListener.class, QuoteSnapshotEntityListener.class})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -77,6 +88,7 @@ public class VehicleModel {
 
     // Relationships for photos and maintenance
     @OneToMany(mappedBy = "vehicle", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50) // initializing one vehicle's photos loads the next 49 in the same query
     private List<VehiclePhoto> photos;
 
     @OneToMany(mappedBy = "vehicle", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -88,6 +100,11 @@ public class VehicleModel {
     @JoinColumn(name = "organization_id", nullable = false)
     private Organization organization;
 
+    // Where the vehicle is parked; set on check-in from the return location, null when unknown
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "current_branch_id")
+    private Branch currentBranch;
+
     // Business logic methods
     public boolean canChangeStatusTo(VehicleStatus newStatus) {
         return this.status.canTransitionTo(newStatus);
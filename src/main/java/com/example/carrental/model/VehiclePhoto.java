@@ -5,11 +5,15 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "vehicle_photos")
+@Table(name = "vehicle_photos", indexes = {
+        @Index(name = "idx_vehicle_photos_org_vehicle", columnList = "organization_id, vehicle_id")
+})
+@Filter(name = "tenantFilter")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,6 +36,10 @@ public class VehiclePhoto {
     @Column(name = "photo_url", nullable = false, length = 500)
     private String photoUrl;
 
+    // SHA-256 of the content (PhotoBlob key); null for files stored before deduplication
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Column(name = "photo_type", nullable = false, length = 50)
     private String photoType; // "GENERAL", "FRONT", "BACK", "LEFT", "RIGHT", "INTERIOR", "DAMAGE"
 
@@ -53,6 +61,20 @@ public class VehiclePhoto {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    // Resized, EXIF-free variants written by VehiclePhotoProcessingService
+    @Column(name = "thumbnail_url", length = 500)
+    private String thumbnailUrl;
+
+    @Column(name = "medium_url", length = 500)
+    private String mediumUrl;
+
+    @Column(name = "full_url", length = 500)
+    private String fullUrl;
+
+    @Column(name = "processing_status", length = 20)
+    @Builder.Default
+    private String processingStatus = "PENDING"; // "PENDING", "READY", "FAILED"
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,13 @@
+/**
+ * Tenant-owned entities carry {@code @Filter(name = "tenantFilter")}; the filter is
+ * enabled per session by {@link com.example.carrental.config.TenantFilterConfig}.
+ */
+@FilterDef(
+        name = "tenantFilter",
+        parameters = @ParamDef(name = "tenantId", type = Long.class),
+        defaultCondition = "organization_id = :tenantId"
+)
+package com.example.carrental.model;
+
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.ParamDef;
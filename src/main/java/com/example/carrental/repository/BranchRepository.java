@@ -0,0 +1,28 @@
+package com.example.carrental.repository;
+
+import com.example.carrental.model.Branch;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BranchRepository extends TenantScopedRepository<Branch, Long> {
+
+    // Query instead of EntityManager.find so the Hibernate tenantFilter applies
+    @Query("SELECT b FROM Branch b WHERE b.id = :id")
+    Optional<Branch> findById(@Param("id") Long id);
+
+    List<Branch> findAllByOrderByCodeAsc();
+
+    @Query("SELECT b FROM Branch b WHERE b.organization.id = :organizationId AND b.active = true ORDER BY b.code")
+    List<Branch> findActiveByOrganizationId(@Param("organizationId") Long organizationId);
+
+    @Query("SELECT v.currentBranch.id, COUNT(v) FROM VehicleModel v WHERE v.currentBranch IS NOT NULL " +
+           "GROUP BY v.currentBranch.id")
+    List<Object[]> countVehiclesByBranch();
+
+    boolean existsByOrganizationIdAndCodeIgnoreCase(Long organizationId, String code);
+}
@@ -0,0 +1,38 @@
+package com.example.carrental.repository;
+
+import com.example.carrental.model.CustomerEngagementScore;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CustomerEngagementScoreRepository extends JpaRepository<CustomerEngagementScore, Long> {
+
+    // Served by the unique constraint's index
+    @Query("SELECT s FROM CustomerEngagementScore s WHERE s.organizationId = :organizationId AND s.customerId = :customerId")
+    Optional<CustomerEngagementScore> findByCustomer(@Param("organizationId") Long organizationId,
+                                                     @Param("customerId") Long customerId);
+
+    @Query("SELECT s FROM CustomerEngagementScore s WHERE s.organizationId = :organizationId AND s.customerId IN :customerIds")
+    List<CustomerEngagementScore> findByCustomers(@Param("organizationId") Long organizationId,
+                                                  @Param("customerIds") Collection<Long> customerIds);
+
+    @Query(value = "SELECT s FROM CustomerEngagementScore s WHERE s.organizationId = :organizationId " +
+                   "ORDER BY s.score DESC, s.customerId",
+           countQuery = "SELECT COUNT(s) FROM CustomerEngagementScore s WHERE s.organizationId = :organizationId")
+    Page<CustomerEngagementScore> findRanking(@Param("organizationId") Long organizationId, Pageable pageable);
+
+    // Rows the last batch did not touch belong to deleted customers
+    @Modifying
+    @Query("DELETE FROM CustomerEngagementScore s WHERE s.organizationId = :organizationId AND s.computedAt < :before")
+    int deleteComputedBefore(@Param("organizationId") Long organizationId, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,55 @@
+package com.example.carrental.repository;
+
+import com.example.carrental.enums.CustomerSummaryDimension;
+import com.example.carrental.model.CustomerSummaryCount;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CustomerSummaryCountRepository extends JpaRepository<CustomerSummaryCount, Long> {
+
+    @Query("SELECT s FROM CustomerSummaryCount s WHERE s.organizationId = :organizationId " +
+           "AND s.dimension = :dimension ORDER BY s.bucket")
+    List<CustomerSummaryCount> findByDimension(@Param("organizationId") Long organizationId,
+                                               @Param("dimension") CustomerSummaryDimension dimension);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CustomerSummaryCount s WHERE s.organizationId = :organizationId " +
+           "AND s.dimension = :dimension AND s.bucket = :bucket")
+    Optional<CustomerSummaryCount> findForUpdate(@Param("organizationId") Long organizationId,
+                                                 @Param("dimension") CustomerSummaryDimension dimension,
+                                                 @Param("bucket") String bucket);
+
+    /**
+     * @return 0 when the bucket has no row yet
+     */
+    @Modifying
+    @Query("UPDATE CustomerSummaryCount s SET s.customers = s.customers + :customers, " +
+           "s.spentCents = s.spentCents + :spentCents " +
+           "WHERE s.organizationId = :organizationId AND s.dimension = :dimension AND s.bucket = :bucket")
+    int increment(@Param("organizationId") Long organizationId,
+                  @Param("dimension") CustomerSummaryDimension dimension,
+                  @Param("bucket") String bucket,
+                  @Param("customers") long customers,
+                  @Param("spentCents") long spentCents);
+
+    @Query("SELECT COALESCE(SUM(s.customers), 0) FROM CustomerSummaryCount s " +
+           "WHERE s.organizationId = :organizationId AND s.dimension = 'SEGMENT'")
+    long countCustomers(@Param("organizationId") Long organizationId);
+
+    @Query("SELECT CASE WHEN COUNT(s) > 0 THEN true ELSE false END FROM CustomerSummaryCount s " +
+           "WHERE s.organizationId = :organizationId")
+    boolean existsForOrganization(@Param("organizationId") Long organizationId);
+
+    @Modifying
+    @Query("DELETE FROM CustomerSummaryCount s WHERE s.organizationId = :organizationId")
+    int deleteByOrganizationId(@Param("organizationId") Long organizationId);
+}
@@ -0,0 +1,50 @@
+package com.example.carrental.repository;
+
+import com.example.carrental.enums.CustomerRankCriteria;
+import com.example.carrental.model.CustomerTopRank;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CustomerTopRankRepository extends JpaRepository<CustomerTopRank, Long> {
+
+    @Query("SELECT r.customerId FROM CustomerTopRank r WHERE r.organizationId = :organizationId " +
+           "AND r.criteria = :criteria ORDER BY r.score DESC, r.customerId")
+    List<Long> findTopCustomerIds(@Param("organizationId") Long organizationId,
+                                  @Param("criteria") CustomerRankCriteria criteria,
+                                  Pageable pageable);
+
+    @Query("SELECT r FROM CustomerTopRank r WHERE r.organizationId = :organizationId " +
+           "AND r.criteria = :criteria AND r.customerId = :customerId")
+    Optional<CustomerTopRank> findEntry(@Param("organizationId") Long organizationId,
+                                        @Param("criteria") CustomerRankCriteria criteria,
+                                        @Param("customerId") Long customerId);
+
+    // Lowest entries first, so the head of the page is the one to evict
+    @Query("SELECT r FROM CustomerTopRank r WHERE r.organizationId = :organizationId " +
+           "AND r.criteria = :criteria ORDER BY r.score ASC, r.customerId DESC")
+    List<CustomerTopRank> findLowest(@Param("organizationId") Long organizationId,
+                                     @Param("criteria") CustomerRankCriteria criteria,
+                                     Pageable pageable);
+
+    @Query("SELECT COUNT(r) FROM CustomerTopRank r WHERE r.organizationId = :organizationId AND r.criteria = :criteria")
+    long countEntries(@Param("organizationId") Long organizationId,
+                      @Param("criteria") CustomerRankCriteria criteria);
+
+    @Modifying
+    @Query("DELETE FROM CustomerTopRank r WHERE r.organizationId = :organizationId AND r.criteria = :criteria")
+    int deleteByCriteria(@Param("organizationId") Long organizationId,
+                         @Param("criteria") CustomerRankCriteria criteria);
+
+    @Modifying
+    @Query("DELETE FROM CustomerTopRank r WHERE r.organizationId = :organizationId AND r.customerId = :customerId")
+    int deleteByCustomer(@Param("organizationId") Long organizationId,
+                         @Param("customerId") Long customerId);
+}
@@ -0,0 +1,58 @@
+package com.example.carrental.repository;
+
+import com.example.carrental.enums.RollupScope;
+import com.example.carrental.model.DailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyRollupRepository extends JpaRepository<DailyRollup, Long> {
+
+    // Served by the unique constraint's index
+    @Query("SELECT r FROM DailyRollup r WHERE r.organizationId = :organizationId AND r.scope = :scope " +
+           "AND r.scopeKey = :scopeKey ORDER BY r.day")
+    List<DailyRollup> findSeries(@Param("organizationId") Long organizationId,
+                                 @Param("scope") RollupScope scope,
+                                 @Param("scopeKey") String scopeKey);
+
+    /**
+     * @return 0 when the day has no row yet
+     */
+    @Modifying
+    @Query("UPDATE DailyRollup r SET r.rentedDays = r.rentedDays + :rentedDays, " +
+           "r.revenueCents = r.revenueCents + :revenueCents, r.reservations = r.reservations + :reservations, " +
+           "r.cancellations = r.cancellations + :cancellations " +
+           "WHERE r.organizationId = :organizationId AND r.scope = :scope AND r.scopeKey = :scopeKey AND r.day = :day")
+    int increment(@Param("organizationId") Long organizationId,
+                  @Param("scope") RollupScope scope,
+                  @Param("scopeKey") String scopeKey,
+                  @Param("day") LocalDate day,
+                  @Param("rentedDays") long rentedDays,
+                  @Param("revenueCents") long revenueCents,
+                  @Param("reservations") long reservations,
+                  @Param("cancellations") long cancellations);
+
+    @Modifying
+    @Query("UPDATE DailyRollup r SET r.fleetSize = :fleetSize WHERE r.organizationId = :organizationId " +
+           "AND r.scope = :scope AND r.scopeKey = :scopeKey AND r.day = :day")
+    int setFleetSize(@Param("organizationId") Long organizationId,
+                     @Param("scope") RollupScope scope,
+                     @Param("scopeKey") String scopeKey,
+                     @Param("day") LocalDate day,
+                     @Param("fleetSize") int fleetSize);
+
+    @Modifying
+    @Query("DELETE FROM DailyRollup r WHERE r.organizationId = :organizationId AND r.fleetSize IS NULL")
+    int deleteActivityOnly(@Param("organizationId") Long organizationId);
+
+    @Modifying
+    @Query("UPDATE DailyRollup r SET r.rentedDays = 0, r.revenueCents = 0, r.reservations = 0, r.cancellations = 0 " +
+           "WHERE r.organizationId = :organizationId")
+    int resetActivity(@Param("organizationId") Long organizationId);
+}
@@ -0,0 +1,16 @@
+package com.example.carrental.repository;
+
+import com.example.carrental.model.EngagementScoreThresholds;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface EngagementScoreThresholdsRepository extends JpaRepository<EngagementScoreThresholds, Long> {
+
+    @Query("SELECT t FROM EngagementScoreThresholds t WHERE t.organizationId = :organizationId")
+    Optional<EngagementScoreThresholds> findByOrganizationId(@Param("organizationId") Long organizationId);
+}
@@ -0,0 +1,53 @@
+package com.example.carrental.repository;
+
+import com.example.carrental.enums.JobType;
+import com.example.carrental.model.Job;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JobRepository extends JpaRepository<Job, Long> {
+
+    // FOR UPDATE SKIP LOCKED (lock timeout -2): concurrent workers claim disjoint jobs
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT j FROM Job j WHERE j.jobType = :jobType AND j.status = 'QUEUED' AND j.runAt <= :now ORDER BY j.runAt, j.id")
+    List<Job> findRunnableForUpdate(@Param("jobType") JobType jobType, @Param("now") LocalDateTime now, Pageable pageable);
+
+    // Jobs of a worker that died mid-run; the claim counted the attempt
+    @Modifying
+    @Query("UPDATE Job j SET j.status = 'QUEUED', j.lockedUntil = NULL, j.lastError = 'Worker lease expired' " +
+           "WHERE j.status = 'RUNNING' AND j.lockedUntil < :now AND j.attempts < j.maxAttempts")
+    int requeueExpired(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Job j SET j.status = 'DEAD', j.lockedUntil = NULL, j.finishedAt = :now, j.lastError = 'Worker lease expired' " +
+           "WHERE j.status = 'RUNNING' AND j.lockedUntil < :now AND j.attempts >= j.maxAttempts")
+    int deadLetterExpired(@Param("now") LocalDateTime now);
+
+    @Query("SELECT j.payload FROM Job j WHERE j.jobType = :jobType AND j.status IN ('QUEUED', 'RUNNING')")
+    List<String> findActivePayloads(@Param("jobType") JobType jobType);
+
+    @Query("SELECT j.jobType, j.status, COUNT(j), MIN(j.runAt) FROM Job j " +
+           "WHERE j.status IN ('QUEUED', 'RUNNING', 'DEAD') GROUP BY j.jobType, j.status")
+    List<Object[]> countActiveByTypeAndStatus();
+
+    List<Job> findTop100ByStatusOrderByIdDesc(String status);
+
+    List<Job> findTop100ByStatusAndJobTypeOrderByIdDesc(String status, JobType jobType);
+
+    @Modifying
+    @Query("DELETE FROM Job j WHERE j.status = 'SUCCEEDED' AND j.finishedAt < :before")
+    int deleteSucceededBefore(@Param("before") LocalDateTime before);
+}
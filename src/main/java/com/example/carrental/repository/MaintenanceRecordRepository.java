@@ -2,16 +2,20 @@ package com.example.carrental.repository;
 
 import com.example.carrental.model.MaintenanceRecord;
 import com.example.carrental.model.VehicleModel;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface MaintenanceRecordRepository extends JpaRepository<MaintenanceRecord, Long> {
+public interface MaintenanceRecordRepository extends TenantScopedRepository<MaintenanceRecord, Long> {
+
+    // Query instead of EntityManager.find so the Hibernate tenantFilter applies
+    @Query("SELECT mr FROM MaintenanceRecord mr WHERE mr.id = :id")
+    Optional<MaintenanceRecord> findById(@Param("id") Long id);
 
     List<MaintenanceRecord> findByVehicleOrderByServiceDateDesc(VehicleModel vehicle);
 
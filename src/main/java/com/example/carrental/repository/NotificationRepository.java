@@ -2,7 +2,6 @@ package com.example.carrental.repository;
 
 import com.example.carrental.model.Notification;
 import com.example.carrental.model.User;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,9 +9,14 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
+public interface NotificationRepository extends TenantScopedRepository<Notification, Long> {
+
+    // Query instead of EntityManager.find so the Hibernate tenantFilter applies
+    @Query("SELECT n FROM Notification n WHERE n.id = :id")
+    Optional<Notification> findById(@Param("id") Long id);
 
     List<Notification> findByUserOrderByCreatedAtDesc(User user);
 
@@ -0,0 +1,42 @@
+package com.example.carrental.repository;
+
+import com.example.carrental.enums.DomainEventType;
+import com.example.carrental.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // FOR UPDATE SKIP LOCKED (lock timeout -2): concurrent dispatchers claim disjoint batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = 'PENDING' AND e.availableAt <= :now ORDER BY e.id")
+    List<OutboxEvent> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(String status);
+
+    // Events the handler has not applied, dead-lettered ones included
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.organizationId = :organizationId AND e.eventType IN :types " +
+           "AND e.status <> 'PROCESSED' AND NOT EXISTS (SELECT p.id FROM ProcessedEvent p " +
+           "WHERE p.eventId = e.id AND p.handler = :handler)")
+    List<Long> findUnhandledIds(@Param("organizationId") Long organizationId,
+                                @Param("types") Collection<DomainEventType> types,
+                                @Param("handler") String handler);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = 'PROCESSED' AND e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,20 @@
+package com.example.carrental.repository;
+
+import com.example.carrental.model.PhotoBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PhotoBlobRepository extends JpaRepository<PhotoBlob, String> {
+
+    // Row lock so concurrent uploads/deletes of the same content serialize on the counter
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT pb FROM PhotoBlob pb WHERE pb.sha256 = :sha256")
+    Optional<PhotoBlob> findForUpdate(@Param("sha256") String sha256);
+}
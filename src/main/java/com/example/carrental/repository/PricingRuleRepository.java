@@ -0,0 +1,26 @@
+package com.example.carrental.repository;
+
+import com.example.carrental.model.PricingRule;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PricingRuleRepository extends TenantScopedRepository<PricingRule, Long> {
+
+    // Query instead of EntityManager.find so the Hibernate tenantFilter applies
+    @Query("SELECT pr FROM PricingRule pr WHERE pr.id = :id")
+    Optional<PricingRule> findById(@Param("id") Long id);
+
+    List<PricingRule> findAllByOrderByRuleTypeAscIdAsc();
+
+    @Query("SELECT pr FROM PricingRule pr WHERE pr.organization.id = :organizationId AND pr.active = true")
+    List<PricingRule> findActiveByOrganizationId(@Param("organizationId") Long organizationId);
+
+    // Rules are only created and deleted and ids only grow, so the count and the highest id identify the rule set
+    @Query("SELECT COUNT(pr), MAX(pr.id) FROM PricingRule pr WHERE pr.organization.id = :organizationId")
+    List<Object[]> findRulesVersion(@Param("organizationId") Long organizationId);
+}
@@ -4,11 +4,18 @@ import com.example.carrental.enums.RentalStatus;
 import com.example.carrental.model.Rental;
 import com.example.carrental.model.Reservation;
 import com.example.carrental.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -22,9 +29,46 @@ public interface RentalRepository extends JpaRepository<Rental, Long> {
 
     List<Rental> findByStatusOrderByCreatedAtDesc(RentalStatus status);
 
-    @Query("SELECT r FROM Rental r WHERE r.status = 'ACTIVE' " +
-           "AND r.expectedReturnDateTime < :currentTime")
-    List<Rental> findOverdueRentals(@Param("currentTime") LocalDateTime currentTime);
+    // Rentals have no organization column: scoped through the reservation, with what the list shows fetched
+    @Query("SELECT r FROM Rental r JOIN FETCH r.reservation res JOIN FETCH res.vehicle LEFT JOIN FETCH res.customer " +
+           "WHERE r.status = :status AND res.organization.id = :organizationId ORDER BY r.createdAt DESC")
+    List<Rental> findByStatusForOrganization(@Param("status") RentalStatus status,
+                                             @Param("organizationId") Long organizationId);
+
+    @Query("SELECT r FROM Rental r JOIN FETCH r.reservation res JOIN FETCH res.vehicle LEFT JOIN FETCH res.customer " +
+           "WHERE r.status IN ('ACTIVE', 'OVERDUE') AND r.expectedReturnDateTime < :currentTime " +
+           "AND res.organization.id = :organizationId ORDER BY r.expectedReturnDateTime")
+    List<Rental> findOverdueForOrganization(@Param("organizationId") Long organizationId,
+                                            @Param("currentTime") LocalDateTime currentTime);
+
+    // Served by the partial index on expected_return_datetime WHERE status = 'ACTIVE': rentals leave it
+    // once marked OVERDUE, so the scan only covers rentals that became overdue since the last run.
+    // SKIP LOCKED so concurrent instances do not mark (and notify) the same rental twice.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM Rental r WHERE r.status = 'ACTIVE' AND r.expectedReturnDateTime < :currentTime " +
+           "ORDER BY r.expectedReturnDateTime")
+    List<Rental> findNewlyOverdueForUpdate(@Param("currentTime") LocalDateTime currentTime, Pageable pageable);
+
+    @Query("SELECT r.id, r.reservation.organization.id, r.expectedReturnDateTime, r.lateReturnFee " +
+           "FROM Rental r WHERE r.status = 'OVERDUE'")
+    List<Object[]> findOverdueSummaries();
+
+    // Guarded by status, so it cannot undo a check-in that committed after the rental was read
+    @Modifying
+    @Query("UPDATE Rental r SET r.lateReturnFee = :fee WHERE r.id = :id AND r.status = 'OVERDUE'")
+    int updateLateFeeIfOverdue(@Param("id") Long id, @Param("fee") BigDecimal fee);
+
+    @Query("SELECT COUNT(r) FROM Rental r WHERE r.status = 'OVERDUE' AND r.reservation.organization.id = :organizationId")
+    long countOverdue(@Param("organizationId") Long organizationId);
+
+    @Query("SELECT COALESCE(SUM(r.lateReturnFee), 0) FROM Rental r " +
+           "WHERE r.status = 'OVERDUE' AND r.reservation.organization.id = :organizationId")
+    BigDecimal sumOverdueLateFees(@Param("organizationId") Long organizationId);
+
+    @Query("SELECT r FROM Rental r JOIN FETCH r.reservation res JOIN FETCH res.vehicle LEFT JOIN FETCH res.customer " +
+           "WHERE r.id IN :ids ORDER BY r.expectedReturnDateTime")
+    List<Rental> findWithReservationByIdIn(@Param("ids") List<Long> ids);
 
     @Query("SELECT r FROM Rental r WHERE r.reservation.user = :user " +
            "ORDER BY r.createdAt DESC")
@@ -55,5 +99,13 @@ public interface RentalRepository extends JpaRepository<Rental, Long> {
            "ORDER BY r.createdAt DESC")
     List<Rental> findByVehicleIdOrderByCreatedAtDesc(@Param("vehicleId") Long vehicleId);
 
+    @Query("SELECT r.reservation.vehicle.id FROM Rental r WHERE r.id = :rentalId")
+    Optional<Long> findVehicleIdById(@Param("rentalId") Long rentalId);
+
     boolean existsByRentalCode(String rentalCode);
+
+    // Everything check-in touches in one query
+    @Query("SELECT r FROM Rental r JOIN FETCH r.reservation res JOIN FETCH res.vehicle LEFT JOIN FETCH res.customer " +
+           "WHERE r.rentalCode = :code OR res.reservationCode = :code")
+    Optional<Rental> findForCheckIn(@Param("code") String code);
 }
\ No newline at end of file
@@ -5,20 +5,31 @@ import com.example.carrental.model.Reservation;
 import com.example.carrental.model.User;
 import com.example.carrental.model.VehicleModel;
 import com.example.carrental.model.Customer;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+public interface ReservationRepository extends TenantScopedRepository<Reservation, Long> {
+
+    // Query instead of EntityManager.find so the Hibernate tenantFilter applies
+    @Query("SELECT r FROM Reservation r WHERE r.id = :id")
+    Optional<Reservation> findById(@Param("id") Long id);
 
     Optional<Reservation> findByReservationCode(String reservationCode);
 
+    // Everything check-out touches in one query
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.vehicle LEFT JOIN FETCH r.customer LEFT JOIN FETCH r.rental " +
+           "WHERE r.reservationCode = :reservationCode")
+    Optional<Reservation> findForCheckOut(@Param("reservationCode") String reservationCode);
+
     List<Reservation> findByUserOrderByCreatedAtDesc(User user);
 
     List<Reservation> findByStatusOrderByCreatedAtDesc(ReservationStatus status);
@@ -42,6 +53,21 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
            "AND r.endDate = :date")
     List<Reservation> findReturnsForDate(@Param("date") LocalDate date);
 
+    // Pickups and returns of one day with everything the manifest shows, in one query
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.vehicle JOIN FETCH r.user LEFT JOIN FETCH r.customer " +
+           "LEFT JOIN FETCH r.rental WHERE r.organization.id = :organizationId " +
+           "AND ((r.status = 'CONFIRMED' AND r.startDate = :date) OR (r.status = 'IN_PROGRESS' AND r.endDate = :date))")
+    List<Reservation> findManifestForDate(@Param("organizationId") Long organizationId, @Param("date") LocalDate date);
+
+    // Vehicle and rental fetched with each page, for rebuilding the daily rollups
+    @Query(value = "SELECT r FROM Reservation r JOIN FETCH r.vehicle LEFT JOIN FETCH r.rental",
+           countQuery = "SELECT COUNT(r) FROM Reservation r")
+    Page<Reservation> findPageForRollups(Pageable pageable);
+
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.vehicle JOIN FETCH r.user LEFT JOIN FETCH r.customer " +
+           "LEFT JOIN FETCH r.rental WHERE r.id IN :ids")
+    List<Reservation> findForManifestByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT r FROM Reservation r WHERE r.status = 'CONFIRMED' " +
            "AND r.endDate < :date")
     List<Reservation> findOverdueReservations(@Param("date") LocalDate date);
@@ -68,6 +94,14 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
         @Param("endDate") LocalDate endDate
     );
 
+    @Query("SELECT DISTINCT r.vehicle.id FROM Reservation r " +
+           "WHERE r.status IN ('CONFIRMED', 'IN_PROGRESS') " +
+           "AND r.startDate <= :endDate AND r.endDate >= :startDate")
+    List<Long> findVehicleIdsBookedBetween(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
     @Query("SELECT r FROM Reservation r WHERE r.vehicle = :vehicle " +
            "AND r.status IN ('CONFIRMED', 'IN_PROGRESS') " +
            "ORDER BY r.startDate")
@@ -0,0 +1,67 @@
+package com.example.carrental.repository;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Base of the repositories of tenant-owned entities. The inherited id lookups use
+ * EntityManager.find and bulk deletes are JPQL DML, neither of which the Hibernate tenantFilter
+ * applies to. Each repository declares findById as a query, and the lookups below go through it,
+ * so another organization's rows are neither found nor deleted. Batch deletes are not supported.
+ * Calls on a thread without a tenant are refused unless it runs in TenantContext.runUnscoped
+ * (see TenantFilterConfig).
+ */
+@NoRepositoryBean
+public interface TenantScopedRepository<T, ID> extends JpaRepository<T, ID> {
+
+    @Override
+    default boolean existsById(ID id) {
+        return findById(id).isPresent();
+    }
+
+    @Override
+    @Transactional
+    default void deleteById(ID id) {
+        findById(id).ifPresent(this::delete);
+    }
+
+    @Override
+    @Transactional
+    default void deleteAllById(Iterable<? extends ID> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    default T getReferenceById(ID id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException("No entity with id " + id));
+    }
+
+    @Override
+    @Deprecated
+    default T getById(ID id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    default T getOne(ID id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    default void deleteAllInBatch() {
+        throw new UnsupportedOperationException("Batch deletes bypass the tenant filter");
+    }
+
+    @Override
+    default void deleteAllInBatch(Iterable<T> entities) {
+        throw new UnsupportedOperationException("Batch deletes bypass the tenant filter");
+    }
+
+    @Override
+    default void deleteAllByIdInBatch(Iterable<ID> ids) {
+        throw new UnsupportedOperationException("Batch deletes bypass the tenant filter");
+    }
+}
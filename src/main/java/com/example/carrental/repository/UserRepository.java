@@ -33,6 +33,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u JOIN u.roles r WHERE r.name = :roleName")
     List<User> findByRoleName(@Param("roleName") String roleName);
 
+    // User has no tenantFilter, so the organization predicate is explicit
+    @Query("SELECT u FROM User u JOIN u.roles r WHERE r.name = :roleName AND u.organization.id = :organizationId")
+    List<User> findByRoleNameAndOrganizationId(@Param("roleName") String roleName,
+                                               @Param("organizationId") Long organizationId);
+
     @Query("SELECT u FROM User u WHERE " +
            "LOWER(u.username) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
@@ -2,16 +2,20 @@ package com.example.carrental.repository;
 
 import com.example.carrental.model.VehiclePhoto;
 import com.example.carrental.model.VehicleModel;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface VehiclePhotoRepository extends JpaRepository<VehiclePhoto, Long> {
+public interface VehiclePhotoRepository extends TenantScopedRepository<VehiclePhoto, Long> {
+
+    // Query instead of EntityManager.find so the Hibernate tenantFilter applies
+    @Query("SELECT vp FROM VehiclePhoto vp WHERE vp.id = :id")
+    Optional<VehiclePhoto> findById(@Param("id") Long id);
 
     List<VehiclePhoto> findByVehicleOrderByCreatedAtDesc(VehicleModel vehicle);
 
@@ -23,6 +27,11 @@ public interface VehiclePhotoRepository extends JpaRepository<VehiclePhoto, Long
 
     Optional<VehiclePhoto> findByVehicleAndIsPrimaryTrue(VehicleModel vehicle);
 
+    // vehicleId, photoUrl, thumbnailUrl of the primary photo of each vehicle, for list endpoints
+    @Query("SELECT vp.vehicle.id, vp.photoUrl, vp.thumbnailUrl FROM VehiclePhoto vp " +
+           "WHERE vp.vehicle.id IN :vehicleIds AND vp.isPrimary = true")
+    List<Object[]> findPrimaryPhotoUrlsByVehicleIds(@Param("vehicleIds") Collection<Long> vehicleIds);
+
     @Query("SELECT vp FROM VehiclePhoto vp WHERE vp.vehicle = :vehicle AND vp.photoType = 'GENERAL' ORDER BY vp.createdAt DESC")
     List<VehiclePhoto> findGeneralPhotosByVehicle(@Param("vehicle") VehicleModel vehicle);
 
@@ -32,5 +41,14 @@ public interface VehiclePhotoRepository extends JpaRepository<VehiclePhoto, Long
     @Query("SELECT COUNT(vp) FROM VehiclePhoto vp WHERE vp.vehicle = :vehicle AND vp.photoType = 'GENERAL'")
     long countGeneralPhotosByVehicle(@Param("vehicle") VehicleModel vehicle);
 
+    @Query("SELECT vp.id, vp.organization.id FROM VehiclePhoto vp WHERE vp.processingStatus = 'PENDING'")
+    List<Object[]> findPendingIds();
+
+    // Native, so the tenantFilter does not apply: photo files are requested without an organization
+    @Query(value = "SELECT COUNT(*) > 0 FROM vehicle_photos WHERE photo_type = 'GENERAL' " +
+                   "AND (photo_url = :url OR full_url = :url OR medium_url = :url OR thumbnail_url = :url)",
+           nativeQuery = true)
+    boolean existsGeneralPhotoFile(@Param("url") String url);
+
     void deleteByVehicle(VehicleModel vehicle);
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.example.carrental.scheduler;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.model.Organization;
+import com.example.carrental.repository.OrganizationRepository;
+import com.example.carrental.services.DailyRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Records each active organization's fleet size per category at the end of the day, the
+ * denominator of the utilization series.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class DailyRollupScheduler {
+
+    private final OrganizationRepository organizationRepository;
+    private final DailyRollupService dailyRollupService;
+
+    @Scheduled(cron = "0 55 23 * * ?") // Every day at 11:55 PM
+    public void snapshotFleetSizes() {
+        LocalDate today = LocalDate.now();
+        List<Organization> organizations = organizationRepository.findAllActive();
+        for (Organization organization : organizations) {
+            try {
+                TenantContext.runAs(organization.getId(), () -> dailyRollupService.snapshotFleetSize(organization.getId(), today));
+            } catch (Exception e) {
+                log.error("Error snapshotting fleet size for organization {}", organization.getId(), e);
+            }
+        }
+        log.info("Fleet size snapshot taken for {} organizations", organizations.size());
+    }
+}
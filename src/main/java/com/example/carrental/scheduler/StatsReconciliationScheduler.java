@@ -0,0 +1,58 @@
+package com.example.carrental.scheduler;
+
+import com.example.carrental.enums.JobType;
+import com.example.carrental.model.Organization;
+import com.example.carrental.repository.OrganizationRepository;
+import com.example.carrental.services.JobQueueService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enqueues a customer statistics reconciliation job and, after it, an engagement scoring job
+ * per active organization every night. The work itself runs on the job queue, one organization
+ * at a time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class StatsReconciliationScheduler {
+
+    private final OrganizationRepository organizationRepository;
+    private final JobQueueService jobQueueService;
+
+    @Scheduled(cron = "0 0 2 * * ?") // Every day at 2:00 AM
+    @Transactional
+    public void enqueueCustomerStatsReconciliation() {
+        try {
+            List<Organization> organizations = organizationRepository.findAllActive();
+            for (Organization organization : organizations) {
+                jobQueueService.enqueue(JobType.CUSTOMER_STATS_RECONCILE, organization.getId(), Map.of());
+            }
+            log.info("Customer statistics reconciliation queued for {} organizations", organizations.size());
+        } catch (Exception e) {
+            log.error("Error queueing customer statistics reconciliation", e);
+        }
+    }
+
+    @Scheduled(cron = "0 30 2 * * ?") // Every day at 2:30 AM
+    @Transactional
+    public void enqueueEngagementScoring() {
+        try {
+            List<Organization> organizations = organizationRepository.findAllActive();
+            for (Organization organization : organizations) {
+                jobQueueService.enqueue(JobType.ENGAGEMENT_SCORING, organization.getId(), Map.of());
+            }
+            log.info("Engagement scoring queued for {} organizations", organizations.size());
+        } catch (Exception e) {
+            log.error("Error queueing engagement scoring", e);
+        }
+    }
+}
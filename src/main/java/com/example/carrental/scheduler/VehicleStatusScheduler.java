@@ -1,5 +1,6 @@
 package com.example.carrental.scheduler;
 
+import com.example.carrental.services.CrossTenantTaskRunner;
 import com.example.carrental.services.ReservationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +18,7 @@ import org.springframework.stereotype.Component;
 public class VehicleStatusScheduler {
 
     private final ReservationService reservationService;
+    private final CrossTenantTaskRunner crossTenantTaskRunner;
 
     /**
      * Update vehicle statuses based on current date
@@ -30,7 +32,7 @@ public class VehicleStatusScheduler {
     public void updateVehicleStatuses() {
         try {
             log.info("=== Starting scheduled vehicle status update ===");
-            reservationService.updateAllVehicleStatusesBasedOnDates();
+            crossTenantTaskRunner.run(reservationService::updateAllVehicleStatusesBasedOnDates);
             log.info("=== Scheduled vehicle status update completed successfully ===");
         } catch (Exception e) {
             log.error("Error during scheduled vehicle status update", e);
@@ -45,7 +47,7 @@ public class VehicleStatusScheduler {
     public void updateVehicleStatusesHourly() {
         try {
             log.debug("Running hourly vehicle status update");
-            reservationService.updateAllVehicleStatusesBasedOnDates();
+            crossTenantTaskRunner.run(reservationService::updateAllVehicleStatusesBasedOnDates);
             log.debug("Hourly vehicle status update completed");
         } catch (Exception e) {
             log.error("Error during hourly vehicle status update", e);
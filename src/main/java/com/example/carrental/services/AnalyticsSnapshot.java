@@ -0,0 +1,594 @@
+package com.example.carrental.services;
+
+import com.example.carrental.enums.CustomerSegment;
+import com.example.carrental.enums.CustomerStatus;
+import com.example.carrental.enums.ReservationStatus;
+import com.example.carrental.enums.VehicleStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Immutable, column-oriented copy of one organization's reservations, customers and vehicles for
+ * ad-hoc reporting. Every attribute is a primitive array indexed by row: dates are epoch days,
+ * money is cents, enums are ordinals in a byte (-1 for none) and categories are dictionary ids.
+ * Group-by queries return a flat long[] of groups x measures, computed by a fork-join scan in
+ * which every leaf fills its own accumulator and the halves are summed on the way up.
+ */
+public final class AnalyticsSnapshot {
+
+    // Reservation measures, per group
+    public static final int COUNT = 0;
+    public static final int AMOUNT_CENTS = 1;
+    public static final int RENTAL_DAYS = 2;
+    public static final int LEAD_DAYS = 3;
+    public static final int RESERVATION_MEASURES = 4;
+
+    // Customer measures, per group (COUNT as above)
+    public static final int SPENT_CENTS = 1;
+    public static final int RESERVATIONS = 2;
+    public static final int CUSTOMER_MEASURES = 3;
+
+    /**
+     * Lower bounds, in cents, of the customer lifetime spend bands after "no spend"
+     */
+    public static final long[] SPEND_BANDS_CENTS = {1, 100_00, 500_00, 1_000_00, 5_000_00};
+
+    /**
+     * Upper bounds, in days since the last rental started, of the recency bands; beyond the last
+     * one a customer is lapsed, and customers who never rented get the group after that
+     */
+    public static final int[] RECENCY_BANDS_DAYS = {30, 90, 365};
+
+    static final int NONE = -1;
+    static final int NO_DAY = Integer.MIN_VALUE;
+    private static final int SCAN_THRESHOLD = 1 << 15;
+
+    public enum ReservationDimension {
+        /** Customer segment; reservations without a profile or segment go to the last group */
+        SEGMENT,
+        /** Vehicle category id; unknown vehicles go to the last group */
+        CATEGORY,
+        STATUS,
+        /** Month of the start date, from the month of the filter's first day */
+        START_MONTH,
+        /** Day of week the reservation was made, Monday first */
+        CREATED_WEEKDAY,
+        /** Single group */
+        TOTAL
+    }
+
+    public enum CustomerDimension {
+        /** Segment; customers without one go to the last group */
+        SEGMENT,
+        STATUS,
+        /** Lifetime completed spend, see {@link #SPEND_BANDS_CENTS} */
+        SPEND_BAND,
+        /** Days since the last rental started, see {@link #RECENCY_BANDS_DAYS} */
+        RECENCY,
+        /** Month of sign-up, from the month of the filter's first day */
+        CREATED_MONTH,
+        /** Single group */
+        TOTAL
+    }
+
+    @FunctionalInterface
+    interface RangeScan {
+        void accumulate(long[] accumulator, int from, int to);
+    }
+
+    private final long builtAtMillis;
+    private final int referenceDay;
+    private final String[] categories;
+
+    // Per reservation
+    private final int[] reservationCustomer;
+    private final int[] reservationCategory;
+    private final byte[] reservationStatus;
+    private final int[] createdDay;
+    private final int[] startDay;
+    private final int[] startMonth;
+    private final int[] rentalDays;
+    private final long[] amountCents;
+
+    // Per customer, sorted by id; spend, count and last rental are derived from the reservations
+    private final long[] customerIds;
+    private final byte[] customerSegment;
+    private final byte[] customerStatus;
+    private final int[] customerCreatedDay;
+    private final long[] customerSpentCents;
+    private final int[] customerReservations;
+    private final int[] customerLastDay;
+
+    // Per vehicle, sorted by id
+    private final long[] vehicleIds;
+    private final int[] vehicleCategory;
+    private final byte[] vehicleStatus;
+
+    private AnalyticsSnapshot(Builder builder) {
+        this.builtAtMillis = System.currentTimeMillis();
+        this.referenceDay = builder.referenceDay;
+        this.categories = builder.categories.toArray(new String[0]);
+
+        int customers = builder.customerCount;
+        int[] customerOrder = sortedOrder(builder.customerIds, customers);
+        this.customerIds = new long[customers];
+        this.customerSegment = new byte[customers];
+        this.customerStatus = new byte[customers];
+        this.customerCreatedDay = new int[customers];
+        for (int i = 0; i < customers; i++) {
+            int source = customerOrder[i];
+            customerIds[i] = builder.customerIds[source];
+            customerSegment[i] = builder.customerSegment[source];
+            customerStatus[i] = builder.customerStatus[source];
+            customerCreatedDay[i] = builder.customerCreatedDay[source];
+        }
+
+        int vehicles = builder.vehicleCount;
+        int[] vehicleOrder = sortedOrder(builder.vehicleIds, vehicles);
+        this.vehicleIds = new long[vehicles];
+        this.vehicleCategory = new int[vehicles];
+        this.vehicleStatus = new byte[vehicles];
+        for (int i = 0; i < vehicles; i++) {
+            int source = vehicleOrder[i];
+            vehicleIds[i] = builder.vehicleIds[source];
+            vehicleCategory[i] = builder.vehicleCategory[source];
+            vehicleStatus[i] = builder.vehicleStatus[source];
+        }
+
+        int n = builder.reservationCount;
+        this.reservationCustomer = new int[n];
+        this.reservationCategory = new int[n];
+        this.reservationStatus = Arrays.copyOf(builder.reservationStatus, n);
+        this.createdDay = Arrays.copyOf(builder.createdDay, n);
+        this.startDay = Arrays.copyOf(builder.startDay, n);
+        this.startMonth = new int[n];
+        this.rentalDays = Arrays.copyOf(builder.rentalDays, n);
+        this.amountCents = Arrays.copyOf(builder.amountCents, n);
+        this.customerSpentCents = new long[customers];
+        this.customerReservations = new int[customers];
+        this.customerLastDay = new int[customers];
+        Arrays.fill(customerLastDay, NO_DAY);
+
+        byte cancelled = (byte) ReservationStatus.CANCELLED.ordinal();
+        byte completed = (byte) ReservationStatus.COMPLETED.ordinal();
+        for (int r = 0; r < n; r++) {
+            int customer = indexOf(customerIds, builder.reservationCustomerId[r]);
+            int vehicle = indexOf(vehicleIds, builder.reservationVehicleId[r]);
+            reservationCustomer[r] = customer;
+            reservationCategory[r] = vehicle >= 0 ? vehicleCategory[vehicle] : NONE;
+            startMonth[r] = month(startDay[r]);
+            if (customer >= 0 && reservationStatus[r] != cancelled) {
+                customerReservations[customer]++;
+                customerLastDay[customer] = Math.max(customerLastDay[customer], startDay[r]);
+                if (reservationStatus[r] == completed) {
+                    customerSpentCents[customer] += amountCents[r];
+                }
+            }
+        }
+    }
+
+    public static Builder builder(int referenceDay) {
+        return new Builder(referenceDay);
+    }
+
+    public long getBuiltAtMillis() {
+        return builtAtMillis;
+    }
+
+    /**
+     * Epoch day the recency bands are measured from (the day the snapshot was taken)
+     */
+    public int getReferenceDay() {
+        return referenceDay;
+    }
+
+    public int reservationCount() {
+        return startDay.length;
+    }
+
+    public int customerCount() {
+        return customerIds.length;
+    }
+
+    public int vehicleCount() {
+        return vehicleIds.length;
+    }
+
+    public int categoryCount() {
+        return categories.length;
+    }
+
+    public String category(int id) {
+        return categories[id];
+    }
+
+    /**
+     * @return the category's dictionary id, or -1 when no vehicle has it
+     */
+    public int categoryId(String key) {
+        for (int c = 0; c < categories.length; c++) {
+            if (categories[c].equals(key)) {
+                return c;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Vehicle count per category id, the last entry being the whole fleet
+     */
+    public int[] fleetByCategory(VehicleStatus status) {
+        int[] counts = new int[categories.length + 1];
+        for (int v = 0; v < vehicleIds.length; v++) {
+            if (status == null || vehicleStatus[v] == status.ordinal()) {
+                counts[vehicleCategory[v]]++;
+                counts[categories.length]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Number of groups a reservation query on the dimension returns
+     */
+    public int groups(ReservationDimension dimension, Filter filter) {
+        return switch (dimension) {
+            case SEGMENT -> CustomerSegment.values().length + 1;
+            case CATEGORY -> categories.length + 1;
+            case STATUS -> ReservationStatus.values().length;
+            case START_MONTH -> filter.months();
+            case CREATED_WEEKDAY -> 7;
+            case TOTAL -> 1;
+        };
+    }
+
+    public int groups(CustomerDimension dimension, Filter filter) {
+        return switch (dimension) {
+            case SEGMENT -> CustomerSegment.values().length + 1;
+            case STATUS -> CustomerStatus.values().length;
+            case SPEND_BAND -> SPEND_BANDS_CENTS.length + 1;
+            case RECENCY -> RECENCY_BANDS_DAYS.length + 2;
+            case CREATED_MONTH -> filter.months();
+            case TOTAL -> 1;
+        };
+    }
+
+    /**
+     * Reservations matching the filter, grouped by the dimension: group g's measure m is at
+     * g * {@link #RESERVATION_MEASURES} + m.
+     */
+    public long[] aggregateReservations(Filter filter, ReservationDimension dimension) {
+        int groups = groups(dimension, filter);
+        int firstMonth = filter.fromDay == NO_DAY ? 0 : month(filter.fromDay);
+        return scan(reservationCount(), groups * RESERVATION_MEASURES, (acc, from, to) -> {
+            for (int r = from; r < to; r++) {
+                if (!matches(filter, r)) {
+                    continue;
+                }
+                int group = switch (dimension) {
+                    case SEGMENT -> segmentGroup(reservationCustomer[r] >= 0 ? customerSegment[reservationCustomer[r]] : NONE);
+                    case CATEGORY -> reservationCategory[r] >= 0 ? reservationCategory[r] : categories.length;
+                    case STATUS -> reservationStatus[r];
+                    case START_MONTH -> startMonth[r] - firstMonth;
+                    case CREATED_WEEKDAY -> Math.floorMod(createdDay[r] + 3, 7);
+                    case TOTAL -> 0;
+                };
+                if (group < 0) {
+                    continue;
+                }
+                int base = group * RESERVATION_MEASURES;
+                acc[base + COUNT]++;
+                acc[base + AMOUNT_CENTS] += amountCents[r];
+                acc[base + RENTAL_DAYS] += rentalDays[r];
+                acc[base + LEAD_DAYS] += Math.max(0, startDay[r] - createdDay[r]);
+            }
+        });
+    }
+
+    /**
+     * Customers whose sign-up day and segment match the filter (its status and category are
+     * ignored), grouped by the dimension: group g's measure m is at g * {@link #CUSTOMER_MEASURES} + m.
+     */
+    public long[] aggregateCustomers(Filter filter, CustomerDimension dimension) {
+        int groups = groups(dimension, filter);
+        int firstMonth = filter.fromDay == NO_DAY ? 0 : month(filter.fromDay);
+        return scan(customerCount(), groups * CUSTOMER_MEASURES, (acc, from, to) -> {
+            for (int c = from; c < to; c++) {
+                int day = customerCreatedDay[c];
+                if (day < filter.fromDay || day > filter.toDay
+                        || (filter.segment != null && customerSegment[c] != filter.segment.ordinal())) {
+                    continue;
+                }
+                int group = switch (dimension) {
+                    case SEGMENT -> segmentGroup(customerSegment[c]);
+                    case STATUS -> customerStatus[c];
+                    case SPEND_BAND -> spendBand(customerSpentCents[c]);
+                    case RECENCY -> recencyBand(customerLastDay[c]);
+                    case CREATED_MONTH -> month(day) - firstMonth;
+                    case TOTAL -> 0;
+                };
+                if (group < 0) {
+                    continue;
+                }
+                int base = group * CUSTOMER_MEASURES;
+                acc[base + COUNT]++;
+                acc[base + SPENT_CENTS] += customerSpentCents[c];
+                acc[base + RESERVATIONS] += customerReservations[c];
+            }
+        });
+    }
+
+    private boolean matches(Filter filter, int r) {
+        int day = startDay[r];
+        if (day < filter.fromDay || day > filter.toDay) {
+            return false;
+        }
+        if ((filter.statusMask & (1 << reservationStatus[r])) == 0) {
+            return false;
+        }
+        if (filter.categoryId != NONE && reservationCategory[r] != filter.categoryId) {
+            return false;
+        }
+        return filter.segment == null
+                || (reservationCustomer[r] >= 0 && customerSegment[reservationCustomer[r]] == filter.segment.ordinal());
+    }
+
+    private static int segmentGroup(int segment) {
+        return segment >= 0 ? segment : CustomerSegment.values().length;
+    }
+
+    static int spendBand(long cents) {
+        int band = 0;
+        while (band < SPEND_BANDS_CENTS.length && cents >= SPEND_BANDS_CENTS[band]) {
+            band++;
+        }
+        return band;
+    }
+
+    private int recencyBand(int lastDay) {
+        if (lastDay == NO_DAY) {
+            return RECENCY_BANDS_DAYS.length + 1;
+        }
+        int age = referenceDay - lastDay;
+        int band = 0;
+        while (band < RECENCY_BANDS_DAYS.length && age > RECENCY_BANDS_DAYS[band]) {
+            band++;
+        }
+        return band;
+    }
+
+    /**
+     * Months since 1970-01 of an epoch day
+     */
+    static int month(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return (date.getYear() - 1970) * 12 + date.getMonthValue() - 1;
+    }
+
+    static long[] scan(int rows, int width, RangeScan scan) {
+        if (rows <= SCAN_THRESHOLD) {
+            long[] accumulator = new long[width];
+            scan.accumulate(accumulator, 0, rows);
+            return accumulator;
+        }
+        return ForkJoinPool.commonPool().invoke(new ScanTask(scan, width, 0, rows));
+    }
+
+    private static final class ScanTask extends RecursiveTask<long[]> {
+        private final RangeScan scan;
+        private final int width;
+        private final int from;
+        private final int to;
+
+        ScanTask(RangeScan scan, int width, int from, int to) {
+            this.scan = scan;
+            this.width = width;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= SCAN_THRESHOLD) {
+                long[] accumulator = new long[width];
+                scan.accumulate(accumulator, from, to);
+                return accumulator;
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(scan, width, from, middle);
+            left.fork();
+            long[] right = new ScanTask(scan, width, middle, to).compute();
+            long[] result = left.join();
+            for (int i = 0; i < width; i++) {
+                result[i] += right[i];
+            }
+            return result;
+        }
+    }
+
+    private static int[] sortedOrder(long[] ids, int count) {
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(ids[a], ids[b]));
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    private static int indexOf(long[] sortedIds, long id) {
+        if (id == NONE) {
+            return NONE;
+        }
+        int index = Arrays.binarySearch(sortedIds, id);
+        return index >= 0 ? index : NONE;
+    }
+
+    /**
+     * Row filter. Reservations are matched on start day, status, vehicle category and customer
+     * segment; customers on sign-up day and segment. Days are inclusive epoch days.
+     */
+    public static final class Filter {
+        private final int fromDay;
+        private final int toDay;
+        private final int statusMask;
+        private final int categoryId;
+        private final CustomerSegment segment;
+
+        private Filter(int fromDay, int toDay, int statusMask, int categoryId, CustomerSegment segment) {
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            this.statusMask = statusMask;
+            this.categoryId = categoryId;
+            this.segment = segment;
+        }
+
+        public static Filter all() {
+            return new Filter(NO_DAY, Integer.MAX_VALUE, -1, NONE, null);
+        }
+
+        public Filter days(int fromDay, int toDay) {
+            if (toDay < fromDay) {
+                throw new IllegalArgumentException("Filter range ends before it starts");
+            }
+            return new Filter(fromDay, toDay, statusMask, categoryId, segment);
+        }
+
+        public Filter statuses(ReservationStatus... statuses) {
+            int mask = 0;
+            for (ReservationStatus status : statuses) {
+                mask |= 1 << status.ordinal();
+            }
+            return new Filter(fromDay, toDay, mask, categoryId, segment);
+        }
+
+        /**
+         * @param categoryId dictionary id from {@link #categoryId(String)}, -1 for every category
+         */
+        public Filter category(int categoryId) {
+            return new Filter(fromDay, toDay, statusMask, categoryId, segment);
+        }
+
+        public Filter segment(CustomerSegment segment) {
+            return new Filter(fromDay, toDay, statusMask, categoryId, segment);
+        }
+
+        int months() {
+            if (fromDay == NO_DAY || toDay == Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Monthly grouping needs a bounded date range");
+            }
+            return month(toDay) - month(fromDay) + 1;
+        }
+    }
+
+    public static final class Builder {
+
+        private final int referenceDay;
+        private final List<String> categories = new ArrayList<>();
+        private final Map<String, Integer> categoryIndex = new HashMap<>();
+
+        private int customerCount;
+        private long[] customerIds = new long[256];
+        private byte[] customerSegment = new byte[256];
+        private byte[] customerStatus = new byte[256];
+        private int[] customerCreatedDay = new int[256];
+
+        private int vehicleCount;
+        private long[] vehicleIds = new long[64];
+        private int[] vehicleCategory = new int[64];
+        private byte[] vehicleStatus = new byte[64];
+
+        private int reservationCount;
+        private long[] reservationCustomerId = new long[1024];
+        private long[] reservationVehicleId = new long[1024];
+        private byte[] reservationStatus = new byte[1024];
+        private int[] createdDay = new int[1024];
+        private int[] startDay = new int[1024];
+        private int[] rentalDays = new int[1024];
+        private long[] amountCents = new long[1024];
+
+        private Builder(int referenceDay) {
+            this.referenceDay = referenceDay;
+        }
+
+        public Builder customer(long id, CustomerSegment segment, CustomerStatus status, int createdDay) {
+            if (customerCount == customerIds.length) {
+                int capacity = customerCount * 2;
+                customerIds = Arrays.copyOf(customerIds, capacity);
+                customerSegment = Arrays.copyOf(customerSegment, capacity);
+                customerStatus = Arrays.copyOf(customerStatus, capacity);
+                customerCreatedDay = Arrays.copyOf(customerCreatedDay, capacity);
+            }
+            customerIds[customerCount] = id;
+            customerSegment[customerCount] = ordinal(segment);
+            customerStatus[customerCount] = ordinal(status);
+            customerCreatedDay[customerCount] = createdDay;
+            customerCount++;
+            return this;
+        }
+
+        public Builder vehicle(long id, String categoryKey, VehicleStatus status) {
+            if (vehicleCount == vehicleIds.length) {
+                int capacity = vehicleCount * 2;
+                vehicleIds = Arrays.copyOf(vehicleIds, capacity);
+                vehicleCategory = Arrays.copyOf(vehicleCategory, capacity);
+                vehicleStatus = Arrays.copyOf(vehicleStatus, capacity);
+            }
+            Integer category = categoryIndex.get(categoryKey);
+            if (category == null) {
+                category = categories.size();
+                categories.add(categoryKey);
+                categoryIndex.put(categoryKey, category);
+            }
+            vehicleIds[vehicleCount] = id;
+            vehicleCategory[vehicleCount] = category;
+            vehicleStatus[vehicleCount] = ordinal(status);
+            vehicleCount++;
+            return this;
+        }
+
+        /**
+         * @param customerId customer profile, or null for reservations made without one
+         */
+        public Builder reservation(Long customerId, long vehicleId, ReservationStatus status,
+                                   int createdDay, int startDay, int rentalDays, long amountCents) {
+            if (reservationCount == reservationVehicleId.length) {
+                int capacity = reservationCount * 2;
+                reservationCustomerId = Arrays.copyOf(reservationCustomerId, capacity);
+                reservationVehicleId = Arrays.copyOf(reservationVehicleId, capacity);
+                reservationStatus = Arrays.copyOf(reservationStatus, capacity);
+                this.createdDay = Arrays.copyOf(this.createdDay, capacity);
+                this.startDay = Arrays.copyOf(this.startDay, capacity);
+                this.rentalDays = Arrays.copyOf(this.rentalDays, capacity);
+                this.amountCents = Arrays.copyOf(this.amountCents, capacity);
+            }
+            int r = reservationCount++;
+            reservationCustomerId[r] = customerId != null ? customerId : NONE;
+            reservationVehicleId[r] = vehicleId;
+            reservationStatus[r] = ordinal(status);
+            this.createdDay[r] = createdDay;
+            this.startDay[r] = startDay;
+            this.rentalDays[r] = rentalDays;
+            this.amountCents[r] = amountCents;
+            return this;
+        }
+
+        public AnalyticsSnapshot build() {
+            return new AnalyticsSnapshot(this);
+        }
+
+        private static byte ordinal(Enum<?> value) {
+            return value != null ? (byte) value.ordinal() : (byte) NONE;
+        }
+    }
+}
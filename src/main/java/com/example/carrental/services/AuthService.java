@@ -28,6 +28,7 @@ public class AuthService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
     private final AuthenticationManager authenticationManager;
 
     public AuthResponseDTO login(LoginRequestDTO request) {
@@ -119,7 +120,8 @@ public class AuthService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (!jwtService.isTokenValid(refreshToken, user)) {
+        if (!jwtService.isTokenValid(refreshToken, user)
+                || tokenRevocationService.isRevoked(jwtService.extractTokenId(refreshToken))) {
             throw new RuntimeException("Invalid refresh token");
         }
 
@@ -153,7 +155,7 @@ public class AuthService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (!jwtService.isTokenValid(token, user)) {
+        if (!jwtService.isTokenValid(token, user) || tokenRevocationService.isRevoked(jwtService.extractTokenId(token))) {
             throw new RuntimeException("Invalid token");
         }
 
@@ -175,6 +177,17 @@ public class AuthService {
         );
     }
 
+    /**
+     * Revoke the access token and, when given, the refresh token of the session
+     */
+    public void logout(String token, String refreshToken) {
+        tokenRevocationService.revoke(token);
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            tokenRevocationService.revoke(refreshToken);
+        }
+        log.info("Logout successful for user: {}", jwtService.extractUsername(token));
+    }
+
     private Role createDefaultRole() {
         Role userRole = Role.builder()
                 .name("USER")
@@ -0,0 +1,193 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.dto.AutocompleteSuggestionDTO;
+import com.example.carrental.model.Customer;
+import com.example.carrental.model.Organization;
+import com.example.carrental.model.VehicleModel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Typeahead over license plates, customer codes, emails and last names, from per-organization
+ * in-memory tries. Loaded at startup and kept current by {@link SearchIndexEntityListener} after
+ * commits on this instance; an organization's tries are reloaded once they are older than the
+ * max age, which picks up changes made on other instances.
+ */
+@Slf4j
+@Service
+public class AutocompleteService {
+
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final String VEHICLE_QUERY =
+            "SELECT v.id, v.organization.id, v.licensePlate, v.brand, v.model FROM VehicleModel v";
+    private static final String CUSTOMER_QUERY =
+            "SELECT c.id, c.organization.id, c.customerCode, c.email, c.firstName, c.lastName FROM Customer c";
+
+    private static final class TenantTries {
+        private final AutocompleteTrie<AutocompleteSuggestionDTO> vehicles = new AutocompleteTrie<>();
+        private final AutocompleteTrie<AutocompleteSuggestionDTO> customers = new AutocompleteTrie<>();
+        private final long loadedAt;
+
+        TenantTries(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final Map<Long, TenantTries> tenants = new ConcurrentHashMap<>();
+    private final Map<Long, Object> loadLocks = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.autocomplete.max-age-ms:60000}")
+    private long maxAgeMillis;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadTries() {
+        long now = System.currentTimeMillis();
+        TenantContext.runUnscoped(() -> {
+            Map<Long, TenantTries> loaded = new HashMap<>();
+            List<Object[]> vehicles = entityManager.createQuery(VEHICLE_QUERY, Object[].class).getResultList();
+            for (Object[] row : vehicles) {
+                putVehicle(loaded.computeIfAbsent((Long) row[1], id -> new TenantTries(now)), row);
+            }
+            List<Object[]> customers = entityManager.createQuery(CUSTOMER_QUERY, Object[].class).getResultList();
+            for (Object[] row : customers) {
+                putCustomer(loaded.computeIfAbsent((Long) row[1], id -> new TenantTries(now)), row);
+            }
+            tenants.putAll(loaded);
+            log.info("Autocomplete loaded: {} vehicles, {} customers", vehicles.size(), customers.size());
+        });
+    }
+
+    /**
+     * @param scope "vehicles", "customers" or "all"
+     */
+    public List<AutocompleteSuggestionDTO> suggest(String prefix, String scope, int limit) {
+        return suggest(prefix, scope, limit, System.currentTimeMillis());
+    }
+
+    List<AutocompleteSuggestionDTO> suggest(String prefix, String scope, int limit, long now) {
+        TenantTries tries = tries(TenantContext.getTenantId(), now);
+        int k = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        List<AutocompleteSuggestionDTO> suggestions = new ArrayList<>(k);
+
+        if (!"customers".equals(scope)) {
+            suggestions.addAll(tries.vehicles.topK(prefix, k));
+        }
+        if (!"vehicles".equals(scope) && suggestions.size() < k) {
+            suggestions.addAll(tries.customers.topK(prefix, k - suggestions.size()));
+        }
+        return suggestions;
+    }
+
+    public void index(VehicleModel vehicle) {
+        TenantTries tries = tenants.get(organizationId(vehicle.getOrganization()));
+        if (tries != null) {
+            putVehicle(tries, vehicle.getId(), vehicle.getLicensePlate(), vehicle.getBrand(), vehicle.getModel());
+        }
+    }
+
+    public void index(Customer customer) {
+        TenantTries tries = tenants.get(organizationId(customer.getOrganization()));
+        if (tries != null) {
+            putCustomer(tries, customer.getId(), customer.getCustomerCode(), customer.getEmail(),
+                    customer.getFirstName(), customer.getLastName());
+        }
+    }
+
+    public void remove(VehicleModel vehicle) {
+        TenantTries tries = tenants.get(organizationId(vehicle.getOrganization()));
+        if (tries != null) {
+            tries.vehicles.remove(vehicle.getId());
+        }
+    }
+
+    public void remove(Customer customer) {
+        TenantTries tries = tenants.get(organizationId(customer.getOrganization()));
+        if (tries != null) {
+            tries.customers.remove(customer.getId());
+        }
+    }
+
+    private TenantTries tries(Long organizationId, long now) {
+        TenantTries tries = tenants.get(organizationId);
+        if (tries != null && now - tries.loadedAt < maxAgeMillis) {
+            return tries;
+        }
+        synchronized (loadLocks.computeIfAbsent(organizationId, id -> new Object())) {
+            tries = tenants.get(organizationId);
+            if (tries == null || now - tries.loadedAt >= maxAgeMillis) {
+                tries = load(organizationId, now);
+                tenants.put(organizationId, tries);
+            }
+            return tries;
+        }
+    }
+
+    private TenantTries load(Long organizationId, long now) {
+        TenantTries tries = new TenantTries(now);
+        entityManager.createQuery(VEHICLE_QUERY + " WHERE v.organization.id = :organizationId", Object[].class)
+                .setParameter("organizationId", organizationId)
+                .getResultList()
+                .forEach(row -> putVehicle(tries, row));
+        entityManager.createQuery(CUSTOMER_QUERY + " WHERE c.organization.id = :organizationId", Object[].class)
+                .setParameter("organizationId", organizationId)
+                .getResultList()
+                .forEach(row -> putCustomer(tries, row));
+        log.debug("Autocomplete reloaded for organization {}: {} vehicles, {} customers",
+                organizationId, tries.vehicles.size(), tries.customers.size());
+        return tries;
+    }
+
+    // Query row: id, organization id, plate, brand, model
+    private void putVehicle(TenantTries tries, Object[] row) {
+        putVehicle(tries, (Long) row[0], (String) row[2], (String) row[3], (String) row[4]);
+    }
+
+    private void putVehicle(TenantTries tries, Long id, String plate, String brand, String model) {
+        String label = plate + " · " + brand + " " + model;
+        tries.vehicles.put(id, List.of(plate),
+                List.of(suggestion("VEHICLE", id, "LICENSE_PLATE", plate, label)));
+    }
+
+    // Query row: id, organization id, code, email, first name, last name
+    private void putCustomer(TenantTries tries, Object[] row) {
+        putCustomer(tries, (Long) row[0], (String) row[2], (String) row[3], (String) row[4], (String) row[5]);
+    }
+
+    private void putCustomer(TenantTries tries, Long id, String code, String email, String firstName, String lastName) {
+        String label = code + " · " + firstName + " " + lastName;
+        tries.customers.put(id, List.of(code, email, lastName), List.of(
+                suggestion("CUSTOMER", id, "CUSTOMER_CODE", code, label),
+                suggestion("CUSTOMER", id, "EMAIL", email, label),
+                suggestion("CUSTOMER", id, "LAST_NAME", lastName, label)));
+    }
+
+    private AutocompleteSuggestionDTO suggestion(String type, Long id, String field, String value, String label) {
+        return AutocompleteSuggestionDTO.builder()
+                .type(type)
+                .id(id)
+                .field(field)
+                .value(value)
+                .label(label)
+                .build();
+    }
+
+    private Long organizationId(Organization organization) {
+        return organization != null ? organization.getId() : TenantContext.getTenantId();
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.carrental.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive prefix trie for typeahead. Each entity (by id) is reachable through several
+ * keys (plate, code, email, ...); re-putting an id replaces its previous keys. Lookups walk the
+ * subtree in key order and stop as soon as k distinct entities are found, so cost depends on k
+ * and the prefix length, not on the number of entries.
+ */
+public class AutocompleteTrie<T> {
+
+    private static class Node<T> {
+        private final TreeMap<Character, Node<T>> children = new TreeMap<>();
+        private Map<Long, T> values; // entities whose key ends here
+    }
+
+    private final Node<T> root = new Node<>();
+    private final Map<Long, List<String>> keysById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param keys  raw keys; blanks are ignored
+     * @param values one value per key (same order as keys)
+     */
+    public void put(long id, List<String> keys, List<T> values) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            List<String> stored = new ArrayList<>();
+            for (int i = 0; i < keys.size(); i++) {
+                String key = normalize(keys.get(i));
+                if (key.isEmpty()) {
+                    continue;
+                }
+                Node<T> node = root;
+                for (int c = 0; c < key.length(); c++) {
+                    node = node.children.computeIfAbsent(key.charAt(c), ch -> new Node<>());
+                }
+                if (node.values == null) {
+                    node.values = new LinkedHashMap<>();
+                }
+                node.values.putIfAbsent(id, values.get(i));
+                stored.add(key);
+            }
+            keysById.put(id, stored);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return keysById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return up to k values whose keys start with the prefix, one per entity, in lexicographic key order
+     */
+    public List<T> topK(String prefix, int k) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || k <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node<T> node = root;
+            for (int c = 0; c < key.length() && node != null; c++) {
+                node = node.children.get(key.charAt(c));
+            }
+            if (node == null) {
+                return List.of();
+            }
+
+            // Pre-order walk: a node's own values before its (ordered) children
+            Map<Long, T> found = new LinkedHashMap<>();
+            Deque<Node<T>> stack = new ArrayDeque<>();
+            stack.push(node);
+            while (!stack.isEmpty() && found.size() < k) {
+                Node<T> current = stack.pop();
+                if (current.values != null) {
+                    for (Map.Entry<Long, T> entry : current.values.entrySet()) {
+                        found.putIfAbsent(entry.getKey(), entry.getValue());
+                        if (found.size() == k) {
+                            break;
+                        }
+                    }
+                }
+                Iterator<Node<T>> children = current.children.descendingMap().values().iterator();
+                while (children.hasNext()) {
+                    stack.push(children.next());
+                }
+            }
+            return new ArrayList<>(found.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(long id) {
+        List<String> keys = keysById.remove(id);
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            removeKey(root, key, 0, id);
+        }
+    }
+
+    /**
+     * @return true when the node became empty and can be unlinked from its parent
+     */
+    private boolean removeKey(Node<T> node, String key, int depth, long id) {
+        if (depth == key.length()) {
+            if (node.values != null) {
+                node.values.remove(id);
+                if (node.values.isEmpty()) {
+                    node.values = null;
+                }
+            }
+        } else {
+            Node<T> child = node.children.get(key.charAt(depth));
+            if (child != null && removeKey(child, key, depth + 1, id)) {
+                node.children.remove(key.charAt(depth));
+            }
+        }
+        return node != root && node.values == null && node.children.isEmpty();
+    }
+
+    private static String normalize(String key) {
+        return key == null ? "" : key.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.dto.BranchDTO;
+import com.example.carrental.model.Branch;
+import com.example.carrental.model.Organization;
+import com.example.carrental.model.VehicleModel;
+import com.example.carrental.repository.BranchRepository;
+import com.example.carrental.repository.OrganizationRepository;
+import com.example.carrental.repository.VehicleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BranchService {
+
+    private final BranchRepository branchRepository;
+    private final OrganizationRepository organizationRepository;
+    private final VehicleRepository vehicleRepository;
+
+    @Transactional(readOnly = true)
+    public List<BranchDTO> getBranches() {
+        Map<Long, Long> vehicleCounts = new HashMap<>();
+        for (Object[] row : branchRepository.countVehiclesByBranch()) {
+            vehicleCounts.put((Long) row[0], (Long) row[1]);
+        }
+        return branchRepository.findAllByOrderByCodeAsc().stream()
+                .map(branch -> toDTO(branch, vehicleCounts.getOrDefault(branch.getId(), 0L)))
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public BranchDTO createBranch(BranchDTO branchDTO) {
+        Long organizationId = TenantContext.getTenantId();
+        Organization organization = organizationRepository.findById(organizationId)
+                .orElseThrow(() -> new RuntimeException("Organization not found: " + organizationId));
+        String code = branchDTO.getCode().trim().toUpperCase(Locale.ROOT);
+        if (branchRepository.existsByOrganizationIdAndCodeIgnoreCase(organizationId, code)) {
+            throw new RuntimeException("Branch code already exists: " + code);
+        }
+
+        Branch branch = Branch.builder()
+                .organization(organization)
+                .code(code)
+                .name(branchDTO.getName().trim())
+                .address(branchDTO.getAddress())
+                .city(branchDTO.getCity())
+                .active(branchDTO.getActive() == null || branchDTO.getActive())
+                .build();
+        branch = branchRepository.save(branch);
+        log.info("Created branch {} for organization {}", branch.getCode(), organizationId);
+        return toDTO(branch, 0L);
+    }
+
+    @Transactional
+    public BranchDTO updateBranch(Long id, BranchDTO branchDTO) {
+        Branch branch = branchRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Branch not found with id: " + id));
+        // The code is what reservations and reports refer to, so it is not editable
+        branch.setName(branchDTO.getName().trim());
+        branch.setAddress(branchDTO.getAddress());
+        branch.setCity(branchDTO.getCity());
+        if (branchDTO.getActive() != null) {
+            branch.setActive(branchDTO.getActive());
+        }
+        log.info("Updated branch {}", branch.getCode());
+        return toDTO(branch, null);
+    }
+
+    /**
+     * Record where a vehicle is parked, e.g. after a transfer
+     */
+    @Transactional
+    public void assignVehicle(Long branchId, Long vehicleId) {
+        Branch branch = branchRepository.findById(branchId)
+                .orElseThrow(() -> new RuntimeException("Branch not found with id: " + branchId));
+        VehicleModel vehicle = vehicleRepository.findById(vehicleId)
+                .orElseThrow(() -> new RuntimeException("Vehicle not found with id: " + vehicleId));
+        vehicle.setCurrentBranch(branch);
+        log.info("Vehicle {} is now at branch {}", vehicle.getLicensePlate(), branch.getCode());
+    }
+
+    /**
+     * The organization's active branch whose code or name matches a free-text location, or null
+     */
+    @Transactional(readOnly = true)
+    public Branch resolve(Long organizationId, String location) {
+        return byLocation(branchRepository.findActiveByOrganizationId(organizationId)).get(locationKey(location));
+    }
+
+    /**
+     * Active branches keyed by normalized code and name; a code wins over another branch's identical name
+     */
+    static Map<String, Branch> byLocation(List<Branch> branches) {
+        Map<String, Branch> byLocation = new HashMap<>();
+        for (Branch branch : branches) {
+            byLocation.putIfAbsent(locationKey(branch.getName()), branch);
+        }
+        for (Branch branch : branches) {
+            byLocation.put(locationKey(branch.getCode()), branch);
+        }
+        return byLocation;
+    }
+
+    static String locationKey(String location) {
+        return location == null ? "" : location.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private BranchDTO toDTO(Branch branch, Long vehicleCount) {
+        return BranchDTO.builder()
+                .id(branch.getId())
+                .code(branch.getCode())
+                .name(branch.getName())
+                .address(branch.getAddress())
+                .city(branch.getCity())
+                .active(branch.getActive())
+                .vehicleCount(vehicleCount)
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.model.Organization;
+import com.example.carrental.repository.OrganizationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs system work that spans organizations (schedulers, startup sweeps). With every
+ * organization in the shared tables that is a single pass in {@link TenantContext#callUnscoped}.
+ * With tenant isolation enabled it runs once per organization in {@link TenantContext#callAs}
+ * instead: each pass is routed to that organization's schema or database, never sees the
+ * shared copy a cutover leaves behind, and only waits while that organization is cut over.
+ * The task must start its own transactions.
+ */
+@Slf4j
+@Service
+public class CrossTenantTaskRunner {
+
+    private final OrganizationRepository organizationRepository;
+    private final boolean isolationEnabled;
+
+    public CrossTenantTaskRunner(OrganizationRepository organizationRepository,
+                                 @Value("${app.tenancy.isolation-enabled:false}") boolean isolationEnabled) {
+        this.organizationRepository = organizationRepository;
+        this.isolationEnabled = isolationEnabled;
+    }
+
+    public void run(Runnable task) {
+        sum(() -> {
+            task.run();
+            return 0;
+        });
+    }
+
+    /**
+     * @return the task's results added up over the passes (null counts as 0)
+     */
+    public int sum(Supplier<Integer> task) {
+        if (!isolationEnabled) {
+            Integer result = TenantContext.callUnscoped(task);
+            return result != null ? result : 0;
+        }
+
+        int total = 0;
+        for (Organization organization : organizationRepository.findAll()) {
+            // One organization failing (e.g. paused past the wait for a cutover) does not hold back the others
+            try {
+                Integer result = TenantContext.callAs(organization.getId(), task);
+                total += result != null ? result : 0;
+            } catch (Exception e) {
+                log.error("Cross-tenant task failed for organization {}", organization.getId(), e);
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,388 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.dto.ActivityAnalyticsDTO;
+import com.example.carrental.dto.AnalyticsBucketDTO;
+import com.example.carrental.dto.SegmentAnalyticsDTO;
+import com.example.carrental.dto.SpendingAnalyticsDTO;
+import com.example.carrental.enums.CustomerSegment;
+import com.example.carrental.enums.CustomerStatus;
+import com.example.carrental.enums.CustomerSummaryDimension;
+import com.example.carrental.enums.ReservationStatus;
+import com.example.carrental.enums.VehicleStatus;
+import com.example.carrental.model.CustomerSummaryCount;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.example.carrental.services.AnalyticsSnapshot.AMOUNT_CENTS;
+import static com.example.carrental.services.AnalyticsSnapshot.COUNT;
+import static com.example.carrental.services.AnalyticsSnapshot.CUSTOMER_MEASURES;
+import static com.example.carrental.services.AnalyticsSnapshot.LEAD_DAYS;
+import static com.example.carrental.services.AnalyticsSnapshot.RENTAL_DAYS;
+import static com.example.carrental.services.AnalyticsSnapshot.RESERVATION_MEASURES;
+
+/**
+ * Customer segment, spending and activity reports. Each organization's reservations, customers
+ * and vehicles are copied into an {@link AnalyticsSnapshot} in a read-only transaction (served by
+ * a read replica when one is configured) and every report is a handful of parallel scans over
+ * its columns, so reporting never queries the OLTP tables. Snapshots of organizations that have
+ * been read are refreshed on an interval; figures are as fresh as the last refresh. Customer
+ * counts and lifetime spend come from the materialized {@link CustomerSummaryService} tables.
+ */
+@Slf4j
+@Service
+public class CustomerAnalyticsService {
+
+    public static final int MAX_MONTHS = 120;
+
+    private static final int FETCH_SIZE = 10_000;
+    private static final String UNASSIGNED = CustomerSummaryService.UNASSIGNED;
+
+    private final CustomerSummaryService customerSummaryService;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Map<Long, AnalyticsSnapshot> snapshots = new ConcurrentHashMap<>();
+    // One build at a time per organization; other organizations are not held up
+    private final Map<Long, Object> buildLocks = new ConcurrentHashMap<>();
+
+    @Value("${app.analytics.snapshot-max-age-ms:900000}")
+    private long snapshotMaxAgeMillis;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CustomerAnalyticsService(CustomerSummaryService customerSummaryService, PlatformTransactionManager transactionManager) {
+        this.customerSummaryService = customerSummaryService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public SegmentAnalyticsDTO getSegmentAnalytics(LocalDate from, LocalDate to) {
+        Long organizationId = TenantContext.getTenantId();
+        AnalyticsSnapshot snapshot = snapshot(organizationId);
+        AnalyticsSnapshot.Filter range = range(from, to);
+
+        Map<String, CustomerSummaryCount> customers = summaryCounts(organizationId, CustomerSummaryDimension.SEGMENT);
+        long[] booked = snapshot.aggregateReservations(range.statuses(ReservationStatus.PENDING, ReservationStatus.CONFIRMED,
+                ReservationStatus.IN_PROGRESS, ReservationStatus.COMPLETED, ReservationStatus.NO_SHOW),
+                AnalyticsSnapshot.ReservationDimension.SEGMENT);
+        long[] completed = snapshot.aggregateReservations(range.statuses(ReservationStatus.COMPLETED),
+                AnalyticsSnapshot.ReservationDimension.SEGMENT);
+
+        List<SegmentAnalyticsDTO.Segment> segments = new ArrayList<>();
+        for (int g = 0; g < snapshot.groups(AnalyticsSnapshot.ReservationDimension.SEGMENT, range); g++) {
+            int r = g * RESERVATION_MEASURES;
+            CustomerSummaryCount count = customers.get(segmentLabel(g));
+            long customerCount = count != null ? count.getCustomers() : 0;
+            long spentCents = count != null ? count.getSpentCents() : 0;
+            segments.add(SegmentAnalyticsDTO.Segment.builder()
+                    .segment(segmentLabel(g))
+                    .customers(customerCount)
+                    .lifetimeSpent(money(spentCents))
+                    .averageLifetimeSpent(average(spentCents, customerCount))
+                    .reservations(booked[r + COUNT])
+                    .completedReservations(completed[r + COUNT])
+                    .revenue(money(completed[r + AMOUNT_CENTS]))
+                    .averageRentalDays(ratio(booked[r + RENTAL_DAYS], booked[r + COUNT]))
+                    .build());
+        }
+
+        return SegmentAnalyticsDTO.builder()
+                .from(from)
+                .to(to)
+                .snapshotTakenAt(takenAt(snapshot))
+                .segments(segments)
+                .preferredCategories(customerSummaryService.getCounts(organizationId, CustomerSummaryDimension.PREFERRED_CATEGORY).stream()
+                        .filter(count -> count.getCustomers() > 0)
+                        .map(count -> AnalyticsBucketDTO.builder()
+                                .label(count.getBucket())
+                                .count(count.getCustomers())
+                                .amount(money(count.getSpentCents()))
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    /**
+     * @param category only reservations of this vehicle category, when set
+     */
+    public SpendingAnalyticsDTO getSpendingAnalytics(LocalDate from, LocalDate to, String category) {
+        Long organizationId = TenantContext.getTenantId();
+        AnalyticsSnapshot snapshot = snapshot(organizationId);
+        AnalyticsSnapshot.Filter completed = range(from, to).statuses(ReservationStatus.COMPLETED);
+        if (category != null && !category.isBlank()) {
+            int categoryId = snapshot.categoryId(PricingService.categoryKey(category));
+            // A category no vehicle has matches nothing rather than everything
+            completed = completed.category(categoryId >= 0 ? categoryId : snapshot.categoryCount());
+        }
+
+        long[] total = snapshot.aggregateReservations(completed, AnalyticsSnapshot.ReservationDimension.TOTAL);
+        long[] byCategory = snapshot.aggregateReservations(completed, AnalyticsSnapshot.ReservationDimension.CATEGORY);
+        long[] byMonth = snapshot.aggregateReservations(completed, AnalyticsSnapshot.ReservationDimension.START_MONTH);
+        long[] bySegment = snapshot.aggregateReservations(completed, AnalyticsSnapshot.ReservationDimension.SEGMENT);
+        Map<String, CustomerSummaryCount> bySpend = summaryCounts(organizationId, CustomerSummaryDimension.SPEND_BAND);
+
+        List<AnalyticsBucketDTO> categories = new ArrayList<>();
+        for (int g = 0; g < snapshot.groups(AnalyticsSnapshot.ReservationDimension.CATEGORY, completed); g++) {
+            if (byCategory[g * RESERVATION_MEASURES + COUNT] > 0) {
+                String label = g < snapshot.categoryCount() ? snapshot.category(g) : UNASSIGNED;
+                categories.add(revenueBucket(label.isEmpty() ? UNASSIGNED : label, byCategory, g));
+            }
+        }
+        List<AnalyticsBucketDTO> months = new ArrayList<>();
+        YearMonth firstMonth = YearMonth.from(from);
+        for (int g = 0; g < snapshot.groups(AnalyticsSnapshot.ReservationDimension.START_MONTH, completed); g++) {
+            months.add(revenueBucket(firstMonth.plusMonths(g).toString(), byMonth, g));
+        }
+        List<AnalyticsBucketDTO> segments = new ArrayList<>();
+        for (int g = 0; g < snapshot.groups(AnalyticsSnapshot.ReservationDimension.SEGMENT, completed); g++) {
+            segments.add(revenueBucket(segmentLabel(g), bySegment, g));
+        }
+        List<AnalyticsBucketDTO> spendBands = new ArrayList<>();
+        for (int g = 0; g < snapshot.groups(AnalyticsSnapshot.CustomerDimension.SPEND_BAND, AnalyticsSnapshot.Filter.all()); g++) {
+            CustomerSummaryCount count = bySpend.get(String.valueOf(g));
+            spendBands.add(AnalyticsBucketDTO.builder()
+                    .label(spendBandLabel(g))
+                    .count(count != null ? count.getCustomers() : 0L)
+                    .amount(money(count != null ? count.getSpentCents() : 0))
+                    .build());
+        }
+
+        return SpendingAnalyticsDTO.builder()
+                .from(from)
+                .to(to)
+                .category(category)
+                .snapshotTakenAt(takenAt(snapshot))
+                .totalRevenue(money(total[AMOUNT_CENTS]))
+                .completedReservations(total[COUNT])
+                .averageTicket(average(total[AMOUNT_CENTS], total[COUNT]))
+                .averageDailyRevenue(average(total[AMOUNT_CENTS], total[RENTAL_DAYS]))
+                .revenueByCategory(categories)
+                .revenueByMonth(months)
+                .revenueBySegment(segments)
+                .customersBySpend(spendBands)
+                .build();
+    }
+
+    public ActivityAnalyticsDTO getActivityAnalytics(LocalDate from, LocalDate to) {
+        AnalyticsSnapshot snapshot = snapshot(TenantContext.getTenantId());
+        AnalyticsSnapshot.Filter range = range(from, to);
+
+        long[] byStatus = snapshot.aggregateReservations(range, AnalyticsSnapshot.ReservationDimension.STATUS);
+        long[] byWeekday = snapshot.aggregateReservations(range, AnalyticsSnapshot.ReservationDimension.CREATED_WEEKDAY);
+        long[] newByMonth = snapshot.aggregateCustomers(range, AnalyticsSnapshot.CustomerDimension.CREATED_MONTH);
+        long[] byRecency = snapshot.aggregateCustomers(AnalyticsSnapshot.Filter.all(), AnalyticsSnapshot.CustomerDimension.RECENCY);
+
+        long reservations = 0;
+        long leadDays = 0;
+        List<AnalyticsBucketDTO> statuses = new ArrayList<>();
+        for (ReservationStatus status : ReservationStatus.values()) {
+            int base = status.ordinal() * RESERVATION_MEASURES;
+            reservations += byStatus[base + COUNT];
+            leadDays += byStatus[base + LEAD_DAYS];
+            statuses.add(countBucket(status.name(), byStatus[base + COUNT]));
+        }
+        long cancelled = byStatus[ReservationStatus.CANCELLED.ordinal() * RESERVATION_MEASURES + COUNT];
+
+        List<AnalyticsBucketDTO> weekdays = new ArrayList<>();
+        for (int g = 0; g < 7; g++) {
+            weekdays.add(countBucket(DayOfWeek.of(g + 1).name(), byWeekday[g * RESERVATION_MEASURES + COUNT]));
+        }
+        long newCustomers = 0;
+        List<AnalyticsBucketDTO> months = new ArrayList<>();
+        YearMonth firstMonth = YearMonth.from(from);
+        for (int g = 0; g < snapshot.groups(AnalyticsSnapshot.CustomerDimension.CREATED_MONTH, range); g++) {
+            long count = newByMonth[g * CUSTOMER_MEASURES + COUNT];
+            newCustomers += count;
+            months.add(countBucket(firstMonth.plusMonths(g).toString(), count));
+        }
+        List<AnalyticsBucketDTO> recency = new ArrayList<>();
+        for (int g = 0; g < snapshot.groups(AnalyticsSnapshot.CustomerDimension.RECENCY, AnalyticsSnapshot.Filter.all()); g++) {
+            recency.add(countBucket(recencyLabel(g), byRecency[g * CUSTOMER_MEASURES + COUNT]));
+        }
+
+        return ActivityAnalyticsDTO.builder()
+                .from(from)
+                .to(to)
+                .snapshotTakenAt(takenAt(snapshot))
+                .reservations(reservations)
+                .cancellationRate(ratio(cancelled, reservations))
+                .averageLeadDays(ratio(leadDays, reservations))
+                .reservationsByStatus(statuses)
+                .reservationsByWeekday(weekdays)
+                .newCustomers(newCustomers)
+                .newCustomersByMonth(months)
+                .customersByRecency(recency)
+                .build();
+    }
+
+    /**
+     * Rebuild the snapshots that have been read, so requests never wait for one
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.snapshot-interval-ms:300000}")
+    public void refreshSnapshots() {
+        for (Long organizationId : snapshots.keySet()) {
+            try {
+                snapshots.put(organizationId, build(organizationId));
+            } catch (RuntimeException e) {
+                log.error("Error refreshing analytics snapshot for organization {}: {}", organizationId, e.getMessage());
+            }
+        }
+    }
+
+    AnalyticsSnapshot snapshot(Long organizationId) {
+        AnalyticsSnapshot snapshot = snapshots.get(organizationId);
+        if (snapshot != null && System.currentTimeMillis() - snapshot.getBuiltAtMillis() < snapshotMaxAgeMillis) {
+            return snapshot;
+        }
+        synchronized (buildLocks.computeIfAbsent(organizationId, id -> new Object())) {
+            snapshot = snapshots.get(organizationId);
+            if (snapshot == null || System.currentTimeMillis() - snapshot.getBuiltAtMillis() >= snapshotMaxAgeMillis) {
+                snapshot = build(organizationId);
+                snapshots.put(organizationId, snapshot);
+            }
+            return snapshot;
+        }
+    }
+
+    private AnalyticsSnapshot build(Long organizationId) {
+        long started = System.nanoTime();
+        // Also refreshed from the scheduler thread, which has no tenant
+        AnalyticsSnapshot snapshot = TenantContext.callAs(organizationId, () -> readOnlyTransaction.execute(status -> {
+            AnalyticsSnapshot.Builder builder = AnalyticsSnapshot.builder((int) LocalDate.now().toEpochDay());
+
+            try (Stream<Object[]> rows = stream("SELECT c.id, c.segment, c.status, c.createdAt FROM Customer c " +
+                    "WHERE c.organization.id = :organizationId", organizationId)) {
+                rows.forEach(row -> builder.customer((Long) row[0], (CustomerSegment) row[1], (CustomerStatus) row[2],
+                        epochDay((LocalDateTime) row[3], 0)));
+            }
+            try (Stream<Object[]> rows = stream("SELECT v.id, v.category, v.status FROM VehicleModel v " +
+                    "WHERE v.organization.id = :organizationId", organizationId)) {
+                rows.forEach(row -> builder.vehicle((Long) row[0], PricingService.categoryKey((String) row[1]), (VehicleStatus) row[2]));
+            }
+            try (Stream<Object[]> rows = stream("SELECT r.customer.id, r.vehicle.id, r.status, r.createdAt, r.startDate, " +
+                    "r.totalDays, r.totalAmount FROM Reservation r WHERE r.organization.id = :organizationId", organizationId)) {
+                rows.forEach(row -> {
+                    int startDay = (int) ((LocalDate) row[4]).toEpochDay();
+                    builder.reservation((Long) row[0], (Long) row[1], (ReservationStatus) row[2],
+                            epochDay((LocalDateTime) row[3], startDay), startDay,
+                            row[5] != null ? (Integer) row[5] : 0, cents((BigDecimal) row[6]));
+                });
+            }
+            return builder.build();
+        }));
+        log.info("Analytics snapshot for organization {} built: {} reservations, {} customers, {} vehicles in {} ms",
+                organizationId, snapshot.reservationCount(), snapshot.customerCount(), snapshot.vehicleCount(),
+                (System.nanoTime() - started) / 1_000_000);
+        return snapshot;
+    }
+
+    private Map<String, CustomerSummaryCount> summaryCounts(Long organizationId, CustomerSummaryDimension dimension) {
+        return customerSummaryService.getCounts(organizationId, dimension).stream()
+                .collect(Collectors.toMap(CustomerSummaryCount::getBucket, Function.identity()));
+    }
+
+    private Stream<Object[]> stream(String jpql, Long organizationId) {
+        return entityManager.createQuery(jpql, Object[].class)
+                .setParameter("organizationId", organizationId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private static AnalyticsSnapshot.Filter range(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new RuntimeException("A date range with from on or before to is required");
+        }
+        if (YearMonth.from(from).plusMonths(MAX_MONTHS).isBefore(YearMonth.from(to).plusMonths(1))) {
+            throw new RuntimeException("Date range cannot exceed " + MAX_MONTHS + " months");
+        }
+        return AnalyticsSnapshot.Filter.all().days((int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    private static String segmentLabel(int group) {
+        return group < CustomerSegment.values().length ? CustomerSegment.values()[group].name() : UNASSIGNED;
+    }
+
+    private static String spendBandLabel(int band) {
+        long[] bounds = AnalyticsSnapshot.SPEND_BANDS_CENTS;
+        if (band == 0) {
+            return "0";
+        }
+        if (band == bounds.length) {
+            return money(bounds[band - 1]) + "+";
+        }
+        return money(bounds[band - 1]) + " - " + money(bounds[band] - 1);
+    }
+
+    private static String recencyLabel(int band) {
+        int[] bounds = AnalyticsSnapshot.RECENCY_BANDS_DAYS;
+        if (band == 0) {
+            return "0-" + bounds[0] + " days";
+        }
+        if (band < bounds.length) {
+            return (bounds[band - 1] + 1) + "-" + bounds[band] + " days";
+        }
+        return band == bounds.length ? "over " + bounds[bounds.length - 1] + " days" : "never";
+    }
+
+    private static AnalyticsBucketDTO revenueBucket(String label, long[] aggregate, int group) {
+        int base = group * RESERVATION_MEASURES;
+        return AnalyticsBucketDTO.builder()
+                .label(label)
+                .count(aggregate[base + COUNT])
+                .amount(money(aggregate[base + AMOUNT_CENTS]))
+                .build();
+    }
+
+    private static AnalyticsBucketDTO countBucket(String label, long count) {
+        return AnalyticsBucketDTO.builder().label(label).count(count).build();
+    }
+
+    private static LocalDateTime takenAt(AnalyticsSnapshot snapshot) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(snapshot.getBuiltAtMillis()), ZoneId.systemDefault());
+    }
+
+    private static int epochDay(LocalDateTime dateTime, int fallback) {
+        return dateTime != null ? (int) dateTime.toLocalDate().toEpochDay() : fallback;
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount != null ? amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact() : 0;
+    }
+
+    private static BigDecimal money(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static BigDecimal average(long cents, long count) {
+        return count > 0 ? BigDecimal.valueOf(cents, 2).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+    }
+
+    private static Double ratio(long numerator, long denominator) {
+        return denominator > 0 ? Math.round(numerator * 10_000.0 / denominator) / 10_000.0 : 0.0;
+    }
+}
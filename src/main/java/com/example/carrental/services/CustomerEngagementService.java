@@ -0,0 +1,318 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.dto.EngagementScoreDTO;
+import com.example.carrental.model.Customer;
+import com.example.carrental.model.CustomerEngagementScore;
+import com.example.carrental.model.EngagementScoreThresholds;
+import com.example.carrental.repository.CustomerEngagementScoreRepository;
+import com.example.carrental.repository.CustomerRepository;
+import com.example.carrental.repository.EngagementScoreThresholdsRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Recency / frequency / monetary engagement scores over the trailing year of reservations.
+ * The batch ({@link #rescoreAll}) reads an organization's customers in id-ordered chunks,
+ * derives quintile bounds from the whole population, scores everyone with a parallel stream and
+ * writes the scores back chunk by chunk. Reservation events rescore single customers against the
+ * bounds of the last batch, so the per-customer endpoint and the ranking are plain indexed reads.
+ */
+@Slf4j
+@Service
+public class CustomerEngagementService {
+
+    public static final int WINDOW_DAYS = 365;
+
+    private static final int CHUNK_SIZE = 1_000;
+    private static final long SCORER_MAX_AGE_MS = 600_000;
+
+    private final CustomerEngagementScoreRepository scoreRepository;
+    private final EngagementScoreThresholdsRepository thresholdsRepository;
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Bounds of each organization's last batch, reloaded periodically so every node picks up a new batch
+    private final Map<Long, CachedScorer> scorers = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CustomerEngagementService(CustomerEngagementScoreRepository scoreRepository,
+                                     EngagementScoreThresholdsRepository thresholdsRepository,
+                                     CustomerRepository customerRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.scoreRepository = scoreRepository;
+        this.thresholdsRepository = thresholdsRepository;
+        this.customerRepository = customerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    private static final class CachedScorer {
+        private final EngagementScorer scorer;
+        private final long loadedAtMillis = System.currentTimeMillis();
+
+        CachedScorer(EngagementScorer scorer) {
+            this.scorer = scorer;
+        }
+    }
+
+    /**
+     * The stored score; a customer not scored yet is scored now
+     */
+    @Transactional
+    public EngagementScoreDTO getScore(Long customerId) {
+        Long organizationId = TenantContext.getTenantId();
+        CustomerEngagementScore score = scoreRepository.findByCustomer(organizationId, customerId).orElse(null);
+        if (score == null) {
+            customerRepository.findById(customerId)
+                    .orElseThrow(() -> new RuntimeException("Customer not found with id: " + customerId));
+            score = rescore(organizationId, customerId);
+        }
+        return toDTO(score, null, null);
+    }
+
+    /**
+     * Customers by descending score
+     */
+    @Transactional(readOnly = true)
+    public Page<EngagementScoreDTO> getRanking(Pageable pageable) {
+        Page<CustomerEngagementScore> scores = scoreRepository.findRanking(TenantContext.getTenantId(), pageable);
+        Map<Long, Customer> customers = customerRepository.findAllById(
+                scores.getContent().stream().map(CustomerEngagementScore::getCustomerId).toList()).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        long[] rank = {pageable.getOffset()};
+        return scores.map(score -> toDTO(score, customers.get(score.getCustomerId()), ++rank[0]));
+    }
+
+    /**
+     * Score one customer against the organization's last batch bounds and store it
+     */
+    @Transactional
+    public CustomerEngagementScore rescore(Long organizationId, Long customerId) {
+        LocalDate today = LocalDate.now();
+        long[] metrics = readMetrics(organizationId, List.of(customerId), today).getOrDefault(customerId, null);
+        int recency = metrics != null ? (int) metrics[0] : EngagementScorer.NEVER;
+        int frequency = metrics != null ? (int) metrics[1] : 0;
+        long monetary = metrics != null ? metrics[2] : 0;
+
+        EngagementScorer scorer = scorer(organizationId);
+        CustomerEngagementScore score = scoreRepository.findByCustomer(organizationId, customerId)
+                .orElseGet(() -> CustomerEngagementScore.builder().organizationId(organizationId).customerId(customerId).build());
+        apply(score, recency, frequency, monetary, scorer.code(recency, frequency, monetary), LocalDateTime.now());
+        return scoreRepository.save(score);
+    }
+
+    /**
+     * Rescore every customer of the organization and refresh its quintile bounds
+     *
+     * @return customers scored
+     */
+    public int rescoreAll(Long organizationId) {
+        long started = System.nanoTime();
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDate today = startedAt.toLocalDate();
+
+        // Chunked reads into primitive columns, one read-only transaction per chunk
+        long[] customerIds = new long[CHUNK_SIZE];
+        int[] recency = new int[CHUNK_SIZE];
+        int[] frequency = new int[CHUNK_SIZE];
+        long[] monetary = new long[CHUNK_SIZE];
+        int count = 0;
+        long afterId = 0;
+        while (true) {
+            long after = afterId;
+            List<Long> ids = readOnlyTransaction.execute(status -> entityManager.createQuery(
+                    "SELECT c.id FROM Customer c WHERE c.organization.id = :organizationId AND c.id > :afterId " +
+                    "ORDER BY c.id", Long.class)
+                    .setParameter("organizationId", organizationId)
+                    .setParameter("afterId", after)
+                    .setMaxResults(CHUNK_SIZE)
+                    .getResultList());
+            if (ids.isEmpty()) {
+                break;
+            }
+            Map<Long, long[]> metrics = readOnlyTransaction.execute(status -> readMetrics(organizationId, ids, today));
+            if (count + ids.size() > customerIds.length) {
+                int capacity = Math.max(customerIds.length * 2, count + ids.size());
+                customerIds = Arrays.copyOf(customerIds, capacity);
+                recency = Arrays.copyOf(recency, capacity);
+                frequency = Arrays.copyOf(frequency, capacity);
+                monetary = Arrays.copyOf(monetary, capacity);
+            }
+            for (Long id : ids) {
+                long[] values = metrics.get(id);
+                customerIds[count] = id;
+                recency[count] = values != null ? (int) values[0] : EngagementScorer.NEVER;
+                frequency[count] = values != null ? (int) values[1] : 0;
+                monetary[count] = values != null ? values[2] : 0;
+                count++;
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+
+        EngagementScorer scorer = EngagementScorer.fromPopulation(recency, frequency, monetary, count);
+        int[] codes = scorer.codes(recency, frequency, monetary, count);
+
+        for (int from = 0; from < count; from += CHUNK_SIZE) {
+            writeChunk(organizationId, customerIds, recency, frequency, monetary, codes, from, Math.min(from + CHUNK_SIZE, count));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            saveThresholds(organizationId, scorer, startedAt);
+            scoreRepository.deleteComputedBefore(organizationId, startedAt);
+        });
+        scorers.put(organizationId, new CachedScorer(scorer));
+
+        log.info("Engagement scores of organization {} computed for {} customers in {} ms",
+                organizationId, count, (System.nanoTime() - started) / 1_000_000);
+        return count;
+    }
+
+    private void writeChunk(Long organizationId, long[] customerIds, int[] recency, int[] frequency, long[] monetary,
+                            int[] codes, int from, int to) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> ids = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                ids.add(customerIds[i]);
+            }
+            Map<Long, CustomerEngagementScore> existing = scoreRepository.findByCustomers(organizationId, ids).stream()
+                    .collect(Collectors.toMap(CustomerEngagementScore::getCustomerId, Function.identity()));
+            LocalDateTime now = LocalDateTime.now();
+            List<CustomerEngagementScore> scores = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                long customerId = customerIds[i];
+                CustomerEngagementScore score = existing.get(customerId);
+                if (score == null) {
+                    score = CustomerEngagementScore.builder().organizationId(organizationId).customerId(customerId).build();
+                }
+                apply(score, recency[i], frequency[i], monetary[i], codes[i], now);
+                scores.add(score);
+            }
+            scoreRepository.saveAll(scores);
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    /**
+     * Days since the last reservation started, reservations started and completed cents in the
+     * window, per customer with any reservation up to today. No-shows and cancellations do not count.
+     */
+    private Map<Long, long[]> readMetrics(Long organizationId, Collection<Long> customerIds, LocalDate today) {
+        List<Object[]> rows = entityManager.createQuery(
+                "SELECT r.customer.id, MAX(r.startDate), " +
+                "SUM(CASE WHEN r.startDate >= :since THEN 1 ELSE 0 END), " +
+                "SUM(CASE WHEN r.status = 'COMPLETED' AND r.startDate >= :since THEN r.totalAmount ELSE 0 END) " +
+                "FROM Reservation r WHERE r.organization.id = :organizationId AND r.customer.id IN :customerIds " +
+                "AND r.status NOT IN ('CANCELLED', 'NO_SHOW') AND r.startDate <= :today " +
+                "GROUP BY r.customer.id", Object[].class)
+                .setParameter("organizationId", organizationId)
+                .setParameter("customerIds", customerIds)
+                .setParameter("since", today.minusDays(WINDOW_DAYS))
+                .setParameter("today", today)
+                .getResultList();
+        Map<Long, long[]> metrics = new HashMap<>();
+        for (Object[] row : rows) {
+            long recency = ChronoUnit.DAYS.between((LocalDate) row[1], today);
+            long frequency = row[2] != null ? ((Number) row[2]).longValue() : 0;
+            metrics.put((Long) row[0], new long[]{recency, frequency, cents((Number) row[3])});
+        }
+        return metrics;
+    }
+
+    private EngagementScorer scorer(Long organizationId) {
+        CachedScorer cached = scorers.get(organizationId);
+        if (cached == null || System.currentTimeMillis() - cached.loadedAtMillis >= SCORER_MAX_AGE_MS) {
+            EngagementScorer scorer = thresholdsRepository.findByOrganizationId(organizationId)
+                    .map(thresholds -> new EngagementScorer(
+                            parseInts(thresholds.getRecencyBounds()),
+                            parseInts(thresholds.getFrequencyBounds()),
+                            Arrays.stream(thresholds.getMonetaryBounds().split(",")).mapToLong(Long::parseLong).toArray()))
+                    .orElse(EngagementScorer.DEFAULT);
+            cached = new CachedScorer(scorer);
+            scorers.put(organizationId, cached);
+        }
+        return cached.scorer;
+    }
+
+    private void saveThresholds(Long organizationId, EngagementScorer scorer, LocalDateTime computedAt) {
+        EngagementScoreThresholds thresholds = thresholdsRepository.findByOrganizationId(organizationId)
+                .orElseGet(() -> EngagementScoreThresholds.builder().organizationId(organizationId).build());
+        thresholds.setRecencyBounds(join(Arrays.stream(scorer.getRecencyBounds()).asLongStream().toArray()));
+        thresholds.setFrequencyBounds(join(Arrays.stream(scorer.getFrequencyBounds()).asLongStream().toArray()));
+        thresholds.setMonetaryBounds(join(scorer.getMonetaryBounds()));
+        thresholds.setComputedAt(computedAt);
+        thresholdsRepository.save(thresholds);
+    }
+
+    private static void apply(CustomerEngagementScore score, int recency, int frequency, long monetary, int code,
+                              LocalDateTime computedAt) {
+        score.setRecencyDays(recency == EngagementScorer.NEVER ? null : recency);
+        score.setFrequency(frequency);
+        score.setMonetaryCents(monetary);
+        score.setRecencyScore(code / 100);
+        score.setFrequencyScore(code / 10 % 10);
+        score.setMonetaryScore(code % 10);
+        score.setScore(EngagementScorer.composite(code));
+        score.setComputedAt(computedAt);
+    }
+
+    private static EngagementScoreDTO toDTO(CustomerEngagementScore score, Customer customer, Long rank) {
+        return EngagementScoreDTO.builder()
+                .customerId(score.getCustomerId())
+                .customerCode(customer != null ? customer.getCustomerCode() : null)
+                .customerName(customer != null ? customer.getFullName() : null)
+                .rank(rank)
+                .score(score.getScore())
+                .rfm("" + score.getRecencyScore() + score.getFrequencyScore() + score.getMonetaryScore())
+                .recencyScore(score.getRecencyScore())
+                .frequencyScore(score.getFrequencyScore())
+                .monetaryScore(score.getMonetaryScore())
+                .recencyDays(score.getRecencyDays())
+                .frequency(score.getFrequency())
+                .monetary(BigDecimal.valueOf(score.getMonetaryCents(), 2))
+                .computedAt(score.getComputedAt())
+                .build();
+    }
+
+    private static long cents(Number amount) {
+        if (amount == null) {
+            return 0;
+        }
+        BigDecimal value = amount instanceof BigDecimal decimal ? decimal : new BigDecimal(amount.toString());
+        return value.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static int[] parseInts(String bounds) {
+        return Arrays.stream(bounds.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private static String join(long[] bounds) {
+        return Arrays.stream(bounds).mapToObj(Long::toString).collect(Collectors.joining(","));
+    }
+}
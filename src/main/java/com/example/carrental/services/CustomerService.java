@@ -2,6 +2,7 @@ package com.example.carrental.services;
 
 import com.example.carrental.config.TenantContext;
 import com.example.carrental.dto.*;
+import com.example.carrental.enums.CustomerRankCriteria;
 import com.example.carrental.enums.CustomerSegment;
 import com.example.carrental.enums.CustomerStatus;
 import com.example.carrental.enums.ReservationStatus;
@@ -14,6 +15,7 @@ import com.example.carrental.repository.ReservationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -24,7 +26,10 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,6 +41,10 @@ public class CustomerService {
     private final CustomerRepository customerRepository;
     private final ReservationRepository reservationRepository;
     private final OrganizationRepository organizationRepository;
+    private final SearchBackend searchBackend;
+    private final CustomerSummaryService customerSummaryService;
+
+    private static final int MAX_SEARCH_RESULTS = 500;
 
     // Basic CRUD Operations
     public List<CustomerResponseDTO> getAllCustomers() {
@@ -110,6 +119,7 @@ public class CustomerService {
                 .build();
 
         customer = customerRepository.save(customer);
+        customerSummaryService.customerChanged(null, customer);
         log.info("Created new customer: {} for organization: {}", customer.getCustomerCode(), organization.getName());
 
         return convertToResponseDTO(customer);
@@ -118,6 +128,7 @@ public class CustomerService {
     public CustomerResponseDTO updateCustomer(Long id, CustomerRequestDTO customerDTO) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id));
+        CustomerSummaryService.Entry before = CustomerSummaryService.Entry.of(customer);
 
         // Update fields
         customer.setFirstName(customerDTO.getFirstName());
@@ -143,6 +154,7 @@ public class CustomerService {
         customer.setNotes(customerDTO.getNotes());
 
         customer = customerRepository.save(customer);
+        customerSummaryService.customerChanged(before, customer);
         log.info("Updated customer: {}", customer.getCustomerCode());
 
         return convertToResponseDTO(customer);
@@ -158,6 +170,7 @@ public class CustomerService {
             throw new RuntimeException("Cannot delete customer with active reservations");
         }
 
+        customerSummaryService.customerChanged(CustomerSummaryService.Entry.of(customer), null);
         customerRepository.delete(customer);
         log.info("Deleted customer: {}", customer.getCustomerCode());
     }
@@ -188,6 +201,7 @@ public class CustomerService {
     public void updateCustomerStatistics(Long customerId) {
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new RuntimeException("Customer not found with id: " + customerId));
+        CustomerSummaryService.Entry before = CustomerSummaryService.Entry.of(customer);
 
         // Get customer reservations
         List<Reservation> reservations = reservationRepository.findByCustomer(customer);
@@ -228,13 +242,26 @@ public class CustomerService {
         updateCustomerSegment(customer);
 
         customerRepository.save(customer);
+        customerSummaryService.customerChanged(before, customer);
         log.info("Updated statistics for customer: {}", customer.getCustomerCode());
     }
 
     // Search and Filter Operations
+    // Ranked by the search backend (trigram/full-text); the requested sort is not applied
     public Page<CustomerResponseDTO> searchCustomers(String searchTerm, Pageable pageable) {
-        Page<Customer> customers = customerRepository.searchCustomers(searchTerm, pageable);
-        return customers.map(this::convertToResponseDTO);
+        List<Long> rankedIds = searchBackend.searchCustomerIds(TenantContext.getTenantId(), searchTerm, MAX_SEARCH_RESULTS);
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), rankedIds.size());
+        List<Long> pageIds = rankedIds.subList(from, to);
+
+        Map<Long, Customer> customers = customerRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        List<CustomerResponseDTO> content = pageIds.stream()
+                .map(customers::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToResponseDTO)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, rankedIds.size());
     }
 
     public List<CustomerResponseDTO> getCustomersByStatus(CustomerStatus status) {
@@ -261,25 +288,33 @@ public class CustomerService {
                 .collect(Collectors.toList());
     }
 
+    // Served by the materialized rankings; limits beyond their capacity fall back to the customer table
     public List<CustomerResponseDTO> getTopCustomers(String criteria, int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        List<Customer> customers;
-
-        switch (criteria.toLowerCase()) {
-            case "spending":
-                customers = customerRepository.findTopCustomersBySpending(pageable);
-                break;
-            case "reservations":
-                customers = customerRepository.findTopCustomersByReservations(pageable);
-                break;
-            case "lifetime_value":
-                customers = customerRepository.findTopCustomersByLifetimeValue(pageable);
-                break;
-            default:
-                throw new RuntimeException("Invalid criteria: " + criteria);
+        CustomerRankCriteria rankCriteria = switch (criteria.toLowerCase()) {
+            case "spending" -> CustomerRankCriteria.SPENDING;
+            case "reservations" -> CustomerRankCriteria.RESERVATIONS;
+            case "lifetime_value" -> CustomerRankCriteria.LIFETIME_VALUE;
+            default -> throw new RuntimeException("Invalid criteria: " + criteria);
+        };
+
+        if (limit > customerSummaryService.getTopCapacity()) {
+            Pageable pageable = PageRequest.of(0, limit);
+            List<Customer> customers = switch (rankCriteria) {
+                case SPENDING -> customerRepository.findTopCustomersBySpending(pageable);
+                case RESERVATIONS -> customerRepository.findTopCustomersByReservations(pageable);
+                case LIFETIME_VALUE -> customerRepository.findTopCustomersByLifetimeValue(pageable);
+            };
+            return customers.stream()
+                    .map(this::convertToResponseDTO)
+                    .collect(Collectors.toList());
         }
 
-        return customers.stream()
+        List<Long> rankedIds = customerSummaryService.getTopCustomerIds(TenantContext.getTenantId(), rankCriteria, limit);
+        Map<Long, Customer> customers = customerRepository.findAllById(rankedIds).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        return rankedIds.stream()
+                .map(customers::get)
+                .filter(Objects::nonNull)
                 .map(this::convertToResponseDTO)
                 .collect(Collectors.toList());
     }
@@ -0,0 +1,400 @@
+package com.example.carrental.services;
+
+import com.example.carrental.enums.CustomerRankCriteria;
+import com.example.carrental.enums.CustomerSegment;
+import com.example.carrental.enums.CustomerSummaryDimension;
+import com.example.carrental.model.Customer;
+import com.example.carrental.model.CustomerSummaryCount;
+import com.example.carrental.model.CustomerTopRank;
+import com.example.carrental.repository.CustomerSummaryCountRepository;
+import com.example.carrental.repository.CustomerTopRankRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+/**
+ * Materialized per-organization customer summaries: customer count and lifetime spend per segment,
+ * spend band and preferred category, and the top customers by spending, reservations and
+ * lifetime value, so reports and rankings never scan the customer table.
+ * <p>
+ * Callers report every change to a customer's statistics with {@link #customerChanged} in the
+ * same transaction; counts move by the difference. The ranking of a criteria holds the exact
+ * top of the ranking, up to the capacity: a customer enters when it scores at least the lowest
+ * entry, and an entry that drops below the others is removed, because customers outside could
+ * now outrank it. When fewer entries remain than a request needs they are refilled from the
+ * customer table. The nightly statistics reconciliation rebuilds the tables, as does the first
+ * read of an organization with none.
+ * <p>
+ * Writers of an organization's summaries serialize on its {@link #ANCHOR_BUCKET} segment row,
+ * which every build writes. The first build claims the organization by inserting that row, so
+ * of two concurrent first reads one builds and the other waits for it and reads its rows.
+ */
+@Slf4j
+@Service
+public class CustomerSummaryService {
+
+    public static final String UNASSIGNED = "UNASSIGNED";
+
+    private static final int FETCH_SIZE = 10_000;
+
+    // Segment row that locks the organization's summaries
+    static final String ANCHOR_BUCKET = CustomerSegment.values()[0].name();
+
+    private final CustomerSummaryCountRepository countRepository;
+    private final CustomerTopRankRepository topRankRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate savepoint;
+
+    @Value("${app.customers.summary.top-capacity:100}")
+    private int topCapacity;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CustomerSummaryService(CustomerSummaryCountRepository countRepository, CustomerTopRankRepository topRankRepository,
+                                  JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.countRepository = countRepository;
+        this.topRankRepository = topRankRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // Savepoint around the build claim, so losing it does not abort the reading transaction
+        this.savepoint = new TransactionTemplate(transactionManager);
+        this.savepoint.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
+
+    /**
+     * Summary-relevant values of a customer, captured before a change
+     */
+    public static final class Entry {
+        private final long customerId;
+        private final Long organizationId;
+        private final CustomerSegment segment;
+        private final long spentCents;
+        private final long reservations;
+        private final long lifetimeValueCents;
+        private final String preferredCategory;
+
+        Entry(long customerId, Long organizationId, CustomerSegment segment, BigDecimal spent,
+              Integer reservations, BigDecimal lifetimeValue, String preferredCategory) {
+            this.customerId = customerId;
+            this.organizationId = organizationId;
+            this.segment = segment;
+            this.spentCents = cents(spent);
+            this.reservations = reservations != null ? reservations : 0;
+            this.lifetimeValueCents = cents(lifetimeValue);
+            this.preferredCategory = preferredCategory == null || preferredCategory.isBlank()
+                    ? null : PricingService.categoryKey(preferredCategory);
+        }
+
+        /**
+         * @return null for null, so a creation or deletion can pass it as the missing side
+         */
+        public static Entry of(Customer customer) {
+            if (customer == null) {
+                return null;
+            }
+            return new Entry(customer.getId(), customer.getOrganization().getId(), customer.getSegment(),
+                    customer.getTotalSpent(), customer.getTotalReservations(), customer.getCustomerLifetimeValue(),
+                    customer.getPreferredVehicleCategory());
+        }
+
+        String bucket(CustomerSummaryDimension dimension) {
+            return switch (dimension) {
+                case SEGMENT -> segment != null ? segment.name() : UNASSIGNED;
+                case SPEND_BAND -> String.valueOf(AnalyticsSnapshot.spendBand(spentCents));
+                case PREFERRED_CATEGORY -> preferredCategory;
+            };
+        }
+
+        long score(CustomerRankCriteria criteria) {
+            return switch (criteria) {
+                case SPENDING -> spentCents;
+                case RESERVATIONS -> reservations;
+                case LIFETIME_VALUE -> lifetimeValueCents;
+            };
+        }
+    }
+
+    public int getTopCapacity() {
+        return topCapacity;
+    }
+
+    /**
+     * Apply a change to the summaries of the customer's organization
+     *
+     * @param before the customer as it was ({@link Entry#of} before modifying it), null on creation
+     * @param after  the saved customer, null on deletion
+     */
+    @Transactional
+    public void customerChanged(Entry before, Customer after) {
+        Entry current = Entry.of(after);
+        Entry reference = current != null ? current : before;
+        if (reference == null) {
+            return;
+        }
+        Long organizationId = reference.organizationId;
+        if (!countRepository.existsForOrganization(organizationId)) {
+            return; // built on first read
+        }
+        lockSummaries(organizationId);
+
+        // Ranks first: completeness is judged against the count before this change
+        long others = countRepository.countCustomers(organizationId) - (before != null ? 1 : 0);
+        for (CustomerRankCriteria criteria : CustomerRankCriteria.values()) {
+            rank(organizationId, criteria, reference.customerId, current != null ? current.score(criteria) : null, others);
+        }
+
+        for (CustomerSummaryDimension dimension : CustomerSummaryDimension.values()) {
+            String from = before != null ? before.bucket(dimension) : null;
+            String to = current != null ? current.bucket(dimension) : null;
+            long spentBefore = before != null ? before.spentCents : 0;
+            long spentAfter = current != null ? current.spentCents : 0;
+            if (before != null && current != null && Objects.equals(from, to)) {
+                add(organizationId, dimension, to, 0, spentAfter - spentBefore);
+            } else {
+                if (before != null) {
+                    add(organizationId, dimension, from, -1, -spentBefore);
+                }
+                if (current != null) {
+                    add(organizationId, dimension, to, 1, spentAfter);
+                }
+            }
+        }
+    }
+
+    @Transactional
+    public List<CustomerSummaryCount> getCounts(Long organizationId, CustomerSummaryDimension dimension) {
+        ensureBuilt(organizationId);
+        return countRepository.findByDimension(organizationId, dimension);
+    }
+
+    /**
+     * Ids of the top customers, best first
+     *
+     * @param limit at most {@link #getTopCapacity()}
+     */
+    @Transactional
+    public List<Long> getTopCustomerIds(Long organizationId, CustomerRankCriteria criteria, int limit) {
+        if (limit < 1 || limit > topCapacity) {
+            throw new RuntimeException("Limit must be between 1 and " + topCapacity);
+        }
+        ensureBuilt(organizationId);
+        List<Long> ids = topRankRepository.findTopCustomerIds(organizationId, criteria, PageRequest.of(0, limit));
+        if (ids.size() < limit && incomplete(organizationId, criteria)) {
+            lockSummaries(organizationId);
+            if (incomplete(organizationId, criteria)) { // not refilled while waiting for the lock
+                refill(organizationId, criteria);
+            }
+            ids = topRankRepository.findTopCustomerIds(organizationId, criteria, PageRequest.of(0, limit));
+        }
+        return ids;
+    }
+
+    /**
+     * Recompute every summary of the organization in one pass over its customers
+     */
+    @Transactional
+    public void rebuild(Long organizationId) {
+        lockSummaries(organizationId);
+        long started = System.nanoTime();
+        Map<CustomerSummaryDimension, Map<String, long[]>> counts = new EnumMap<>(CustomerSummaryDimension.class);
+        for (CustomerSummaryDimension dimension : CustomerSummaryDimension.values()) {
+            counts.put(dimension, new HashMap<>());
+        }
+        for (CustomerSegment segment : CustomerSegment.values()) {
+            counts.get(CustomerSummaryDimension.SEGMENT).put(segment.name(), new long[2]);
+        }
+        // Min-heaps of {score, customerId}; the weakest entry is evicted first
+        Map<CustomerRankCriteria, PriorityQueue<long[]>> tops = new EnumMap<>(CustomerRankCriteria.class);
+        for (CustomerRankCriteria criteria : CustomerRankCriteria.values()) {
+            tops.put(criteria, new PriorityQueue<>((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(b[1], a[1])));
+        }
+
+        int customers = 0;
+        try (Stream<Object[]> rows = entityManager.createQuery(
+                "SELECT c.id, c.segment, c.totalSpent, c.totalReservations, c.customerLifetimeValue, " +
+                "c.preferredVehicleCategory FROM Customer c WHERE c.organization.id = :organizationId", Object[].class)
+                .setParameter("organizationId", organizationId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream()) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                Entry entry = new Entry((Long) row[0], organizationId, (CustomerSegment) row[1], (BigDecimal) row[2],
+                        (Integer) row[3], (BigDecimal) row[4], (String) row[5]);
+                for (CustomerSummaryDimension dimension : CustomerSummaryDimension.values()) {
+                    String bucket = entry.bucket(dimension);
+                    if (bucket != null) {
+                        long[] total = counts.get(dimension).computeIfAbsent(bucket, b -> new long[2]);
+                        total[0]++;
+                        total[1] += entry.spentCents;
+                    }
+                }
+                for (CustomerRankCriteria criteria : CustomerRankCriteria.values()) {
+                    PriorityQueue<long[]> top = tops.get(criteria);
+                    top.add(new long[]{entry.score(criteria), entry.customerId});
+                    if (top.size() > topCapacity) {
+                        top.poll();
+                    }
+                }
+                customers++;
+            }
+        }
+
+        countRepository.deleteByOrganizationId(organizationId);
+        List<CustomerSummaryCount> countRows = new ArrayList<>();
+        counts.forEach((dimension, buckets) -> buckets.forEach((bucket, total) -> countRows.add(CustomerSummaryCount.builder()
+                .organizationId(organizationId)
+                .dimension(dimension)
+                .bucket(bucket)
+                .customers(total[0])
+                .spentCents(total[1])
+                .build())));
+        countRepository.saveAll(countRows);
+
+        List<CustomerTopRank> rankRows = new ArrayList<>();
+        tops.forEach((criteria, top) -> {
+            topRankRepository.deleteByCriteria(organizationId, criteria);
+            for (long[] entry : top) {
+                rankRows.add(rank(organizationId, criteria, entry[1], entry[0]));
+            }
+        });
+        topRankRepository.saveAll(rankRows);
+
+        log.info("Customer summaries for organization {} rebuilt from {} customers in {} ms",
+                organizationId, customers, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void ensureBuilt(Long organizationId) {
+        if (!countRepository.existsForOrganization(organizationId) && claimFirstBuild(organizationId)) {
+            rebuild(organizationId);
+        }
+    }
+
+    /**
+     * Insert the organization's anchor row. A concurrent first build blocks this insert until it
+     * commits, then fails it on the bucket key and its rows are visible. Plain JDBC, as a failed
+     * Hibernate statement would mark the reading transaction rollback-only.
+     *
+     * @return false when another transaction built the summaries
+     */
+    private boolean claimFirstBuild(Long organizationId) {
+        try {
+            savepoint.executeWithoutResult(status -> jdbcTemplate.update(
+                    "INSERT INTO customer_summary_counts (organization_id, dimension, bucket, customers, spent_cents) " +
+                    "VALUES (?, ?, ?, 0, 0)",
+                    organizationId, CustomerSummaryDimension.SEGMENT.name(), ANCHOR_BUCKET));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Customer summaries of organization {} were built by a concurrent request", organizationId);
+            return false;
+        }
+    }
+
+    private void lockSummaries(Long organizationId) {
+        countRepository.findForUpdate(organizationId, CustomerSummaryDimension.SEGMENT, ANCHOR_BUCKET);
+    }
+
+    private boolean incomplete(Long organizationId, CustomerRankCriteria criteria) {
+        return topRankRepository.countEntries(organizationId, criteria)
+                < Math.min(topCapacity, countRepository.countCustomers(organizationId));
+    }
+
+    private void rank(Long organizationId, CustomerRankCriteria criteria, long customerId, Long score, long others) {
+        Optional<CustomerTopRank> current = topRankRepository.findEntry(organizationId, criteria, customerId);
+        if (score == null) {
+            current.ifPresent(topRankRepository::delete);
+            return;
+        }
+
+        long ranked = topRankRepository.countEntries(organizationId, criteria) - (current.isPresent() ? 1 : 0);
+        boolean belongs = ranked >= others; // every other customer is ranked
+        if (!belongs) {
+            Long floor = topRankRepository.findLowest(organizationId, criteria, PageRequest.of(0, 2)).stream()
+                    .filter(entry -> entry.getCustomerId() != customerId)
+                    .map(CustomerTopRank::getScore)
+                    .findFirst()
+                    .orElse(null);
+            belongs = floor != null && score >= floor;
+        }
+
+        if (current.isPresent()) {
+            if (belongs) {
+                current.get().setScore(score);
+            } else {
+                topRankRepository.delete(current.get());
+            }
+        } else if (belongs) {
+            topRankRepository.save(rank(organizationId, criteria, customerId, score));
+            long excess = ranked + 1 - topCapacity;
+            if (excess > 0) {
+                topRankRepository.deleteAll(topRankRepository.findLowest(organizationId, criteria, PageRequest.of(0, (int) excess)));
+            }
+        }
+    }
+
+    private void refill(Long organizationId, CustomerRankCriteria criteria) {
+        String field = "c." + criteria.getCustomerField();
+        List<Object[]> rows = entityManager.createQuery(
+                "SELECT c.id, " + field + " FROM Customer c WHERE c.organization.id = :organizationId " +
+                "ORDER BY COALESCE(" + field + ", 0) DESC, c.id", Object[].class)
+                .setParameter("organizationId", organizationId)
+                .setMaxResults(topCapacity)
+                .getResultList();
+        topRankRepository.deleteByCriteria(organizationId, criteria);
+        List<CustomerTopRank> entries = new ArrayList<>();
+        for (Object[] row : rows) {
+            long score = row[1] instanceof BigDecimal amount ? cents(amount) : row[1] != null ? ((Number) row[1]).longValue() : 0;
+            entries.add(rank(organizationId, criteria, (Long) row[0], score));
+        }
+        topRankRepository.saveAll(entries);
+        log.debug("Refilled {} ranking of organization {} with {} customers", criteria, organizationId, entries.size());
+    }
+
+    private void add(Long organizationId, CustomerSummaryDimension dimension, String bucket, long customers, long spentCents) {
+        if (bucket == null || (customers == 0 && spentCents == 0)) {
+            return;
+        }
+        if (countRepository.increment(organizationId, dimension, bucket, customers, spentCents) == 0) {
+            countRepository.save(CustomerSummaryCount.builder()
+                    .organizationId(organizationId)
+                    .dimension(dimension)
+                    .bucket(bucket)
+                    .customers(customers)
+                    .spentCents(spentCents)
+                    .build());
+        }
+    }
+
+    private static CustomerTopRank rank(Long organizationId, CustomerRankCriteria criteria, long customerId, long score) {
+        return CustomerTopRank.builder()
+                .organizationId(organizationId)
+                .criteria(criteria)
+                .customerId(customerId)
+                .score(score)
+                .build();
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount != null ? amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact() : 0;
+    }
+}
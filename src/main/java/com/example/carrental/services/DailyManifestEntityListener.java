@@ -0,0 +1,42 @@
+package com.example.carrental.services;
+
+import com.example.carrental.model.Organization;
+import com.example.carrental.model.Reservation;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA lifecycle listener on Reservation that reports the change to the daily manifests once it
+ * has committed. Rental is not listened to: the rental fields shown on a manifest are only
+ * written together with the reservation's status (check-out and check-in).
+ */
+@Component
+public class DailyManifestEntityListener {
+
+    private final ObjectProvider<DailyManifestService> dailyManifestService;
+
+    public DailyManifestEntityListener(ObjectProvider<DailyManifestService> dailyManifestService) {
+        this.dailyManifestService = dailyManifestService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (!(entity instanceof Reservation reservation) || reservation.getId() == null) {
+            return;
+        }
+        Organization organization = reservation.getOrganization();
+        if (organization == null) {
+            return;
+        }
+
+        Long organizationId = organization.getId();
+        Long reservationId = reservation.getId();
+        TransactionHooks.afterCommit(() ->
+                dailyManifestService.ifAvailable(service -> service.reservationChanged(organizationId, reservationId));
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.dto.ReservationResponseDTO;
+import com.example.carrental.enums.ReservationStatus;
+import com.example.carrental.mapper.ReservationMapper;
+import com.example.carrental.model.Reservation;
+import com.example.carrental.repository.ReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Today's and tomorrow's pickup and return lists per organization, held in memory for the
+ * front-desk board. A day is loaded with one fetch-join query the first time it is asked for;
+ * after that {@link DailyManifestEntityListener} reports reservation changes committed on this
+ * instance and the next read re-fetches only those reservations. A day is reloaded once it is
+ * older than a minute, which picks up changes made on other instances and to the vehicles,
+ * customers and rentals shown on the board. The ETag is a digest of the list itself, so every
+ * instance answers an unchanged board with the same ETag and a 304.
+ * Other dates are read from the database on every request and have no ETag.
+ */
+@Slf4j
+@Service
+public class DailyManifestService {
+
+    public enum Kind { PICKUPS, RETURNS }
+
+    private static final long MAX_AGE_MILLIS = 60 * 1000;
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationMapper reservationMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, TenantManifests> tenants = new ConcurrentHashMap<>();
+
+    public DailyManifestService(ReservationRepository reservationRepository, ReservationMapper reservationMapper,
+                                TransactionTemplate transactionTemplate) {
+        this.reservationRepository = reservationRepository;
+        this.reservationMapper = reservationMapper;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public static class ManifestView {
+        private final String etag;
+        private final List<ReservationResponseDTO> reservations;
+
+        ManifestView(String etag, List<ReservationResponseDTO> reservations) {
+            this.etag = etag;
+            this.reservations = reservations;
+        }
+
+        /**
+         * Strong ETag, or null for dates that are not kept in memory
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        public List<ReservationResponseDTO> getReservations() {
+            return reservations;
+        }
+    }
+
+    private static final class Manifest {
+        private final Map<Long, ReservationResponseDTO> pickups = new HashMap<>();
+        private final Map<Long, ReservationResponseDTO> returns = new HashMap<>();
+        private final long loadedAt;
+        // kind and location -> sorted list and its ETag, dropped whenever the content changes
+        private final Map<String, ManifestView> views = new HashMap<>();
+
+        Manifest(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private static final class TenantManifests {
+        private final Map<LocalDate, Manifest> byDate = new HashMap<>();
+        private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * @param location pickup location (for pickups) or return location (for returns) to keep, case-insensitive; null for all
+     */
+    public ManifestView getManifest(Kind kind, LocalDate date, String location) {
+        return getManifest(kind, date, location, System.currentTimeMillis());
+    }
+
+    ManifestView getManifest(Kind kind, LocalDate date, String location, long now) {
+        Long organizationId = TenantContext.getTenantId();
+        LocalDate today = LocalDate.now();
+        if (date.isBefore(today) || date.isAfter(today.plusDays(1))) {
+            List<ReservationResponseDTO> reservations = transactionTemplate.execute(status ->
+                    reservationRepository.findManifestForDate(organizationId, date).stream()
+                            .map(reservationMapper::toResponseDTO)
+                            .filter(dto -> belongsTo(kind, dto, date))
+                            .toList());
+            return new ManifestView(null, select(reservations, kind, location));
+        }
+
+        TenantManifests tenant = tenants.computeIfAbsent(organizationId, id -> new TenantManifests());
+        synchronized (tenant) {
+            tenant.byDate.keySet().removeIf(day -> day.isBefore(today));
+            Manifest cached = tenant.byDate.get(date);
+            if (cached == null || now - cached.loadedAt >= MAX_AGE_MILLIS) {
+                tenant.byDate.put(date, load(organizationId, date, now));
+            }
+            applyPending(tenant);
+
+            Manifest manifest = tenant.byDate.get(date);
+            String viewKey = kind + "|" + locationKey(location);
+            return manifest.views.computeIfAbsent(viewKey, key -> {
+                List<ReservationResponseDTO> reservations =
+                        select((kind == Kind.PICKUPS ? manifest.pickups : manifest.returns).values(), kind, location);
+                return new ManifestView(etagOf(reservations), reservations);
+            });
+        }
+    }
+
+    /**
+     * Called after a reservation change commits; applied on the next read of the organization's manifests
+     */
+    public void reservationChanged(Long organizationId, Long reservationId) {
+        TenantManifests tenant = tenants.get(organizationId);
+        if (tenant != null) {
+            tenant.pending.add(reservationId);
+        }
+    }
+
+    private Manifest load(Long organizationId, LocalDate date, long now) {
+        long started = System.nanoTime();
+        Manifest manifest = new Manifest(now);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (ReservationResponseDTO dto : reservationRepository.findManifestForDate(organizationId, date).stream()
+                    .map(reservationMapper::toResponseDTO).toList()) {
+                if (belongsTo(Kind.PICKUPS, dto, date)) {
+                    manifest.pickups.put(dto.getId(), dto);
+                }
+                if (belongsTo(Kind.RETURNS, dto, date)) {
+                    manifest.returns.put(dto.getId(), dto);
+                }
+            }
+        });
+        log.debug("Manifest for organization {} on {} loaded: {} pickups, {} returns in {} ms", organizationId, date,
+                manifest.pickups.size(), manifest.returns.size(), (System.nanoTime() - started) / 1_000_000);
+        return manifest;
+    }
+
+    private void applyPending(TenantManifests tenant) {
+        if (tenant.pending.isEmpty()) {
+            return;
+        }
+        // Removed before the read, so a change committed meanwhile is applied again next time
+        List<Long> ids = new ArrayList<>(tenant.pending);
+        tenant.pending.removeAll(ids);
+
+        Map<Long, ReservationResponseDTO> current = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Reservation reservation : reservationRepository.findForManifestByIdIn(ids)) {
+                current.put(reservation.getId(), reservationMapper.toResponseDTO(reservation));
+            }
+        });
+
+        for (Map.Entry<LocalDate, Manifest> entry : tenant.byDate.entrySet()) {
+            Manifest manifest = entry.getValue();
+            boolean changed = false;
+            for (Long id : ids) {
+                ReservationResponseDTO dto = current.get(id); // null when deleted
+                changed |= update(manifest.pickups, id, dto != null && belongsTo(Kind.PICKUPS, dto, entry.getKey()) ? dto : null);
+                changed |= update(manifest.returns, id, dto != null && belongsTo(Kind.RETURNS, dto, entry.getKey()) ? dto : null);
+            }
+            if (changed) {
+                manifest.views.clear();
+            }
+        }
+    }
+
+    private static boolean update(Map<Long, ReservationResponseDTO> entries, Long id, ReservationResponseDTO dto) {
+        ReservationResponseDTO previous = dto != null ? entries.put(id, dto) : entries.remove(id);
+        return !Objects.equals(previous, dto);
+    }
+
+    private static boolean belongsTo(Kind kind, ReservationResponseDTO dto, LocalDate date) {
+        return kind == Kind.PICKUPS
+                ? dto.getStatus() == ReservationStatus.CONFIRMED && date.equals(dto.getStartDate())
+                : dto.getStatus() == ReservationStatus.IN_PROGRESS && date.equals(dto.getEndDate());
+    }
+
+    private static List<ReservationResponseDTO> select(Iterable<ReservationResponseDTO> reservations, Kind kind, String location) {
+        String wanted = locationKey(location);
+        List<ReservationResponseDTO> selected = new ArrayList<>();
+        for (ReservationResponseDTO dto : reservations) {
+            if (wanted.isEmpty() || wanted.equals(locationKey(locationOf(kind, dto)))) {
+                selected.add(dto);
+            }
+        }
+        // Grouped by location for the board
+        selected.sort(Comparator.comparing((ReservationResponseDTO dto) -> locationKey(locationOf(kind, dto)))
+                .thenComparing(ReservationResponseDTO::getReservationCode));
+        return List.copyOf(selected);
+    }
+
+    /**
+     * Strong ETag derived from the listed reservations only, identical on every instance
+     */
+    static String etagOf(List<ReservationResponseDTO> reservations) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (ReservationResponseDTO dto : reservations) {
+                digest.update(dto.toString().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String locationOf(Kind kind, ReservationResponseDTO dto) {
+        return kind == Kind.PICKUPS ? dto.getPickupLocation() : dto.getReturnLocation();
+    }
+
+    private static String locationKey(String location) {
+        return location == null ? "" : location.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.carrental.services;
+
+import com.example.carrental.enums.RollupScope;
+import com.example.carrental.model.DailyRollup;
+import com.example.carrental.repository.DailyRollupRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Daily time series of rentals, revenue, reservations and cancellations per organization,
+ * category and vehicle. Rows are incremented from reservation events
+ * ({@link com.example.carrental.events.DailyRollupEventHandler}) and rebuilt by the backfill job;
+ * fleet size is snapshotted nightly. Reads go through an in-memory {@link DailySeries} per
+ * series, so a chart bucket costs two array reads whatever its width. A series is rebuilt
+ * after a committed change to its organization's rows or when older than the max age.
+ */
+@Slf4j
+@Service
+public class DailyRollupService {
+
+    private final DailyRollupRepository dailyRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // organization -> "scope|key" -> series
+    private final Map<Long, Map<String, DailySeries>> series = new ConcurrentHashMap<>();
+
+    @Value("${app.rollups.series-max-age-ms:300000}")
+    private long seriesMaxAgeMillis;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public DailyRollupService(DailyRollupRepository dailyRollupRepository, TransactionTemplate transactionTemplate) {
+        this.dailyRollupRepository = dailyRollupRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Add the deltas to the organization's rows, creating missing days
+     */
+    @Transactional
+    public void apply(Long organizationId, RollupAccumulator deltas) {
+        deltas.forEach((scope, scopeKey, day, values) -> {
+            int updated = dailyRollupRepository.increment(organizationId, scope, scopeKey, day,
+                    values[DailySeries.RENTED_DAYS], values[DailySeries.REVENUE_CENTS],
+                    values[DailySeries.RESERVATIONS], values[DailySeries.CANCELLATIONS]);
+            if (updated == 0) {
+                // A concurrent insert of the same day fails on the unique key and the caller retries
+                dailyRollupRepository.save(DailyRollup.builder()
+                        .organizationId(organizationId)
+                        .scope(scope)
+                        .scopeKey(scopeKey)
+                        .day(day)
+                        .rentedDays(values[DailySeries.RENTED_DAYS])
+                        .revenueCents(values[DailySeries.REVENUE_CENTS])
+                        .reservations(values[DailySeries.RESERVATIONS])
+                        .cancellations(values[DailySeries.CANCELLATIONS])
+                        .build());
+            }
+        });
+        invalidateAfterCommit(organizationId);
+    }
+
+    /**
+     * Replace every activity count of the organization, keeping the fleet snapshots
+     */
+    @Transactional
+    public void replace(Long organizationId, RollupAccumulator totals) {
+        dailyRollupRepository.deleteActivityOnly(organizationId);
+        dailyRollupRepository.resetActivity(organizationId);
+        entityManager.clear();
+        apply(organizationId, totals);
+    }
+
+    /**
+     * Record today's fleet size for the organization and each of its categories
+     */
+    @Transactional
+    public void snapshotFleetSize(Long organizationId, LocalDate day) {
+        List<Object[]> counts = entityManager.createQuery(
+                "SELECT v.category, COUNT(v) FROM VehicleModel v WHERE v.organization.id = :organizationId " +
+                "GROUP BY v.category", Object[].class)
+                .setParameter("organizationId", organizationId)
+                .getResultList();
+        Map<String, Integer> byCategory = new HashMap<>();
+        int total = 0;
+        for (Object[] row : counts) {
+            int count = ((Long) row[1]).intValue();
+            byCategory.merge(PricingService.categoryKey((String) row[0]), count, Integer::sum);
+            total += count;
+        }
+        setFleetSize(organizationId, RollupScope.ORGANIZATION, "", day, total);
+        byCategory.forEach((category, count) -> setFleetSize(organizationId, RollupScope.CATEGORY, category, day, count));
+        invalidateAfterCommit(organizationId);
+    }
+
+    /**
+     * @param scopeKey "" for the organization, the category or the vehicle id
+     */
+    public DailySeries series(Long organizationId, RollupScope scope, String scopeKey) {
+        String key = scope + "|" + scopeKey;
+        Map<String, DailySeries> cached = series.computeIfAbsent(organizationId, id -> new ConcurrentHashMap<>());
+        DailySeries current = cached.get(key);
+        if (current == null || System.currentTimeMillis() - current.getBuiltAtMillis() >= seriesMaxAgeMillis) {
+            current = transactionTemplate.execute(status -> build(organizationId, scope, scopeKey));
+            cached.put(key, current);
+        }
+        return current;
+    }
+
+    private DailySeries build(Long organizationId, RollupScope scope, String scopeKey) {
+        List<DailyRollup> rows = dailyRollupRepository.findSeries(organizationId, scope, scopeKey);
+        long today = LocalDate.now().toEpochDay();
+        long origin = rows.isEmpty() ? today : Math.min(rows.get(0).getDay().toEpochDay(), today);
+        long last = rows.isEmpty() ? today : Math.max(rows.get(rows.size() - 1).getDay().toEpochDay(), today);
+
+        DailySeries.Builder builder = DailySeries.builder(origin, (int) (last - origin + 1), currentFleetSize(organizationId, scope, scopeKey));
+        for (DailyRollup row : rows) {
+            long day = row.getDay().toEpochDay();
+            builder.add(day, DailySeries.RENTED_DAYS, row.getRentedDays())
+                    .add(day, DailySeries.REVENUE_CENTS, row.getRevenueCents())
+                    .add(day, DailySeries.RESERVATIONS, row.getReservations())
+                    .add(day, DailySeries.CANCELLATIONS, row.getCancellations());
+            if (row.getFleetSize() != null) {
+                builder.fleetSize(day, row.getFleetSize());
+            }
+        }
+        return builder.build();
+    }
+
+    private long currentFleetSize(Long organizationId, RollupScope scope, String scopeKey) {
+        if (scope == RollupScope.VEHICLE) {
+            return 1;
+        }
+        String jpql = "SELECT COUNT(v) FROM VehicleModel v WHERE v.organization.id = :organizationId"
+                + (scope == RollupScope.CATEGORY ? " AND LOWER(TRIM(v.category)) = :category" : "");
+        TypedQuery<Long> query = entityManager.createQuery(jpql, Long.class).setParameter("organizationId", organizationId);
+        if (scope == RollupScope.CATEGORY) {
+            query.setParameter("category", scopeKey);
+        }
+        return query.getSingleResult();
+    }
+
+    private void setFleetSize(Long organizationId, RollupScope scope, String scopeKey, LocalDate day, int fleetSize) {
+        if (dailyRollupRepository.setFleetSize(organizationId, scope, scopeKey, day, fleetSize) == 0) {
+            dailyRollupRepository.save(DailyRollup.builder()
+                    .organizationId(organizationId)
+                    .scope(scope)
+                    .scopeKey(scopeKey)
+                    .day(day)
+                    .fleetSize(fleetSize)
+                    .build());
+        }
+    }
+
+    private void invalidateAfterCommit(Long organizationId) {
+        TransactionHooks.afterCommit(() -> series.remove(organizationId));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.carrental.services;
+
+import java.util.Arrays;
+
+/**
+ * Immutable prefix sums of one rollup series (an organization, category or vehicle) over
+ * consecutive epoch days, so the total of any metric over any window is two array reads.
+ * Fleet days (vehicles available per day, the utilization denominator) use the nightly
+ * snapshot where one was taken and the fleet size at build time elsewhere, including days
+ * outside the series.
+ */
+public final class DailySeries {
+
+    public static final int RENTED_DAYS = 0;
+    public static final int REVENUE_CENTS = 1;
+    public static final int RESERVATIONS = 2;
+    public static final int CANCELLATIONS = 3;
+    public static final int FLEET_DAYS = 4;
+
+    private static final int METRICS = 5;
+
+    private final long builtAtMillis;
+    private final long originDay;
+    private final int days;
+    private final long defaultFleetSize;
+    private final long[][] prefix; // [metric][days + 1]
+
+    private DailySeries(Builder builder) {
+        this.builtAtMillis = System.currentTimeMillis();
+        this.originDay = builder.originDay;
+        this.days = builder.days;
+        this.defaultFleetSize = builder.defaultFleetSize;
+        this.prefix = new long[METRICS][days + 1];
+        for (int metric = 0; metric < METRICS; metric++) {
+            long[] values = builder.values[metric];
+            long[] sums = prefix[metric];
+            for (int day = 0; day < days; day++) {
+                long value = metric == FLEET_DAYS && values[day] < 0 ? defaultFleetSize : values[day];
+                sums[day + 1] = sums[day] + value;
+            }
+        }
+    }
+
+    /**
+     * @param originDay        first epoch day covered
+     * @param days             number of days covered
+     * @param defaultFleetSize fleet size for days without a snapshot
+     */
+    public static Builder builder(long originDay, int days, long defaultFleetSize) {
+        return new Builder(originDay, days, defaultFleetSize);
+    }
+
+    public long getBuiltAtMillis() {
+        return builtAtMillis;
+    }
+
+    /**
+     * Total of the metric over [fromDay, toDay] (inclusive epoch days)
+     */
+    public long sum(int metric, long fromDay, long toDay) {
+        if (toDay < fromDay) {
+            return 0;
+        }
+        long from = Math.max(fromDay, originDay);
+        long to = Math.min(toDay, originDay + days - 1);
+        long total = from <= to ? prefix[metric][(int) (to - originDay + 1)] - prefix[metric][(int) (from - originDay)] : 0;
+        if (metric == FLEET_DAYS) {
+            long covered = from <= to ? to - from + 1 : 0;
+            total += (toDay - fromDay + 1 - covered) * defaultFleetSize;
+        }
+        return total;
+    }
+
+    public static final class Builder {
+
+        private final long originDay;
+        private final int days;
+        private final long defaultFleetSize;
+        private final long[][] values;
+
+        private Builder(long originDay, int days, long defaultFleetSize) {
+            this.originDay = originDay;
+            this.days = days;
+            this.defaultFleetSize = defaultFleetSize;
+            this.values = new long[METRICS][days];
+            Arrays.fill(values[FLEET_DAYS], -1);
+        }
+
+        public Builder add(long epochDay, int metric, long amount) {
+            values[metric][index(epochDay)] += amount;
+            return this;
+        }
+
+        public Builder fleetSize(long epochDay, int fleetSize) {
+            values[FLEET_DAYS][index(epochDay)] = fleetSize;
+            return this;
+        }
+
+        public DailySeries build() {
+            return new DailySeries(this);
+        }
+
+        private int index(long epochDay) {
+            if (epochDay < originDay || epochDay >= originDay + days) {
+                throw new IllegalArgumentException("Day " + epochDay + " is outside the series");
+            }
+            return (int) (epochDay - originDay);
+        }
+    }
+}
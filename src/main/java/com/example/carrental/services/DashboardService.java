@@ -1,7 +1,9 @@
 package com.example.carrental.services;
 
+import com.example.carrental.config.TenantContext;
 import com.example.carrental.dto.DashboardKPIsDTO;
 import com.example.carrental.enums.ReservationStatus;
+import com.example.carrental.enums.RollupScope;
 import com.example.carrental.enums.VehicleStatus;
 import com.example.carrental.repository.ReservationRepository;
 import com.example.carrental.repository.UserRepository;
@@ -14,6 +16,8 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,9 +27,13 @@ import java.util.Map;
 @Slf4j
 public class DashboardService {
 
+    public static final int MAX_CHART_DAYS = 3 * 366;
+
     private final ReservationRepository reservationRepository;
     private final VehicleRepository vehicleRepository;
     private final UserRepository userRepository;
+    private final OverdueRentalEngine overdueRentalEngine;
+    private final DailyRollupService dailyRollupService;
 
     public DashboardKPIsDTO getDashboardKPIs() {
         log.info("Calculating dashboard KPIs");
@@ -46,6 +54,8 @@ public class DashboardService {
                 .completedReservations(getCompletedReservations())
                 .cancelledReservations(getCancelledReservations())
                 .cancellationRate(calculateCancellationRate())
+                .overdueRentals(overdueRentalEngine.getOverdueCount(TenantContext.getTenantId()))
+                .accruedLateFees(overdueRentalEngine.getAccruedLateFees(TenantContext.getTenantId()))
                 .totalCustomers(getTotalCustomers())
                 .newCustomersThisMonth(getNewCustomersThisMonth())
                 .repeatCustomers(getRepeatCustomers())
@@ -220,11 +230,32 @@ public class DashboardService {
     }
 
     // Chart Data Methods
-    public Map<String, Object> getRevenueChart(int days) {
+
+    /**
+     * Revenue of completed rentals per bucket over the last days, from the daily rollups; for one
+     * category or vehicle when given. Buckets are days up to a month, weeks up to half a year,
+     * then calendar months.
+     */
+    public Map<String, Object> getRevenueChart(int days, String category, Long vehicleId) {
+        List<LocalDate[]> buckets = buckets(days);
+        DailySeries series = seriesFor(category, vehicleId);
+
+        List<String> labels = new ArrayList<>();
+        List<BigDecimal> revenue = new ArrayList<>();
+        List<Double> utilization = new ArrayList<>();
+        for (LocalDate[] bucket : buckets) {
+            long from = bucket[0].toEpochDay();
+            long to = bucket[1].toEpochDay();
+            labels.add(label(bucket, days));
+            revenue.add(BigDecimal.valueOf(series.sum(DailySeries.REVENUE_CENTS, from, to), 2));
+            utilization.add(utilization(series, from, to));
+        }
+
         Map<String, Object> chartData = new HashMap<>();
-        // Implementation for revenue chart data
-        chartData.put("labels", List.of("Week 1", "Week 2", "Week 3", "Week 4"));
-        chartData.put("data", List.of(1200, 1800, 2200, 2800));
+        chartData.put("labels", labels);
+        chartData.put("data", revenue);
+        chartData.put("utilization", utilization);
+        chartData.put("bucket", bucketName(days));
         chartData.put("period", days + " days");
         return chartData;
     }
@@ -239,12 +270,89 @@ public class DashboardService {
     }
 
     public Map<String, Object> getReservationTrends(int days) {
+        List<LocalDate[]> buckets = buckets(days);
+        DailySeries series = dailyRollupService.series(TenantContext.getTenantId(), RollupScope.ORGANIZATION, "");
+
+        List<String> labels = new ArrayList<>();
+        List<Long> created = new ArrayList<>();
+        List<Long> cancelled = new ArrayList<>();
+        List<Double> utilization = new ArrayList<>();
+        for (LocalDate[] bucket : buckets) {
+            long from = bucket[0].toEpochDay();
+            long to = bucket[1].toEpochDay();
+            labels.add(label(bucket, days));
+            created.add(series.sum(DailySeries.RESERVATIONS, from, to));
+            cancelled.add(series.sum(DailySeries.CANCELLATIONS, from, to));
+            utilization.add(utilization(series, from, to));
+        }
+
         Map<String, Object> trendsData = new HashMap<>();
         trendsData.put("pending", getPendingReservations());
         trendsData.put("confirmed", reservationRepository.countByStatus(ReservationStatus.CONFIRMED));
         trendsData.put("completed", getCompletedReservations());
         trendsData.put("cancelled", getCancelledReservations());
+        trendsData.put("labels", labels);
+        trendsData.put("reservations", created);
+        trendsData.put("cancellations", cancelled);
+        trendsData.put("utilization", utilization);
+        trendsData.put("bucket", bucketName(days));
         trendsData.put("period", days + " days");
         return trendsData;
     }
-}
\ No newline at end of file
+
+    private DailySeries seriesFor(String category, Long vehicleId) {
+        Long organizationId = TenantContext.getTenantId();
+        if (vehicleId != null) {
+            return dailyRollupService.series(organizationId, RollupScope.VEHICLE, String.valueOf(vehicleId));
+        }
+        if (category != null && !category.isBlank()) {
+            return dailyRollupService.series(organizationId, RollupScope.CATEGORY, PricingService.categoryKey(category));
+        }
+        return dailyRollupService.series(organizationId, RollupScope.ORGANIZATION, "");
+    }
+
+    // Percentage of vehicle-days rented
+    private static Double utilization(DailySeries series, long from, long to) {
+        long fleetDays = series.sum(DailySeries.FLEET_DAYS, from, to);
+        if (fleetDays == 0) return 0.0;
+        return BigDecimal.valueOf(series.sum(DailySeries.RENTED_DAYS, from, to) * 100.0 / fleetDays)
+                .setScale(2, RoundingMode.HALF_UP)
+                .doubleValue();
+    }
+
+    /**
+     * Inclusive [start, end] buckets covering the last days up to today
+     */
+    private static List<LocalDate[]> buckets(int days) {
+        if (days < 1 || days > MAX_CHART_DAYS) {
+            throw new RuntimeException("Days must be between 1 and " + MAX_CHART_DAYS);
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.minusDays(days - 1);
+        List<LocalDate[]> buckets = new ArrayList<>();
+        LocalDate from = start;
+        while (!from.isAfter(today)) {
+            LocalDate to = switch (bucketName(days)) {
+                case "day" -> from;
+                case "week" -> from.plusDays(6);
+                default -> from.withDayOfMonth(from.lengthOfMonth());
+            };
+            if (to.isAfter(today)) {
+                to = today;
+            }
+            buckets.add(new LocalDate[]{from, to});
+            from = to.plusDays(1);
+        }
+        return buckets;
+    }
+
+    private static String bucketName(int days) {
+        return days <= 31 ? "day" : days <= 182 ? "week" : "month";
+    }
+
+    private static String label(LocalDate[] bucket, int days) {
+        return "month".equals(bucketName(days))
+                ? YearMonth.from(bucket[0]).toString()
+                : bucket[0].toString();
+    }
+}
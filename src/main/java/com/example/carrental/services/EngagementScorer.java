@@ -0,0 +1,143 @@
+package com.example.carrental.services;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Recency / frequency / monetary (RFM) scoring. Each dimension scores 1 to 5 against four
+ * ascending bounds; the composite is the three scores mapped onto 0-100. Bounds are the
+ * quintiles of an organization's customers, computed by the batch from the whole population
+ * and reused to score single customers between batches.
+ */
+public final class EngagementScorer {
+
+    public static final int NEVER = -1; // recency of a customer without reservations
+
+    static final int BOUNDS = 4;
+    private static final int MIN_POPULATION = 5 * BOUNDS;
+
+    // Used until an organization has enough active customers for quintiles
+    public static final EngagementScorer DEFAULT = new EngagementScorer(
+            new int[]{30, 90, 180, 365},
+            new int[]{1, 2, 4, 8},
+            new long[]{100_00, 500_00, 1_500_00, 5_000_00});
+
+    private final int[] recencyBounds;
+    private final int[] frequencyBounds;
+    private final long[] monetaryBounds;
+
+    /**
+     * @param recencyBounds   days since the last reservation; at most the first bound scores 5
+     * @param frequencyBounds reservations in the window; at least the last bound scores 5
+     * @param monetaryBounds  cents spent in the window; at least the last bound scores 5
+     */
+    public EngagementScorer(int[] recencyBounds, int[] frequencyBounds, long[] monetaryBounds) {
+        if (recencyBounds.length != BOUNDS || frequencyBounds.length != BOUNDS || monetaryBounds.length != BOUNDS) {
+            throw new IllegalArgumentException("Engagement scoring needs " + BOUNDS + " bounds per dimension");
+        }
+        this.recencyBounds = recencyBounds.clone();
+        this.frequencyBounds = frequencyBounds.clone();
+        this.monetaryBounds = monetaryBounds.clone();
+    }
+
+    /**
+     * Quintile bounds of the first count customers. Customers without activity in a dimension
+     * are left out of its quintiles (they score 1); dimensions with too few active customers
+     * keep the default bounds.
+     */
+    public static EngagementScorer fromPopulation(int[] recencyDays, int[] frequency, long[] monetaryCents, int count) {
+        int[] recency = IntStream.range(0, count).map(i -> recencyDays[i]).filter(days -> days != NEVER).toArray();
+        int[] frequent = IntStream.range(0, count).map(i -> frequency[i]).filter(value -> value > 0).toArray();
+        long[] spent = IntStream.range(0, count).mapToLong(i -> monetaryCents[i]).filter(value -> value > 0).toArray();
+        Arrays.parallelSort(recency);
+        Arrays.parallelSort(frequent);
+        Arrays.parallelSort(spent);
+
+        int[] recencyBounds = DEFAULT.recencyBounds;
+        if (recency.length >= MIN_POPULATION) {
+            // Most recent fifth scores 5
+            recencyBounds = new int[BOUNDS];
+            for (int b = 0; b < BOUNDS; b++) {
+                recencyBounds[b] = recency[(b + 1) * recency.length / 5 - 1];
+            }
+        }
+        int[] frequencyBounds = DEFAULT.frequencyBounds;
+        if (frequent.length >= MIN_POPULATION) {
+            frequencyBounds = new int[BOUNDS];
+            for (int b = 0; b < BOUNDS; b++) {
+                frequencyBounds[b] = frequent[(b + 1) * frequent.length / 5];
+            }
+        }
+        long[] monetaryBounds = DEFAULT.monetaryBounds;
+        if (spent.length >= MIN_POPULATION) {
+            monetaryBounds = new long[BOUNDS];
+            for (int b = 0; b < BOUNDS; b++) {
+                monetaryBounds[b] = spent[(b + 1) * spent.length / 5];
+            }
+        }
+        return new EngagementScorer(recencyBounds, frequencyBounds, monetaryBounds);
+    }
+
+    public int[] getRecencyBounds() {
+        return recencyBounds.clone();
+    }
+
+    public int[] getFrequencyBounds() {
+        return frequencyBounds.clone();
+    }
+
+    public long[] getMonetaryBounds() {
+        return monetaryBounds.clone();
+    }
+
+    public int recencyScore(int days) {
+        if (days == NEVER) {
+            return 1;
+        }
+        int score = 5;
+        for (int b = 0; b < BOUNDS && days > recencyBounds[b]; b++) {
+            score--;
+        }
+        return score;
+    }
+
+    public int frequencyScore(int reservations) {
+        int score = 1;
+        for (int b = 0; b < BOUNDS && reservations >= frequencyBounds[b]; b++) {
+            score++;
+        }
+        return score;
+    }
+
+    public int monetaryScore(long cents) {
+        int score = 1;
+        for (int b = 0; b < BOUNDS && cents >= monetaryBounds[b]; b++) {
+            score++;
+        }
+        return score;
+    }
+
+    /**
+     * RFM code, e.g. 543 for recency 5, frequency 4 and monetary 3
+     */
+    public int code(int recencyDays, int frequency, long monetaryCents) {
+        return recencyScore(recencyDays) * 100 + frequencyScore(frequency) * 10 + monetaryScore(monetaryCents);
+    }
+
+    /**
+     * Codes of the first count customers, scored in parallel
+     */
+    public int[] codes(int[] recencyDays, int[] frequency, long[] monetaryCents, int count) {
+        int[] codes = new int[count];
+        IntStream.range(0, count).parallel().forEach(i -> codes[i] = code(recencyDays[i], frequency[i], monetaryCents[i]));
+        return codes;
+    }
+
+    /**
+     * 0 for 111, 100 for 555
+     */
+    public static int composite(int code) {
+        int sum = code / 100 + code / 10 % 10 + code % 10;
+        return Math.round((sum - 3) * 100f / 12);
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.carrental.services;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitset facet index. Every entity gets a dense slot and every (facet, value) pair a bitset of
+ * slots, so a query is a few word-wise ORs and ANDs instead of one SQL query per facet.
+ * Values selected within a facet are OR-ed, facets are AND-ed, and the counts of a facet are
+ * disjunctive: computed with every filter except that facet's own, so the UI can show how many
+ * results picking another value would add.
+ */
+public class FacetIndex {
+
+    private final List<String> facets;
+    private final Map<String, Map<String, BitSet>> postings = new HashMap<>();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final BitSet freeSlots = new BitSet();
+    private long[] idBySlot = new long[64];
+    private String[][] valuesBySlot = new String[64][];
+    private int slotCount;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public FacetIndex(List<String> facets) {
+        this.facets = List.copyOf(facets);
+        for (String facet : facets) {
+            postings.put(facet, new HashMap<>());
+        }
+    }
+
+    /**
+     * @param values facet name to value; facets missing or null are indexed as having no value
+     */
+    public void put(long id, Map<String, String> values) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.get(id);
+            if (slot != null) {
+                clearSlot(slot);
+            } else {
+                slot = allocateSlot();
+                slotById.put(id, slot);
+                idBySlot[slot] = id;
+            }
+
+            String[] slotValues = new String[facets.size()];
+            for (int f = 0; f < facets.size(); f++) {
+                String value = values.get(facets.get(f));
+                if (value != null) {
+                    slotValues[f] = value;
+                    postings.get(facets.get(f)).computeIfAbsent(value, v -> new BitSet()).set(slot);
+                }
+            }
+            valuesBySlot[slot] = slotValues;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.remove(id);
+            if (slot != null) {
+                clearSlot(slot);
+                valuesBySlot[slot] = null;
+                freeSlots.set(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param filters     facet to accepted values; facets absent or with an empty set are unfiltered
+     * @param excludedIds entities to drop from the result and the counts (e.g. booked vehicles)
+     * @param countFacets facets to return counts for
+     */
+    public Result search(Map<String, Set<String>> filters, Collection<Long> excludedIds, Collection<String> countFacets) {
+        lock.readLock().lock();
+        try {
+            BitSet universe = new BitSet(slotCount);
+            universe.set(0, slotCount);
+            universe.andNot(freeSlots);
+            for (Long id : excludedIds) {
+                Integer slot = slotById.get(id);
+                if (slot != null) {
+                    universe.clear(slot);
+                }
+            }
+
+            // Union of the selected values, per filtered facet
+            Map<String, BitSet> selections = new LinkedHashMap<>();
+            for (Map.Entry<String, Set<String>> filter : filters.entrySet()) {
+                if (filter.getValue() == null || filter.getValue().isEmpty()) {
+                    continue;
+                }
+                Map<String, BitSet> facetPostings = postings.get(filter.getKey());
+                if (facetPostings == null) {
+                    throw new IllegalArgumentException("Unknown facet: " + filter.getKey());
+                }
+                BitSet union = new BitSet(slotCount);
+                for (String value : filter.getValue()) {
+                    BitSet slots = facetPostings.get(value);
+                    if (slots != null) {
+                        union.or(slots);
+                    }
+                }
+                selections.put(filter.getKey(), union);
+            }
+
+            BitSet matches = intersect(universe, selections, null);
+
+            Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+            for (String facet : countFacets) {
+                Map<String, BitSet> facetPostings = postings.get(facet);
+                if (facetPostings == null) {
+                    throw new IllegalArgumentException("Unknown facet: " + facet);
+                }
+                BitSet base = selections.containsKey(facet) ? intersect(universe, selections, facet) : matches;
+                Map<String, Integer> valueCounts = new TreeMap<>();
+                for (Map.Entry<String, BitSet> posting : facetPostings.entrySet()) {
+                    BitSet hits = (BitSet) posting.getValue().clone();
+                    hits.and(base);
+                    int count = hits.cardinality();
+                    if (count > 0) {
+                        valueCounts.put(posting.getKey(), count);
+                    }
+                }
+                counts.put(facet, valueCounts);
+            }
+
+            long[] ids = new long[matches.cardinality()];
+            int n = 0;
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                ids[n++] = idBySlot[slot];
+            }
+            Arrays.sort(ids);
+            return new Result(ids, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static class Result {
+        private final long[] ids;
+        private final Map<String, Map<String, Integer>> counts;
+
+        Result(long[] ids, Map<String, Map<String, Integer>> counts) {
+            this.ids = ids;
+            this.counts = counts;
+        }
+
+        /**
+         * Matching ids in ascending order
+         */
+        public long[] getIds() {
+            return ids;
+        }
+
+        public Map<String, Map<String, Integer>> getCounts() {
+            return counts;
+        }
+    }
+
+    private BitSet intersect(BitSet universe, Map<String, BitSet> selections, String skipFacet) {
+        BitSet result = (BitSet) universe.clone();
+        for (Map.Entry<String, BitSet> selection : selections.entrySet()) {
+            if (!selection.getKey().equals(skipFacet)) {
+                result.and(selection.getValue());
+            }
+        }
+        return result;
+    }
+
+    private int allocateSlot() {
+        int slot = freeSlots.nextSetBit(0);
+        if (slot >= 0) {
+            freeSlots.clear(slot);
+            return slot;
+        }
+        if (slotCount == idBySlot.length) {
+            idBySlot = Arrays.copyOf(idBySlot, slotCount * 2);
+            valuesBySlot = Arrays.copyOf(valuesBySlot, slotCount * 2);
+        }
+        return slotCount++;
+    }
+
+    private void clearSlot(int slot) {
+        String[] previous = valuesBySlot[slot];
+        if (previous == null) {
+            return;
+        }
+        for (int f = 0; f < facets.size(); f++) {
+            if (previous[f] == null) {
+                continue;
+            }
+            Map<String, BitSet> facetPostings = postings.get(facets.get(f));
+            BitSet slots = facetPostings.get(previous[f]);
+            slots.clear(slot);
+            if (slots.isEmpty()) {
+                facetPostings.remove(previous[f]);
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.carrental.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Projected vehicles on hand per day, branch and category, held in one flat int array laid out
+ * day-major ([day][branch][category]), so each day is a contiguous row computed from the
+ * previous one with a single add loop the JIT vectorizes. Inputs are the vehicles parked at each
+ * branch today and the pickups (departures) and returns (arrivals) of the horizon.
+ * 90 days x 100 branches x 10 categories is 90,000 ints.
+ */
+public final class FleetDistributionProjection {
+
+    private final int days;
+    private final int branches;
+    private final int categories;
+    private final int cells; // branches x categories, one day's row
+
+    private final int[] onHand;
+    private final int[] delta;
+
+    private int[] projected;
+    private int[] minimum;
+    private int[] minimumDay;
+    private int[] firstShortageDay;
+    private int safetyStock;
+
+    public FleetDistributionProjection(int days, int branches, int categories) {
+        if (days <= 0) {
+            throw new IllegalArgumentException("The projection needs at least one day");
+        }
+        this.days = days;
+        this.branches = branches;
+        this.categories = categories;
+        this.cells = branches * categories;
+        this.onHand = new int[cells];
+        this.delta = new int[days * cells];
+    }
+
+    public static final class Transfer {
+        private final int category;
+        private final int fromBranch;
+        private final int toBranch;
+        private final int vehicles;
+        private final int neededByDay;
+
+        Transfer(int category, int fromBranch, int toBranch, int vehicles, int neededByDay) {
+            this.category = category;
+            this.fromBranch = fromBranch;
+            this.toBranch = toBranch;
+            this.vehicles = vehicles;
+            this.neededByDay = neededByDay;
+        }
+
+        public int getCategory() {
+            return category;
+        }
+
+        public int getFromBranch() {
+            return fromBranch;
+        }
+
+        public int getToBranch() {
+            return toBranch;
+        }
+
+        public int getVehicles() {
+            return vehicles;
+        }
+
+        public int getNeededByDay() {
+            return neededByDay;
+        }
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    /**
+     * A vehicle parked at the branch today
+     */
+    public void vehicle(int branch, int category) {
+        onHand[branch * categories + category]++;
+    }
+
+    /**
+     * A pickup on the given day (days before the first are counted on the first, later ones ignored)
+     */
+    public void departure(int day, int branch, int category) {
+        add(day, branch, category, -1);
+    }
+
+    /**
+     * A vehicle available again at the branch from the given day
+     */
+    public void arrival(int day, int branch, int category) {
+        add(day, branch, category, 1);
+    }
+
+    private void add(int day, int branch, int category, int amount) {
+        if (day >= days) {
+            return;
+        }
+        delta[Math.max(day, 0) * cells + branch * categories + category] += amount;
+    }
+
+    /**
+     * Running sum of the daily changes over today's vehicles, tracking per branch and category
+     * the lowest count, the day it is reached and the first day below the safety stock.
+     */
+    public void compute(int safetyStock) {
+        this.safetyStock = safetyStock;
+        projected = new int[days * cells];
+        minimum = new int[cells];
+        minimumDay = new int[cells];
+        firstShortageDay = new int[cells];
+        Arrays.fill(firstShortageDay, -1);
+
+        for (int i = 0; i < cells; i++) {
+            projected[i] = onHand[i] + delta[i];
+        }
+        for (int day = 1; day < days; day++) {
+            int row = day * cells;
+            int previous = row - cells;
+            for (int i = 0; i < cells; i++) {
+                projected[row + i] = projected[previous + i] + delta[row + i];
+            }
+        }
+
+        System.arraycopy(projected, 0, minimum, 0, cells);
+        for (int day = 0; day < days; day++) {
+            int row = day * cells;
+            for (int i = 0; i < cells; i++) {
+                int count = projected[row + i];
+                if (count < minimum[i]) {
+                    minimum[i] = count;
+                    minimumDay[i] = day;
+                }
+                if (count < safetyStock && firstShortageDay[i] < 0) {
+                    firstShortageDay[i] = day;
+                }
+            }
+        }
+    }
+
+    public int onHand(int branch, int category) {
+        return onHand[branch * categories + category];
+    }
+
+    public int projected(int day, int branch, int category) {
+        return projected[day * cells + branch * categories + category];
+    }
+
+    public int minimum(int branch, int category) {
+        return minimum[branch * categories + category];
+    }
+
+    public int minimumDay(int branch, int category) {
+        return minimumDay[branch * categories + category];
+    }
+
+    /**
+     * @return the first day the count drops below the safety stock, or -1
+     */
+    public int firstShortageDay(int branch, int category) {
+        return firstShortageDay[branch * categories + category];
+    }
+
+    /**
+     * Vehicles the branch needs brought in to stay at or above the safety stock all horizon
+     */
+    public int shortfall(int branch, int category) {
+        return Math.max(0, safetyStock - minimum(branch, category));
+    }
+
+    /**
+     * Vehicles the branch can give away without ever dropping below the safety stock
+     */
+    public int spare(int branch, int category) {
+        return Math.max(0, minimum(branch, category) - safetyStock);
+    }
+
+    /**
+     * Greedy balancing per category: branches are served in order of their first shortage, each
+     * from the branches with the most spare vehicles. Shortfalls no branch can cover are left
+     * out; compare {@link #shortfall} with the transfers to find them.
+     */
+    public List<Transfer> recommendTransfers() {
+        if (projected == null) {
+            throw new IllegalStateException("compute() must be called first");
+        }
+        List<Transfer> transfers = new ArrayList<>();
+        int[] spare = new int[branches];
+        for (int category = 0; category < categories; category++) {
+            List<Integer> shortBranches = new ArrayList<>();
+            for (int branch = 0; branch < branches; branch++) {
+                spare[branch] = spare(branch, category);
+                if (shortfall(branch, category) > 0) {
+                    shortBranches.add(branch);
+                }
+            }
+            if (shortBranches.isEmpty()) {
+                continue;
+            }
+            int c = category;
+            shortBranches.sort((a, b) -> Integer.compare(firstShortageDay(a, c), firstShortageDay(b, c)));
+
+            for (int branch : shortBranches) {
+                int needed = shortfall(branch, category);
+                while (needed > 0) {
+                    int donor = -1;
+                    for (int candidate = 0; candidate < branches; candidate++) {
+                        if (spare[candidate] > 0 && (donor < 0 || spare[candidate] > spare[donor])) {
+                            donor = candidate;
+                        }
+                    }
+                    if (donor < 0) {
+                        break;
+                    }
+                    int moved = Math.min(needed, spare[donor]);
+                    spare[donor] -= moved;
+                    needed -= moved;
+                    transfers.add(new Transfer(category, donor, branch, moved, firstShortageDay(branch, category)));
+                }
+            }
+        }
+        return transfers;
+    }
+}
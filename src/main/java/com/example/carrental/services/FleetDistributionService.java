@@ -0,0 +1,202 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.dto.FleetDistributionDTO;
+import com.example.carrental.enums.ReservationStatus;
+import com.example.carrental.enums.VehicleStatus;
+import com.example.carrental.model.Branch;
+import com.example.carrental.repository.BranchRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Projects how many vehicles of each category every branch will have on each day of the horizon
+ * and recommends transfers so one-way rentals do not leave branches short. Data is read with two
+ * projection queries and the arithmetic runs on {@link FleetDistributionProjection}'s flat
+ * arrays. A pickup takes the vehicle away from its pickup branch on the start date; the vehicle
+ * counts again at the return branch from the day after the end date.
+ */
+@Slf4j
+@Service
+public class FleetDistributionService {
+
+    public static final int MAX_DAYS = 365;
+
+    // Parked at the branch now or back from cleaning shortly; RENTED vehicles come back through their reservation
+    static final Set<VehicleStatus> ON_HAND_STATUSES = EnumSet.of(
+            VehicleStatus.AVAILABLE, VehicleStatus.RESERVED, VehicleStatus.RETURNED,
+            VehicleStatus.CLEANING, VehicleStatus.WASHING);
+
+    private final BranchRepository branchRepository;
+
+    @Value("${app.fleet.distribution.safety-stock:0}")
+    private int safetyStock;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public FleetDistributionService(BranchRepository branchRepository) {
+        this.branchRepository = branchRepository;
+    }
+
+    /**
+     * @param branchCode when set, only that branch's rows are returned, with the daily series
+     */
+    @Transactional(readOnly = true)
+    public FleetDistributionDTO getDistribution(int days, String branchCode) {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new RuntimeException("Days must be between 1 and " + MAX_DAYS);
+        }
+        Long organizationId = TenantContext.getTenantId();
+        LocalDate today = LocalDate.now();
+        LocalDate last = today.plusDays(days - 1);
+
+        List<Branch> branches = branchRepository.findActiveByOrganizationId(organizationId);
+        Map<Long, Integer> branchIndex = new HashMap<>();
+        for (int b = 0; b < branches.size(); b++) {
+            branchIndex.put(branches.get(b).getId(), b);
+        }
+        Map<String, Branch> byLocation = BranchService.byLocation(branches);
+
+        Integer selected = null;
+        if (branchCode != null) {
+            Branch branch = byLocation.get(BranchService.locationKey(branchCode));
+            if (branch == null) {
+                throw new RuntimeException("Branch not found: " + branchCode);
+            }
+            selected = branchIndex.get(branch.getId());
+        }
+
+        List<Object[]> vehicles = entityManager.createQuery(
+                "SELECT v.category, v.status, v.currentBranch.id FROM VehicleModel v " +
+                "WHERE v.organization.id = :organizationId", Object[].class)
+                .setParameter("organizationId", organizationId)
+                .getResultList();
+        List<Object[]> reservations = entityManager.createQuery(
+                "SELECT r.vehicle.category, r.status, r.startDate, r.endDate, r.pickupLocation, r.returnLocation " +
+                "FROM Reservation r WHERE r.organization.id = :organizationId AND r.startDate <= :last " +
+                "AND (r.status = 'IN_PROGRESS' OR (r.status = 'CONFIRMED' AND r.endDate >= :today))", Object[].class)
+                .setParameter("organizationId", organizationId)
+                .setParameter("today", today)
+                .setParameter("last", last)
+                .getResultList();
+
+        // Categories as they appear on the vehicles, keyed case-insensitively
+        Map<String, Integer> categoryIndex = new HashMap<>();
+        List<String> categories = new ArrayList<>();
+        for (Object[] row : vehicles) {
+            String key = PricingService.categoryKey((String) row[0]);
+            if (!categoryIndex.containsKey(key)) {
+                categoryIndex.put(key, categories.size());
+                categories.add(row[0] != null ? (String) row[0] : "");
+            }
+        }
+
+        long started = System.nanoTime();
+        FleetDistributionProjection projection = new FleetDistributionProjection(days, branches.size(), categories.size());
+        int unassigned = 0;
+        for (Object[] row : vehicles) {
+            if (!ON_HAND_STATUSES.contains((VehicleStatus) row[1])) {
+                continue;
+            }
+            Integer branch = row[2] != null ? branchIndex.get((Long) row[2]) : null;
+            if (branch == null) {
+                unassigned++;
+                continue;
+            }
+            projection.vehicle(branch, categoryIndex.get(PricingService.categoryKey((String) row[0])));
+        }
+
+        int unresolved = 0;
+        long origin = today.toEpochDay();
+        for (Object[] row : reservations) {
+            Integer category = categoryIndex.get(PricingService.categoryKey((String) row[0]));
+            if (category == null) {
+                continue;
+            }
+            if (row[1] == ReservationStatus.CONFIRMED) {
+                Branch pickup = byLocation.get(BranchService.locationKey((String) row[4]));
+                if (pickup != null) {
+                    projection.departure((int) (((LocalDate) row[2]).toEpochDay() - origin), branchIndex.get(pickup.getId()), category);
+                } else {
+                    unresolved++;
+                }
+            }
+            Branch dropOff = byLocation.get(BranchService.locationKey((String) row[5]));
+            if (dropOff != null) {
+                projection.arrival((int) (((LocalDate) row[3]).toEpochDay() + 1 - origin), branchIndex.get(dropOff.getId()), category);
+            } else {
+                unresolved++;
+            }
+        }
+        projection.compute(safetyStock);
+        List<FleetDistributionProjection.Transfer> transfers = projection.recommendTransfers();
+        log.debug("Fleet distribution for organization {}: {} days x {} branches x {} categories in {} us",
+                organizationId, days, branches.size(), categories.size(), (System.nanoTime() - started) / 1_000);
+
+        int[][] covered = new int[branches.size()][categories.size()];
+        List<FleetDistributionDTO.TransferRecommendation> recommendations = new ArrayList<>();
+        for (FleetDistributionProjection.Transfer transfer : transfers) {
+            covered[transfer.getToBranch()][transfer.getCategory()] += transfer.getVehicles();
+            if (selected == null || selected == transfer.getFromBranch() || selected == transfer.getToBranch()) {
+                recommendations.add(FleetDistributionDTO.TransferRecommendation.builder()
+                        .category(categories.get(transfer.getCategory()))
+                        .fromBranch(branches.get(transfer.getFromBranch()).getCode())
+                        .toBranch(branches.get(transfer.getToBranch()).getCode())
+                        .vehicles(transfer.getVehicles())
+                        .neededBy(today.plusDays(transfer.getNeededByDay()))
+                        .build());
+            }
+        }
+
+        List<FleetDistributionDTO.BranchProjection> rows = new ArrayList<>();
+        for (int b = 0; b < branches.size(); b++) {
+            if (selected != null && selected != b) {
+                continue;
+            }
+            for (int c = 0; c < categories.size(); c++) {
+                int shortageDay = projection.firstShortageDay(b, c);
+                int shortfall = projection.shortfall(b, c);
+                FleetDistributionDTO.BranchProjection.BranchProjectionBuilder row = FleetDistributionDTO.BranchProjection.builder()
+                        .branchCode(branches.get(b).getCode())
+                        .category(categories.get(c))
+                        .onHand(projection.onHand(b, c))
+                        .minimum(projection.minimum(b, c))
+                        .minimumDate(today.plusDays(projection.minimumDay(b, c)))
+                        .firstShortageDate(shortageDay >= 0 ? today.plusDays(shortageDay) : null)
+                        .shortfall(shortfall)
+                        .uncovered(shortfall - covered[b][c]);
+                if (selected != null) {
+                    int[] daily = new int[days];
+                    for (int day = 0; day < days; day++) {
+                        daily[day] = projection.projected(day, b, c);
+                    }
+                    row.daily(daily);
+                }
+                rows.add(row.build());
+            }
+        }
+
+        return FleetDistributionDTO.builder()
+                .startDate(today)
+                .days(days)
+                .safetyStock(safetyStock)
+                .projections(rows)
+                .transfers(recommendations)
+                .unassignedVehicles(unassigned)
+                .unresolvedLocations(unresolved)
+                .build();
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.enums.PricingRuleType;
+import com.example.carrental.enums.VehicleStatus;
+import com.example.carrental.model.PricingRule;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Bulk quoting for price comparison partners. Each organization's fleet rates, bookings and
+ * compiled pricing rules are held in a {@link QuoteSnapshot}; quotes are computed from it with
+ * long arithmetic in cents. After {@link QuoteSnapshotEntityListener} reports a committed change
+ * to a vehicle, reservation or pricing rule, the next request starts a rebuild in the background
+ * and keeps being served the current snapshot meanwhile. Requests only wait for a build when
+ * there is no snapshot yet, when it is older than the max age (utilization for surge, bulk
+ * updates, changes on other instances) or when the day rolls over.
+ */
+@Slf4j
+@Service
+public class FleetQuoteService {
+
+    private final PricingService pricingService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor taskExecutor;
+
+    private final Map<Long, QuoteSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+    private final Set<Long> rebuilding = ConcurrentHashMap.newKeySet();
+    // One build at a time per organization; other organizations are not held up
+    private final Map<Long, Object> buildLocks = new ConcurrentHashMap<>();
+
+    @Value("${app.pricing.snapshot-max-age-ms:60000}")
+    private long snapshotMaxAgeMillis;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public FleetQuoteService(PricingService pricingService, TransactionTemplate transactionTemplate,
+                             @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.pricingService = pricingService;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @FunctionalInterface
+    public interface QuoteConsumer {
+        void accept(long vehicleId, long totalCents) throws IOException;
+    }
+
+    public QuoteSnapshot snapshot(Long organizationId) {
+        QuoteSnapshot snapshot = snapshots.get(organizationId);
+        if (snapshot != null && isUsable(snapshot)) {
+            if (stale.contains(organizationId)) {
+                rebuildInBackground(organizationId);
+            }
+            return snapshot;
+        }
+        synchronized (buildLock(organizationId)) {
+            snapshot = snapshots.get(organizationId);
+            if (snapshot == null || !isUsable(snapshot)) {
+                snapshot = rebuild(organizationId);
+            }
+            return snapshot;
+        }
+    }
+
+    public void invalidate(Long organizationId) {
+        stale.add(organizationId);
+    }
+
+    /**
+     * Quote every vehicle at the given snapshot indexes over [startDay, endDay] and pass the
+     * available ones to the consumer. No allocation per vehicle.
+     */
+    public void quoteRange(QuoteSnapshot snapshot, int[] vehicleIndexes, int startDay, int endDay,
+                           QuoteConsumer consumer) throws IOException {
+        for (int index : vehicleIndexes) {
+            long totalCents = snapshot.quoteCents(index, startDay, endDay);
+            if (totalCents != QuoteSnapshot.UNAVAILABLE) {
+                consumer.accept(snapshot.vehicleIdAt(index), totalCents);
+            }
+        }
+    }
+
+    private boolean isUsable(QuoteSnapshot snapshot) {
+        return System.currentTimeMillis() - snapshot.getBuiltAtMillis() < snapshotMaxAgeMillis
+                && snapshot.getOriginDay() == LocalDate.now().toEpochDay();
+    }
+
+    private Object buildLock(Long organizationId) {
+        return buildLocks.computeIfAbsent(organizationId, id -> new Object());
+    }
+
+    // Caller holds the organization's build lock
+    private QuoteSnapshot rebuild(Long organizationId) {
+        // Cleared before the reads, so a change committed while building marks it stale again
+        stale.remove(organizationId);
+        QuoteSnapshot snapshot = build(organizationId);
+        snapshots.put(organizationId, snapshot);
+        return snapshot;
+    }
+
+    private void rebuildInBackground(Long organizationId) {
+        if (!rebuilding.add(organizationId)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    TenantContext.runAs(organizationId, () -> {
+                        synchronized (buildLock(organizationId)) {
+                            if (stale.contains(organizationId)) {
+                                rebuild(organizationId);
+                            }
+                        }
+                    });
+                } catch (Exception e) {
+                    log.warn("Background quote snapshot build for organization {} failed", organizationId, e);
+                } finally {
+                    rebuilding.remove(organizationId);
+                }
+            });
+        } catch (RuntimeException e) {
+            rebuilding.remove(organizationId);
+            log.warn("Background quote snapshot build for organization {} not started: {}", organizationId, e.getMessage());
+        }
+    }
+
+    private QuoteSnapshot build(Long organizationId) {
+        long started = System.nanoTime();
+        QuoteSnapshot snapshot = transactionTemplate.execute(status -> {
+            LocalDate today = LocalDate.now();
+
+            List<Object[]> vehicles = entityManager.createQuery(
+                    "SELECT v.id, v.dailyRate, v.category, v.status FROM VehicleModel v " +
+                    "WHERE v.organization.id = :organizationId", Object[].class)
+                    .setParameter("organizationId", organizationId)
+                    .getResultList();
+            List<Object[]> bookings = entityManager.createQuery(
+                    "SELECT r.vehicle.id, r.startDate, r.endDate FROM Reservation r " +
+                    "WHERE r.organization.id = :organizationId AND r.status IN ('CONFIRMED', 'IN_PROGRESS') " +
+                    "AND r.endDate >= :today", Object[].class)
+                    .setParameter("organizationId", organizationId)
+                    .setParameter("today", today)
+                    .getResultList();
+
+            QuoteSnapshot.Builder builder = null;
+            Set<String> categories = new HashSet<>();
+            for (Object[] row : vehicles) {
+                String category = (String) row[2];
+                RateTable table = pricingService.rateTable(organizationId, category);
+                if (builder == null) {
+                    builder = QuoteSnapshot.builder((int) table.getOrigin().toEpochDay(), table.getDays());
+                }
+                String key = PricingService.categoryKey(category);
+                if (categories.add(key)) {
+                    addCategory(builder, organizationId, category, key, table);
+                }
+                builder.vehicle((Long) row[0], ((BigDecimal) row[1]).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact(),
+                        key, VehicleFacetIndex.BOOKABLE_STATUSES.contains((VehicleStatus) row[3]));
+            }
+            if (builder == null) {
+                builder = QuoteSnapshot.builder((int) today.toEpochDay(), 0);
+            }
+            for (Object[] row : bookings) {
+                builder.booking((Long) row[0], (int) ((LocalDate) row[1]).toEpochDay(), (int) ((LocalDate) row[2]).toEpochDay());
+            }
+            return builder.build();
+        });
+        log.info("Quote snapshot for organization {} built: {} vehicles in {} ms",
+                organizationId, snapshot.vehicleCount(), (System.nanoTime() - started) / 1_000_000);
+        return snapshot;
+    }
+
+    private void addCategory(QuoteSnapshot.Builder builder, Long organizationId, String category, String key, RateTable table) {
+        List<PricingRule> rules = pricingService.activeRules(organizationId, category);
+        List<PricingRule> longStay = rules.stream()
+                .filter(rule -> rule.getRuleType() == PricingRuleType.LONG_STAY)
+                .toList();
+        int[] minDays = new int[longStay.size()];
+        long[] longStayBp = new long[longStay.size()];
+        for (int r = 0; r < longStay.size(); r++) {
+            minDays[r] = longStay.get(r).getMinDays();
+            longStayBp[r] = basisPoints(longStay.get(r).getMultiplier());
+        }
+        BigDecimal surge = PricingService.surgeMultiplier(rules, pricingService.utilization(organizationId, category));
+        builder.category(key, table.prefixSums(), minDays, longStayBp, basisPoints(surge));
+    }
+
+    private static long basisPoints(BigDecimal multiplier) {
+        return multiplier.multiply(BigDecimal.valueOf(RateTable.SCALE)).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
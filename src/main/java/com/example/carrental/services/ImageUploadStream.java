@@ -0,0 +1,95 @@
+package com.example.carrental.services;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Upload body wrapper that identifies the image type from its magic bytes before anything is
+ * stored, and fails as soon as more than the allowed number of bytes has been read.
+ */
+public class ImageUploadStream extends FilterInputStream {
+
+    private static final int SNIFF_BYTES = 1024;
+
+    private final long maxBytes;
+    private final String extension;
+    private long bytesRead;
+
+    private ImageUploadStream(InputStream in, long maxBytes, String extension) {
+        super(in);
+        this.maxBytes = maxBytes;
+        this.extension = extension;
+    }
+
+    /**
+     * @throws IOException when the content is not a JPEG, PNG or WEBP image
+     */
+    public static ImageUploadStream open(InputStream content, long maxBytes) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(content, SNIFF_BYTES);
+        buffered.mark(SNIFF_BYTES);
+        byte[] header = buffered.readNBytes(12);
+        buffered.reset();
+
+        String extension = detectExtension(header);
+        if (extension == null) {
+            throw new IOException("Invalid file content. Only JPG, PNG and WEBP images are allowed");
+        }
+        return new ImageUploadStream(buffered, maxBytes, extension);
+    }
+
+    static String detectExtension(byte[] header) {
+        if (header.length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return ".jpg";
+        }
+        if (header.length >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G'
+                && header[4] == 0x0D && header[5] == 0x0A && header[6] == 0x1A && header[7] == 0x0A) {
+            return ".png";
+        }
+        if (header.length >= 12 && header[0] == 'R' && header[1] == 'I' && header[2] == 'F' && header[3] == 'F'
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+            return ".webp";
+        }
+        return null;
+    }
+
+    /**
+     * Extension matching the detected content, regardless of the client-supplied filename
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    private void count(long n) throws IOException {
+        bytesRead += n;
+        if (bytesRead > maxBytes) {
+            throw new IOException("File size exceeds maximum allowed size (" + (maxBytes / (1024 * 1024)) + "MB)");
+        }
+    }
+}
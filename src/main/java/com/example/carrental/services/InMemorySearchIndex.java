@@ -0,0 +1,110 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.model.Customer;
+import com.example.carrental.model.Organization;
+import com.example.carrental.model.VehicleModel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Search backend for H2 and other databases without pg_trgm: per-organization trigram indexes
+ * built at startup and kept current by {@link SearchIndexEntityListener}.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "app.search", name = "backend", havingValue = "memory", matchIfMissing = true)
+public class InMemorySearchIndex implements SearchBackend {
+
+    private final Map<Long, TrigramIndex> vehicleIndexes = new ConcurrentHashMap<>();
+    private final Map<Long, TrigramIndex> customerIndexes = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndexes() {
+        TenantContext.runUnscoped(() -> {
+            List<Object[]> vehicles = entityManager.createQuery(
+                    "SELECT v.id, v.organization.id, v.licensePlate, v.brand, v.model, v.color, v.category " +
+                    "FROM VehicleModel v", Object[].class).getResultList();
+            for (Object[] row : vehicles) {
+                indexFor(vehicleIndexes, (Long) row[1]).put((Long) row[0],
+                        join(row[2], row[3], row[4], row[5], row[6]));
+            }
+
+            List<Object[]> customers = entityManager.createQuery(
+                    "SELECT c.id, c.organization.id, c.customerCode, c.firstName, c.lastName, c.email, c.licenseNumber " +
+                    "FROM Customer c", Object[].class).getResultList();
+            for (Object[] row : customers) {
+                indexFor(customerIndexes, (Long) row[1]).put((Long) row[0],
+                        join(row[2], row[3], row[4], row[5], row[6]));
+            }
+            log.info("Search index loaded: {} vehicles, {} customers", vehicles.size(), customers.size());
+        });
+    }
+
+    @Override
+    public List<Long> searchVehicleIds(Long organizationId, String term, int limit) {
+        TrigramIndex index = vehicleIndexes.get(organizationId);
+        return index == null ? List.of() : index.search(term, limit);
+    }
+
+    @Override
+    public List<Long> searchCustomerIds(Long organizationId, String term, int limit) {
+        TrigramIndex index = customerIndexes.get(organizationId);
+        return index == null ? List.of() : index.search(term, limit);
+    }
+
+    public void index(VehicleModel vehicle) {
+        indexFor(vehicleIndexes, organizationId(vehicle.getOrganization())).put(vehicle.getId(),
+                join(vehicle.getLicensePlate(), vehicle.getBrand(), vehicle.getModel(), vehicle.getColor(), vehicle.getCategory()));
+    }
+
+    public void index(Customer customer) {
+        indexFor(customerIndexes, organizationId(customer.getOrganization())).put(customer.getId(),
+                join(customer.getCustomerCode(), customer.getFirstName(), customer.getLastName(),
+                        customer.getEmail(), customer.getLicenseNumber()));
+    }
+
+    public void remove(VehicleModel vehicle) {
+        TrigramIndex index = vehicleIndexes.get(organizationId(vehicle.getOrganization()));
+        if (index != null) {
+            index.remove(vehicle.getId());
+        }
+    }
+
+    public void remove(Customer customer) {
+        TrigramIndex index = customerIndexes.get(organizationId(customer.getOrganization()));
+        if (index != null) {
+            index.remove(customer.getId());
+        }
+    }
+
+    private Long organizationId(Organization organization) {
+        return organization != null ? organization.getId() : TenantContext.getTenantId();
+    }
+
+    private TrigramIndex indexFor(Map<Long, TrigramIndex> indexes, Long organizationId) {
+        return indexes.computeIfAbsent(organizationId, id -> new TrigramIndex());
+    }
+
+    private String join(Object... values) {
+        StringBuilder text = new StringBuilder();
+        for (Object value : values) {
+            if (value != null) {
+                text.append(value).append(' ');
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.carrental.services;
+
+import com.example.carrental.dto.JobDTO;
+import com.example.carrental.dto.JobQueueStatsDTO;
+import com.example.carrental.enums.JobType;
+import com.example.carrental.model.Job;
+import com.example.carrental.repository.JobRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Enqueues durable background jobs. A job enqueued inside a transaction is committed (or rolled
+ * back) with it, so work is never lost on restart and never runs for a change that did not happen.
+ */
+@Slf4j
+@Service
+public class JobQueueService {
+
+    private final JobRepository jobRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<JobWorker> jobWorker;
+
+    public JobQueueService(JobRepository jobRepository, ObjectMapper objectMapper, ObjectProvider<JobWorker> jobWorker) {
+        this.jobRepository = jobRepository;
+        this.objectMapper = objectMapper;
+        this.jobWorker = jobWorker;
+    }
+
+    @Transactional
+    public Job enqueue(JobType type, Long organizationId, Map<String, Object> payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize " + type + " job: " + e.getMessage(), e);
+        }
+
+        Job job = jobRepository.save(Job.builder()
+                .organizationId(organizationId)
+                .jobType(type)
+                .payload(json)
+                .maxAttempts(type.getDefaultMaxAttempts())
+                .build());
+        log.debug("Job {} enqueued: {}", job.getId(), type);
+
+        TransactionHooks.afterCommit(() -> jobWorker.ifAvailable(JobWorker::wake));
+        return job;
+    }
+
+    /**
+     * Move a dead-lettered job back to the queue with a fresh set of attempts
+     */
+    @Transactional
+    public JobDTO retry(Long jobId) {
+        Job job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Job not found with id: " + jobId));
+        if (!"DEAD".equals(job.getStatus())) {
+            throw new RuntimeException("Only dead jobs can be retried, job " + jobId + " is " + job.getStatus());
+        }
+        job.setStatus("QUEUED");
+        job.setAttempts(0);
+        job.setRunAt(LocalDateTime.now());
+        job.setLockedUntil(null);
+        job.setFinishedAt(null);
+        log.info("Dead job {} ({}) re-queued", jobId, job.getJobType());
+        return toDTO(job);
+    }
+
+    /**
+     * Values of a numeric payload field across the queued and running jobs of a type
+     */
+    @Transactional(readOnly = true)
+    public Set<Long> getActivePayloadIds(JobType type, String field) {
+        Set<Long> ids = new HashSet<>();
+        for (String payload : jobRepository.findActivePayloads(type)) {
+            try {
+                JsonNode value = objectMapper.readTree(payload).get(field);
+                if (value != null && value.canConvertToLong()) {
+                    ids.add(value.asLong());
+                }
+            } catch (JsonProcessingException e) {
+                log.warn("Unreadable {} job payload: {}", type, e.getMessage());
+            }
+        }
+        return ids;
+    }
+
+    @Transactional(readOnly = true)
+    public List<JobDTO> getDeadJobs(JobType type) {
+        List<Job> jobs = type != null
+                ? jobRepository.findTop100ByStatusAndJobTypeOrderByIdDesc("DEAD", type)
+                : jobRepository.findTop100ByStatusOrderByIdDesc("DEAD");
+        return jobs.stream().map(this::toDTO).collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<JobQueueStatsDTO> getStats(Map<JobType, Integer> concurrency) {
+        Map<JobType, JobQueueStatsDTO> stats = new EnumMap<>(JobType.class);
+        for (JobType type : JobType.values()) {
+            stats.put(type, JobQueueStatsDTO.builder()
+                    .type(type)
+                    .concurrency(concurrency.getOrDefault(type, type.getDefaultConcurrency()))
+                    .queued(0)
+                    .running(0)
+                    .dead(0)
+                    .oldestQueuedSeconds(0)
+                    .build());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Object[] row : jobRepository.countActiveByTypeAndStatus()) {
+            JobQueueStatsDTO dto = stats.get((JobType) row[0]);
+            long count = (Long) row[2];
+            switch ((String) row[1]) {
+                case "QUEUED" -> {
+                    dto.setQueued(count);
+                    LocalDateTime oldest = (LocalDateTime) row[3];
+                    dto.setOldestQueuedSeconds(Math.max(0, Duration.between(oldest, now).getSeconds()));
+                }
+                case "RUNNING" -> dto.setRunning(count);
+                case "DEAD" -> dto.setDead(count);
+                default -> { }
+            }
+        }
+        return new ArrayList<>(stats.values());
+    }
+
+    private JobDTO toDTO(Job job) {
+        return JobDTO.builder()
+                .id(job.getId())
+                .organizationId(job.getOrganizationId())
+                .type(job.getJobType())
+                .status(job.getStatus())
+                .attempts(job.getAttempts())
+                .maxAttempts(job.getMaxAttempts())
+                .runAt(job.getRunAt())
+                .lastError(job.getLastError())
+                .createdAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
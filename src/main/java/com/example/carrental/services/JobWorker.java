@@ -0,0 +1,273 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.dto.JobQueueStatsDTO;
+import com.example.carrental.enums.JobType;
+import com.example.carrental.jobs.JobHandler;
+import com.example.carrental.model.Job;
+import com.example.carrental.repository.JobRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs jobs from the jobs table. Each job type has its own fixed pool (app.jobs.concurrency.*),
+ * and only as many jobs are claimed as the pool has free threads, so a backlog of one type never
+ * delays another and never blocks request threads. Claims use FOR UPDATE SKIP LOCKED so several
+ * instances can share the queue. Failures are retried with exponential backoff; a job that
+ * reaches its maximum attempts is dead-lettered (status DEAD) until retried from the admin API.
+ *
+ * Metrics: jobs.queue.depth and jobs.queue.oldest.seconds (gauges, per type), jobs.dead (gauge),
+ * jobs.wait (time from runnable to started) and jobs.execution (per type and outcome).
+ */
+@Slf4j
+@Service
+public class JobWorker {
+
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    private final JobRepository jobRepository;
+    private final JobQueueService jobQueueService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Executor wakeUpExecutor;
+
+    private final Map<JobType, JobHandler> handlers = new EnumMap<>(JobType.class);
+    private final Map<JobType, Integer> concurrency = new EnumMap<>(JobType.class);
+    private final Map<JobType, ThreadPoolTaskExecutor> pools = new EnumMap<>(JobType.class);
+    private final Map<JobType, AtomicInteger> running = new EnumMap<>(JobType.class);
+    private final Map<JobType, AtomicLong> queueDepth = new EnumMap<>(JobType.class);
+    private final Map<JobType, AtomicLong> oldestQueuedSeconds = new EnumMap<>(JobType.class);
+    private final Map<JobType, AtomicLong> dead = new EnumMap<>(JobType.class);
+    private final AtomicBoolean polling = new AtomicBoolean();
+
+    @Value("${app.jobs.lease-seconds:600}")
+    private long leaseSeconds;
+
+    @Value("${app.jobs.retention-days:7}")
+    private long retentionDays;
+
+    public JobWorker(JobRepository jobRepository, JobQueueService jobQueueService,
+                     PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                     List<JobHandler> jobHandlers, Environment environment,
+                     ObjectProvider<MeterRegistry> meterRegistryProvider,
+                     @Qualifier("wakeUpExecutor") Executor wakeUpExecutor) {
+        this.jobRepository = jobRepository;
+        this.jobQueueService = jobQueueService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistryProvider.getIfAvailable();
+        this.wakeUpExecutor = wakeUpExecutor;
+
+        for (JobHandler handler : jobHandlers) {
+            handlers.put(handler.getType(), handler);
+        }
+        for (JobType type : JobType.values()) {
+            int threads = environment.getProperty("app.jobs.concurrency." + type.getPropertyKey(),
+                    Integer.class, type.getDefaultConcurrency());
+            concurrency.put(type, threads);
+            running.put(type, new AtomicInteger());
+            queueDepth.put(type, new AtomicLong());
+            oldestQueuedSeconds.put(type, new AtomicLong());
+            dead.put(type, new AtomicLong());
+
+            ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+            pool.setCorePoolSize(threads);
+            pool.setMaxPoolSize(threads);
+            pool.setQueueCapacity(threads); // never more than the claimed jobs
+            pool.setThreadNamePrefix("CarRental-Job-" + type.getPropertyKey() + "-");
+            pool.initialize();
+            pools.put(type, pool);
+
+            if (meterRegistry != null) {
+                Gauge.builder("jobs.queue.depth", queueDepth.get(type), AtomicLong::get)
+                        .tag("type", type.name()).register(meterRegistry);
+                Gauge.builder("jobs.queue.oldest.seconds", oldestQueuedSeconds.get(type), AtomicLong::get)
+                        .tag("type", type.name()).register(meterRegistry);
+                Gauge.builder("jobs.dead", dead.get(type), AtomicLong::get)
+                        .tag("type", type.name()).register(meterRegistry);
+                Gauge.builder("jobs.running", running.get(type), AtomicInteger::get)
+                        .tag("type", type.name()).register(meterRegistry);
+            }
+        }
+    }
+
+    public Map<JobType, Integer> getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Claim work right away instead of waiting for the next poll (called after an enqueue commits)
+     */
+    public void wake() {
+        if (!polling.get()) {
+            wakeUpExecutor.execute(this::poll);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.poll-interval-ms:1000}")
+    public void poll() {
+        if (!polling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (JobType type : JobType.values()) {
+                int free = concurrency.get(type) - running.get(type).get();
+                if (free <= 0 || !handlers.containsKey(type)) {
+                    continue;
+                }
+                for (Job job : claim(type, free)) {
+                    running.get(type).incrementAndGet();
+                    pools.get(type).execute(() -> {
+                        try {
+                            execute(job);
+                        } finally {
+                            running.get(type).decrementAndGet();
+                        }
+                    });
+                }
+            }
+        } catch (Exception e) {
+            log.error("Job poll failed", e);
+        } finally {
+            polling.set(false);
+        }
+    }
+
+    /**
+     * Re-queue jobs of crashed workers and refresh the queue gauges. The claim already counted the
+     * attempt, so a job that keeps killing its worker is dead-lettered at its maximum attempts.
+     */
+    @Scheduled(fixedDelayString = "${app.jobs.maintenance-interval-ms:15000}")
+    public void refreshQueueState() {
+        int[] expired = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            return new int[]{jobRepository.deadLetterExpired(now), jobRepository.requeueExpired(now)};
+        });
+        if (expired != null && expired[0] > 0) {
+            log.error("Dead-lettered {} jobs whose worker lease expired on their last attempt", expired[0]);
+        }
+        if (expired != null && expired[1] > 0) {
+            log.warn("Re-queued {} jobs whose worker lease expired", expired[1]);
+        }
+        for (JobQueueStatsDTO stats : jobQueueService.getStats(concurrency)) {
+            queueDepth.get(stats.getType()).set(stats.getQueued());
+            oldestQueuedSeconds.get(stats.getType()).set(stats.getOldestQueuedSeconds());
+            dead.get(stats.getType()).set(stats.getDead());
+        }
+    }
+
+    @Scheduled(cron = "0 45 3 * * ?") // Every day at 3:45 AM
+    public void cleanup() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        Integer deleted = transactionTemplate.execute(status -> jobRepository.deleteSucceededBefore(before));
+        log.info("Job cleanup removed {} succeeded jobs", deleted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pools.values().forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+
+    List<Job> claim(JobType type, int limit) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Job> jobs = jobRepository.findRunnableForUpdate(type, now, PageRequest.of(0, limit));
+            for (Job job : jobs) {
+                job.setStatus("RUNNING");
+                job.setAttempts(job.getAttempts() + 1);
+                job.setStartedAt(now);
+                job.setLockedUntil(now.plusSeconds(leaseSeconds));
+            }
+            return jobs;
+        });
+    }
+
+    private void execute(Job job) {
+        JobType type = job.getJobType();
+        if (meterRegistry != null) {
+            Timer.builder("jobs.wait").tag("type", type.name()).register(meterRegistry)
+                    .record(Duration.between(job.getRunAt(), job.getStartedAt()));
+        }
+
+        long started = System.nanoTime();
+        String error = null;
+        try {
+            if (job.getOrganizationId() != null) {
+                TenantContext.setTenantId(job.getOrganizationId());
+            }
+            handlers.get(type).run(objectMapper.readValue(job.getPayload(), PAYLOAD_TYPE));
+        } catch (Exception e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            log.warn("Job {} ({}) failed on attempt {}: {}", job.getId(), type, job.getAttempts(), error);
+        } finally {
+            TenantContext.clear();
+        }
+
+        String outcome = complete(job.getId(), error);
+        if (meterRegistry != null) {
+            Timer.builder("jobs.execution").tag("type", type.name()).tag("outcome", outcome).register(meterRegistry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    String complete(Long jobId, String error) {
+        return transactionTemplate.execute(status -> {
+            Job job = jobRepository.findById(jobId).orElse(null);
+            if (job == null) {
+                return "missing";
+            }
+            LocalDateTime now = LocalDateTime.now();
+            job.setLockedUntil(null);
+            if (error == null) {
+                job.setStatus("SUCCEEDED");
+                job.setFinishedAt(now);
+                job.setLastError(null);
+                return "success";
+            }
+            job.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+            if (job.getAttempts() >= job.getMaxAttempts()) {
+                job.setStatus("DEAD");
+                job.setFinishedAt(now);
+                log.error("Job {} ({}) dead-lettered after {} attempts: {}", jobId, job.getJobType(), job.getAttempts(), error);
+                return "dead";
+            }
+            job.setStatus("QUEUED");
+            job.setRunAt(now.plusSeconds(backoffSeconds(job.getAttempts())));
+            return "retry";
+        });
+    }
+
+    /**
+     * 10, 20, 40 ... seconds after the given failed attempt, capped at one hour
+     */
+    static long backoffSeconds(int attempts) {
+        return Math.min(3600, 10L << Math.min(Math.max(attempts, 1) - 1, 9));
+    }
+}
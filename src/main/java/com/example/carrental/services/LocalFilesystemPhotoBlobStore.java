@@ -0,0 +1,102 @@
+package com.example.carrental.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Default blob store: files under uploads/vehicle-photos/blobs/ab/cd/abcd....ext, two levels
+ * of sharding so no directory grows past a few thousand entries.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "app.photos.storage", name = "backend", havingValue = "local", matchIfMissing = true)
+public class LocalFilesystemPhotoBlobStore implements PhotoBlobStore {
+
+    private static final String BLOB_DIR = "uploads/vehicle-photos/blobs/";
+    private static final Path STAGING_DIR = Paths.get(BLOB_DIR, "staging");
+
+    @Override
+    public StagedBlob stage(InputStream content) throws IOException {
+        Files.createDirectories(STAGING_DIR);
+        Path temp = Files.createTempFile(STAGING_DIR, "upload-", ".tmp");
+
+        MessageDigest digest = sha256();
+        long size;
+        try (DigestInputStream in = new DigestInputStream(content, digest);
+             OutputStream out = Files.newOutputStream(temp)) {
+            size = in.transferTo(out);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return new StagedBlob(temp, HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    @Override
+    public void publish(StagedBlob blob, String extension) throws IOException {
+        Path target = pathFor(blob.getSha256(), extension);
+        if (Files.exists(target)) {
+            discard(blob);
+            return;
+        }
+
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(blob.getTempFile(), target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            discard(blob); // same content published concurrently
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(blob.getTempFile(), target);
+        }
+    }
+
+    @Override
+    public void discard(StagedBlob blob) {
+        try {
+            Files.deleteIfExists(blob.getTempFile());
+        } catch (IOException e) {
+            log.warn("Failed to remove staged upload {}: {}", blob.getTempFile(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void delete(String sha256, String extension) throws IOException {
+        Files.deleteIfExists(pathFor(sha256, extension));
+    }
+
+    @Override
+    public String urlFor(String sha256, String extension) {
+        return "/" + BLOB_DIR + relativePath(sha256, extension);
+    }
+
+    private Path pathFor(String sha256, String extension) {
+        return Paths.get(BLOB_DIR, relativePath(sha256, extension));
+    }
+
+    private String relativePath(String sha256, String extension) {
+        return sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + extension;
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.carrental.services;
 
+import com.example.carrental.enums.DomainEventType;
+import com.example.carrental.enums.JobType;
 import com.example.carrental.model.MaintenanceRecord;
 import com.example.carrental.model.VehicleModel;
 import com.example.carrental.repository.MaintenanceRecordRepository;
@@ -9,10 +11,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
@@ -21,7 +26,10 @@ public class MaintenanceService {
 
     private final MaintenanceRecordRepository maintenanceRecordRepository;
     private final VehicleRepository vehicleRepository;
-    private final NotificationService notificationService;
+    private final JobQueueService jobQueueService;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final CrossTenantTaskRunner crossTenantTaskRunner;
 
     // Maintenance interval in kilometers
     private static final int MAINTENANCE_INTERVAL_KM = 10000;
@@ -62,8 +70,14 @@ public class MaintenanceService {
         vehicle.setUpdatedAt(LocalDateTime.now());
         vehicleRepository.save(vehicle);
 
-        // Send completion notification
-        notificationService.createMaintenanceCompletedNotification(vehicle, serviceProvider, description);
+        // Completion notification is sent by NotificationEventHandler once this commits
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("vehicleId", vehicle.getId());
+        payload.put("maintenanceType", maintenanceType);
+        payload.put("serviceProvider", serviceProvider);
+        payload.put("description", description);
+        payload.put("cost", cost);
+        outboxService.publish(DomainEventType.MAINTENANCE_RECORDED, vehicle.getOrganization(), savedRecord.getId(), payload);
 
         log.info("Maintenance record created for vehicle {}: {}", vehicle.getLicensePlate(), description);
         return savedRecord;
@@ -124,23 +138,29 @@ public class MaintenanceService {
 
     // Scheduled task to check for vehicles needing maintenance
     @Scheduled(cron = "0 0 8 * * *") // Run daily at 8 AM
-    @Transactional
     public void checkMaintenanceDue() {
         log.info("Running daily maintenance check...");
 
-        List<VehicleModel> allVehicles = vehicleRepository.findAll();
-        int alertsSent = 0;
-
-        for (VehicleModel vehicle : allVehicles) {
-            if (isMaintenanceDue(vehicle)) {
-                String reason = determineMaintenanceReason(vehicle);
-                notificationService.createMaintenanceAlert(vehicle, reason, vehicle.getMileage());
-                alertsSent++;
+        // Checks every organization's fleet
+        int alertsSent = crossTenantTaskRunner.sum(() -> transactionTemplate.execute(status -> {
+            int queued = 0;
+            for (VehicleModel vehicle : vehicleRepository.findAll()) {
+                if (isMaintenanceDue(vehicle)) {
+                    String reason = determineMaintenanceReason(vehicle);
+                    Map<String, Object> payload = new HashMap<>();
+                    payload.put("vehicleId", vehicle.getId());
+                    payload.put("reason", reason);
+                    payload.put("mileage", vehicle.getMileage());
+                    jobQueueService.enqueue(JobType.MAINTENANCE_ALERT,
+                            vehicle.getOrganization() != null ? vehicle.getOrganization().getId() : null, payload);
+                    queued++;
+                }
             }
-        }
+            return queued;
+        }));
 
         if (alertsSent > 0) {
-            log.info("Sent {} maintenance alerts", alertsSent);
+            log.info("Queued {} maintenance alerts", alertsSent);
         } else {
             log.info("No maintenance alerts needed");
         }
@@ -0,0 +1,350 @@
+package com.example.carrental.services;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Upload body filter that drops metadata from the original before it is stored, since the
+ * original is served as uploaded: JPEG EXIF / XMP / IPTC segments and comments, PNG text, time
+ * and EXIF chunks, and WebP EXIF / XMP chunks. A JPEG's EXIF orientation is kept as the only tag
+ * so phone photos still display upright. Works segment by segment; image data is passed through
+ * untouched and nothing is buffered whole.
+ */
+public class MetadataStrippingStream extends InputStream {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int JPEG_SOS = 0xDA;
+    private static final int JPEG_EOI = 0xD9;
+    private static final int JPEG_APP0 = 0xE0;
+    private static final int JPEG_APP1 = 0xE1;
+    private static final int JPEG_APP2 = 0xE2;
+    private static final int JPEG_APP14 = 0xEE;
+    private static final int JPEG_APP15 = 0xEF;
+    private static final int JPEG_COM = 0xFE;
+    private static final byte[] EXIF_HEADER = {'E', 'x', 'i', 'f', 0, 0};
+    private static final byte[] ICC_HEADER = "ICC_PROFILE\0".getBytes(StandardCharsets.US_ASCII);
+    private static final int EXIF_ORIENTATION_TAG = 0x0112;
+
+    private static final Set<String> PNG_METADATA_CHUNKS = Set.of("eXIf", "tEXt", "zTXt", "iTXt", "tIME");
+
+    private static final Set<String> WEBP_METADATA_CHUNKS = Set.of("EXIF", "XMP ");
+    private static final int WEBP_EXIF_FLAG = 0x08;
+    private static final int WEBP_XMP_FLAG = 0x04;
+    private static final int WEBP_MAX_VP8X_BYTES = 64;
+
+    private enum State { START, HEADERS, ENTROPY_CODED, END }
+
+    private final InputStream in;
+    private final String extension;
+    private State state = State.START;
+
+    // Output of the last parsing step, then bytes to copy or blank straight from the input
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(BUFFER_SIZE);
+    private byte[] pending = new byte[0];
+    private int pendingPosition;
+    private long copyRemaining;
+    private long blankRemaining;
+
+    /**
+     * @param extension ".jpg", ".png" or ".webp", as detected by {@link ImageUploadStream}
+     */
+    public MetadataStrippingStream(InputStream content, String extension) {
+        if (!Set.of(".jpg", ".png", ".webp").contains(extension)) {
+            throw new IllegalArgumentException("Unsupported image type: " + extension);
+        }
+        this.in = new BufferedInputStream(content, BUFFER_SIZE);
+        this.extension = extension;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (true) {
+            if (pendingPosition < pending.length) {
+                int n = Math.min(len, pending.length - pendingPosition);
+                System.arraycopy(pending, pendingPosition, b, off, n);
+                pendingPosition += n;
+                return n;
+            }
+            if (copyRemaining > 0) {
+                int n = in.read(b, off, (int) Math.min(len, copyRemaining));
+                if (n < 0) {
+                    throw new EOFException("Truncated image");
+                }
+                copyRemaining -= n;
+                return n;
+            }
+            if (blankRemaining > 0) {
+                int n = (int) Math.min(len, blankRemaining);
+                in.skipNBytes(n);
+                Arrays.fill(b, off, off + n, (byte) 0);
+                blankRemaining -= n;
+                return n;
+            }
+            if (state == State.END) {
+                return -1;
+            }
+
+            switch (extension) {
+                case ".jpg" -> nextJpeg();
+                case ".png" -> nextPng();
+                default -> nextWebp();
+            }
+            pending = out.toByteArray();
+            pendingPosition = 0;
+            out.reset();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void nextJpeg() throws IOException {
+        if (state == State.START) {
+            out.write(readFully(2)); // SOI
+            state = State.HEADERS;
+        } else if (state == State.ENTROPY_CODED) {
+            scanEntropyCoded();
+        } else {
+            int b = in.read();
+            if (b < 0) {
+                state = State.END;
+            } else if (b != 0xFF) {
+                throw new IOException("Invalid JPEG marker");
+            } else {
+                jpegSegment(readMarker());
+            }
+        }
+    }
+
+    private void jpegSegment(int marker) throws IOException {
+        if (marker == JPEG_EOI) {
+            // Anything after the image (maker trailers, embedded previews) is dropped
+            out.write(0xFF);
+            out.write(marker);
+            state = State.END;
+            return;
+        }
+        if ((marker >= 0xD0 && marker <= 0xD7) || marker == 0x01) {
+            // RSTn and TEM have no length
+            out.write(0xFF);
+            out.write(marker);
+            return;
+        }
+
+        int length = (readByte() << 8) | readByte();
+        if (length < 2) {
+            throw new IOException("Invalid JPEG segment length");
+        }
+        byte[] payload = readFully(length - 2);
+        if (marker == JPEG_APP1 && startsWith(payload, EXIF_HEADER)) {
+            int orientation = exifOrientation(payload);
+            if (orientation != 1) {
+                out.write(orientationSegment(orientation));
+            }
+            return;
+        }
+        if (isJpegMetadata(marker, payload)) {
+            return;
+        }
+        out.write(0xFF);
+        out.write(marker);
+        out.write(length >> 8);
+        out.write(length & 0xFF);
+        out.write(payload);
+        if (marker == JPEG_SOS) {
+            state = State.ENTROPY_CODED;
+        }
+    }
+
+    // Keeps JFIF (APP0), ICC colour profiles (APP2) and the Adobe colour transform (APP14)
+    private static boolean isJpegMetadata(int marker, byte[] payload) {
+        if (marker == JPEG_COM) {
+            return true;
+        }
+        if (marker < JPEG_APP0 || marker > JPEG_APP15) {
+            return false;
+        }
+        return marker != JPEG_APP0 && marker != JPEG_APP14 && !(marker == JPEG_APP2 && startsWith(payload, ICC_HEADER));
+    }
+
+    /**
+     * Copy scan data up to the next marker other than byte stuffing and restarts; progressive
+     * images have further tables and scans after it
+     */
+    private void scanEntropyCoded() throws IOException {
+        while (out.size() < BUFFER_SIZE) {
+            int b = in.read();
+            if (b < 0) {
+                state = State.END;
+                return;
+            }
+            if (b != 0xFF) {
+                out.write(b);
+                continue;
+            }
+            int marker = readMarker();
+            if (marker == 0x00 || (marker >= 0xD0 && marker <= 0xD7)) {
+                out.write(0xFF);
+                out.write(marker);
+                continue;
+            }
+            state = State.HEADERS;
+            jpegSegment(marker);
+            return;
+        }
+    }
+
+    private int readMarker() throws IOException {
+        int marker;
+        do {
+            marker = readByte();
+        } while (marker == 0xFF); // fill bytes
+        return marker;
+    }
+
+    private void nextPng() throws IOException {
+        if (state == State.START) {
+            out.write(readFully(8)); // signature
+            state = State.HEADERS;
+            return;
+        }
+        byte[] header = in.readNBytes(8);
+        if (header.length == 0) {
+            state = State.END;
+            return;
+        }
+        if (header.length < 8) {
+            throw new EOFException("Truncated image");
+        }
+        long length = ByteBuffer.wrap(header).getInt() & 0xFFFFFFFFL;
+        String type = new String(header, 4, 4, StandardCharsets.US_ASCII);
+        if (PNG_METADATA_CHUNKS.contains(type)) {
+            in.skipNBytes(length + 4); // data and CRC
+            return;
+        }
+        out.write(header);
+        copyRemaining = length + 4;
+        if ("IEND".equals(type)) {
+            state = State.END;
+        }
+    }
+
+    private void nextWebp() throws IOException {
+        if (state == State.START) {
+            out.write(readFully(12)); // RIFF header
+            state = State.HEADERS;
+            return;
+        }
+        byte[] header = in.readNBytes(8);
+        if (header.length == 0) {
+            state = State.END;
+            return;
+        }
+        if (header.length < 8) {
+            throw new EOFException("Truncated image");
+        }
+        String fourCc = new String(header, 0, 4, StandardCharsets.US_ASCII);
+        long size = ByteBuffer.wrap(header, 4, 4).order(ByteOrder.LITTLE_ENDIAN).getInt() & 0xFFFFFFFFL;
+        long padded = size + (size & 1);
+
+        if (WEBP_METADATA_CHUNKS.contains(fourCc)) {
+            // Blanked instead of removed, so the RIFF size in the header stays right; readers skip unknown chunks
+            System.arraycopy("JUNK".getBytes(StandardCharsets.US_ASCII), 0, header, 0, 4);
+            out.write(header);
+            blankRemaining = padded;
+            return;
+        }
+        out.write(header);
+        if ("VP8X".equals(fourCc)) {
+            if (padded > WEBP_MAX_VP8X_BYTES) {
+                throw new IOException("Invalid WebP header");
+            }
+            byte[] payload = readFully((int) padded);
+            if (payload.length > 0) {
+                payload[0] &= (byte) ~(WEBP_EXIF_FLAG | WEBP_XMP_FLAG);
+            }
+            out.write(payload);
+            return;
+        }
+        copyRemaining = padded;
+    }
+
+    /**
+     * Orientation tag (1 - 8) of a JPEG APP1 EXIF payload ("Exif\0\0" then TIFF); 1 when absent
+     */
+    static int exifOrientation(byte[] exif) {
+        int tiff = EXIF_HEADER.length;
+        if (exif.length < tiff + 8) {
+            return 1;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(exif).order(exif[tiff] == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        long ifd = tiff + (buffer.getInt(tiff + 4) & 0xFFFFFFFFL);
+        if (ifd + 2 > exif.length) {
+            return 1;
+        }
+        int entries = buffer.getShort((int) ifd) & 0xFFFF;
+        for (int i = 0; i < entries; i++) {
+            int entry = (int) ifd + 2 + i * 12;
+            if (entry + 12 > exif.length) {
+                return 1;
+            }
+            if ((buffer.getShort(entry) & 0xFFFF) == EXIF_ORIENTATION_TAG) {
+                int value = buffer.getShort(entry + 8) & 0xFFFF;
+                return value >= 1 && value <= 8 ? value : 1;
+            }
+        }
+        return 1;
+    }
+
+    // APP1 segment with a big-endian EXIF block holding only the orientation tag
+    private static byte[] orientationSegment(int orientation) {
+        return new byte[] {
+                (byte) 0xFF, (byte) JPEG_APP1, 0, 34,
+                'E', 'x', 'i', 'f', 0, 0,
+                'M', 'M', 0, 42, 0, 0, 0, 8,
+                0, 1,
+                0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+                0, 0, 0, 0
+        };
+    }
+
+    private static boolean startsWith(byte[] data, byte[] prefix) {
+        return data.length >= prefix.length && Arrays.equals(data, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    private int readByte() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Truncated image");
+        }
+        return b;
+    }
+
+    private byte[] readFully(int n) throws IOException {
+        byte[] bytes = in.readNBytes(n);
+        if (bytes.length < n) {
+            throw new EOFException("Truncated image");
+        }
+        return bytes;
+    }
+}
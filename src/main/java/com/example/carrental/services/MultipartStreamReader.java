@@ -0,0 +1,268 @@
+package com.example.carrental.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Forward-only multipart/form-data reader. Parts are exposed as streams over a fixed-size
+ * buffer, so a request carrying many photos is never spooled to memory or disk by the
+ * container; reading stops at the socket until the consumer has written the previous chunk.
+ */
+public class MultipartStreamReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_HEADER_LINE = 8 * 1024;
+    private static final int MAX_HEADERS = 32;
+
+    private final InputStream body;
+    private final byte[] delimiter;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    private PartStream currentPart;
+    private boolean finished;
+
+    public MultipartStreamReader(InputStream body, String boundary) {
+        if (boundary == null || boundary.isEmpty() || boundary.length() > 70) {
+            throw new IllegalArgumentException("Invalid multipart boundary");
+        }
+        this.body = body;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        // A virtual leading CRLF lets the first boundary match the same delimiter as the others
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        limit = 2;
+        // Skip the preamble up to the first boundary
+        currentPart = new PartStream();
+    }
+
+    /**
+     * @return the boundary parameter of a multipart Content-Type header, or null
+     */
+    public static String boundaryOf(String contentType) {
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/")) {
+            return null;
+        }
+        String boundary = parameters(contentType).get("boundary");
+        return boundary == null || boundary.isEmpty() ? null : boundary;
+    }
+
+    /**
+     * Advance to the next part; any unread content of the previous part is skipped.
+     *
+     * @return the next part, or null after the closing boundary
+     */
+    public Part next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        currentPart.drain();
+
+        int first = readByte();
+        int second = readByte();
+        if (first == '-' && second == '-') {
+            finished = true;
+            return null;
+        }
+        // Transport padding after the boundary is allowed before the CRLF
+        while (first == ' ' || first == '\t') {
+            first = second;
+            second = readByte();
+        }
+        if (first != '\r' || second != '\n') {
+            throw new IOException("Malformed multipart body: boundary not followed by CRLF");
+        }
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        String line;
+        while (!(line = readHeaderLine()).isEmpty()) {
+            if (headers.size() >= MAX_HEADERS) {
+                throw new IOException("Too many headers in multipart part");
+            }
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+        }
+
+        Map<String, String> disposition = parameters(headers.getOrDefault("content-disposition", ""));
+        currentPart = new PartStream();
+        return new Part(disposition.get("name"), disposition.get("filename"), headers.get("content-type"), currentPart);
+    }
+
+    public static class Part {
+        private final String name;
+        private final String filename;
+        private final String contentType;
+        private final InputStream inputStream;
+
+        Part(String name, String filename, String contentType, InputStream inputStream) {
+            this.name = name;
+            this.filename = filename;
+            this.contentType = contentType;
+            this.inputStream = inputStream;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getFilename() {
+            return filename;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public boolean isFile() {
+            return filename != null;
+        }
+
+        /**
+         * Valid until {@link MultipartStreamReader#next()} is called again
+         */
+        public InputStream getInputStream() {
+            return inputStream;
+        }
+    }
+
+    private class PartStream extends InputStream {
+
+        private boolean done;
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int n = read(single, 0, 1);
+            return n == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (done) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+
+            while (true) {
+                int index = indexOfDelimiter();
+                if (index == position) {
+                    position += delimiter.length;
+                    done = true;
+                    return -1;
+                }
+
+                // Without a match, keep back enough bytes for a delimiter split across reads
+                int available = index >= 0 ? index - position : limit - position - delimiter.length + 1;
+                if (available > 0) {
+                    int n = Math.min(len, available);
+                    System.arraycopy(buffer, position, b, off, n);
+                    position += n;
+                    return n;
+                }
+                if (endOfInput) {
+                    throw new IOException("Malformed multipart body: closing boundary missing");
+                }
+                fill();
+            }
+        }
+
+        void drain() throws IOException {
+            byte[] skip = new byte[8192];
+            while (read(skip, 0, skip.length) != -1) {
+                // discard
+            }
+        }
+    }
+
+    private int indexOfDelimiter() {
+        int last = limit - delimiter.length;
+        outer:
+        for (int i = position; i <= last; i++) {
+            if (buffer[i] != delimiter[0]) {
+                continue;
+            }
+            for (int j = 1; j < delimiter.length; j++) {
+                if (buffer[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Compact the unread bytes to the front and read more from the body
+     */
+    private void fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        int n = body.read(buffer, limit, buffer.length - limit);
+        if (n == -1) {
+            endOfInput = true;
+        } else {
+            limit += n;
+        }
+    }
+
+    private int readByte() throws IOException {
+        while (position == limit) {
+            if (endOfInput) {
+                throw new IOException("Malformed multipart body: unexpected end of input");
+            }
+            fill();
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private String readHeaderLine() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        while (true) {
+            int b = readByte();
+            if (b == '\r') {
+                if (readByte() != '\n') {
+                    throw new IOException("Malformed multipart header");
+                }
+                return line.toString(StandardCharsets.UTF_8);
+            }
+            if (line.size() >= MAX_HEADER_LINE) {
+                throw new IOException("Multipart header too long");
+            }
+            line.write(b);
+        }
+    }
+
+    /**
+     * Parses "value; key=value; key=\"quoted value\"" header parameters (keys lower-cased)
+     */
+    private static Map<String, String> parameters(String header) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        for (String token : header.split(";")) {
+            int equals = token.indexOf('=');
+            if (equals <= 0) {
+                continue;
+            }
+            String key = token.substring(0, equals).trim().toLowerCase(Locale.ROOT);
+            String value = token.substring(equals + 1).trim();
+            if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                value = value.substring(1, value.length() - 1);
+            }
+            parameters.put(key, value);
+        }
+        return parameters;
+    }
+}
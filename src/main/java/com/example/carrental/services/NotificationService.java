@@ -1,17 +1,19 @@
 package com.example.carrental.services;
 
 import com.example.carrental.model.Notification;
+import com.example.carrental.model.Rental;
+import com.example.carrental.model.Reservation;
 import com.example.carrental.model.User;
 import com.example.carrental.model.VehicleModel;
 import com.example.carrental.repository.NotificationRepository;
 import com.example.carrental.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Slf4j
@@ -22,6 +24,8 @@ public class NotificationService {
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
 
+    private static final int MAX_LISTED_RENTALS = 20;
+
     @Transactional
     public Notification createNotification(Long userId, String type, String title, String message,
                                          String priority, String relatedEntityType, Long relatedEntityId) {
@@ -45,7 +49,7 @@ public class NotificationService {
         return savedNotification;
     }
 
-    @Async
+    // Runs on the job queue (MaintenanceAlertJobHandler), not on the request or scheduler thread
     @Transactional
     public void createMaintenanceAlert(VehicleModel vehicle, String reason, int currentMileage) {
         // Find all admin and employee users to notify
@@ -80,7 +84,7 @@ public class NotificationService {
                 vehicle.getLicensePlate(), adminUsers.size() + employeeUsers.size());
     }
 
-    @Async
+    // Called by NotificationEventHandler inside the event's transaction, so not @Async
     @Transactional
     public void createMaintenanceCompletedNotification(VehicleModel vehicle, String serviceProvider, String description) {
         // Find all admin users to notify
@@ -106,7 +110,6 @@ public class NotificationService {
         log.info("Maintenance completion notifications sent for vehicle: {}", vehicle.getLicensePlate());
     }
 
-    @Async
     @Transactional
     public void createVehicleStatusChangeNotification(VehicleModel vehicle, String oldStatus, String newStatus, Long changedByUserId) {
         // Find all admin users to notify
@@ -131,6 +134,64 @@ public class NotificationService {
         }
     }
 
+    /**
+     * One notification per admin/employee of the organization for a whole batch of its newly
+     * overdue rentals, saved in a single saveAll, instead of one createNotification round trip per
+     * rental and user. Rentals of other organizations are ignored: the message lists customer names.
+     */
+    @Transactional
+    public int createOverdueRentalAlerts(Long organizationId, List<Rental> rentals) {
+        rentals = rentals.stream()
+            .filter(rental -> organizationId.equals(rental.getReservation().getOrganization().getId()))
+            .toList();
+        if (rentals.isEmpty()) {
+            return 0;
+        }
+        List<User> recipients = new ArrayList<>(userRepository.findByRoleNameAndOrganizationId("ADMIN", organizationId));
+        for (User employee : userRepository.findByRoleNameAndOrganizationId("EMPLOYEE", organizationId)) {
+            if (recipients.stream().noneMatch(user -> user.getId().equals(employee.getId()))) {
+                recipients.add(employee);
+            }
+        }
+
+        String title = rentals.size() == 1
+            ? "⏰ Alquiler Vencido - " + rentals.get(0).getReservation().getVehicle().getLicensePlate()
+            : "⏰ " + rentals.size() + " Alquileres Vencidos";
+        StringBuilder message = new StringBuilder("Los siguientes alquileres no han sido devueltos a tiempo:\n");
+        int listed = 0;
+        for (Rental rental : rentals) {
+            if (listed++ == MAX_LISTED_RENTALS) {
+                message.append(String.format("... y %d más", rentals.size() - MAX_LISTED_RENTALS));
+                break;
+            }
+            Reservation reservation = rental.getReservation();
+            message.append(String.format("%s - %s (%s), retorno previsto %s\n",
+                rental.getRentalCode(),
+                reservation.getVehicle().getLicensePlate(),
+                reservation.getCustomer() != null ? reservation.getCustomer().getFullName() : "-",
+                rental.getExpectedReturnDateTime()));
+        }
+        Long relatedId = rentals.size() == 1 ? rentals.get(0).getId() : null;
+
+        List<Notification> notifications = new ArrayList<>(recipients.size());
+        for (User user : recipients) {
+            notifications.add(Notification.builder()
+                .user(user)
+                .organization(user.getOrganization())
+                .type("RENTAL_OVERDUE")
+                .title(title)
+                .message(message.toString())
+                .priority("HIGH")
+                .relatedEntityType("RENTAL")
+                .relatedEntityId(relatedId)
+                .isRead(false)
+                .build());
+        }
+        notificationRepository.saveAll(notifications);
+        log.info("Overdue alerts for {} rentals sent to {} users", rentals.size(), recipients.size());
+        return notifications.size();
+    }
+
     public List<Notification> getUserNotifications(Long userId) {
         return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
     }
@@ -0,0 +1,210 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.events.DomainEvent;
+import com.example.carrental.events.DomainEventHandler;
+import com.example.carrental.model.OutboxEvent;
+import com.example.carrental.model.ProcessedEvent;
+import com.example.carrental.repository.OutboxEventRepository;
+import com.example.carrental.repository.ProcessedEventRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers outbox events to the {@link DomainEventHandler}s in batches, after the publishing
+ * transaction committed (woken by {@link OutboxService}) and on a polling interval as a fallback.
+ * A batch is claimed with FOR UPDATE SKIP LOCKED and leased by moving available_at forward, so
+ * several instances can dispatch concurrently and an event left by a crashed instance is retried
+ * when its lease expires. Failed events are retried with exponential backoff and marked FAILED
+ * after the maximum number of attempts.
+ */
+@Slf4j
+@Service
+public class OutboxDispatcher {
+
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ProcessedEventRepository processedEventRepository;
+    private final List<DomainEventHandler> handlers;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Executor wakeUpExecutor;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.retention-days:7}")
+    private long retentionDays;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            ProcessedEventRepository processedEventRepository,
+                            List<DomainEventHandler> handlers,
+                            PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper,
+                            @Qualifier("wakeUpExecutor") Executor wakeUpExecutor) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.processedEventRepository = processedEventRepository;
+        this.handlers = handlers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.wakeUpExecutor = wakeUpExecutor;
+    }
+
+    /**
+     * Schedule a dispatch run; requests arriving while one is running are coalesced into one more pass.
+     */
+    public void wake() {
+        wakeRequested.set(true);
+        if (running.get()) {
+            return;
+        }
+        // Dropped when the wake-up pool is busy; the flag above keeps it for the next pass or poll
+        wakeUpExecutor.execute(this::dispatchPending);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        wakeRequested.set(true);
+        dispatchPending();
+    }
+
+    /**
+     * Dispatch due events until none are left
+     */
+    public void dispatchPending() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            while (wakeRequested.getAndSet(false)) {
+                List<OutboxEvent> batch;
+                do {
+                    batch = claimBatch();
+                    for (OutboxEvent event : batch) {
+                        dispatch(event);
+                    }
+                } while (batch.size() == batchSize);
+            }
+        } catch (Exception e) {
+            log.error("Outbox dispatch failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Scheduled(cron = "0 30 3 * * ?") // Every day at 3:30 AM
+    public void cleanup() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        Integer deleted = transactionTemplate.execute(status -> {
+            processedEventRepository.deleteProcessedBefore(before);
+            return outboxEventRepository.deleteProcessedBefore(before);
+        });
+        log.info("Outbox cleanup removed {} processed events", deleted);
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> due = outboxEventRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+            for (OutboxEvent event : due) {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setAvailableAt(now.plusSeconds(leaseSeconds));
+            }
+            return due;
+        });
+    }
+
+    private void dispatch(OutboxEvent event) {
+        String error = null;
+        try {
+            DomainEvent domainEvent = new DomainEvent(event.getId(), event.getEventType(), event.getOrganizationId(),
+                    event.getAggregateId(), objectMapper.readValue(event.getPayload(), PAYLOAD_TYPE));
+            for (DomainEventHandler handler : handlers) {
+                if (handler.supports(event.getEventType())) {
+                    runHandler(handler, domainEvent);
+                }
+            }
+        } catch (Exception e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            log.warn("Outbox event {} ({}) failed on attempt {}: {}",
+                    event.getId(), event.getEventType(), event.getAttempts(), error);
+        }
+        complete(event.getId(), error);
+    }
+
+    private void runHandler(DomainEventHandler handler, DomainEvent event) {
+        String markerId = ProcessedEvent.idOf(handler.getName(), event.getId());
+        // The tenant filter is enabled when the handler's EntityManager opens, so set it first.
+        // Restored afterwards: consecutive events belong to different organizations, and the
+        // wake-up and scheduler threads are pooled, so a tenant left set would scope their next task.
+        Long previousTenant = TenantContext.hasTenant() ? TenantContext.getTenantId() : null;
+        if (event.getOrganizationId() != null) {
+            TenantContext.setTenantId(event.getOrganizationId());
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (processedEventRepository.existsById(markerId)) {
+                    return;
+                }
+                handler.handle(event);
+                processedEventRepository.save(ProcessedEvent.builder()
+                        .id(markerId)
+                        .eventId(event.getId())
+                        .handler(handler.getName())
+                        .build());
+            });
+        } finally {
+            if (previousTenant != null) {
+                TenantContext.setTenantId(previousTenant);
+            } else {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    private void complete(Long eventId, String error) {
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.findById(eventId).ifPresent(event -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (error == null) {
+                event.setStatus("PROCESSED");
+                event.setProcessedAt(now);
+                event.setLastError(null);
+            } else {
+                event.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+                if (event.getAttempts() >= maxAttempts) {
+                    event.setStatus("FAILED");
+                    log.error("Outbox event {} ({}) marked FAILED after {} attempts",
+                            eventId, event.getEventType(), event.getAttempts());
+                } else {
+                    // 2, 4, 8 ... seconds, capped at one hour
+                    long backoffSeconds = Math.min(3600, 1L << Math.min(event.getAttempts(), 12));
+                    event.setAvailableAt(now.plusSeconds(backoffSeconds));
+                }
+            }
+        }));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.carrental.services;
+
+import com.example.carrental.enums.DomainEventType;
+import com.example.carrental.model.OutboxEvent;
+import com.example.carrental.model.Organization;
+import com.example.carrental.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+/**
+ * Records domain events in the outbox table within the caller's transaction, so an event exists
+ * exactly when the change it describes committed. Delivery to the handlers is left to
+ * {@link OutboxDispatcher}, which is woken once the transaction commits.
+ */
+@Slf4j
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<OutboxDispatcher> outboxDispatcher;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                         ObjectProvider<OutboxDispatcher> outboxDispatcher) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.outboxDispatcher = outboxDispatcher;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(DomainEventType type, Organization organization, Long aggregateId, Map<String, Object> payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize " + type + " event: " + e.getMessage(), e);
+        }
+
+        OutboxEvent event = OutboxEvent.builder()
+                .organizationId(organization != null ? organization.getId() : null)
+                .eventType(type)
+                .aggregateId(aggregateId)
+                .payload(json)
+                .build();
+        outboxEventRepository.save(event);
+        log.debug("Outbox event {} recorded for aggregate {}", type, aggregateId);
+
+        TransactionHooks.afterCommit(() -> outboxDispatcher.ifAvailable(OutboxDispatcher::wake));
+    }
+}
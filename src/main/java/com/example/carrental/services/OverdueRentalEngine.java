@@ -0,0 +1,115 @@
+package com.example.carrental.services;
+
+import com.example.carrental.enums.JobType;
+import com.example.carrental.enums.RentalStatus;
+import com.example.carrental.model.Rental;
+import com.example.carrental.repository.RentalRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds rentals that passed their expected return and accrues their late fee while the vehicle
+ * is still out. Each tick:
+ * - marks newly overdue ACTIVE rentals OVERDUE, found through the partial index on
+ *   expected_return_datetime (ACTIVE only), so the scan is O(newly overdue), and queues one
+ *   bulk OVERDUE_RENTAL_ALERT job per organization;
+ * - reads the id, due time and stored fee of the OVERDUE rentals and writes the fee only for
+ *   those that crossed another full hour late since it was stored.
+ * Nothing is kept in memory, so every instance sees the same rentals and the dashboard totals
+ * come from the rentals table. Fee writes are a status-guarded UPDATE: recomputed from the due
+ * time, idempotent across instances, and a no-op once the rental is checked in.
+ */
+@Slf4j
+@Service
+public class OverdueRentalEngine {
+
+    private static final int DETECTION_BATCH_SIZE = 500;
+
+    private final RentalRepository rentalRepository;
+    private final JobQueueService jobQueueService;
+    private final TransactionTemplate transactionTemplate;
+    private final CrossTenantTaskRunner crossTenantTaskRunner;
+
+    public OverdueRentalEngine(RentalRepository rentalRepository, JobQueueService jobQueueService,
+                               TransactionTemplate transactionTemplate, CrossTenantTaskRunner crossTenantTaskRunner) {
+        this.rentalRepository = rentalRepository;
+        this.jobQueueService = jobQueueService;
+        this.transactionTemplate = transactionTemplate;
+        this.crossTenantTaskRunner = crossTenantTaskRunner;
+    }
+
+    @Scheduled(fixedDelayString = "${app.rentals.overdue-check-interval-ms:60000}")
+    public void tick() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            // Rentals of every organization; the alerts are queued per organization
+            int detected = crossTenantTaskRunner.sum(() -> detectNewlyOverdue(now));
+            int accrued = crossTenantTaskRunner.sum(() -> accrueLateFees(now));
+            if (detected > 0 || accrued > 0) {
+                log.info("Overdue rentals: {} newly overdue, {} late fees accrued", detected, accrued);
+            }
+        } catch (Exception e) {
+            log.error("Overdue rental tick failed", e);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long getOverdueCount(Long organizationId) {
+        return rentalRepository.countOverdue(organizationId);
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal getAccruedLateFees(Long organizationId) {
+        return rentalRepository.sumOverdueLateFees(organizationId).setScale(2);
+    }
+
+    int detectNewlyOverdue(LocalDateTime now) {
+        int total = 0;
+        int marked;
+        do {
+            Integer count = transactionTemplate.execute(status -> {
+                Map<Long, List<Long>> byOrganization = new LinkedHashMap<>();
+                List<Rental> rentals = rentalRepository.findNewlyOverdueForUpdate(now, PageRequest.of(0, DETECTION_BATCH_SIZE));
+                for (Rental rental : rentals) {
+                    rental.setStatus(RentalStatus.OVERDUE);
+                    rental.setLateReturnFee(Rental.lateReturnFee(rental.getExpectedReturnDateTime(), now));
+                    Long organizationId = rental.getReservation().getOrganization().getId();
+                    byOrganization.computeIfAbsent(organizationId, id -> new ArrayList<>()).add(rental.getId());
+                }
+                byOrganization.forEach((organizationId, rentalIds) ->
+                        jobQueueService.enqueue(JobType.OVERDUE_RENTAL_ALERT, organizationId, Map.of("rentalIds", rentalIds)));
+                return rentals.size();
+            });
+            marked = count != null ? count : 0;
+            total += marked;
+        } while (marked == DETECTION_BATCH_SIZE);
+        return total;
+    }
+
+    int accrueLateFees(LocalDateTime now) {
+        Integer accrued = transactionTemplate.execute(status -> {
+            int updated = 0;
+            for (Object[] row : rentalRepository.findOverdueSummaries()) {
+                BigDecimal stored = (BigDecimal) row[3];
+                BigDecimal fee = Rental.lateReturnFee((LocalDateTime) row[2], now);
+                // The fee only steps up at a full hour late, so most ticks write nothing
+                if (stored == null || stored.compareTo(fee) != 0) {
+                    updated += rentalRepository.updateLateFeeIfOverdue((Long) row[0], fee);
+                }
+            }
+            return updated;
+        });
+        return accrued != null ? accrued : 0;
+    }
+}
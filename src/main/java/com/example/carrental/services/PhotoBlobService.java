@@ -0,0 +1,154 @@
+package com.example.carrental.services;
+
+import com.example.carrental.model.PhotoBlob;
+import com.example.carrental.repository.PhotoBlobRepository;
+import com.example.carrental.services.PhotoBlobStore.StagedBlob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Reference counting on top of {@link PhotoBlobStore}. Bytes are only removed when the last
+ * photo pointing at them is deleted, and only after that transaction commits.
+ */
+@Slf4j
+@Service
+public class PhotoBlobService {
+
+    private final PhotoBlobStore photoBlobStore;
+    private final PhotoBlobRepository photoBlobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate savepoint;
+
+    public PhotoBlobService(PhotoBlobStore photoBlobStore, PhotoBlobRepository photoBlobRepository,
+                            JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.photoBlobStore = photoBlobStore;
+        this.photoBlobRepository = photoBlobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // Savepoint around the first-reference insert, so losing the race does not abort the upload
+        this.savepoint = new TransactionTemplate(transactionManager);
+        this.savepoint.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
+
+    /**
+     * Stream the content to staging storage while hashing it. Runs outside any transaction so
+     * no connection is held while the client uploads.
+     */
+    public StagedBlob stage(InputStream content) throws IOException {
+        return photoBlobStore.stage(content);
+    }
+
+    public void discard(StagedBlob staged) {
+        photoBlobStore.discard(staged);
+    }
+
+    /**
+     * Publish the staged content (or reuse an identical blob) and take a reference on it
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public PhotoBlob store(StagedBlob staged, String extension) throws IOException {
+        try {
+            String sha256 = staged.getSha256();
+            PhotoBlob existing = photoBlobRepository.findForUpdate(sha256).orElse(null);
+            if (existing == null && !insertFirstReference(staged, extension)) {
+                // A concurrent upload of the same content inserted it first; take a reference on its row
+                existing = photoBlobRepository.findForUpdate(sha256)
+                        .orElseThrow(() -> new IllegalStateException("Photo blob " + sha256 + " vanished while uploading"));
+            }
+            if (existing != null) {
+                existing.setReferenceCount(existing.getReferenceCount() + 1);
+                log.debug("Deduplicated upload against blob {} ({} references)", existing.getSha256(), existing.getReferenceCount());
+                return existing;
+            }
+
+            PhotoBlob blob = photoBlobRepository.findById(sha256)
+                    .orElseThrow(() -> new IllegalStateException("Photo blob " + sha256 + " was not inserted"));
+            photoBlobStore.publish(staged, extension);
+
+            // Don't leave unreferenced bytes behind if the upload transaction fails
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        deleteBytes(blob.getSha256(), blob.getExtension());
+                    }
+                }
+            });
+            return blob;
+        } finally {
+            photoBlobStore.discard(staged);
+        }
+    }
+
+    /**
+     * Insert the blob row with one reference. A concurrent first upload of the same content
+     * blocks this insert until it commits, then fails it on the primary key. Plain JDBC on the
+     * transaction's connection: a failed Hibernate statement would mark the whole upload
+     * rollback-only, savepoint or not.
+     *
+     * @return false when the row already exists
+     */
+    private boolean insertFirstReference(StagedBlob staged, String extension) {
+        try {
+            savepoint.executeWithoutResult(status -> jdbcTemplate.update(
+                    "INSERT INTO photo_blobs (sha256, extension, size_bytes, reference_count, created_at) " +
+                    "VALUES (?, ?, ?, 1, ?)",
+                    staged.getSha256(), extension, staged.getSizeBytes(), Timestamp.valueOf(LocalDateTime.now())));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Blob {} was inserted by a concurrent upload", staged.getSha256());
+            return false;
+        }
+    }
+
+    /**
+     * Drop one reference.
+     *
+     * @return true when this was the last reference and the bytes will be deleted after commit
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean release(String sha256) {
+        PhotoBlob blob = photoBlobRepository.findForUpdate(sha256).orElse(null);
+        if (blob == null) {
+            return false;
+        }
+        if (blob.getReferenceCount() > 1) {
+            blob.setReferenceCount(blob.getReferenceCount() - 1);
+            return false;
+        }
+
+        photoBlobRepository.delete(blob);
+        TransactionHooks.afterCommit(() -> {
+            // A concurrent upload may have re-created the blob since; it owns the bytes then
+            if (!photoBlobRepository.existsById(sha256)) {
+                deleteBytes(sha256, blob.getExtension());
+            }
+        });
+        return true;
+    }
+
+    public String urlFor(PhotoBlob blob) {
+        return photoBlobStore.urlFor(blob.getSha256(), blob.getExtension());
+    }
+
+    private void deleteBytes(String sha256, String extension) {
+        try {
+            photoBlobStore.delete(sha256, extension);
+        } catch (IOException e) {
+            log.warn("Failed to delete photo blob {}: {}", sha256, e.getMessage());
+        }
+    }
+}
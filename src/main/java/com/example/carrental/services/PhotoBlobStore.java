@@ -0,0 +1,47 @@
+package com.example.carrental.services;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Backend for content-addressed photo bytes. Content is first staged (streamed to temporary
+ * storage while hashing), then published under its SHA-256 key once the reference count
+ * has been recorded.
+ */
+public interface PhotoBlobStore {
+
+    @Getter
+    @AllArgsConstructor
+    class StagedBlob {
+        private final Path tempFile;
+        private final String sha256;
+        private final long sizeBytes;
+    }
+
+    /**
+     * Stream the content to temporary storage, hashing it on the way; nothing is buffered whole
+     */
+    StagedBlob stage(InputStream content) throws IOException;
+
+    /**
+     * Make the staged content available under its key. Idempotent: when the blob already
+     * exists the staged copy is simply dropped.
+     */
+    void publish(StagedBlob blob, String extension) throws IOException;
+
+    /**
+     * Remove any staged leftovers (no-op after a successful publish)
+     */
+    void discard(StagedBlob blob);
+
+    void delete(String sha256, String extension) throws IOException;
+
+    /**
+     * Public URL of a published blob, served by PhotoFileController for the local backend
+     */
+    String urlFor(String sha256, String extension);
+}
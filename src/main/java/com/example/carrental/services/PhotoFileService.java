@@ -0,0 +1,162 @@
+package com.example.carrental.services;
+
+import com.example.carrental.repository.VehiclePhotoRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves stored photo files and caches their metadata (size, content type and a
+ * SHA-256 based ETag). Photo filenames are unique per upload and never rewritten, so
+ * a cache hit needs neither a database lookup nor a stat call. Also decides which files
+ * anonymous clients may fetch.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PhotoFileService {
+
+    private static final Path PHOTO_ROOT = Paths.get("uploads/vehicle-photos").toAbsolutePath().normalize();
+    private static final String PHOTO_URL_PREFIX = "/uploads/vehicle-photos/";
+    private static final int MAX_CACHED_FILES = 10_000;
+
+    private final VehiclePhotoRepository vehiclePhotoRepository;
+
+    private final Map<Path, PhotoFile> metadataCache = new ConcurrentHashMap<>();
+    // Only positive answers are kept, so a photo becoming GENERAL needs no eviction
+    private final Set<Path> publicFiles = ConcurrentHashMap.newKeySet();
+
+    @Getter
+    @AllArgsConstructor
+    public static class PhotoFile {
+        private final Path path;
+        private final long length;
+        private final long lastModified;
+        private final String etag;
+        private final String contentType;
+    }
+
+    /**
+     * @param relativePath path below uploads/vehicle-photos/ as it appears in the photo URL
+     */
+    public Optional<PhotoFile> resolve(String relativePath) {
+        Path path = PHOTO_ROOT.resolve(relativePath).normalize();
+        if (!path.startsWith(PHOTO_ROOT) || path.equals(PHOTO_ROOT)) {
+            return Optional.empty(); // path traversal
+        }
+
+        PhotoFile cached = metadataCache.get(path);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return Optional.empty();
+            }
+            PhotoFile file = new PhotoFile(path, attributes.size(), attributes.lastModifiedTime().toMillis(),
+                    computeEtag(path), contentTypeFor(path));
+            cache(path, file);
+            return Optional.of(file);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("Could not read photo file {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Whether the file belongs to a GENERAL (listing) photo, in any organization. Those back the
+     * public vehicle pages; inspection and damage photos are served to signed-in users only.
+     */
+    public boolean isPublic(PhotoFile file) {
+        if (publicFiles.contains(file.getPath())) {
+            return true;
+        }
+        String url = PHOTO_URL_PREFIX + PHOTO_ROOT.relativize(file.getPath()).toString().replace('\\', '/');
+        if (!vehiclePhotoRepository.existsGeneralPhotoFile(url)) {
+            return false;
+        }
+        if (publicFiles.size() >= MAX_CACHED_FILES) {
+            publicFiles.clear();
+        }
+        publicFiles.add(file.getPath());
+        return true;
+    }
+
+    /**
+     * Drop cached metadata for a photo URL (e.g. "/uploads/vehicle-photos/x.jpg") after the file is deleted
+     */
+    public void evict(String photoUrl) {
+        if (photoUrl == null) {
+            return;
+        }
+        Path path = Paths.get("." + photoUrl).toAbsolutePath().normalize();
+        metadataCache.remove(path);
+        publicFiles.remove(path);
+    }
+
+    public void evict(PhotoFile file) {
+        metadataCache.remove(file.getPath());
+        publicFiles.remove(file.getPath());
+    }
+
+    private void cache(Path path, PhotoFile file) {
+        if (metadataCache.size() >= MAX_CACHED_FILES) {
+            Iterator<Path> iterator = metadataCache.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        metadataCache.put(path, file);
+    }
+
+    private String computeEtag(Path path) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            try (InputStream in = Files.newInputStream(path)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String contentTypeFor(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        if (name.endsWith(".jpg") || name.endsWith(".jpeg")) {
+            return "image/jpeg";
+        } else if (name.endsWith(".png")) {
+            return "image/png";
+        } else if (name.endsWith(".webp")) {
+            return "image/webp";
+        }
+        return "application/octet-stream";
+    }
+}
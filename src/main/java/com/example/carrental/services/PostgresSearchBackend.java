@@ -0,0 +1,82 @@
+package com.example.carrental.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+
+/**
+ * PostgreSQL search: prefix matching through a 'simple' tsvector and typo tolerance through
+ * pg_trgm word similarity, both served by the GIN expression indexes of V6. The document
+ * expressions must stay identical to the indexed ones or the planner falls back to a scan.
+ * Native SQL bypasses the tenantFilter, so the organization predicate is explicit.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.search", name = "backend", havingValue = "postgres")
+@Transactional(readOnly = true)
+public class PostgresSearchBackend implements SearchBackend {
+
+    static final String VEHICLE_DOCUMENT = "lower(license_plate || ' ' || brand || ' ' || model || ' ' || " +
+            "coalesce(color, '') || ' ' || coalesce(category, ''))";
+    static final String CUSTOMER_DOCUMENT = "lower(customer_code || ' ' || first_name || ' ' || last_name || ' ' || " +
+            "email || ' ' || license_number)";
+
+    private static final String SEARCH_SQL =
+            "SELECT id FROM %1$s " +
+            "WHERE organization_id = :organizationId " +
+            "AND (to_tsvector('simple', %2$s) @@ to_tsquery('simple', :prefixQuery) OR :term <%% %2$s) " +
+            "ORDER BY ts_rank(to_tsvector('simple', %2$s), to_tsquery('simple', :prefixQuery)) DESC, " +
+            "word_similarity(:term, %2$s) DESC, id " +
+            "LIMIT :limit";
+
+    private static final String VEHICLE_SQL = String.format(SEARCH_SQL, "vehicles", VEHICLE_DOCUMENT);
+    private static final String CUSTOMER_SQL = String.format(SEARCH_SQL, "customers", CUSTOMER_DOCUMENT);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> searchVehicleIds(Long organizationId, String term, int limit) {
+        return search(VEHICLE_SQL, organizationId, term, limit);
+    }
+
+    @Override
+    public List<Long> searchCustomerIds(Long organizationId, String term, int limit) {
+        return search(CUSTOMER_SQL, organizationId, term, limit);
+    }
+
+    private List<Long> search(String sql, Long organizationId, String term, int limit) {
+        String prefixQuery = prefixQuery(term);
+        if (prefixQuery == null) {
+            return List.of();
+        }
+
+        List<?> ids = entityManager.createNativeQuery(sql)
+                .setParameter("organizationId", organizationId)
+                .setParameter("prefixQuery", prefixQuery)
+                .setParameter("term", term.toLowerCase(Locale.ROOT))
+                .setParameter("limit", limit)
+                .getResultList();
+        return ids.stream().map(id -> ((Number) id).longValue()).collect(Collectors.toList());
+    }
+
+    /**
+     * "abc 12" becomes "abc:* & 12:*"; only letters and digits reach to_tsquery so user input
+     * can't produce a tsquery syntax error
+     */
+    static String prefixQuery(String term) {
+        StringJoiner query = new StringJoiner(" & ");
+        for (String word : term.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                query.add(word + ":*");
+            }
+        }
+        return query.length() == 0 ? null : query.toString();
+    }
+}
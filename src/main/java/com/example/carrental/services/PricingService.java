@@ -0,0 +1,377 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.dto.PriceQuoteDTO;
+import com.example.carrental.dto.PricingRuleDTO;
+import com.example.carrental.enums.PricingRuleType;
+import com.example.carrental.model.Organization;
+import com.example.carrental.model.PricingRule;
+import com.example.carrental.model.VehicleModel;
+import com.example.carrental.repository.OrganizationRepository;
+import com.example.carrental.repository.PricingRuleRepository;
+import com.example.carrental.repository.VehicleRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Rule-based pricing. Season and weekend rules are compiled per organization and category into
+ * {@link RateTable}s covering the next two years, so a quote is a prefix-sum lookup; long-stay
+ * and surge rules then apply to the whole rental. Tables are rebuilt after a rule changes and
+ * when the day rolls over; category utilization for surge is refreshed on a schedule.
+ * Each organization has a generation bumped on every rule change, and cached pricing is only
+ * used while its generation is current, so a quote that read the rules before a change commits
+ * cannot leave its stale tables behind. Changes made on other instances are caught by comparing
+ * the organization's rules version in the database, at most once per check interval.
+ */
+@Slf4j
+@Service
+public class PricingService {
+
+    private static final int HORIZON_DAYS = 730;
+
+    private final PricingRuleRepository pricingRuleRepository;
+    private final VehicleRepository vehicleRepository;
+    private final OrganizationRepository organizationRepository;
+
+    private final Map<Long, TenantPricing> tenants = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    // organization -> category key -> share of vehicles RENTED or RESERVED
+    private volatile Map<Long, Map<String, BigDecimal>> utilization = Map.of();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.pricing.rules-check-interval-ms:5000}")
+    private long rulesCheckIntervalMillis;
+
+    public PricingService(PricingRuleRepository pricingRuleRepository, VehicleRepository vehicleRepository,
+                          OrganizationRepository organizationRepository) {
+        this.pricingRuleRepository = pricingRuleRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.organizationRepository = organizationRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public PriceQuoteDTO quote(Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        VehicleModel vehicle = vehicleRepository.findById(vehicleId)
+                .orElseThrow(() -> new RuntimeException("Vehicle not found"));
+        return quote(vehicle, startDate, endDate);
+    }
+
+    public PriceQuoteDTO quote(VehicleModel vehicle, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date must be after start date");
+        }
+        Long organizationId = organizationId(vehicle.getOrganization());
+        String categoryKey = categoryKey(vehicle.getCategory());
+        TenantPricing pricing = pricingFor(organizationId);
+        List<PricingRule> rules = pricing.rulesFor(categoryKey);
+
+        int totalDays = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        RateTable table = pricing.tableFor(categoryKey);
+        long multiplierSum;
+        if (table.covers(startDate, endDate)) {
+            multiplierSum = table.sum(startDate, endDate);
+        } else {
+            // Past dates or beyond the horizon: evaluate the rules day by day
+            multiplierSum = 0;
+            for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+                multiplierSum += dayMultiplier(rules, day);
+            }
+        }
+
+        BigDecimal dailyRate = vehicle.getDailyRate();
+        BigDecimal baseAmount = dailyRate.multiply(BigDecimal.valueOf(totalDays));
+        BigDecimal seasonalAmount = dailyRate.multiply(BigDecimal.valueOf(multiplierSum))
+                .divide(BigDecimal.valueOf(RateTable.SCALE), 4, RoundingMode.HALF_UP);
+        BigDecimal longStay = longStayMultiplier(rules, totalDays);
+        BigDecimal surge = surgeMultiplier(rules, utilization.getOrDefault(organizationId, Map.of())
+                .getOrDefault(categoryKey, BigDecimal.ZERO));
+        BigDecimal totalAmount = seasonalAmount.multiply(longStay).multiply(surge).setScale(2, RoundingMode.HALF_UP);
+
+        return PriceQuoteDTO.builder()
+                .vehicleId(vehicle.getId())
+                .category(vehicle.getCategory())
+                .startDate(startDate)
+                .endDate(endDate)
+                .totalDays(totalDays)
+                .baseDailyRate(dailyRate)
+                .baseAmount(baseAmount.setScale(2, RoundingMode.HALF_UP))
+                .seasonalAmount(seasonalAmount.setScale(2, RoundingMode.HALF_UP))
+                .longStayMultiplier(longStay)
+                .surgeMultiplier(surge)
+                .totalAmount(totalAmount)
+                .averageDailyRate(totalAmount.divide(BigDecimal.valueOf(totalDays), 2, RoundingMode.HALF_UP))
+                .build();
+    }
+
+    // Rule management
+
+    @Transactional(readOnly = true)
+    public List<PricingRuleDTO> getRules() {
+        return pricingRuleRepository.findAllByOrderByRuleTypeAscIdAsc().stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public PricingRuleDTO createRule(PricingRuleDTO ruleDTO) {
+        validate(ruleDTO);
+        Long organizationId = TenantContext.getTenantId();
+        Organization organization = organizationRepository.findById(organizationId)
+                .orElseThrow(() -> new RuntimeException("Organization not found: " + organizationId));
+
+        PricingRule rule = PricingRule.builder()
+                .organization(organization)
+                .name(ruleDTO.getName())
+                .ruleType(ruleDTO.getRuleType())
+                .category(ruleDTO.getCategory())
+                .multiplier(ruleDTO.getMultiplier())
+                .startDate(ruleDTO.getStartDate())
+                .endDate(ruleDTO.getEndDate())
+                .minDays(ruleDTO.getMinDays())
+                .utilizationThreshold(ruleDTO.getUtilizationThreshold())
+                .active(ruleDTO.getActive() == null || ruleDTO.getActive())
+                .build();
+        rule = pricingRuleRepository.save(rule);
+        log.info("Created {} pricing rule '{}' for organization {}", rule.getRuleType(), rule.getName(), organizationId);
+
+        invalidateAfterCommit(organizationId);
+        return toDTO(rule);
+    }
+
+    @Transactional
+    public void deleteRule(Long id) {
+        PricingRule rule = pricingRuleRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Pricing rule not found with id: " + id));
+        Long organizationId = rule.getOrganization().getId();
+        pricingRuleRepository.delete(rule);
+        log.info("Deleted pricing rule {}", id);
+
+        invalidateAfterCommit(organizationId);
+    }
+
+    /**
+     * Recompute category utilization for surge pricing. Runs unscoped, so it covers every
+     * organization in one grouped query.
+     */
+    @Scheduled(fixedDelayString = "${app.pricing.utilization-refresh-interval-ms:300000}")
+    public void refreshUtilization() {
+        List<Object[]> rows = TenantContext.callUnscoped(() -> entityManager.createQuery(
+                "SELECT v.organization.id, v.category, COUNT(v), " +
+                "SUM(CASE WHEN v.status IN ('RENTED', 'RESERVED') THEN 1 ELSE 0 END) " +
+                "FROM VehicleModel v GROUP BY v.organization.id, v.category", Object[].class).getResultList());
+
+        Map<Long, Map<String, BigDecimal>> refreshed = new HashMap<>();
+        for (Object[] row : rows) {
+            long total = (Long) row[2];
+            long busy = row[3] != null ? ((Number) row[3]).longValue() : 0;
+            if (total > 0) {
+                refreshed.computeIfAbsent((Long) row[0], id -> new HashMap<>()).put(categoryKey((String) row[1]),
+                        BigDecimal.valueOf(busy).divide(BigDecimal.valueOf(total), 4, RoundingMode.HALF_UP));
+            }
+        }
+        utilization = refreshed;
+    }
+
+    /**
+     * Product of the season and weekend multipliers for one day, fixed-point with RateTable.SCALE
+     */
+    static long dayMultiplier(List<PricingRule> rules, LocalDate day) {
+        BigDecimal multiplier = BigDecimal.ONE;
+        boolean weekend = day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY;
+        for (PricingRule rule : rules) {
+            if (rule.getRuleType() == PricingRuleType.SEASON
+                    && !day.isBefore(rule.getStartDate()) && !day.isAfter(rule.getEndDate())) {
+                multiplier = multiplier.multiply(rule.getMultiplier());
+            } else if (rule.getRuleType() == PricingRuleType.WEEKEND && weekend) {
+                multiplier = multiplier.multiply(rule.getMultiplier());
+            }
+        }
+        return multiplier.multiply(BigDecimal.valueOf(RateTable.SCALE)).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    // The largest discount among the long-stay rules the rental qualifies for
+    static BigDecimal longStayMultiplier(List<PricingRule> rules, int totalDays) {
+        BigDecimal multiplier = BigDecimal.ONE;
+        for (PricingRule rule : rules) {
+            if (rule.getRuleType() == PricingRuleType.LONG_STAY && totalDays >= rule.getMinDays()
+                    && rule.getMultiplier().compareTo(multiplier) < 0) {
+                multiplier = rule.getMultiplier();
+            }
+        }
+        return multiplier;
+    }
+
+    // The highest surge among the rules whose utilization threshold is reached
+    static BigDecimal surgeMultiplier(List<PricingRule> rules, BigDecimal utilization) {
+        BigDecimal multiplier = BigDecimal.ONE;
+        for (PricingRule rule : rules) {
+            if (rule.getRuleType() == PricingRuleType.SURGE && utilization.compareTo(rule.getUtilizationThreshold()) >= 0
+                    && rule.getMultiplier().compareTo(multiplier) > 0) {
+                multiplier = rule.getMultiplier();
+            }
+        }
+        return multiplier;
+    }
+
+    // Accessors for QuoteSnapshot building (FleetQuoteService)
+
+    List<PricingRule> activeRules(Long organizationId, String category) {
+        return pricingFor(organizationId).rulesFor(categoryKey(category));
+    }
+
+    RateTable rateTable(Long organizationId, String category) {
+        return pricingFor(organizationId).tableFor(categoryKey(category));
+    }
+
+    BigDecimal utilization(Long organizationId, String category) {
+        return utilization.getOrDefault(organizationId, Map.of()).getOrDefault(categoryKey(category), BigDecimal.ZERO);
+    }
+
+    private TenantPricing pricingFor(Long organizationId) {
+        LocalDate today = LocalDate.now();
+        long now = System.currentTimeMillis();
+        // Read before the rules, so a change committed during the load leaves this entry outdated
+        long generation = generation(organizationId).get();
+        TenantPricing pricing = tenants.get(organizationId);
+        String rulesVersion = null;
+        if (pricing != null && now - pricing.checkedAt >= rulesCheckIntervalMillis) {
+            rulesVersion = rulesVersion(organizationId);
+            if (rulesVersion.equals(pricing.rulesVersion)) {
+                pricing.checkedAt = now;
+            } else {
+                pricing = null;
+            }
+        }
+        if (pricing == null || pricing.generation != generation || !pricing.origin.equals(today)) {
+            if (rulesVersion == null) {
+                rulesVersion = rulesVersion(organizationId);
+            }
+            TenantPricing loaded = new TenantPricing(today, generation, rulesVersion, now,
+                    pricingRuleRepository.findActiveByOrganizationId(organizationId));
+            // Never replace pricing loaded under a later generation
+            tenants.merge(organizationId, loaded, (current, candidate) ->
+                    current.generation > candidate.generation ? current : candidate);
+            pricing = loaded;
+        }
+        return pricing;
+    }
+
+    private String rulesVersion(Long organizationId) {
+        List<Object[]> rows = pricingRuleRepository.findRulesVersion(organizationId);
+        return rows.isEmpty() ? "" : rows.get(0)[0] + ":" + rows.get(0)[1];
+    }
+
+    private AtomicLong generation(Long organizationId) {
+        return generations.computeIfAbsent(organizationId, id -> new AtomicLong());
+    }
+
+    private void invalidate(Long organizationId) {
+        generation(organizationId).incrementAndGet();
+        tenants.remove(organizationId);
+    }
+
+    private void invalidateAfterCommit(Long organizationId) {
+        TransactionHooks.afterCommit(() -> invalidate(organizationId));
+    }
+
+    private void validate(PricingRuleDTO rule) {
+        switch (rule.getRuleType()) {
+            case SEASON -> {
+                if (rule.getStartDate() == null || rule.getEndDate() == null || rule.getEndDate().isBefore(rule.getStartDate())) {
+                    throw new RuntimeException("Season rules need a start date on or before the end date");
+                }
+            }
+            case LONG_STAY -> {
+                if (rule.getMinDays() == null) {
+                    throw new RuntimeException("Long-stay rules need minDays");
+                }
+            }
+            case SURGE -> {
+                if (rule.getUtilizationThreshold() == null) {
+                    throw new RuntimeException("Surge rules need a utilizationThreshold");
+                }
+            }
+            case WEEKEND -> {
+                // no extra fields
+            }
+        }
+    }
+
+    private PricingRuleDTO toDTO(PricingRule rule) {
+        return PricingRuleDTO.builder()
+                .id(rule.getId())
+                .name(rule.getName())
+                .ruleType(rule.getRuleType())
+                .category(rule.getCategory())
+                .multiplier(rule.getMultiplier())
+                .startDate(rule.getStartDate())
+                .endDate(rule.getEndDate())
+                .minDays(rule.getMinDays())
+                .utilizationThreshold(rule.getUtilizationThreshold())
+                .active(rule.getActive())
+                .build();
+    }
+
+    static String categoryKey(String category) {
+        return category == null ? "" : category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Long organizationId(Organization organization) {
+        return organization != null ? organization.getId() : TenantContext.getTenantId();
+    }
+
+    /**
+     * Active rules of one organization and its rate tables, compiled per category on first use
+     */
+    private static class TenantPricing {
+        private final LocalDate origin;
+        private final long generation;
+        private final String rulesVersion;
+        private volatile long checkedAt;
+        private final List<PricingRule> rules;
+        private final Map<String, List<PricingRule>> rulesByCategory = new ConcurrentHashMap<>();
+        private final Map<String, RateTable> tables = new ConcurrentHashMap<>();
+
+        TenantPricing(LocalDate origin, long generation, String rulesVersion, long checkedAt, List<PricingRule> rules) {
+            this.origin = origin;
+            this.generation = generation;
+            this.rulesVersion = rulesVersion;
+            this.checkedAt = checkedAt;
+            this.rules = rules;
+        }
+
+        List<PricingRule> rulesFor(String categoryKey) {
+            return rulesByCategory.computeIfAbsent(categoryKey, key -> rules.stream()
+                    .filter(rule -> rule.getCategory() == null || categoryKey(rule.getCategory()).equals(key))
+                    .collect(Collectors.toList()));
+        }
+
+        RateTable tableFor(String categoryKey) {
+            return tables.computeIfAbsent(categoryKey, key -> {
+                List<PricingRule> categoryRules = rulesFor(key);
+                return new RateTable(origin, HORIZON_DAYS, day -> dayMultiplier(categoryRules, day));
+            });
+        }
+    }
+}
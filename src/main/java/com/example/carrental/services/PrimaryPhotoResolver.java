@@ -0,0 +1,106 @@
+package com.example.carrental.services;
+
+import com.example.carrental.repository.VehiclePhotoRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Primary photo lookup for vehicle listings: one IN-query for all vehicles of a page that are
+ * not cached yet, instead of one findByVehicleAndIsPrimaryTrue per vehicle. Entries are
+ * evicted when the primary photo changes and expire after a few minutes so other instances
+ * catch up.
+ */
+@Slf4j
+@Service
+public class PrimaryPhotoResolver {
+
+    private static final int IN_CLAUSE_CHUNK = 500;
+    private static final int MAX_CACHED_VEHICLES = 50_000;
+    private static final long TTL_MILLIS = 5 * 60 * 1000;
+
+    // Cached "no primary photo" answers avoid re-querying vehicles without photos
+    private static final PrimaryPhoto NONE = new PrimaryPhoto(null, null);
+
+    private final VehiclePhotoRepository vehiclePhotoRepository;
+    private final Map<Long, CachedEntry> cache = new ConcurrentHashMap<>();
+
+    public PrimaryPhotoResolver(VehiclePhotoRepository vehiclePhotoRepository) {
+        this.vehiclePhotoRepository = vehiclePhotoRepository;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class PrimaryPhoto {
+        private final String photoUrl;
+        private final String thumbnailUrl;
+    }
+
+    private static class CachedEntry {
+        private final PrimaryPhoto photo;
+        private final long loadedAt;
+
+        CachedEntry(PrimaryPhoto photo, long loadedAt) {
+            this.photo = photo;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * @return primary photo per vehicle id; vehicles without one are absent from the map
+     */
+    public Map<Long, PrimaryPhoto> resolve(Collection<Long> vehicleIds) {
+        long now = System.currentTimeMillis();
+        Map<Long, PrimaryPhoto> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+
+        for (Long vehicleId : vehicleIds) {
+            CachedEntry entry = cache.get(vehicleId);
+            if (entry != null && now - entry.loadedAt < TTL_MILLIS) {
+                if (entry.photo != NONE) {
+                    result.put(vehicleId, entry.photo);
+                }
+            } else {
+                missing.add(vehicleId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            if (cache.size() + missing.size() > MAX_CACHED_VEHICLES) {
+                cache.clear();
+            }
+            for (int from = 0; from < missing.size(); from += IN_CLAUSE_CHUNK) {
+                List<Long> chunk = missing.subList(from, Math.min(from + IN_CLAUSE_CHUNK, missing.size()));
+                Map<Long, PrimaryPhoto> loaded = new HashMap<>();
+                for (Object[] row : vehiclePhotoRepository.findPrimaryPhotoUrlsByVehicleIds(chunk)) {
+                    loaded.put((Long) row[0], new PrimaryPhoto((String) row[1], (String) row[2]));
+                }
+                for (Long vehicleId : chunk) {
+                    PrimaryPhoto photo = loaded.getOrDefault(vehicleId, NONE);
+                    cache.put(vehicleId, new CachedEntry(photo, now));
+                    if (photo != NONE) {
+                        result.put(vehicleId, photo);
+                    }
+                }
+            }
+            log.debug("Loaded primary photos for {} vehicles", missing.size());
+        }
+        return result;
+    }
+
+    /**
+     * Evict once the current transaction commits, so a concurrent reader can't re-cache the old value
+     */
+    public void evict(Long vehicleId) {
+        cache.remove(vehicleId);
+        TransactionHooks.afterCommit(() -> cache.remove(vehicleId));
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.carrental.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, array-backed view of one organization's fleet prices and bookings for bulk quoting.
+ * Money is in cents and multipliers in basis points (see {@link RateTable#SCALE}), so
+ * {@link #quoteCents} is pure long arithmetic over primitive arrays and allocates nothing.
+ * Dates are epoch days.
+ */
+public final class QuoteSnapshot {
+
+    public static final long UNAVAILABLE = -1;
+
+    private static final long SCALE = RateTable.SCALE;
+
+    private final long builtAtMillis;
+    private final int originDay;
+    private final int horizonDays;
+
+    // Per vehicle, sorted by id
+    private final long[] vehicleIds;
+    private final long[] dailyRateCents;
+    private final int[] categoryOf;
+    private final boolean[] bookable;
+
+    // Bookings in CSR layout: vehicle i owns entries bookingOffsets[i] .. bookingOffsets[i + 1] - 1, sorted by start
+    private final int[] bookingOffsets;
+    private final int[] bookedFrom;
+    private final int[] bookedTo;
+
+    // Per category
+    private final long[][] multiplierPrefix;
+    private final int[][] longStayMinDays;
+    private final long[][] longStayBp;
+    private final long[] surgeBp;
+
+    private QuoteSnapshot(Builder builder) {
+        this.builtAtMillis = System.currentTimeMillis();
+        this.originDay = builder.originDay;
+        this.horizonDays = builder.horizonDays;
+
+        int categories = builder.categories.size();
+        this.multiplierPrefix = new long[categories][];
+        this.longStayMinDays = new int[categories][];
+        this.longStayBp = new long[categories][];
+        this.surgeBp = new long[categories];
+        for (int c = 0; c < categories; c++) {
+            Builder.Category category = builder.categories.get(c);
+            multiplierPrefix[c] = category.multiplierPrefix;
+            longStayMinDays[c] = category.longStayMinDays;
+            longStayBp[c] = category.longStayBp;
+            surgeBp[c] = category.surgeBp;
+        }
+
+        List<Builder.Vehicle> vehicles = new ArrayList<>(builder.vehicles.values());
+        vehicles.sort((a, b) -> Long.compare(a.id, b.id));
+        int n = vehicles.size();
+        this.vehicleIds = new long[n];
+        this.dailyRateCents = new long[n];
+        this.categoryOf = new int[n];
+        this.bookable = new boolean[n];
+        this.bookingOffsets = new int[n + 1];
+        int bookings = 0;
+        for (Builder.Vehicle vehicle : vehicles) {
+            bookings += vehicle.bookings.size();
+        }
+        this.bookedFrom = new int[bookings];
+        this.bookedTo = new int[bookings];
+
+        int b = 0;
+        for (int i = 0; i < n; i++) {
+            Builder.Vehicle vehicle = vehicles.get(i);
+            vehicleIds[i] = vehicle.id;
+            dailyRateCents[i] = vehicle.rateCents;
+            categoryOf[i] = vehicle.category;
+            bookable[i] = vehicle.bookable;
+            bookingOffsets[i] = b;
+            vehicle.bookings.sort((x, y) -> Integer.compare(x[0], y[0]));
+            for (int[] booking : vehicle.bookings) {
+                bookedFrom[b] = booking[0];
+                bookedTo[b] = booking[1];
+                b++;
+            }
+        }
+        bookingOffsets[n] = b;
+    }
+
+    public static Builder builder(int originDay, int horizonDays) {
+        return new Builder(originDay, horizonDays);
+    }
+
+    public long getBuiltAtMillis() {
+        return builtAtMillis;
+    }
+
+    public int getOriginDay() {
+        return originDay;
+    }
+
+    public int vehicleCount() {
+        return vehicleIds.length;
+    }
+
+    public long vehicleIdAt(int index) {
+        return vehicleIds[index];
+    }
+
+    /**
+     * @return the vehicle's index, or a negative number when it is not in the snapshot
+     */
+    public int indexOf(long vehicleId) {
+        return Arrays.binarySearch(vehicleIds, vehicleId);
+    }
+
+    /**
+     * @return true when the inclusive range lies within the rate tables
+     */
+    public boolean covers(int startDay, int endDay) {
+        return startDay >= originDay && endDay >= startDay && endDay - originDay < horizonDays;
+    }
+
+    /**
+     * Total in cents for the vehicle at index over [startDay, endDay] (inclusive, within
+     * {@link #covers}), or {@link #UNAVAILABLE} when it is out of service or booked. Rounds
+     * half-up after each multiplier, so it can differ by a cent from the BigDecimal quote.
+     */
+    public long quoteCents(int index, int startDay, int endDay) {
+        if (!bookable[index]) {
+            return UNAVAILABLE;
+        }
+        for (int b = bookingOffsets[index], end = bookingOffsets[index + 1]; b < end; b++) {
+            if (bookedFrom[b] > endDay) {
+                break;
+            }
+            if (bookedTo[b] >= startDay) {
+                return UNAVAILABLE;
+            }
+        }
+
+        int category = categoryOf[index];
+        long[] prefix = multiplierPrefix[category];
+        long multiplierSum = prefix[endDay - originDay + 1] - prefix[startDay - originDay];
+
+        long amount = dailyRateCents[index] * multiplierSum; // cents x SCALE
+        amount = scale(amount, longStay(category, endDay - startDay + 1));
+        amount = scale(amount, surgeBp[category]);
+        return (amount + SCALE / 2) / SCALE;
+    }
+
+    private long longStay(int category, int days) {
+        int[] minDays = longStayMinDays[category];
+        long bp = SCALE;
+        for (int r = 0; r < minDays.length && minDays[r] <= days; r++) {
+            bp = longStayBp[category][r];
+        }
+        return bp;
+    }
+
+    private static long scale(long amount, long bp) {
+        return bp == SCALE ? amount : (amount * bp + SCALE / 2) / SCALE;
+    }
+
+    public static final class Builder {
+
+        private final int originDay;
+        private final int horizonDays;
+        private final List<Category> categories = new ArrayList<>();
+        private final Map<String, Integer> categoryIndex = new HashMap<>();
+        private final Map<Long, Vehicle> vehicles = new HashMap<>();
+
+        private Builder(int originDay, int horizonDays) {
+            this.originDay = originDay;
+            this.horizonDays = horizonDays;
+        }
+
+        /**
+         * @param multiplierPrefix prefix sums of the daily multipliers from originDay, length horizonDays + 1
+         * @param longStayMinDays  minimum days of each long-stay rule
+         * @param longStayBp       multiplier of each long-stay rule, same order as longStayMinDays
+         */
+        public Builder category(String key, long[] multiplierPrefix, int[] longStayMinDays, long[] longStayBp, long surgeBp) {
+            if (multiplierPrefix.length != horizonDays + 1) {
+                throw new IllegalArgumentException("Rate table of category " + key + " does not match the horizon");
+            }
+            // Sort by minimum days and keep, at each threshold, the best discount reachable so far
+            Integer[] order = new Integer[longStayMinDays.length];
+            for (int r = 0; r < order.length; r++) {
+                order[r] = r;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(longStayMinDays[a], longStayMinDays[b]));
+            int[] sortedMinDays = new int[order.length];
+            long[] bestBp = new long[order.length];
+            long best = SCALE;
+            for (int r = 0; r < order.length; r++) {
+                sortedMinDays[r] = longStayMinDays[order[r]];
+                best = Math.min(best, longStayBp[order[r]]);
+                bestBp[r] = best;
+            }
+
+            categoryIndex.put(key, categories.size());
+            categories.add(new Category(multiplierPrefix, sortedMinDays, bestBp, surgeBp));
+            return this;
+        }
+
+        public Builder vehicle(long id, long dailyRateCents, String categoryKey, boolean bookable) {
+            Integer category = categoryIndex.get(categoryKey);
+            if (category == null) {
+                throw new IllegalArgumentException("Unknown category: " + categoryKey);
+            }
+            vehicles.put(id, new Vehicle(id, dailyRateCents, category, bookable));
+            return this;
+        }
+
+        /**
+         * Inclusive epoch-day range; bookings of vehicles not added are ignored
+         */
+        public Builder booking(long vehicleId, int fromDay, int toDay) {
+            Vehicle vehicle = vehicles.get(vehicleId);
+            if (vehicle != null) {
+                vehicle.bookings.add(new int[]{fromDay, toDay});
+            }
+            return this;
+        }
+
+        public QuoteSnapshot build() {
+            return new QuoteSnapshot(this);
+        }
+
+        private static final class Category {
+            private final long[] multiplierPrefix;
+            private final int[] longStayMinDays;
+            private final long[] longStayBp;
+            private final long surgeBp;
+
+            Category(long[] multiplierPrefix, int[] longStayMinDays, long[] longStayBp, long surgeBp) {
+                this.multiplierPrefix = multiplierPrefix;
+                this.longStayMinDays = longStayMinDays;
+                this.longStayBp = longStayBp;
+                this.surgeBp = surgeBp;
+            }
+        }
+
+        private static final class Vehicle {
+            private final long id;
+            private final long rateCents;
+            private final int category;
+            private final boolean bookable;
+            private final List<int[]> bookings = new ArrayList<>();
+
+            Vehicle(long id, long rateCents, int category, boolean bookable) {
+                this.id = id;
+                this.rateCents = rateCents;
+                this.category = category;
+                this.bookable = bookable;
+            }
+        }
+    }
+}
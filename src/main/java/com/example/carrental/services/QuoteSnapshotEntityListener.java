@@ -0,0 +1,46 @@
+package com.example.carrental.services;
+
+import com.example.carrental.model.Organization;
+import com.example.carrental.model.PricingRule;
+import com.example.carrental.model.Reservation;
+import com.example.carrental.model.VehicleModel;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA lifecycle listener on VehicleModel, Reservation and PricingRule that marks the
+ * organization's quote snapshot stale once the change has committed.
+ */
+@Component
+public class QuoteSnapshotEntityListener {
+
+    private final ObjectProvider<FleetQuoteService> fleetQuoteService;
+
+    public QuoteSnapshotEntityListener(ObjectProvider<FleetQuoteService> fleetQuoteService) {
+        this.fleetQuoteService = fleetQuoteService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        Organization organization = null;
+        if (entity instanceof VehicleModel vehicle) {
+            organization = vehicle.getOrganization();
+        } else if (entity instanceof Reservation reservation) {
+            organization = reservation.getOrganization();
+        } else if (entity instanceof PricingRule rule) {
+            organization = rule.getOrganization();
+        }
+        if (organization == null) {
+            return;
+        }
+
+        Long organizationId = organization.getId();
+        TransactionHooks.afterCommit(() ->
+                fleetQuoteService.ifAvailable(service -> service.invalidate(organizationId));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.carrental.services;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Daily price multipliers of one category over a fixed horizon, stored as prefix sums: the
+ * multiplier total of a stay of any length is two array reads instead of rule evaluation per day.
+ * Multipliers are fixed-point with {@link #SCALE} (10000 = 1.0).
+ */
+public class RateTable {
+
+    public static final long SCALE = 10_000;
+
+    private final LocalDate origin;
+    private final long[] prefix; // prefix[i] = sum of the multipliers of the first i days
+
+    public RateTable(LocalDate origin, int days, ToLongFunction<LocalDate> dayMultiplier) {
+        this.origin = origin;
+        this.prefix = new long[days + 1];
+        LocalDate day = origin;
+        for (int i = 0; i < days; i++) {
+            prefix[i + 1] = prefix[i] + dayMultiplier.applyAsLong(day);
+            day = day.plusDays(1);
+        }
+    }
+
+    public LocalDate getOrigin() {
+        return origin;
+    }
+
+    public int getDays() {
+        return prefix.length - 1;
+    }
+
+    /**
+     * Copy of the prefix sums, for snapshots that index them by day offset directly
+     */
+    long[] prefixSums() {
+        return prefix.clone();
+    }
+
+    public boolean covers(LocalDate start, LocalDate end) {
+        long first = ChronoUnit.DAYS.between(origin, start);
+        long last = ChronoUnit.DAYS.between(origin, end);
+        return first >= 0 && last < prefix.length - 1 && first <= last;
+    }
+
+    /**
+     * @return sum of the daily multipliers from start to end, both inclusive
+     */
+    public long sum(LocalDate start, LocalDate end) {
+        if (!covers(start, end)) {
+            throw new IllegalArgumentException("Dates outside the rate table: " + start + " - " + end);
+        }
+        int first = (int) ChronoUnit.DAYS.between(origin, start);
+        int last = (int) ChronoUnit.DAYS.between(origin, end);
+        return prefix[last + 1] - prefix[first];
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.dto.CheckInRequestDTO;
+import com.example.carrental.dto.CheckOutRequestDTO;
+import com.example.carrental.dto.RentalBatchResultDTO;
+import com.example.carrental.dto.RentalResponseDTO;
+import com.example.carrental.enums.DomainEventType;
+import com.example.carrental.enums.RentalStatus;
+import com.example.carrental.enums.ReservationStatus;
+import com.example.carrental.model.Branch;
+import com.example.carrental.model.Rental;
+import com.example.carrental.model.Reservation;
+import com.example.carrental.model.User;
+import com.example.carrental.model.VehicleModel;
+import com.example.carrental.repository.RentalRepository;
+import com.example.carrental.repository.ReservationRepository;
+import com.example.carrental.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Front-desk check-out and check-in. Each operation is one transaction whose reads are a single
+ * fetch-join query (plus the employee, resolved once per batch), so the morning pickup wave does
+ * not pay for lazy loads. The active and overdue lists are one tenant-scoped fetch-join each.
+ * Latency is recorded per operation in the rental.operation timer with p50/p95/p99.
+ */
+@Slf4j
+@Service
+public class RentalService {
+
+    public static final int MAX_BATCH_SIZE = 100;
+
+    private final RentalRepository rentalRepository;
+    private final ReservationRepository reservationRepository;
+    private final UserRepository userRepository;
+    private final OutboxService outboxService;
+    private final BranchService branchService;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, Timer> timers = new HashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public RentalService(RentalRepository rentalRepository, ReservationRepository reservationRepository,
+                         UserRepository userRepository, OutboxService outboxService,
+                         BranchService branchService,
+                         TransactionTemplate transactionTemplate, ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.rentalRepository = rentalRepository;
+        this.reservationRepository = reservationRepository;
+        this.userRepository = userRepository;
+        this.outboxService = outboxService;
+        this.branchService = branchService;
+        this.transactionTemplate = transactionTemplate;
+
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        if (meterRegistry != null) {
+            for (String operation : new String[]{"checkout", "checkin", "checkout-batch", "checkin-batch"}) {
+                timers.put(operation, Timer.builder("rental.operation")
+                        .tag("operation", operation)
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+            }
+        }
+    }
+
+    public RentalResponseDTO checkOut(CheckOutRequestDTO request, String username) {
+        return timed("checkout", () -> {
+            User employee = findEmployee(username);
+            return transactionTemplate.execute(status -> doCheckOut(request, employee));
+        });
+    }
+
+    public RentalResponseDTO checkIn(CheckInRequestDTO request, String username) {
+        return timed("checkin", () -> {
+            User employee = findEmployee(username);
+            return transactionTemplate.execute(status -> doCheckIn(request, employee));
+        });
+    }
+
+    /**
+     * One transaction per item, so a bad item does not roll back the rest of the wave
+     */
+    public List<RentalBatchResultDTO> checkOutBatch(List<CheckOutRequestDTO> requests, String username) {
+        return timed("checkout-batch", () -> runBatch(requests, username, CheckOutRequestDTO::getReservationCode, this::doCheckOut));
+    }
+
+    public List<RentalBatchResultDTO> checkInBatch(List<CheckInRequestDTO> requests, String username) {
+        return timed("checkin-batch", () -> runBatch(requests, username, CheckInRequestDTO::getCode, this::doCheckIn));
+    }
+
+    @Transactional(readOnly = true)
+    public RentalResponseDTO getRental(String code) {
+        return mapToResponseDTO(findRental(code));
+    }
+
+    @Transactional(readOnly = true)
+    public List<RentalResponseDTO> getActiveRentals() {
+        return rentalRepository.findByStatusForOrganization(RentalStatus.ACTIVE, TenantContext.getTenantId()).stream()
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<RentalResponseDTO> getOverdueRentals() {
+        return rentalRepository.findOverdueForOrganization(TenantContext.getTenantId(), LocalDateTime.now()).stream()
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    private <T> List<RentalBatchResultDTO> runBatch(List<T> requests, String username, Function<T, String> code,
+                                                    BatchOperation<T> operation) {
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("A batch can contain at most " + MAX_BATCH_SIZE + " items");
+        }
+        User employee = findEmployee(username);
+        List<RentalBatchResultDTO> results = new ArrayList<>(requests.size());
+        for (T request : requests) {
+            try {
+                RentalResponseDTO rental = transactionTemplate.execute(status -> operation.apply(request, employee));
+                results.add(RentalBatchResultDTO.builder().code(code.apply(request)).success(true).rental(rental).build());
+            } catch (Exception e) {
+                log.warn("Batch rental operation failed for {}: {}", code.apply(request), e.getMessage());
+                results.add(RentalBatchResultDTO.builder().code(code.apply(request)).success(false).error(e.getMessage()).build());
+            }
+        }
+        return results;
+    }
+
+    @FunctionalInterface
+    private interface BatchOperation<T> {
+        RentalResponseDTO apply(T request, User employee);
+    }
+
+    private RentalResponseDTO doCheckOut(CheckOutRequestDTO request, User employee) {
+        Reservation reservation = reservationRepository.findForCheckOut(request.getReservationCode())
+                .orElseThrow(() -> new RuntimeException("Reservation not found: " + request.getReservationCode()));
+
+        if (reservation.getStatus() != ReservationStatus.CONFIRMED) {
+            throw new RuntimeException("Reservation " + reservation.getReservationCode()
+                    + " cannot be checked out in status " + reservation.getStatus());
+        }
+        if (reservation.getRental() != null) {
+            throw new RuntimeException("Reservation " + reservation.getReservationCode() + " is already checked out");
+        }
+        LocalDate today = LocalDate.now();
+        if (today.isBefore(reservation.getStartDate()) || today.isAfter(reservation.getEndDate())) {
+            throw new RuntimeException("Reservation " + reservation.getReservationCode() + " is not active today");
+        }
+
+        VehicleModel vehicle = reservation.getVehicle();
+        if (vehicle.getMileage() != null && request.getMileage() < vehicle.getMileage()) {
+            throw new RuntimeException("Pickup mileage " + request.getMileage()
+                    + " is below the vehicle's recorded mileage " + vehicle.getMileage());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Rental rental = Rental.builder()
+                .reservation(reservation)
+                .expectedReturnDateTime(reservation.getEndDate().atTime(now.toLocalTime()))
+                .pickupNotes(request.getNotes())
+                .build();
+        rental.startRental(now, request.getMileage(), request.getFuelLevel(), employee);
+        vehicle.setMileage(request.getMileage());
+        reservation.setRental(rental);
+
+        rental = rentalRepository.save(rental);
+        log.info("Rental {} checked out: reservation {}, vehicle {}",
+                rental.getRentalCode(), reservation.getReservationCode(), vehicle.getLicensePlate());
+        return mapToResponseDTO(rental);
+    }
+
+    private RentalResponseDTO doCheckIn(CheckInRequestDTO request, User employee) {
+        Rental rental = findRental(request.getCode());
+        // Lock the row and re-read it, so check-in serializes with the overdue engine's fee updates
+        entityManager.refresh(rental, LockModeType.PESSIMISTIC_WRITE);
+        if (rental.getStatus() != RentalStatus.ACTIVE && rental.getStatus() != RentalStatus.OVERDUE) {
+            throw new RuntimeException("Rental " + rental.getRentalCode() + " cannot be checked in in status " + rental.getStatus());
+        }
+        if (request.getMileage() < rental.getPickupMileage()) {
+            throw new RuntimeException("Return mileage " + request.getMileage()
+                    + " is below the pickup mileage " + rental.getPickupMileage());
+        }
+
+        if (request.getDamageFee() != null) {
+            rental.setDamageFee(request.getDamageFee());
+        }
+        rental.setDamageNotes(request.getDamageNotes());
+        rental.setReturnNotes(request.getNotes());
+        rental.completeRental(LocalDateTime.now(), request.getMileage(), request.getFuelLevel(), employee);
+
+        Reservation reservation = rental.getReservation();
+        reservation.getVehicle().setMileage(request.getMileage());
+        // One-way rentals leave the vehicle at the return branch
+        if (reservation.getOrganization() != null) {
+            Branch returnBranch = branchService.resolve(reservation.getOrganization().getId(), reservation.getReturnLocation());
+            if (returnBranch != null) {
+                reservation.getVehicle().setCurrentBranch(returnBranch);
+            }
+        }
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("reservationCode", reservation.getReservationCode());
+        payload.put("status", reservation.getStatus().name());
+        payload.put("vehicleId", reservation.getVehicle().getId());
+        payload.put("customerId", reservation.getCustomer() != null ? reservation.getCustomer().getId() : null);
+        payload.put("rentalCode", rental.getRentalCode());
+        payload.put("totalFee", rental.getTotalFee());
+        outboxService.publish(DomainEventType.RESERVATION_COMPLETED, reservation.getOrganization(), reservation.getId(), payload);
+
+        log.info("Rental {} checked in: {} km driven, total fee {}",
+                rental.getRentalCode(), rental.getTotalMilesDriven(), rental.getTotalFee());
+        return mapToResponseDTO(rental);
+    }
+
+    private Rental findRental(String code) {
+        Rental rental = rentalRepository.findForCheckIn(code)
+                .orElseThrow(() -> new RuntimeException("Rental not found: " + code));
+        // Rentals carry no organization column, so the tenant filter does not apply to them
+        if (!isVisible(rental)) {
+            throw new RuntimeException("Rental not found: " + code);
+        }
+        return rental;
+    }
+
+    private boolean isVisible(Rental rental) {
+        return TenantContext.isUnscoped() || (TenantContext.hasTenant()
+                && rental.getReservation().getOrganization().getId().equals(TenantContext.getTenantId()));
+    }
+
+    private User findEmployee(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    private <T> T timed(String operation, Supplier<T> action) {
+        Timer timer = timers.get(operation);
+        return timer != null ? timer.record(action) : action.get();
+    }
+
+    private RentalResponseDTO mapToResponseDTO(Rental rental) {
+        Reservation reservation = rental.getReservation();
+        RentalResponseDTO.RentalResponseDTOBuilder builder = RentalResponseDTO.builder()
+                .id(rental.getId())
+                .rentalCode(rental.getRentalCode())
+                .status(rental.getStatus())
+                .reservationCode(reservation.getReservationCode())
+                .vehicleId(reservation.getVehicle().getId())
+                .vehicleLicensePlate(reservation.getVehicle().getLicensePlate())
+                .pickupDateTime(rental.getPickupDateTime())
+                .expectedReturnDateTime(rental.getExpectedReturnDateTime())
+                .actualReturnDateTime(rental.getActualReturnDateTime())
+                .pickupMileage(rental.getPickupMileage())
+                .returnMileage(rental.getReturnMileage())
+                .distanceDriven(rental.getTotalMilesDriven())
+                .fuelLevelPickup(rental.getFuelLevelPickup())
+                .fuelLevelReturn(rental.getFuelLevelReturn())
+                .rentalAmount(reservation.getTotalAmount())
+                .lateReturnFee(rental.getLateReturnFee())
+                .fuelFee(rental.getFuelFee())
+                .damageFee(rental.getDamageFee())
+                .totalFee(rental.getTotalFee());
+
+        if (reservation.getCustomer() != null) {
+            builder.customerId(reservation.getCustomer().getId())
+                    .customerFullName(reservation.getCustomer().getFullName());
+        }
+        return builder.build();
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.carrental.services;
 
 import com.example.carrental.dto.CreateReservationRequestDTO;
+import com.example.carrental.dto.PriceQuoteDTO;
 import com.example.carrental.dto.ReservationResponseDTO;
+import com.example.carrental.enums.DomainEventType;
 import com.example.carrental.enums.ReservationStatus;
 import com.example.carrental.enums.VehicleStatus;
+import com.example.carrental.mapper.ReservationMapper;
 import com.example.carrental.model.Customer;
 import com.example.carrental.model.Reservation;
 import com.example.carrental.model.User;
@@ -21,11 +24,11 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -38,6 +41,9 @@ public class ReservationService {
     private final VehicleRepository vehicleRepository;
     private final UserRepository userRepository;
     private final CustomerRepository customerRepository;
+    private final PricingService pricingService;
+    private final OutboxService outboxService;
+    private final ReservationMapper reservationMapper;
 
     public ReservationResponseDTO createReservation(CreateReservationRequestDTO request, String username) {
         log.info("Creating reservation for user: {} and vehicle: {}", username, request.getVehicleId());
@@ -96,22 +102,20 @@ public class ReservationService {
                 .status(ReservationStatus.PENDING)
                 .build();
 
-        // Calculate total amount
-        reservation.calculateTotalAmount();
+        // Price from the tenant's rate tables (season, weekend, long-stay and surge rules)
+        PriceQuoteDTO quote = pricingService.quote(vehicle, request.getStartDate(), request.getEndDate());
+        reservation.setTotalDays(quote.getTotalDays());
+        reservation.setTotalAmount(quote.getTotalAmount());
 
         // Save reservation
         reservation = reservationRepository.save(reservation);
 
-        // Update customer statistics
-        updateCustomerReservationStats(customer);
+        // Customer statistics are updated by CustomerStatsEventHandler once this commits
+        publish(DomainEventType.RESERVATION_CREATED, reservation);
 
-        // Update vehicle status based on reservation dates
-        updateVehicleStatusBasedOnDates(vehicle, reservation);
+        log.info("Reservation created successfully: {}", reservation.getReservationCode());
 
-        log.info("Reservation created successfully: {} - Vehicle {} status updated based on dates",
-                reservation.getReservationCode(), vehicle.getLicensePlate());
-
-        return mapToResponseDTO(reservation);
+        return reservationMapper.toResponseDTO(reservation);
     }
 
     @Transactional(readOnly = true)
@@ -121,7 +125,7 @@ public class ReservationService {
 
         List<Reservation> reservations = reservationRepository.findByUserOrderByCreatedAtDesc(user);
         return reservations.stream()
-                .map(this::mapToResponseDTO)
+                .map(reservationMapper::toResponseDTO)
                 .collect(Collectors.toList());
     }
 
@@ -138,7 +142,7 @@ public class ReservationService {
             throw new RuntimeException("Access denied");
         }
 
-        return mapToResponseDTO(reservation);
+        return reservationMapper.toResponseDTO(reservation);
     }
 
     public ReservationResponseDTO confirmReservation(String reservationCode, String username) {
@@ -168,10 +172,11 @@ public class ReservationService {
         // Confirm reservation
         reservation.confirm();
         reservation = reservationRepository.save(reservation);
+        publish(DomainEventType.RESERVATION_CONFIRMED, reservation);
 
         log.info("Reservation confirmed successfully: {}", reservationCode);
 
-        return mapToResponseDTO(reservation);
+        return reservationMapper.toResponseDTO(reservation);
     }
 
     public ReservationResponseDTO cancelReservation(String reservationCode, String username, String reason) {
@@ -197,40 +202,19 @@ public class ReservationService {
         reservation.cancel(reason);
         reservation = reservationRepository.save(reservation);
 
-        // Release vehicle back to AVAILABLE
-        VehicleModel vehicle = reservation.getVehicle();
-        if (vehicle.getStatus() == VehicleStatus.RESERVED) {
-            vehicle.setStatus(VehicleStatus.AVAILABLE);
-            vehicleRepository.save(vehicle);
-            log.info("Vehicle {} released back to AVAILABLE status", vehicle.getLicensePlate());
-        }
+        // The vehicle is released by VehicleStatusEventHandler
+        publish(DomainEventType.RESERVATION_CANCELLED, reservation);
 
         log.info("Reservation cancelled successfully: {}", reservationCode);
 
-        return mapToResponseDTO(reservation);
+        return reservationMapper.toResponseDTO(reservation);
     }
 
     @Transactional(readOnly = true)
     public List<ReservationResponseDTO> getReservationsByStatus(ReservationStatus status) {
         List<Reservation> reservations = reservationRepository.findByStatusOrderByCreatedAtDesc(status);
         return reservations.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
-    }
-
-    @Transactional(readOnly = true)
-    public List<ReservationResponseDTO> getPickupsForDate(LocalDate date) {
-        List<Reservation> reservations = reservationRepository.findPickupsForDate(date);
-        return reservations.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
-    }
-
-    @Transactional(readOnly = true)
-    public List<ReservationResponseDTO> getReturnsForDate(LocalDate date) {
-        List<Reservation> reservations = reservationRepository.findReturnsForDate(date);
-        return reservations.stream()
-                .map(this::mapToResponseDTO)
+                .map(reservationMapper::toResponseDTO)
                 .collect(Collectors.toList());
     }
 
@@ -248,57 +232,12 @@ public class ReservationService {
         return conflicts.isEmpty();
     }
 
-    private ReservationResponseDTO mapToResponseDTO(Reservation reservation) {
-        ReservationResponseDTO.ReservationResponseDTOBuilder builder = ReservationResponseDTO.builder()
-                .id(reservation.getId())
-                .reservationCode(reservation.getReservationCode())
-                .startDate(reservation.getStartDate())
-                .endDate(reservation.getEndDate())
-                .pickupLocation(reservation.getPickupLocation())
-                .returnLocation(reservation.getReturnLocation())
-                .status(reservation.getStatus())
-                .dailyRate(reservation.getDailyRate())
-                .totalDays(reservation.getTotalDays())
-                .totalAmount(reservation.getTotalAmount())
-                .specialRequests(reservation.getSpecialRequests())
-                .createdAt(reservation.getCreatedAt())
-                .confirmedAt(reservation.getConfirmedAt())
-                .vehicleId(reservation.getVehicle().getId())
-                .vehicleBrand(reservation.getVehicle().getBrand())
-                .vehicleModel(reservation.getVehicle().getModel())
-                .vehicleLicensePlate(reservation.getVehicle().getLicensePlate())
-                .vehicleCategory(reservation.getVehicle().getCategory())
-                .userId(reservation.getUser().getId())
-                .userFullName(reservation.getUser().getFullName())
-                .userEmail(reservation.getUser().getEmail());
-
-        // Add customer information if exists
-        if (reservation.getCustomer() != null) {
-            builder.customerId(reservation.getCustomer().getId())
-                    .customerCode(reservation.getCustomer().getCustomerCode())
-                    .customerFullName(reservation.getCustomer().getFullName())
-                    .customerEmail(reservation.getCustomer().getEmail())
-                    .customerPhone(reservation.getCustomer().getPhoneNumber());
-        }
-
-        // Add rental information if exists
-        if (reservation.getRental() != null) {
-            builder.rentalId(reservation.getRental().getId())
-                    .rentalCode(reservation.getRental().getRentalCode())
-                    .pickupDateTime(reservation.getRental().getPickupDateTime())
-                    .expectedReturnDateTime(reservation.getRental().getExpectedReturnDateTime())
-                    .actualReturnDateTime(reservation.getRental().getActualReturnDateTime());
-        }
-
-        return builder.build();
-    }
-
     // Additional methods for frontend compatibility
     @Transactional(readOnly = true)
     public List<ReservationResponseDTO> getAllReservations() {
         List<Reservation> reservations = reservationRepository.findAllByOrderByCreatedAtDesc();
         return reservations.stream()
-                .map(this::mapToResponseDTO)
+                .map(reservationMapper::toResponseDTO)
                 .collect(Collectors.toList());
     }
 
@@ -328,9 +267,15 @@ public class ReservationService {
         }
 
         reservation = reservationRepository.save(reservation);
+        switch (status) {
+            case CONFIRMED -> publish(DomainEventType.RESERVATION_CONFIRMED, reservation);
+            case CANCELLED -> publish(DomainEventType.RESERVATION_CANCELLED, reservation);
+            case COMPLETED -> publish(DomainEventType.RESERVATION_COMPLETED, reservation);
+            default -> { }
+        }
         log.info("Reservation {} status updated to {}", id, status);
 
-        return mapToResponseDTO(reservation);
+        return reservationMapper.toResponseDTO(reservation);
     }
 
     public void deleteReservation(Long id, String username) {
@@ -383,89 +328,16 @@ public class ReservationService {
         }
     }
 
-    /**
-     * Update customer statistics after reservation creation or status change
-     */
-    private void updateCustomerReservationStats(Customer customer) {
-        log.debug("Updating reservation statistics for customer: {}", customer.getCustomerCode());
-
-        // Get all reservations for this customer
-        List<Reservation> customerReservations = reservationRepository.findByCustomerOrderByCreatedAtDesc(customer);
-
-        // Calculate statistics
-        int totalReservations = customerReservations.size();
-        BigDecimal totalSpent = customerReservations.stream()
-                .filter(res -> res.getStatus() == ReservationStatus.COMPLETED)
-                .map(Reservation::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Calculate average rental days
-        double averageRentalDays = customerReservations.stream()
-                .filter(res -> res.getStatus() == ReservationStatus.COMPLETED)
-                .mapToInt(Reservation::getTotalDays)
-                .average()
-                .orElse(0.0);
-
-        // Find last rental date
-        LocalDateTime lastRentalDate = customerReservations.stream()
-                .filter(res -> res.getStatus() == ReservationStatus.COMPLETED)
-                .map(Reservation::getCreatedAt)
-                .max(LocalDateTime::compareTo)
-                .orElse(null);
-
-        // Calculate customer lifetime value (simple calculation: total spent)
-        BigDecimal customerLifetimeValue = totalSpent;
-
-        // Update customer statistics
-        customer.setTotalReservations(totalReservations);
-        customer.setTotalSpent(totalSpent);
-        customer.setAverageRentalDays(BigDecimal.valueOf(averageRentalDays));
-        customer.setLastRentalDate(lastRentalDate);
-        customer.setCustomerLifetimeValue(customerLifetimeValue);
-
-        // Update customer segment based on reservations
-        if (totalReservations == 0) {
-            customer.setSegment(com.example.carrental.enums.CustomerSegment.NEW);
-        } else if (totalReservations <= 3) {
-            customer.setSegment(com.example.carrental.enums.CustomerSegment.REGULAR);
-        } else if (totalReservations <= 10) {
-            customer.setSegment(com.example.carrental.enums.CustomerSegment.PREMIUM);
-        } else {
-            customer.setSegment(com.example.carrental.enums.CustomerSegment.VIP);
-        }
-
-        // Save updated customer
-        customerRepository.save(customer);
-
-        log.debug("Customer {} statistics updated: {} reservations, {} total spent",
-                customer.getCustomerCode(), totalReservations, totalSpent);
-    }
-
-    /**
-     * Update vehicle status based on reservation dates
-     * Only set to RESERVED if reservation is active today
-     */
-    private void updateVehicleStatusBasedOnDates(VehicleModel vehicle, Reservation reservation) {
-        LocalDate today = LocalDate.now();
-
-        // Only reserve the vehicle if the reservation starts today or is currently active
-        if (reservation.getStatus() == ReservationStatus.CONFIRMED) {
-            if (isDateInRange(today, reservation.getStartDate(), reservation.getEndDate())) {
-                vehicle.setStatus(VehicleStatus.RESERVED);
-                log.info("Vehicle {} set to RESERVED for active reservation {}",
-                    vehicle.getLicensePlate(), reservation.getReservationCode());
-            } else {
-                // Reservation is confirmed but not active yet - keep vehicle available
-                log.info("Vehicle {} kept AVAILABLE - reservation {} not yet active",
-                    vehicle.getLicensePlate(), reservation.getReservationCode());
-            }
-        } else {
-            // Pending reservation - don't block the vehicle yet
-            log.info("Vehicle {} kept AVAILABLE - reservation {} is still pending",
-                vehicle.getLicensePlate(), reservation.getReservationCode());
-        }
-
-        vehicleRepository.save(vehicle);
+    private void publish(DomainEventType type, Reservation reservation) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("reservationCode", reservation.getReservationCode());
+        payload.put("status", reservation.getStatus().name());
+        payload.put("vehicleId", reservation.getVehicle().getId());
+        payload.put("customerId", reservation.getCustomer() != null ? reservation.getCustomer().getId() : null);
+        payload.put("startDate", reservation.getStartDate().toString());
+        payload.put("endDate", reservation.getEndDate().toString());
+        payload.put("totalAmount", reservation.getTotalAmount());
+        outboxService.publish(type, reservation.getOrganization(), reservation.getId(), payload);
     }
 
     /**
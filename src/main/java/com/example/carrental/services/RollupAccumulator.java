@@ -0,0 +1,83 @@
+package com.example.carrental.services;
+
+import com.example.carrental.enums.RollupScope;
+import com.example.carrental.model.Rental;
+import com.example.carrental.model.Reservation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Daily rollup deltas keyed by scope, scope key and day, each a long[] indexed like
+ * {@link DailySeries}. Every reservation counts towards its organization, its vehicle's category
+ * and its vehicle. The same contributions are used for incremental updates and for backfill, so
+ * both produce identical rows.
+ */
+public class RollupAccumulator {
+
+    private final Map<RollupScope, Map<String, Map<LocalDate, long[]>>> totals = new EnumMap<>(RollupScope.class);
+
+    @FunctionalInterface
+    public interface RowConsumer {
+        void accept(RollupScope scope, String scopeKey, LocalDate day, long[] values);
+    }
+
+    public void reservationCreated(Reservation reservation) {
+        LocalDate day = reservation.getCreatedAt() != null ? reservation.getCreatedAt().toLocalDate() : LocalDate.now();
+        add(reservation, day, DailySeries.RESERVATIONS, 1);
+    }
+
+    public void reservationCancelled(Reservation reservation) {
+        LocalDate day = reservation.getCancelledAt() != null ? reservation.getCancelledAt().toLocalDate() : LocalDate.now();
+        add(reservation, day, DailySeries.CANCELLATIONS, 1);
+    }
+
+    /**
+     * One rented day per day from the start date to the actual return (or the end date when
+     * there was no check-in), with the amount spread evenly over them, leftover cents first
+     */
+    public void reservationCompleted(Reservation reservation) {
+        LocalDate start = reservation.getStartDate();
+        LocalDate end = reservation.getEndDate();
+        Rental rental = reservation.getRental();
+        if (rental != null && rental.getActualReturnDateTime() != null) {
+            LocalDate returned = rental.getActualReturnDateTime().toLocalDate();
+            end = returned.isBefore(start) ? start : returned;
+        }
+        int days = (int) (end.toEpochDay() - start.toEpochDay()) + 1;
+        BigDecimal amount = reservation.getTotalAmount() != null ? reservation.getTotalAmount() : BigDecimal.ZERO;
+        long cents = amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        long perDay = cents / days;
+        long leftover = cents % days;
+        for (int i = 0; i < days; i++) {
+            LocalDate day = start.plusDays(i);
+            add(reservation, day, DailySeries.RENTED_DAYS, 1);
+            add(reservation, day, DailySeries.REVENUE_CENTS, perDay + (i < leftover ? 1 : 0));
+        }
+    }
+
+    public boolean isEmpty() {
+        return totals.isEmpty();
+    }
+
+    public void forEach(RowConsumer consumer) {
+        totals.forEach((scope, keys) -> keys.forEach((scopeKey, days) ->
+                days.forEach((day, values) -> consumer.accept(scope, scopeKey, day, values))));
+    }
+
+    private void add(Reservation reservation, LocalDate day, int metric, long amount) {
+        add(RollupScope.ORGANIZATION, "", day, metric, amount);
+        add(RollupScope.CATEGORY, PricingService.categoryKey(reservation.getVehicle().getCategory()), day, metric, amount);
+        add(RollupScope.VEHICLE, String.valueOf(reservation.getVehicle().getId()), day, metric, amount);
+    }
+
+    private void add(RollupScope scope, String scopeKey, LocalDate day, int metric, long amount) {
+        totals.computeIfAbsent(scope, s -> new HashMap<>())
+                .computeIfAbsent(scopeKey, k -> new HashMap<>())
+                .computeIfAbsent(day, d -> new long[DailySeries.FLEET_DAYS])[metric] += amount;
+    }
+}
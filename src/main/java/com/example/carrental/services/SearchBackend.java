@@ -0,0 +1,14 @@
+package com.example.carrental.services;
+
+import java.util.List;
+
+/**
+ * Ranked search over vehicles and customers of one organization. Implementations return ids
+ * best match first; callers load the entities through the (tenant-filtered) repositories.
+ */
+public interface SearchBackend {
+
+    List<Long> searchVehicleIds(Long organizationId, String term, int limit);
+
+    List<Long> searchCustomerIds(Long organizationId, String term, int limit);
+}
@@ -0,0 +1,79 @@
+package com.example.carrental.services;
+
+import com.example.carrental.model.Customer;
+import com.example.carrental.model.VehicleModel;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA lifecycle listener on VehicleModel and Customer that keeps the in-memory search index,
+ * the vehicle facet index and the autocomplete tries current. Changes are applied after commit
+ * so rolled-back writes never become searchable. Instantiated by Spring through Hibernate's bean
+ * container; with the PostgreSQL backend there is no in-memory search index. The indexes are
+ * looked up lazily since they depend on repositories built from this EntityManagerFactory.
+ */
+@Component
+public class SearchIndexEntityListener {
+
+    private final ObjectProvider<InMemorySearchIndex> searchIndex;
+    private final ObjectProvider<VehicleFacetIndex> facetIndex;
+    private final ObjectProvider<AutocompleteService> autocomplete;
+
+    public SearchIndexEntityListener(ObjectProvider<InMemorySearchIndex> searchIndex,
+                                     ObjectProvider<VehicleFacetIndex> facetIndex,
+                                     ObjectProvider<AutocompleteService> autocomplete) {
+        this.searchIndex = searchIndex;
+        this.facetIndex = facetIndex;
+        this.autocomplete = autocomplete;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        TransactionHooks.afterCommit(() -> {
+            searchIndex.ifAvailable(index -> {
+                if (entity instanceof VehicleModel vehicle) {
+                    index.index(vehicle);
+                } else if (entity instanceof Customer customer) {
+                    index.index(customer);
+                }
+            });
+            if (entity instanceof VehicleModel vehicle) {
+                facetIndex.ifAvailable(index -> index.index(vehicle));
+            }
+            autocomplete.ifAvailable(service -> {
+                if (entity instanceof VehicleModel vehicle) {
+                    service.index(vehicle);
+                } else if (entity instanceof Customer customer) {
+                    service.index(customer);
+                }
+            });
+        });
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        TransactionHooks.afterCommit(() -> {
+            searchIndex.ifAvailable(index -> {
+                if (entity instanceof VehicleModel vehicle) {
+                    index.remove(vehicle);
+                } else if (entity instanceof Customer customer) {
+                    index.remove(customer);
+                }
+            });
+            if (entity instanceof VehicleModel vehicle) {
+                facetIndex.ifAvailable(index -> index.remove(vehicle));
+            }
+            autocomplete.ifAvailable(service -> {
+                if (entity instanceof VehicleModel vehicle) {
+                    service.remove(vehicle);
+                } else if (entity instanceof Customer customer) {
+                    service.remove(customer);
+                }
+            });
+        });
+    }
+}
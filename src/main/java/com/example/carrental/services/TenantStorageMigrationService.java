@@ -0,0 +1,336 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenancyProperties;
+import com.example.carrental.config.TenantConnectionProvider;
+import com.example.carrental.config.TenantSchemaMigrator;
+import com.example.carrental.config.TenantStorageRegistry;
+import com.example.carrental.dto.TenantMigrationStatusDTO;
+import com.example.carrental.exception.ResourceNotFoundException;
+import com.example.carrental.model.Organization;
+import com.example.carrental.model.Organization.StorageMode;
+import com.example.carrental.repository.OrganizationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Online move of one organization from the shared tables to its own schema or database:
+ * chunked keyset copy while the tenant keeps writing, a catch-up pass for rows changed
+ * during the copy, then a short cutover that drains the tenant's in-flight transactions
+ * (requests and its background work, see CrossTenantTaskRunner), applies the last changes
+ * and flips Organization.storageMode. Other organizations are not held back. The shared rows are left in place until
+ * purgeSharedCopy is called.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "app.tenancy", name = "isolation-enabled", havingValue = "true")
+public class TenantStorageMigrationService {
+
+    // Tenant-owned tables in foreign key order, with the predicate selecting one organization's rows
+    private static final List<TenantTable> TENANT_TABLES = List.of(
+            new TenantTable("customers", "organization_id = ?"),
+            new TenantTable("vehicles", "organization_id = ?"),
+            new TenantTable("reservations", "organization_id = ?"),
+            new TenantTable("rentals", "reservation_id IN (SELECT id FROM reservations WHERE organization_id = ?)"),
+            new TenantTable("maintenance_records", "organization_id = ?"),
+            new TenantTable("vehicle_photos", "organization_id = ?"),
+            new TenantTable("notifications", "organization_id = ?")
+    );
+
+    // Clock skew allowance when selecting rows changed since a phase started
+    private static final long CHANGE_WINDOW_MARGIN_SECONDS = 60;
+
+    private final JdbcTemplate sharedJdbcTemplate;
+    private final OrganizationRepository organizationRepository;
+    private final TenantStorageRegistry tenantStorageRegistry;
+    private final TenantConnectionProvider tenantConnectionProvider;
+    private final TenantSchemaMigrator tenantSchemaMigrator;
+    private final TenancyProperties tenancyProperties;
+    private final Executor taskExecutor;
+
+    private final Map<Long, TenantMigrationStatusDTO> migrations = new ConcurrentHashMap<>();
+
+    public TenantStorageMigrationService(DataSource dataSource,
+                                         OrganizationRepository organizationRepository,
+                                         TenantStorageRegistry tenantStorageRegistry,
+                                         TenantConnectionProvider tenantConnectionProvider,
+                                         TenantSchemaMigrator tenantSchemaMigrator,
+                                         TenancyProperties tenancyProperties,
+                                         @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.sharedJdbcTemplate = new JdbcTemplate(dataSource);
+        this.organizationRepository = organizationRepository;
+        this.tenantStorageRegistry = tenantStorageRegistry;
+        this.tenantConnectionProvider = tenantConnectionProvider;
+        this.tenantSchemaMigrator = tenantSchemaMigrator;
+        this.tenancyProperties = tenancyProperties;
+        this.taskExecutor = taskExecutor;
+    }
+
+    public TenantMigrationStatusDTO startMigration(Long organizationId, StorageMode targetMode, String storageKey) {
+        Organization organization = organizationRepository.findById(organizationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Organization not found with id: " + organizationId));
+
+        if (targetMode == null || targetMode == StorageMode.SHARED) {
+            throw new RuntimeException("Target storage mode must be SCHEMA or DATABASE");
+        }
+        if (!organization.canUseIsolatedStorage()) {
+            throw new RuntimeException("Isolated storage is only available on the ENTERPRISE plan");
+        }
+        if (organization.getStorageMode() != null && organization.getStorageMode() != StorageMode.SHARED) {
+            throw new RuntimeException("Organization already uses " + organization.getStorageMode() + " storage");
+        }
+        if (targetMode == StorageMode.SCHEMA) {
+            TenantConnectionProvider.validateSchemaName(storageKey);
+        } else if (!tenancyProperties.getDatabases().containsKey(storageKey)) {
+            throw new RuntimeException("No app.tenancy.databases entry for storage key " + storageKey);
+        }
+
+        TenantMigrationStatusDTO status = TenantMigrationStatusDTO.builder()
+                .organizationId(organizationId)
+                .targetMode(targetMode.name())
+                .storageKey(storageKey)
+                .phase("PROVISIONING")
+                .rowsCopied(new ConcurrentHashMap<>())
+                .startedAt(LocalDateTime.now())
+                .build();
+
+        TenantMigrationStatusDTO running = migrations.compute(organizationId, (id, existing) ->
+                existing != null && !isFinished(existing) ? existing : status);
+        if (running != status) {
+            throw new RuntimeException("A storage migration is already running for organization " + organizationId);
+        }
+
+        taskExecutor.execute(() -> runMigration(organizationId, targetMode, storageKey, status));
+        log.info("Started {} storage migration for organization {} ({})", targetMode, organizationId, storageKey);
+        return status;
+    }
+
+    public TenantMigrationStatusDTO getStatus(Long organizationId) {
+        TenantMigrationStatusDTO status = migrations.get(organizationId);
+        if (status == null) {
+            throw new ResourceNotFoundException("No storage migration found for organization " + organizationId);
+        }
+        return status;
+    }
+
+    /**
+     * Delete the organization's rows from the shared tables once it has been cut over
+     */
+    public Map<String, Integer> purgeSharedCopy(Long organizationId) {
+        Organization organization = organizationRepository.findById(organizationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Organization not found with id: " + organizationId));
+        if (organization.getStorageMode() == null || organization.getStorageMode() == StorageMode.SHARED) {
+            throw new RuntimeException("Organization still uses shared storage, nothing to purge");
+        }
+
+        Map<String, Integer> deleted = new LinkedHashMap<>();
+        List<TenantTable> reversed = new ArrayList<>(TENANT_TABLES);
+        Collections.reverse(reversed);
+        for (TenantTable table : reversed) {
+            int rows = sharedJdbcTemplate.update(
+                    "DELETE FROM " + table.name + " WHERE " + table.predicate, organizationId);
+            deleted.put(table.name, rows);
+        }
+        log.info("Purged shared copy of organization {}: {}", organizationId, deleted);
+        return deleted;
+    }
+
+    private void runMigration(Long organizationId, StorageMode targetMode, String storageKey,
+                              TenantMigrationStatusDTO status) {
+        try {
+            JdbcTemplate target;
+            String prefix;
+            if (targetMode == StorageMode.SCHEMA) {
+                // Same tenant migrations every deploy runs, so the schema never drifts from public
+                tenantSchemaMigrator.migrate(storageKey);
+                target = sharedJdbcTemplate;
+                prefix = storageKey + ".";
+            } else {
+                // The tenant database must already have the schema (Flyway) and the shared
+                // reference tables (users, roles, organizations) replicated into it.
+                target = new JdbcTemplate(tenantConnectionProvider.dataSourceFor(storageKey));
+                prefix = "";
+            }
+
+            status.setPhase("COPYING");
+            LocalDateTime copyStartedAt = LocalDateTime.now().minusSeconds(CHANGE_WINDOW_MARGIN_SECONDS);
+            Map<String, Long> lastIds = new LinkedHashMap<>();
+            for (TenantTable table : TENANT_TABLES) {
+                lastIds.put(table.name, copyRows(target, prefix, table, organizationId, 0L, null, List.of(), status));
+            }
+
+            status.setPhase("CATCHING_UP");
+            LocalDateTime catchUpStartedAt = LocalDateTime.now().minusSeconds(CHANGE_WINDOW_MARGIN_SECONDS);
+            catchUp(target, prefix, organizationId, copyStartedAt, lastIds, status);
+
+            status.setPhase("CUTOVER");
+            if (!tenantStorageRegistry.pauseAndDrain(organizationId, tenancyProperties.getDrainTimeoutMs())) {
+                tenantStorageRegistry.resume(organizationId);
+                throw new RuntimeException("Timed out waiting for in-flight transactions of organization " + organizationId);
+            }
+            try {
+                catchUp(target, prefix, organizationId, catchUpStartedAt, lastIds, status);
+                removeDeletedRows(target, prefix, organizationId);
+                resetSequences(target, prefix);
+
+                sharedJdbcTemplate.update("UPDATE organizations SET storage_mode = ?, storage_key = ? WHERE id = ?",
+                        targetMode.name(), storageKey, organizationId);
+                tenantStorageRegistry.register(organizationId, targetMode, storageKey);
+            } finally {
+                tenantStorageRegistry.resume(organizationId);
+            }
+
+            status.setPhase("COMPLETED");
+            status.setCompletedAt(LocalDateTime.now());
+            log.info("Organization {} moved to {} storage ({}), rows copied: {}",
+                    organizationId, targetMode, storageKey, status.getRowsCopied());
+
+        } catch (Exception e) {
+            status.setPhase("FAILED");
+            status.setError(e.getMessage());
+            status.setCompletedAt(LocalDateTime.now());
+            log.error("Storage migration for organization {} failed: {}", organizationId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Re-copy rows changed since the given time, plus anything inserted after the last copied id
+     */
+    private void catchUp(JdbcTemplate target, String prefix, Long organizationId, LocalDateTime since,
+                         Map<String, Long> lastIds, TenantMigrationStatusDTO status) {
+        for (TenantTable table : TENANT_TABLES) {
+            long lastId = lastIds.getOrDefault(table.name, 0L);
+            String changed;
+            List<Object> changedParams;
+            if (hasColumn(table.name, "updated_at")) {
+                changed = "updated_at >= ? OR id > ?";
+                changedParams = List.of(since, lastId);
+            } else {
+                // No change tracking column: re-copy the slice, upserts make this idempotent
+                changed = null;
+                changedParams = List.of();
+            }
+            long newLastId = copyRows(target, prefix, table, organizationId, 0L, changed, changedParams, status);
+            lastIds.put(table.name, Math.max(lastId, newLastId));
+        }
+    }
+
+    private long copyRows(JdbcTemplate target, String prefix, TenantTable table, Long organizationId,
+                          long afterId, String changedCondition, List<Object> changedParams,
+                          TenantMigrationStatusDTO status) {
+        int chunkSize = tenancyProperties.getCopyChunkSize();
+        String sql = "SELECT * FROM " + table.name + " WHERE " + table.predicate +
+                (changedCondition != null ? " AND (" + changedCondition + ")" : "") +
+                " AND id > ? ORDER BY id LIMIT " + chunkSize;
+
+        long lastId = afterId;
+        while (true) {
+            List<Object> params = new ArrayList<>();
+            params.add(organizationId);
+            params.addAll(changedParams);
+            params.add(lastId);
+
+            List<Map<String, Object>> rows = sharedJdbcTemplate.queryForList(sql, params.toArray());
+            if (rows.isEmpty()) {
+                return lastId;
+            }
+
+            upsert(target, prefix + table.name, rows);
+            lastId = ((Number) rows.get(rows.size() - 1).get("id")).longValue();
+            status.getRowsCopied().merge(table.name, (long) rows.size(), Long::sum);
+
+            if (rows.size() < chunkSize) {
+                return lastId;
+            }
+        }
+    }
+
+    private void upsert(JdbcTemplate target, String qualifiedTable, List<Map<String, Object>> rows) {
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String columnList = String.join(", ", columns);
+        String placeholders = columns.stream().map(c -> "?").collect(Collectors.joining(", "));
+        String updates = columns.stream()
+                .filter(c -> !c.equalsIgnoreCase("id"))
+                .map(c -> c + " = EXCLUDED." + c)
+                .collect(Collectors.joining(", "));
+
+        String sql = "INSERT INTO " + qualifiedTable + " (" + columnList + ") VALUES (" + placeholders + ") " +
+                "ON CONFLICT (id) DO UPDATE SET " + updates;
+
+        List<Object[]> batch = rows.stream()
+                .map(row -> columns.stream().map(row::get).toArray())
+                .collect(Collectors.toList());
+        target.batchUpdate(sql, batch);
+    }
+
+    /**
+     * Rows deleted from the shared tables after they were copied. Runs while the tenant is drained.
+     */
+    private void removeDeletedRows(JdbcTemplate target, String prefix, Long organizationId) {
+        List<TenantTable> reversed = new ArrayList<>(TENANT_TABLES);
+        Collections.reverse(reversed);
+
+        for (TenantTable table : reversed) {
+            long[] sourceIds = sharedJdbcTemplate.queryForList(
+                            "SELECT id FROM " + table.name + " WHERE " + table.predicate, Long.class, organizationId)
+                    .stream().mapToLong(Long::longValue).sorted().toArray();
+
+            List<Object[]> stale = target.queryForList("SELECT id FROM " + prefix + table.name, Long.class).stream()
+                    .filter(id -> Arrays.binarySearch(sourceIds, id) < 0)
+                    .map(id -> new Object[]{id})
+                    .collect(Collectors.toList());
+
+            if (!stale.isEmpty()) {
+                target.batchUpdate("DELETE FROM " + prefix + table.name + " WHERE id = ?", stale);
+                log.info("Removed {} row(s) from {}{} deleted during migration", stale.size(), prefix, table.name);
+            }
+        }
+    }
+
+    private void resetSequences(JdbcTemplate target, String prefix) {
+        for (TenantTable table : TENANT_TABLES) {
+            String qualified = prefix + table.name;
+            try {
+                target.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), " +
+                        "(SELECT COALESCE(MAX(id), 0) + 1 FROM " + qualified + "), false)", Long.class, qualified);
+            } catch (Exception e) {
+                log.warn("Could not reset id sequence for {}: {}", qualified, e.getMessage());
+            }
+        }
+    }
+
+    private boolean hasColumn(String table, String column) {
+        Integer count = sharedJdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = current_schema() " +
+                        "AND table_name = ? AND column_name = ?", Integer.class, table, column);
+        return count != null && count > 0;
+    }
+
+    private boolean isFinished(TenantMigrationStatusDTO status) {
+        return "COMPLETED".equals(status.getPhase()) || "FAILED".equals(status.getPhase());
+    }
+
+    private static class TenantTable {
+        private final String name;
+        private final String predicate;
+
+        TenantTable(String name, String predicate) {
+            this.name = name;
+            this.predicate = predicate;
+        }
+    }
+}
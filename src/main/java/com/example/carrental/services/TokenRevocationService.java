@@ -0,0 +1,120 @@
+package com.example.carrental.services;
+
+import com.example.carrental.model.RevokedToken;
+import com.example.carrental.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token denylist behind logout. Revoked token ids are persisted until the token expires and
+ * mirrored in a {@link TokenBloomFilter}, so a token that was never revoked is accepted without
+ * a query; only filter hits are confirmed against the table. The filter is rebuilt from the
+ * table on an interval, which drops expired ids and picks up revocations made on other nodes.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JwtService jwtService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.auth.revocation.expected-tokens:100000}")
+    private int expectedTokens;
+
+    @Value("${app.auth.revocation.false-positive-rate:0.0001}")
+    private double falsePositiveRate;
+
+    // Null until the first refresh; every lookup falls through to the table meanwhile
+    private volatile TokenBloomFilter filter;
+
+    // Revoked on this node since the last refresh started, re-added after the filter is swapped
+    private final Set<String> revokedSinceRefresh = ConcurrentHashMap.newKeySet();
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  JwtService jwtService,
+                                  PlatformTransactionManager transactionManager) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jwtService = jwtService;
+        // Read-write, so the exact lookup is not served by a lagging replica
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Deny the token until it expires. Tokens issued without a jti cannot be revoked and are
+     * left to expire.
+     *
+     * @return whether the token is now revoked
+     */
+    public boolean revoke(String token) {
+        Claims claims = jwtService.extractClaim(token, c -> c);
+        String jti = claims.getId();
+        if (jti == null) {
+            return false;
+        }
+        Object userId = claims.get("userId");
+        RevokedToken revoked = RevokedToken.builder()
+                .jti(jti)
+                .userId(userId instanceof Number number ? number.longValue() : null)
+                .expiresAt(LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault()))
+                .build();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!revokedTokenRepository.existsById(jti)) {
+                revokedTokenRepository.save(revoked);
+            }
+        });
+
+        revokedSinceRefresh.add(jti);
+        TokenBloomFilter current = filter;
+        if (current != null) {
+            current.add(jti);
+        }
+        log.info("Revoked token {} of user {}", jti, revoked.getUserId());
+        return true;
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        TokenBloomFilter current = filter;
+        if (current != null && !current.mightContain(jti)) {
+            return false;
+        }
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> revokedTokenRepository.existsById(jti)));
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.revocation.refresh-interval-ms:30000}")
+    public void refreshFilter() {
+        // Ids revoked before the load are in the table; later ones are carried over below
+        Set<String> loaded = new HashSet<>(revokedSinceRefresh);
+        List<String> ids = transactionTemplate.execute(status ->
+                revokedTokenRepository.findUnexpiredIds(LocalDateTime.now()));
+
+        TokenBloomFilter next = TokenBloomFilter.create(Math.max(expectedTokens, ids.size() * 2), falsePositiveRate);
+        ids.forEach(next::add);
+        filter = next;
+        revokedSinceRefresh.forEach(next::add);
+        revokedSinceRefresh.removeAll(loaded);
+        log.debug("Token revocation filter rebuilt with {} ids", ids.size());
+    }
+
+    @Scheduled(cron = "0 15 4 * * ?") // Every day at 4:15 AM
+    public void purgeExpired() {
+        Integer deleted = transactionTemplate.execute(status ->
+                revokedTokenRepository.deleteExpired(LocalDateTime.now()));
+        log.info("Token revocation cleanup removed {} expired tokens", deleted);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.carrental.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index with pg_trgm-style padded trigrams. A document matches when most
+ * of the query's trigrams occur in it, which tolerates a typo per word; token-prefix and exact
+ * token matches rank above fuzzy ones.
+ */
+public class TrigramIndex {
+
+    // Share of the query trigrams a document must contain
+    private static final double MIN_TRIGRAM_OVERLAP = 0.5;
+    private static final double PREFIX_BONUS = 1.0;
+    private static final double EXACT_BONUS = 0.5;
+
+    private final Map<Long, String[]> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(Long id, String text) {
+        String[] tokens = tokenize(text);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            documents.put(id, tokens);
+            for (String trigram : trigrams(tokens)) {
+                postings.computeIfAbsent(trigram, key -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return ids of matching documents, best match first
+     */
+    public List<Long> search(String query, int limit) {
+        String[] queryTokens = tokenize(query);
+        Set<String> queryTrigrams = trigrams(queryTokens);
+        if (queryTrigrams.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> hits = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                Set<Long> ids = postings.get(trigram);
+                if (ids != null) {
+                    for (Long id : ids) {
+                        hits.merge(id, 1, Integer::sum);
+                    }
+                }
+            }
+
+            Map<Long, Double> scores = new HashMap<>();
+            for (Map.Entry<Long, Integer> hit : hits.entrySet()) {
+                double overlap = (double) hit.getValue() / queryTrigrams.size();
+                if (overlap >= MIN_TRIGRAM_OVERLAP) {
+                    scores.put(hit.getKey(), overlap + tokenBonus(documents.get(hit.getKey()), queryTokens));
+                }
+            }
+
+            List<Long> ranked = new ArrayList<>(scores.keySet());
+            ranked.sort(Comparator.<Long>comparingDouble(scores::get).reversed().thenComparing(Comparator.naturalOrder()));
+            return ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long id) {
+        String[] previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String trigram : trigrams(previous)) {
+            Set<Long> ids = postings.get(trigram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    private double tokenBonus(String[] documentTokens, String[] queryTokens) {
+        double bonus = 0;
+        for (String queryToken : queryTokens) {
+            for (String token : documentTokens) {
+                if (token.equals(queryToken)) {
+                    bonus += PREFIX_BONUS + EXACT_BONUS;
+                    break;
+                }
+                if (token.startsWith(queryToken)) {
+                    bonus += PREFIX_BONUS;
+                    break;
+                }
+            }
+        }
+        return bonus / queryTokens.length;
+    }
+
+    /**
+     * Lower-cased alphanumeric words; a hyphenated or dotted chunk is also kept joined, so
+     * "abc123" finds the plate "ABC-123" and "cus001" the code "CUS-001"
+     */
+    static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String chunk : text.toLowerCase(Locale.ROOT).trim().split("\\s+")) {
+            StringBuilder joined = new StringBuilder();
+            int parts = 0;
+            for (String word : chunk.split("[^\\p{L}\\p{N}]+")) {
+                if (!word.isEmpty()) {
+                    tokens.add(word);
+                    joined.append(word);
+                    parts++;
+                }
+            }
+            if (parts > 1) {
+                tokens.add(joined.toString());
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private static Set<String> trigrams(String[] tokens) {
+        Set<String> trigrams = new HashSet<>();
+        for (String token : tokens) {
+            String padded = "  " + token + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.enums.VehicleStatus;
+import com.example.carrental.model.Organization;
+import com.example.carrental.model.VehicleModel;
+import com.example.carrental.repository.ReservationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-organization facet index over the fleet (category, transmission, fuel type, seats and
+ * daily-rate bucket), loaded at startup and kept current by {@link SearchIndexEntityListener}.
+ * An organization's index is reloaded once it is older than the max age, which picks up changes
+ * made on other instances and status changes written by bulk updates. Date-range availability is applied by excluding the vehicles with an overlapping
+ * reservation, fetched in a single query.
+ */
+@Slf4j
+@Service
+public class VehicleFacetIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String TRANSMISSION = "transmission";
+    public static final String FUEL_TYPE = "fuelType";
+    public static final String SEATS = "seats";
+    public static final String PRICE_BUCKET = "priceBucket";
+    private static final String STATUS = "status";
+
+    public static final List<String> CATALOG_FACETS = List.of(CATEGORY, TRANSMISSION, FUEL_TYPE, SEATS, PRICE_BUCKET);
+
+    // Upper bounds (exclusive) of the daily-rate buckets; the last bucket is open-ended
+    private static final int[] PRICE_BUCKET_BOUNDS = {30, 50, 80, 120};
+
+    // Statuses that can still be booked for a future date range; only AVAILABLE counts for "now"
+    static final Set<VehicleStatus> BOOKABLE_STATUSES = EnumSet.complementOf(
+            EnumSet.of(VehicleStatus.OUT_OF_SERVICE, VehicleStatus.MAINTENANCE, VehicleStatus.IN_REPAIR));
+
+    private static final String VEHICLE_QUERY =
+            "SELECT v.id, v.organization.id, v.category, v.transmission, v.fuelType, v.seats, v.dailyRate, v.status " +
+            "FROM VehicleModel v";
+
+    private static final class TenantIndex {
+        private final FacetIndex index = new FacetIndex(List.of(CATEGORY, TRANSMISSION, FUEL_TYPE, SEATS, PRICE_BUCKET, STATUS));
+        private final long loadedAt;
+
+        TenantIndex(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final Map<Long, TenantIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<Long, Object> loadLocks = new ConcurrentHashMap<>();
+    private final ReservationRepository reservationRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.search.facet-max-age-ms:60000}")
+    private long maxAgeMillis;
+
+    public VehicleFacetIndex(ReservationRepository reservationRepository) {
+        this.reservationRepository = reservationRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndexes() {
+        long now = System.currentTimeMillis();
+        TenantContext.runUnscoped(() -> {
+            Map<Long, TenantIndex> loaded = new HashMap<>();
+            List<Object[]> vehicles = entityManager.createQuery(VEHICLE_QUERY, Object[].class).getResultList();
+            for (Object[] row : vehicles) {
+                put(loaded.computeIfAbsent((Long) row[1], id -> new TenantIndex(now)), row);
+            }
+            indexes.putAll(loaded);
+            log.info("Vehicle facet index loaded: {} vehicles", vehicles.size());
+        });
+    }
+
+    /**
+     * Vehicles of the current organization matching the filters, with disjunctive counts for
+     * every catalog facet. Without a date range only vehicles AVAILABLE right now match; with
+     * one, every bookable vehicle without an overlapping reservation does.
+     */
+    @Transactional(readOnly = true)
+    public FacetIndex.Result search(Map<String, Set<String>> filters, LocalDate startDate, LocalDate endDate) {
+        return search(filters, startDate, endDate, System.currentTimeMillis());
+    }
+
+    FacetIndex.Result search(Map<String, Set<String>> filters, LocalDate startDate, LocalDate endDate, long now) {
+        Map<String, Set<String>> query = new HashMap<>(filters);
+        List<Long> booked = List.of();
+        if (startDate != null && endDate != null) {
+            query.put(STATUS, BOOKABLE_STATUSES.stream().map(Enum::name).collect(Collectors.toSet()));
+            booked = reservationRepository.findVehicleIdsBookedBetween(startDate, endDate);
+        } else {
+            query.put(STATUS, Set.of(VehicleStatus.AVAILABLE.name()));
+        }
+        return indexFor(TenantContext.getTenantId(), now).search(query, booked, CATALOG_FACETS);
+    }
+
+    /**
+     * Organizations not loaded yet are skipped; their first search loads the whole index
+     */
+    public void index(VehicleModel vehicle) {
+        TenantIndex tenant = indexes.get(organizationId(vehicle.getOrganization()));
+        if (tenant != null) {
+            tenant.index.put(vehicle.getId(), facetValues(vehicle.getCategory(), vehicle.getTransmission(),
+                    vehicle.getFuelType(), vehicle.getSeats(), vehicle.getDailyRate(), vehicle.getStatus()));
+        }
+    }
+
+    public void remove(VehicleModel vehicle) {
+        TenantIndex tenant = indexes.get(organizationId(vehicle.getOrganization()));
+        if (tenant != null) {
+            tenant.index.remove(vehicle.getId());
+        }
+    }
+
+    static String priceBucket(BigDecimal dailyRate) {
+        if (dailyRate == null) {
+            return null;
+        }
+        int lower = 0;
+        for (int bound : PRICE_BUCKET_BOUNDS) {
+            if (dailyRate.compareTo(BigDecimal.valueOf(bound)) < 0) {
+                return lower + "-" + bound;
+            }
+            lower = bound;
+        }
+        return lower + "+";
+    }
+
+    private Map<String, String> facetValues(String category, String transmission, String fuelType,
+                                            Integer seats, BigDecimal dailyRate, VehicleStatus status) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put(CATEGORY, category);
+        values.put(TRANSMISSION, transmission);
+        values.put(FUEL_TYPE, fuelType);
+        values.put(SEATS, seats != null ? seats.toString() : null);
+        values.put(PRICE_BUCKET, priceBucket(dailyRate));
+        values.put(STATUS, status != null ? status.name() : null);
+        return values;
+    }
+
+    // Query row: id, organization id, category, transmission, fuel type, seats, daily rate, status
+    private void put(TenantIndex tenant, Object[] row) {
+        tenant.index.put((Long) row[0], facetValues((String) row[2], (String) row[3], (String) row[4],
+                (Integer) row[5], (BigDecimal) row[6], (VehicleStatus) row[7]));
+    }
+
+    private FacetIndex indexFor(Long organizationId, long now) {
+        TenantIndex tenant = indexes.get(organizationId);
+        if (tenant != null && now - tenant.loadedAt < maxAgeMillis) {
+            return tenant.index;
+        }
+        synchronized (loadLocks.computeIfAbsent(organizationId, id -> new Object())) {
+            tenant = indexes.get(organizationId);
+            if (tenant == null || now - tenant.loadedAt >= maxAgeMillis) {
+                tenant = new TenantIndex(now);
+                for (Object[] row : entityManager.createQuery(VEHICLE_QUERY + " WHERE v.organization.id = :organizationId",
+                        Object[].class).setParameter("organizationId", organizationId).getResultList()) {
+                    put(tenant, row);
+                }
+                indexes.put(organizationId, tenant);
+                log.debug("Vehicle facet index reloaded for organization {}", organizationId);
+            }
+            return tenant.index;
+        }
+    }
+
+    private Long organizationId(Organization organization) {
+        return organization != null ? organization.getId() : TenantContext.getTenantId();
+    }
+}
@@ -0,0 +1,363 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.enums.JobType;
+import com.example.carrental.model.VehiclePhoto;
+import com.example.carrental.repository.VehiclePhotoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates thumbnail / medium / full variants for uploaded vehicle photos as PHOTO_VARIANTS
+ * jobs. Variants are re-encoded from pixels, so they carry no metadata at all (the stored
+ * original keeps only its orientation, see {@link MetadataStrippingStream}); the EXIF
+ * orientation is applied to the pixels first so phone photos stay upright.
+ */
+@Slf4j
+@Service
+public class VehiclePhotoProcessingService {
+
+    private static final String VARIANT_DIR = "uploads/vehicle-photos/variants/";
+
+    // Longest edge of each variant, largest first: each one is scaled from the previous
+    private static final int FULL_EDGE = 1600;
+    private static final int MEDIUM_EDGE = 800;
+    private static final int THUMBNAIL_EDGE = 320;
+    private static final String[] VARIANT_NAMES = {"full", "medium", "thumb"};
+
+    // Refuse to decode anything bigger (decompression bombs)
+    private static final long MAX_SOURCE_PIXELS = 100_000_000L;
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final VehiclePhotoRepository vehiclePhotoRepository;
+    private final JobQueueService jobQueueService;
+    private final TransactionTemplate transactionTemplate;
+    private final PrimaryPhotoResolver primaryPhotoResolver;
+    private final CrossTenantTaskRunner crossTenantTaskRunner;
+    private final String outputFormat;
+
+    public VehiclePhotoProcessingService(VehiclePhotoRepository vehiclePhotoRepository,
+                                         JobQueueService jobQueueService,
+                                         TransactionTemplate transactionTemplate,
+                                         PrimaryPhotoResolver primaryPhotoResolver,
+                                         CrossTenantTaskRunner crossTenantTaskRunner) {
+        this.vehiclePhotoRepository = vehiclePhotoRepository;
+        this.primaryPhotoResolver = primaryPhotoResolver;
+        this.jobQueueService = jobQueueService;
+        this.transactionTemplate = transactionTemplate;
+        this.crossTenantTaskRunner = crossTenantTaskRunner;
+        // WebP only when an ImageIO plugin provides a writer, JPEG otherwise
+        this.outputFormat = ImageIO.getImageWritersByFormatName("webp").hasNext() ? "webp" : "jpg";
+        log.info("Vehicle photo variants will be encoded as {}", outputFormat);
+    }
+
+    /**
+     * Queue variant generation as a PHOTO_VARIANTS job in the surrounding transaction, so it runs
+     * once the row is committed and survives restarts
+     */
+    public void enqueue(Long photoId) {
+        Long tenantId = TenantContext.hasTenant() ? TenantContext.getTenantId() : null;
+        jobQueueService.enqueue(JobType.PHOTO_VARIANTS, tenantId, Map.of("photoId", photoId));
+    }
+
+    /**
+     * Queue photos left PENDING without a job, e.g. uploaded before variants moved onto the job
+     * queue. Runs once per start; a photo queued twice is skipped by the second job.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void enqueueStrandedPhotos() {
+        // Pending photos of every organization
+        int queued = crossTenantTaskRunner.sum(() -> transactionTemplate.execute(status -> {
+            Set<Long> active = jobQueueService.getActivePayloadIds(JobType.PHOTO_VARIANTS, "photoId");
+            int count = 0;
+            for (Object[] row : vehiclePhotoRepository.findPendingIds()) {
+                Long photoId = (Long) row[0];
+                if (!active.contains(photoId)) {
+                    jobQueueService.enqueue(JobType.PHOTO_VARIANTS, (Long) row[1], Map.of("photoId", photoId));
+                    count++;
+                }
+            }
+            return count;
+        }));
+        if (queued > 0) {
+            log.info("Queued variant generation for {} pending photos without a job", queued);
+        }
+    }
+
+    public void process(Long photoId) {
+        VehiclePhoto photo = vehiclePhotoRepository.findById(photoId).orElse(null);
+        if (photo == null || !"PENDING".equals(photo.getProcessingStatus())) {
+            return;
+        }
+
+        try {
+            Path source = Paths.get("." + photo.getPhotoUrl());
+            String[] urls = generateVariants(source);
+
+            transactionTemplate.executeWithoutResult(status ->
+                    vehiclePhotoRepository.findById(photoId).ifPresent(current -> {
+                        current.setFullUrl(urls[0]);
+                        current.setMediumUrl(urls[1]);
+                        current.setThumbnailUrl(urls[2]);
+                        current.setProcessingStatus("READY");
+                        if (Boolean.TRUE.equals(current.getIsPrimary())) {
+                            primaryPhotoResolver.evict(current.getVehicle().getId());
+                        }
+                    }));
+            log.debug("Generated variants for photo {}", photoId);
+
+        } catch (Exception e) {
+            log.error("Failed to generate variants for photo {}: {}", photoId, e.getMessage());
+            transactionTemplate.executeWithoutResult(status ->
+                    vehiclePhotoRepository.findById(photoId).ifPresent(current -> current.setProcessingStatus("FAILED")));
+        }
+    }
+
+    /**
+     * @return URLs of the full, medium and thumbnail variants
+     */
+    String[] generateVariants(Path source) throws IOException {
+        BufferedImage image = decode(source, FULL_EDGE);
+        image = applyOrientation(image, readExifOrientation(source));
+
+        Files.createDirectories(Paths.get(VARIANT_DIR));
+
+        int[] edges = {FULL_EDGE, MEDIUM_EDGE, THUMBNAIL_EDGE};
+        String[] urls = new String[edges.length];
+
+        for (int i = 0; i < edges.length; i++) {
+            image = scaleToFit(image, edges[i]);
+            urls[i] = variantUrl(source.getFileName().toString(), VARIANT_NAMES[i]);
+            write(image, Paths.get("." + urls[i]));
+        }
+        return urls;
+    }
+
+    public void deleteVariants(VehiclePhoto photo) {
+        // Photos sharing a blob share variants, so also derive the names from the source file
+        String sourceName = Paths.get(photo.getPhotoUrl()).getFileName().toString();
+        Set<String> urls = new HashSet<>();
+        for (String variant : VARIANT_NAMES) {
+            urls.add(variantUrl(sourceName, variant));
+        }
+        for (String url : new String[]{photo.getFullUrl(), photo.getMediumUrl(), photo.getThumbnailUrl()}) {
+            if (url != null) {
+                urls.add(url);
+            }
+        }
+
+        for (String url : urls) {
+            try {
+                Files.deleteIfExists(Paths.get("." + url));
+            } catch (IOException e) {
+                log.warn("Failed to delete photo variant {}: {}", url, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Variants reuse the upload's name (random or content hash), so their URLs are as unguessable as the original
+     */
+    private String variantUrl(String sourceName, String variant) {
+        int dot = sourceName.lastIndexOf('.');
+        String baseName = dot > 0 ? sourceName.substring(0, dot) : sourceName;
+        return "/" + VARIANT_DIR + baseName + "_" + variant + "." + outputFormat;
+    }
+
+    /**
+     * Decode with source subsampling so a 24 MP upload is never fully materialized when
+     * the largest variant only needs ~1600px; metadata is not read at all.
+     */
+    private BufferedImage decode(Path source, int targetEdge) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                throw new IOException("Unreadable image: " + source);
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format: " + source);
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    throw new IOException("Image too large: " + width + "x" + height);
+                }
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / targetEdge);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Downscale (never upscale) into an opaque RGB image, halving first for large ratios
+     */
+    private BufferedImage scaleToFit(BufferedImage source, int maxEdge) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        if (current.getWidth() != targetWidth || current.getHeight() != targetHeight
+                || current.getType() != BufferedImage.TYPE_INT_RGB) {
+            current = draw(current, targetWidth, targetHeight);
+        }
+        return current;
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // Transparent PNG areas become white instead of black in JPEG
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void write(BufferedImage image, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            if ("webp".equals(outputFormat)) {
+                if (!ImageIO.write(image, "webp", temp.toFile())) {
+                    throw new IOException("No WebP writer available");
+                }
+            } else {
+                ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                    writer.setOutput(output);
+                    writer.write(null, new IIOImage(image, null, null), param);
+                } finally {
+                    writer.dispose();
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private BufferedImage applyOrientation(BufferedImage image, int orientation) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        AffineTransform transform = new AffineTransform();
+        boolean swap;
+
+        switch (orientation) {
+            case 3: // 180
+                transform.translate(width, height);
+                transform.rotate(Math.PI);
+                swap = false;
+                break;
+            case 6: // 90 clockwise
+                transform.translate(height, 0);
+                transform.rotate(Math.PI / 2);
+                swap = true;
+                break;
+            case 8: // 90 counter-clockwise
+                transform.translate(0, width);
+                transform.rotate(-Math.PI / 2);
+                swap = true;
+                break;
+            default: // 1 = upright; mirrored orientations (2, 4, 5, 7) are rare from cameras
+                return image;
+        }
+
+        BufferedImage rotated = new BufferedImage(swap ? height : width, swap ? width : height,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rotated.createGraphics();
+        try {
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rotated;
+    }
+
+    /**
+     * Minimal JPEG APP1/EXIF reader for the orientation tag (0x0112). Returns 1 when absent.
+     */
+    static int readExifOrientation(Path source) {
+        byte[] head;
+        try (InputStream in = Files.newInputStream(source)) {
+            head = in.readNBytes(128 * 1024);
+        } catch (IOException e) {
+            return 1;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(head).order(ByteOrder.BIG_ENDIAN);
+        if (head.length < 4 || buffer.getShort(0) != (short) 0xFFD8) {
+            return 1;
+        }
+
+        int offset = 2;
+        while (offset + 4 <= head.length) {
+            int marker = buffer.getShort(offset) & 0xFFFF;
+            int length = buffer.getShort(offset + 2) & 0xFFFF;
+            if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA) {
+                return 1; // not a marker or start of scan: no EXIF before the image data
+            }
+
+            int segment = offset + 4;
+            if (marker == 0xFFE1 && segment + 14 <= head.length
+                    && head[segment] == 'E' && head[segment + 1] == 'x' && head[segment + 2] == 'i' && head[segment + 3] == 'f') {
+                return MetadataStrippingStream.exifOrientation(
+                        Arrays.copyOfRange(head, segment, Math.min(head.length, segment + length - 2)));
+            }
+            offset = segment + length - 2;
+        }
+        return 1;
+    }
+}
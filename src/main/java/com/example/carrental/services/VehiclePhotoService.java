@@ -1,22 +1,29 @@
 package com.example.carrental.services;
 
+import com.example.carrental.model.PhotoBlob;
 import com.example.carrental.model.VehiclePhoto;
 import com.example.carrental.model.VehicleModel;
+import com.example.carrental.repository.RentalRepository;
 import com.example.carrental.repository.VehiclePhotoRepository;
 import com.example.carrental.repository.VehicleRepository;
+import com.example.carrental.services.PhotoBlobStore.StagedBlob;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -25,74 +32,190 @@ public class VehiclePhotoService {
 
     private final VehiclePhotoRepository vehiclePhotoRepository;
     private final VehicleRepository vehicleRepository;
+    private final VehiclePhotoProcessingService vehiclePhotoProcessingService;
+    private final PhotoFileService photoFileService;
+    private final PhotoBlobService photoBlobService;
+    private final RentalRepository rentalRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PrimaryPhotoResolver primaryPhotoResolver;
 
-    private static final String UPLOAD_DIR = "uploads/vehicle-photos/";
     private static final String[] ALLOWED_EXTENSIONS = {".jpg", ".jpeg", ".png", ".webp"};
     private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
+    private static final int MAX_PHOTOS_PER_REQUEST = 20;
+    private static final int MAX_GENERAL_PHOTOS = 10;
+    private static final Set<String> PHOTO_TYPES = Set.of("GENERAL", "FRONT", "BACK", "LEFT", "RIGHT", "INTERIOR", "DAMAGE");
+
+    // Upload content in staging storage, recorded once the whole request is read
+    @Getter
+    @AllArgsConstructor
+    private static class StagedPhoto {
+        private final StagedBlob blob;
+        private final String extension;
+        private final String photoType;
+    }
 
-    @Transactional
     public VehiclePhoto uploadPhoto(Long vehicleId, MultipartFile file, String photoType,
                                   String description, String inspectionType, Long takenByUserId) {
 
-        // Validate vehicle exists
-        VehicleModel vehicle = vehicleRepository.findById(vehicleId)
-            .orElseThrow(() -> new RuntimeException("Vehicle not found with id: " + vehicleId));
-
         // Validate file
         validateFile(file);
 
-        // Check minimum photos requirement for GENERAL type
-        if ("GENERAL".equals(photoType)) {
-            long currentGeneralPhotos = vehiclePhotoRepository.countGeneralPhotosByVehicle(vehicle);
-            if (currentGeneralPhotos >= 10) { // Limit to prevent spam
-                throw new RuntimeException("Maximum number of general photos reached (10) for vehicle: " + vehicle.getLicensePlate());
-            }
+        try (InputStream content = file.getInputStream()) {
+            return uploadPhotoStream(vehicleId, content, photoType, description, inspectionType, takenByUserId);
+        } catch (IOException e) {
+            log.error("Failed to upload photo for vehicle {}: {}", vehicleId, e.getMessage());
+            throw new RuntimeException("Failed to upload photo: " + e.getMessage());
         }
+    }
+
+    /**
+     * Streaming upload: the content is checked by its magic bytes, cut off past MAX_FILE_SIZE,
+     * stripped of metadata and written to staging storage through a fixed buffer. The database
+     * transaction only starts once the bytes are on disk, so no connection is held while the
+     * client is sending.
+     */
+    public VehiclePhoto uploadPhotoStream(Long vehicleId, InputStream content, String photoType,
+                                          String description, String inspectionType, Long takenByUserId) {
+
+        // Validate vehicle exists
+        vehicleRepository.findById(vehicleId)
+            .orElseThrow(() -> new RuntimeException("Vehicle not found with id: " + vehicleId));
 
+        StagedPhoto staged = stage(vehicleId, content, photoType);
         try {
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(UPLOAD_DIR);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
+            return transactionTemplate.execute(status -> {
+                checkGeneralPhotoLimit(vehicleId, "GENERAL".equals(photoType) ? 1 : 0);
+                return recordPhoto(vehicleId, staged, description, inspectionType, takenByUserId);
+            });
+        } finally {
+            photoBlobService.discard(staged.getBlob());
+        }
+    }
 
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            String filename = vehicleId + "_" + photoType + "_" + UUID.randomUUID() + extension;
-
-            // Save file
-            Path filePath = uploadPath.resolve(filename);
-            Files.copy(file.getInputStream(), filePath);
-
-            // Create photo record
-            VehiclePhoto photo = VehiclePhoto.builder()
-                .vehicle(vehicle)
-                .photoUrl("/uploads/vehicle-photos/" + filename)
-                .photoType(photoType)
-                .description(description)
-                .inspectionType(inspectionType)
-                .isPrimary(false)
-                .takenAt(LocalDateTime.now())
-                .takenByUserId(takenByUserId)
-                .build();
-
-            // If this is the first photo for the vehicle, make it primary
-            if (vehiclePhotoRepository.findByVehicleAndIsPrimaryTrue(vehicle).isEmpty()) {
-                photo.setIsPrimary(true);
+    /**
+     * Bulk inspection upload for a rental: every file part of the multipart body is staged as it
+     * arrives, the part name being the photo type (FRONT, BACK, DAMAGE, ...). The photos are
+     * recorded in one transaction once all parts are read, so a failed part leaves nothing behind
+     * and the client can retry the whole request.
+     */
+    public List<VehiclePhoto> uploadInspectionPhotos(Long rentalId, String inspectionType,
+                                                     MultipartStreamReader multipart, Long takenByUserId) {
+        Long vehicleId = rentalRepository.findVehicleIdById(rentalId)
+            .orElseThrow(() -> new RuntimeException("Rental not found with id: " + rentalId));
+
+        List<StagedPhoto> staged = new ArrayList<>();
+        try {
+            try {
+                MultipartStreamReader.Part part;
+                while ((part = multipart.next()) != null) {
+                    if (!part.isFile()) {
+                        continue;
+                    }
+                    if (staged.size() >= MAX_PHOTOS_PER_REQUEST) {
+                        throw new RuntimeException("Too many photos in one request (max " + MAX_PHOTOS_PER_REQUEST + ")");
+                    }
+
+                    String photoType = part.getName() == null ? "GENERAL" : part.getName().toUpperCase();
+                    if (!PHOTO_TYPES.contains(photoType)) {
+                        throw new RuntimeException("Invalid photo type: " + part.getName());
+                    }
+                    staged.add(stage(vehicleId, part.getInputStream(), photoType));
+                }
+            } catch (IOException e) {
+                log.error("Failed to read inspection upload for rental {}: {}", rentalId, e.getMessage());
+                throw new RuntimeException("Failed to upload photos: " + e.getMessage());
             }
 
-            VehiclePhoto savedPhoto = vehiclePhotoRepository.save(photo);
-            log.info("Photo uploaded for vehicle {}: {}", vehicle.getLicensePlate(), filename);
+            long generalPhotos = staged.stream().filter(photo -> "GENERAL".equals(photo.getPhotoType())).count();
+            List<VehiclePhoto> photos = transactionTemplate.execute(status -> {
+                checkGeneralPhotoLimit(vehicleId, generalPhotos);
+                List<VehiclePhoto> recorded = new ArrayList<>();
+                for (StagedPhoto photo : staged) {
+                    recorded.add(recordPhoto(vehicleId, photo, null, inspectionType, takenByUserId));
+                }
+                return recorded;
+            });
 
-            return savedPhoto;
+            log.info("{} {} inspection photos uploaded for rental {}", photos.size(), inspectionType, rentalId);
+            return photos;
+        } finally {
+            staged.forEach(photo -> photoBlobService.discard(photo.getBlob()));
+        }
+    }
 
+    private StagedPhoto stage(Long vehicleId, InputStream content, String photoType) {
+        try {
+            ImageUploadStream image = ImageUploadStream.open(content, MAX_FILE_SIZE);
+            String extension = image.getExtension();
+            // The original is served as stored, so GPS and device metadata go before it is hashed
+            StagedBlob blob = photoBlobService.stage(new MetadataStrippingStream(image, extension));
+            return new StagedPhoto(blob, extension, photoType);
         } catch (IOException e) {
             log.error("Failed to upload photo for vehicle {}: {}", vehicleId, e.getMessage());
             throw new RuntimeException("Failed to upload photo: " + e.getMessage());
         }
     }
 
+    /**
+     * Locks the vehicle row, so concurrent uploads cannot both pass the count; must run in the
+     * transaction that records the photos
+     */
+    private void checkGeneralPhotoLimit(Long vehicleId, long adding) {
+        if (adding == 0) {
+            return;
+        }
+        VehicleModel vehicle = vehicleRepository.findByIdForUpdate(vehicleId)
+            .orElseThrow(() -> new RuntimeException("Vehicle not found with id: " + vehicleId));
+        long currentGeneralPhotos = vehiclePhotoRepository.countGeneralPhotosByVehicle(vehicle);
+        if (currentGeneralPhotos + adding > MAX_GENERAL_PHOTOS) { // Limit to prevent spam
+            throw new RuntimeException("Maximum number of general photos reached (" + MAX_GENERAL_PHOTOS
+                + ") for vehicle: " + vehicle.getLicensePlate());
+        }
+    }
+
+    private VehiclePhoto recordPhoto(Long vehicleId, StagedPhoto staged, String description,
+                                     String inspectionType, Long takenByUserId) {
+        VehicleModel vehicle = vehicleRepository.findById(vehicleId)
+            .orElseThrow(() -> new RuntimeException("Vehicle not found with id: " + vehicleId));
+
+        // Content-addressed store: identical inspection shots share one blob
+        PhotoBlob blob;
+        try {
+            blob = photoBlobService.store(staged.getBlob(), staged.getExtension());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to upload photo: " + e.getMessage());
+        }
+        String photoUrl = photoBlobService.urlFor(blob);
+
+        // Create photo record
+        VehiclePhoto photo = VehiclePhoto.builder()
+            .vehicle(vehicle)
+            .organization(vehicle.getOrganization())
+            .photoUrl(photoUrl)
+            .contentHash(blob.getSha256())
+            .photoType(staged.getPhotoType())
+            .description(description)
+            .inspectionType(inspectionType)
+            .isPrimary(false)
+            .takenAt(LocalDateTime.now())
+            .takenByUserId(takenByUserId)
+            .build();
+
+        // If this is the first photo for the vehicle, make it primary
+        if (vehiclePhotoRepository.findByVehicleAndIsPrimaryTrue(vehicle).isEmpty()) {
+            photo.setIsPrimary(true);
+            primaryPhotoResolver.evict(vehicleId);
+        }
+
+        VehiclePhoto savedPhoto = vehiclePhotoRepository.save(photo);
+        log.info("Photo uploaded for vehicle {}: {}", vehicle.getLicensePlate(), photoUrl);
+
+        // Variants are generated on the job queue once the row is committed
+        vehiclePhotoProcessingService.enqueue(savedPhoto.getId());
+
+        return savedPhoto;
+    }
+
     @Transactional
     public void setPrimaryPhoto(Long photoId, Long vehicleId) {
         VehicleModel vehicle = vehicleRepository.findById(vehicleId)
@@ -115,6 +238,7 @@ public class VehiclePhotoService {
         // Set new primary photo
         photo.setIsPrimary(true);
         vehiclePhotoRepository.save(photo);
+        primaryPhotoResolver.evict(vehicleId);
     }
 
     public List<VehiclePhoto> getVehiclePhotos(Long vehicleId) {
@@ -151,22 +275,42 @@ public class VehiclePhotoService {
         VehiclePhoto photo = vehiclePhotoRepository.findById(photoId)
             .orElseThrow(() -> new RuntimeException("Photo not found"));
 
-        try {
-            // Delete physical file
-            Path filePath = Paths.get("." + photo.getPhotoUrl());
-            if (Files.exists(filePath)) {
-                Files.delete(filePath);
-            }
+        if (Boolean.TRUE.equals(photo.getIsPrimary())) {
+            primaryPhotoResolver.evict(photo.getVehicle().getId());
+        }
 
-            // Delete database record
-            vehiclePhotoRepository.delete(photo);
-            log.info("Photo deleted: {}", photo.getPhotoUrl());
+        // Shared blob: bytes and variants go only with the last reference. Photos from before
+        // content-addressed storage own their file.
+        boolean lastReference = photo.getContentHash() == null || photoBlobService.release(photo.getContentHash());
+        vehiclePhotoRepository.delete(photo);
+        log.info("Photo deleted: {}", photo.getPhotoUrl());
 
-        } catch (IOException e) {
-            log.error("Failed to delete photo file: {}", e.getMessage());
-            // Still delete from database even if file deletion fails
-            vehiclePhotoRepository.delete(photo);
+        // Files go only once the delete commits, so a rollback keeps a complete photo
+        TransactionHooks.afterCommit(() -> {
+            if (lastReference) {
+                deleteFiles(photo);
+            }
+            // Also for a shared blob, whose files may no longer be public
+            evictCachedFiles(photo);
+        });
+    }
+
+    private void deleteFiles(VehiclePhoto photo) {
+        if (photo.getContentHash() == null) {
+            try {
+                Files.deleteIfExists(Paths.get("." + photo.getPhotoUrl()));
+            } catch (IOException e) {
+                log.error("Failed to delete photo file: {}", e.getMessage());
+            }
         }
+        vehiclePhotoProcessingService.deleteVariants(photo);
+    }
+
+    private void evictCachedFiles(VehiclePhoto photo) {
+        photoFileService.evict(photo.getPhotoUrl());
+        photoFileService.evict(photo.getFullUrl());
+        photoFileService.evict(photo.getMediumUrl());
+        photoFileService.evict(photo.getThumbnailUrl());
     }
 
     private void validateFile(MultipartFile file) {
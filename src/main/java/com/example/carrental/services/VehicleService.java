@@ -1,7 +1,10 @@
 package com.example.carrental.services;
 
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.dto.VehicleCatalogResultDTO;
 import com.example.carrental.dto.VehicleRequestDTO;
 import com.example.carrental.dto.VehicleResponseDTO;
+import com.example.carrental.enums.DomainEventType;
 import com.example.carrental.enums.VehicleStatus;
 import com.example.carrental.exception.ResourceNotFoundException;
 import com.example.carrental.mapper.VehicleMapper;
@@ -9,13 +12,21 @@ import com.example.carrental.model.VehicleModel;
 import com.example.carrental.repository.VehicleRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -25,19 +36,28 @@ public class VehicleService {
 
     private final VehicleRepository vehicleRepository;
     private final VehicleMapper vehicleMapper;
+    private final PrimaryPhotoResolver primaryPhotoResolver;
+    private final SearchBackend searchBackend;
+    private final VehicleFacetIndex vehicleFacetIndex;
+    private final OutboxService outboxService;
 
-    public VehicleService(VehicleRepository vehicleRepository, VehicleMapper vehicleMapper) {
+    private static final int MAX_SEARCH_RESULTS = 500;
+
+    public VehicleService(VehicleRepository vehicleRepository, VehicleMapper vehicleMapper,
+                          PrimaryPhotoResolver primaryPhotoResolver, SearchBackend searchBackend,
+                          VehicleFacetIndex vehicleFacetIndex, OutboxService outboxService) {
         this.vehicleRepository = vehicleRepository;
         this.vehicleMapper = vehicleMapper;
+        this.primaryPhotoResolver = primaryPhotoResolver;
+        this.searchBackend = searchBackend;
+        this.vehicleFacetIndex = vehicleFacetIndex;
+        this.outboxService = outboxService;
     }
 
     @Transactional(readOnly = true)
     public List<VehicleResponseDTO> getAllVehicles() {
         log.info("Retrieving all vehicles");
-        List<VehicleResponseDTO> vehicles = vehicleRepository.findAll()
-                .stream()
-                .map(vehicleMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        List<VehicleResponseDTO> vehicles = toResponseDTOs(vehicleRepository.findAll());
         log.info("Found {} vehicles", vehicles.size());
         return vehicles;
     }
@@ -45,8 +65,7 @@ public class VehicleService {
     @Transactional(readOnly = true)
     public Page<VehicleResponseDTO> getAllVehiclesPaged(Pageable pageable) {
         log.info("Retrieving vehicles page: {}", pageable);
-        return vehicleRepository.findAll(pageable)
-                .map(vehicleMapper::toResponseDTO);
+        return toResponseDTOs(vehicleRepository.findAll(pageable));
     }
 
     @Transactional(readOnly = true)
@@ -54,7 +73,7 @@ public class VehicleService {
         log.info("Retrieving vehicle with ID: {}", id);
         VehicleModel vehicle = vehicleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Vehículo", id));
-        return vehicleMapper.toResponseDTO(vehicle);
+        return toResponseDTOs(List.of(vehicle)).get(0);
     }
 
     @Transactional(readOnly = true)
@@ -62,7 +81,7 @@ public class VehicleService {
         log.info("Retrieving vehicle with license plate: {}", licensePlate);
         VehicleModel vehicle = vehicleRepository.findByLicensePlate(licensePlate.toUpperCase())
                 .orElseThrow(() -> new ResourceNotFoundException("Vehículo con matrícula: " + licensePlate));
-        return vehicleMapper.toResponseDTO(vehicle);
+        return toResponseDTOs(List.of(vehicle)).get(0);
     }
 
     public VehicleResponseDTO createVehicle(VehicleRequestDTO vehicleDTO) {
@@ -116,8 +135,14 @@ public class VehicleService {
         VehicleModel vehicle = vehicleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Vehículo", id));
 
+        VehicleStatus oldStatus = vehicle.getStatus();
         vehicle.changeStatus(newStatus);
         VehicleModel updatedVehicle = vehicleRepository.save(vehicle);
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("oldStatus", oldStatus != null ? oldStatus.name() : null);
+        payload.put("newStatus", newStatus.name());
+        outboxService.publish(DomainEventType.VEHICLE_STATUS_CHANGED, vehicle.getOrganization(), vehicle.getId(), payload);
         log.info("Vehicle status changed successfully");
         return vehicleMapper.toResponseDTO(updatedVehicle);
     }
@@ -125,44 +150,69 @@ public class VehicleService {
     @Transactional(readOnly = true)
     public List<VehicleResponseDTO> getAvailableVehicles() {
         log.info("Retrieving available vehicles");
-        return vehicleRepository.findAvailableVehicles()
-                .stream()
-                .map(vehicleMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        return toResponseDTOs(vehicleRepository.findAvailableVehicles());
     }
 
     @Transactional(readOnly = true)
     public List<VehicleResponseDTO> getAvailableVehiclesByCategory(String category) {
         log.info("Retrieving available vehicles for category: {}", category);
-        return vehicleRepository.findAvailableVehiclesByCategory(category)
-                .stream()
-                .map(vehicleMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        return toResponseDTOs(vehicleRepository.findAvailableVehiclesByCategory(category));
     }
 
     @Transactional(readOnly = true)
     public List<VehicleResponseDTO> getAvailableVehiclesByPriceRange(BigDecimal minRate, BigDecimal maxRate) {
         log.info("Retrieving available vehicles in price range: {} - {}", minRate, maxRate);
-        return vehicleRepository.findAvailableVehiclesByPriceRange(minRate, maxRate)
-                .stream()
-                .map(vehicleMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        return toResponseDTOs(vehicleRepository.findAvailableVehiclesByPriceRange(minRate, maxRate));
     }
 
     @Transactional(readOnly = true)
     public List<VehicleResponseDTO> getVehiclesNeedingMaintenance() {
         log.info("Retrieving vehicles needing maintenance");
-        return vehicleRepository.findVehiclesNeedingMaintenance(LocalDateTime.now())
-                .stream()
-                .map(vehicleMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        return toResponseDTOs(vehicleRepository.findVehiclesNeedingMaintenance(LocalDateTime.now()));
     }
 
     @Transactional(readOnly = true)
     public Page<VehicleResponseDTO> searchVehicles(String searchTerm, Pageable pageable) {
         log.info("Searching vehicles with term: {}", searchTerm);
-        return vehicleRepository.searchVehicles(searchTerm, pageable)
-                .map(vehicleMapper::toResponseDTO);
+        // Ranked by the search backend (trigram/full-text); the requested sort is not applied
+        List<Long> rankedIds = searchBackend.searchVehicleIds(TenantContext.getTenantId(), searchTerm, MAX_SEARCH_RESULTS);
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), rankedIds.size());
+        List<Long> pageIds = rankedIds.subList(from, to);
+
+        Map<Long, VehicleModel> vehicles = vehicleRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(VehicleModel::getId, Function.identity()));
+        List<VehicleModel> ordered = pageIds.stream()
+                .map(vehicles::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(toResponseDTOs(ordered), pageable, rankedIds.size());
+    }
+
+    @Transactional(readOnly = true)
+    public VehicleCatalogResultDTO searchCatalog(Map<String, Set<String>> filters, LocalDate startDate, LocalDate endDate,
+                                                 int page, int size) {
+        log.info("Catalog search with filters {} for {} - {}", filters, startDate, endDate);
+        FacetIndex.Result result = vehicleFacetIndex.search(filters, startDate, endDate);
+        long[] ids = result.getIds();
+        int from = (int) Math.min((long) page * size, ids.length);
+        int to = Math.min(from + size, ids.length);
+        List<Long> pageIds = Arrays.stream(ids, from, to).boxed().collect(Collectors.toList());
+
+        Map<Long, VehicleModel> vehicles = vehicleRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(VehicleModel::getId, Function.identity()));
+        List<VehicleModel> ordered = pageIds.stream()
+                .map(vehicles::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        return VehicleCatalogResultDTO.builder()
+                .vehicles(toResponseDTOs(ordered))
+                .totalElements(ids.length)
+                .page(page)
+                .size(size)
+                .facets(result.getCounts())
+                .build();
     }
 
     // Statistics
@@ -170,4 +220,29 @@ public class VehicleService {
     public long countVehiclesByStatus(VehicleStatus status) {
         return vehicleRepository.countByStatus(status);
     }
-}
\ No newline at end of file
+
+    // Mapping with primary photos resolved in one batched query for the whole list
+    private List<VehicleResponseDTO> toResponseDTOs(List<VehicleModel> vehicles) {
+        List<VehicleResponseDTO> dtos = vehicles.stream()
+                .map(vehicleMapper::toResponseDTO)
+                .collect(Collectors.toList());
+        if (dtos.isEmpty()) {
+            return dtos;
+        }
+
+        Map<Long, PrimaryPhotoResolver.PrimaryPhoto> primaryPhotos = primaryPhotoResolver.resolve(
+                dtos.stream().map(VehicleResponseDTO::getId).collect(Collectors.toList()));
+        for (VehicleResponseDTO dto : dtos) {
+            PrimaryPhotoResolver.PrimaryPhoto photo = primaryPhotos.get(dto.getId());
+            if (photo != null) {
+                dto.setPrimaryPhotoUrl(photo.getPhotoUrl());
+                dto.setPrimaryPhotoThumbnailUrl(photo.getThumbnailUrl());
+            }
+        }
+        return dtos;
+    }
+
+    private Page<VehicleResponseDTO> toResponseDTOs(Page<VehicleModel> page) {
+        return new PageImpl<>(toResponseDTOs(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+}
@@ -0,0 +1,16 @@
+-- Branches (pickup/return locations) and where each vehicle currently is, for fleet distribution
+CREATE TABLE branches (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    organization_id BIGINT NOT NULL REFERENCES organizations (id),
+    code VARCHAR(20) NOT NULL,
+    name VARCHAR(200) NOT NULL,
+    address VARCHAR(300),
+    city VARCHAR(100),
+    active BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_branches_org_code UNIQUE (organization_id, code)
+);
+
+ALTER TABLE vehicles ADD COLUMN current_branch_id BIGINT REFERENCES branches (id);
+
+CREATE INDEX idx_vehicles_current_branch ON vehicles (current_branch_id);
@@ -0,0 +1,14 @@
+-- Per-day activity per organization, category and vehicle for dashboard time series
+CREATE TABLE daily_rollups (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    organization_id BIGINT NOT NULL,
+    scope VARCHAR(20) NOT NULL,
+    scope_key VARCHAR(50) NOT NULL,
+    rollup_date DATE NOT NULL,
+    rented_days BIGINT NOT NULL,
+    revenue_cents BIGINT NOT NULL,
+    reservations BIGINT NOT NULL,
+    cancellations BIGINT NOT NULL,
+    fleet_size INTEGER,
+    CONSTRAINT uk_daily_rollups_scope_day UNIQUE (organization_id, scope, scope_key, rollup_date)
+);
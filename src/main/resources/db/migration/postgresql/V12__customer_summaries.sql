@@ -0,0 +1,22 @@
+-- Materialized customer counts per segment, spend band and preferred category
+CREATE TABLE customer_summary_counts (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    organization_id BIGINT NOT NULL,
+    dimension VARCHAR(20) NOT NULL,
+    bucket VARCHAR(50) NOT NULL,
+    customers BIGINT NOT NULL,
+    spent_cents BIGINT NOT NULL,
+    CONSTRAINT uk_customer_summary_counts_bucket UNIQUE (organization_id, dimension, bucket)
+);
+
+-- Top customers per ranking criteria
+CREATE TABLE customer_top_ranks (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    organization_id BIGINT NOT NULL,
+    criteria VARCHAR(20) NOT NULL,
+    customer_id BIGINT NOT NULL REFERENCES customers (id) ON DELETE CASCADE,
+    score BIGINT NOT NULL,
+    CONSTRAINT uk_customer_top_ranks_customer UNIQUE (organization_id, criteria, customer_id)
+);
+
+CREATE INDEX idx_customer_top_ranks_score ON customer_top_ranks (organization_id, criteria, score);
@@ -0,0 +1,28 @@
+-- Latest RFM engagement score per customer
+CREATE TABLE customer_engagement_scores (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    organization_id BIGINT NOT NULL,
+    customer_id BIGINT NOT NULL REFERENCES customers (id) ON DELETE CASCADE,
+    recency_days INTEGER,
+    frequency INTEGER NOT NULL,
+    monetary_cents BIGINT NOT NULL,
+    recency_score INTEGER NOT NULL,
+    frequency_score INTEGER NOT NULL,
+    monetary_score INTEGER NOT NULL,
+    score INTEGER NOT NULL,
+    computed_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_customer_engagement_scores_customer UNIQUE (customer_id)
+);
+
+CREATE INDEX idx_customer_engagement_scores_rank ON customer_engagement_scores (organization_id, score);
+
+-- Quintile bounds of each organization's last scoring batch
+CREATE TABLE engagement_score_thresholds (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    organization_id BIGINT NOT NULL,
+    recency_bounds VARCHAR(100) NOT NULL,
+    frequency_bounds VARCHAR(100) NOT NULL,
+    monetary_bounds VARCHAR(100) NOT NULL,
+    computed_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_engagement_score_thresholds_org UNIQUE (organization_id)
+);
@@ -0,0 +1,241 @@
+-- Baseline: the schema previously generated by spring.jpa.hibernate.ddl-auto.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate)
+-- and only pick up the later migrations.
+
+CREATE TABLE organizations (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name                VARCHAR(100) NOT NULL,
+    slug                VARCHAR(50) UNIQUE,
+    plan_type           VARCHAR(255),
+    max_vehicles        INTEGER,
+    max_employees       INTEGER,
+    subscription_status VARCHAR(255),
+    created_at          TIMESTAMP(6),
+    settings            TEXT
+);
+
+CREATE TABLE permissions (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(50)  NOT NULL UNIQUE,
+    resource    VARCHAR(50)  NOT NULL,
+    action      VARCHAR(50)  NOT NULL,
+    description VARCHAR(255),
+    created_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE roles (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(50)  NOT NULL UNIQUE,
+    description VARCHAR(255),
+    created_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE role_permissions (
+    role_id       BIGINT NOT NULL REFERENCES roles (id),
+    permission_id BIGINT NOT NULL REFERENCES permissions (id),
+    PRIMARY KEY (role_id, permission_id)
+);
+
+CREATE TABLE users (
+    id                          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username                    VARCHAR(50)  NOT NULL UNIQUE,
+    email                       VARCHAR(150) NOT NULL UNIQUE,
+    password                    VARCHAR(255) NOT NULL,
+    nombre                      VARCHAR(255),
+    first_name                  VARCHAR(100),
+    last_name                   VARCHAR(100),
+    is_active                   BOOLEAN,
+    is_locked                   BOOLEAN,
+    failed_login_attempts       INTEGER,
+    last_login                  TIMESTAMP(6),
+    created_at                  TIMESTAMP(6) NOT NULL,
+    updated_at                  TIMESTAMP(6) NOT NULL,
+    phone_number                VARCHAR(20),
+    email_notifications_enabled BOOLEAN,
+    sms_notifications_enabled   BOOLEAN,
+    push_notifications_enabled  BOOLEAN,
+    device_token                VARCHAR(500),
+    organization_id             BIGINT       NOT NULL REFERENCES organizations (id),
+    stripe_customer_id          VARCHAR(100)
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    role_id BIGINT NOT NULL REFERENCES roles (id),
+    PRIMARY KEY (user_id, role_id)
+);
+
+CREATE TABLE clients (
+    id                 BIGINT NOT NULL PRIMARY KEY REFERENCES users (id),
+    licencia_conducir  VARCHAR(255)
+);
+
+CREATE TABLE employee (
+    id     BIGINT NOT NULL PRIMARY KEY REFERENCES users (id),
+    puesto VARCHAR(255),
+    name   VARCHAR(255)
+);
+
+CREATE TABLE customers (
+    id                             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    organization_id                BIGINT       NOT NULL REFERENCES organizations (id),
+    customer_code                  VARCHAR(20)  NOT NULL UNIQUE,
+    first_name                     VARCHAR(100) NOT NULL,
+    last_name                      VARCHAR(100) NOT NULL,
+    email                          VARCHAR(150) NOT NULL,
+    phone_number                   VARCHAR(20),
+    date_of_birth                  DATE,
+    license_number                 VARCHAR(50)  NOT NULL,
+    license_expiry_date            DATE,
+    license_issued_country         VARCHAR(50),
+    street_address                 VARCHAR(200),
+    city                           VARCHAR(100),
+    province                       VARCHAR(100),
+    postal_code                    VARCHAR(20),
+    country                        VARCHAR(50),
+    emergency_contact_name         VARCHAR(150),
+    emergency_contact_phone        VARCHAR(20),
+    emergency_contact_relationship VARCHAR(50),
+    status                         VARCHAR(20)  NOT NULL,
+    segment                        VARCHAR(20),
+    total_reservations             INTEGER,
+    total_spent                    NUMERIC(12, 2),
+    average_rental_days            NUMERIC(5, 2),
+    last_rental_date               TIMESTAMP(6),
+    customer_lifetime_value        NUMERIC(12, 2),
+    preferred_vehicle_category     VARCHAR(50),
+    preferred_pickup_location      VARCHAR(200),
+    marketing_consent              BOOLEAN,
+    newsletter_subscription        BOOLEAN,
+    stripe_customer_id             VARCHAR(100),
+    preferred_payment_method       VARCHAR(50),
+    notes                          TEXT,
+    internal_notes                 TEXT,
+    created_at                     TIMESTAMP(6) NOT NULL,
+    updated_at                     TIMESTAMP(6) NOT NULL,
+    created_by_user_id             BIGINT,
+    updated_by_user_id             BIGINT
+);
+
+CREATE TABLE vehicles (
+    id                    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    license_plate         VARCHAR(20)    NOT NULL UNIQUE,
+    brand                 VARCHAR(50)    NOT NULL,
+    model                 VARCHAR(50)    NOT NULL,
+    model_year            INTEGER        NOT NULL,
+    color                 VARCHAR(30),
+    mileage               INTEGER        NOT NULL,
+    status                VARCHAR(20)    NOT NULL,
+    daily_rate            NUMERIC(10, 2) NOT NULL,
+    category              VARCHAR(50),
+    seats                 INTEGER        NOT NULL,
+    transmission          VARCHAR(20),
+    fuel_type             VARCHAR(20),
+    description           TEXT,
+    created_at            TIMESTAMP(6)   NOT NULL,
+    updated_at            TIMESTAMP(6)   NOT NULL,
+    last_maintenance_date TIMESTAMP(6),
+    next_maintenance_date TIMESTAMP(6),
+    organization_id       BIGINT         NOT NULL REFERENCES organizations (id)
+);
+
+CREATE TABLE reservations (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    reservation_code    VARCHAR(20)    NOT NULL UNIQUE,
+    user_id             BIGINT         NOT NULL REFERENCES users (id),
+    customer_id         BIGINT REFERENCES customers (id),
+    vehicle_id          BIGINT         NOT NULL REFERENCES vehicles (id),
+    start_date          DATE           NOT NULL,
+    end_date            DATE           NOT NULL,
+    pickup_location     VARCHAR(200),
+    return_location     VARCHAR(200),
+    status              VARCHAR(20)    NOT NULL,
+    daily_rate          NUMERIC(10, 2) NOT NULL,
+    total_days          INTEGER        NOT NULL,
+    total_amount        NUMERIC(12, 2) NOT NULL,
+    deposit_amount      NUMERIC(10, 2),
+    special_requests    TEXT,
+    created_at          TIMESTAMP(6)   NOT NULL,
+    updated_at          TIMESTAMP(6)   NOT NULL,
+    confirmed_at        TIMESTAMP(6),
+    cancelled_at        TIMESTAMP(6),
+    cancellation_reason VARCHAR(500),
+    organization_id     BIGINT         NOT NULL REFERENCES organizations (id)
+);
+
+CREATE TABLE rentals (
+    id                       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    reservation_id           BIGINT       NOT NULL UNIQUE REFERENCES reservations (id),
+    rental_code              VARCHAR(20)  NOT NULL UNIQUE,
+    status                   VARCHAR(20)  NOT NULL,
+    pickup_datetime          TIMESTAMP(6) NOT NULL,
+    expected_return_datetime TIMESTAMP(6) NOT NULL,
+    actual_return_datetime   TIMESTAMP(6),
+    pickup_mileage           INTEGER      NOT NULL,
+    return_mileage           INTEGER,
+    fuel_level_pickup        VARCHAR(255) NOT NULL,
+    fuel_level_return        VARCHAR(255),
+    pickup_notes             TEXT,
+    return_notes             TEXT,
+    damage_notes             TEXT,
+    additional_charges       NUMERIC(10, 2),
+    late_return_fee          NUMERIC(10, 2),
+    damage_fee               NUMERIC(10, 2),
+    fuel_fee                 NUMERIC(10, 2),
+    total_fee                NUMERIC(12, 2),
+    created_at               TIMESTAMP(6) NOT NULL,
+    updated_at               TIMESTAMP(6) NOT NULL,
+    pickup_employee_id       BIGINT REFERENCES users (id),
+    return_employee_id       BIGINT REFERENCES users (id)
+);
+
+CREATE TABLE maintenance_records (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    vehicle_id           BIGINT       NOT NULL REFERENCES vehicles (id),
+    organization_id      BIGINT       NOT NULL REFERENCES organizations (id),
+    maintenance_type     VARCHAR(100) NOT NULL,
+    description          TEXT         NOT NULL,
+    service_provider     VARCHAR(200),
+    reason               TEXT,
+    cost                 NUMERIC(10, 2),
+    mileage_at_service   INTEGER      NOT NULL,
+    next_service_mileage INTEGER,
+    service_date         TIMESTAMP(6) NOT NULL,
+    completion_date      TIMESTAMP(6),
+    status               VARCHAR(50)  NOT NULL,
+    created_by_user_id   BIGINT,
+    notes                TEXT,
+    created_at           TIMESTAMP(6) NOT NULL,
+    updated_at           TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE vehicle_photos (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    vehicle_id       BIGINT       NOT NULL REFERENCES vehicles (id),
+    organization_id  BIGINT       NOT NULL REFERENCES organizations (id),
+    photo_url        VARCHAR(500) NOT NULL,
+    photo_type       VARCHAR(50)  NOT NULL,
+    description      VARCHAR(255),
+    is_primary       BOOLEAN      NOT NULL,
+    taken_at         TIMESTAMP(6) NOT NULL,
+    taken_by_user_id BIGINT,
+    inspection_type  VARCHAR(255),
+    created_at       TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE notifications (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id             BIGINT       NOT NULL REFERENCES users (id),
+    organization_id     BIGINT       NOT NULL REFERENCES organizations (id),
+    type                VARCHAR(50)  NOT NULL,
+    title               VARCHAR(200) NOT NULL,
+    message             TEXT         NOT NULL,
+    priority            VARCHAR(20)  NOT NULL,
+    is_read             BOOLEAN      NOT NULL,
+    related_entity_type VARCHAR(50),
+    related_entity_id   BIGINT,
+    action_url          VARCHAR(500),
+    expires_at          TIMESTAMP(6),
+    created_at          TIMESTAMP(6) NOT NULL,
+    read_at             TIMESTAMP(6)
+);
@@ -0,0 +1,3 @@
+-- Schema/database-per-tenant routing (TenantConnectionProvider)
+ALTER TABLE organizations ADD COLUMN IF NOT EXISTS storage_mode VARCHAR(20) DEFAULT 'SHARED';
+ALTER TABLE organizations ADD COLUMN IF NOT EXISTS storage_key VARCHAR(63);
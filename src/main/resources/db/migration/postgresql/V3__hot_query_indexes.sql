@@ -0,0 +1,58 @@
+-- Indexes for the hot predicates. CONCURRENTLY keeps the tables writable while
+-- they build, which is why this script runs outside a transaction (see .conf).
+
+-- Tenant-scoped lookups (tenantFilter adds organization_id to every query)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vehicles_org_status ON vehicles (organization_id, status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vehicles_org_category_status ON vehicles (organization_id, category, status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vehicles_org_plate ON vehicles (organization_id, license_plate);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_org_status ON customers (organization_id, status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_org_email ON customers (organization_id, email);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_org_code ON customers (organization_id, customer_code);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_org_total_spent ON customers (organization_id, total_spent);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_org_status ON reservations (organization_id, status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_org_start ON reservations (organization_id, start_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_org_end ON reservations (organization_id, end_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_org_created ON reservations (organization_id, created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_org_vehicle_dates ON reservations (organization_id, vehicle_id, start_date, end_date);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_org_user_read ON notifications (organization_id, user_id, is_read);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_org_created ON notifications (organization_id, created_at);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_maintenance_org_status ON maintenance_records (organization_id, status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_maintenance_org_vehicle ON maintenance_records (organization_id, vehicle_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vehicle_photos_org_vehicle ON vehicle_photos (organization_id, vehicle_id);
+
+-- ReservationRepository.findConflictingReservations
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_vehicle_status_dates
+    ON reservations (vehicle_id, status, start_date, end_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_active_vehicle_dates
+    ON reservations (vehicle_id, start_date, end_date)
+    WHERE status IN ('PENDING', 'CONFIRMED', 'IN_PROGRESS');
+
+-- Pickups (CONFIRMED by start_date) and returns (IN_PROGRESS by end_date)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_status_start ON reservations (status, start_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_status_end ON reservations (status, end_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_pickups
+    ON reservations (start_date) WHERE status = 'CONFIRMED';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_returns
+    ON reservations (end_date) WHERE status = 'IN_PROGRESS';
+
+-- Customer history
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_customer_created ON reservations (customer_id, created_at);
+
+-- Notification inbox and unread badge
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_user_read_created
+    ON notifications (user_id, is_read, created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_unread
+    ON notifications (user_id, created_at) WHERE is_read = false;
+
+-- Vehicle maintenance history
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_maintenance_vehicle_service_date
+    ON maintenance_records (vehicle_id, service_date);
+
+-- Rentals still out past their return time (RentalRepository.findOverdueRentals)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_rentals_active_expected_return
+    ON rentals (expected_return_datetime) WHERE status = 'ACTIVE';
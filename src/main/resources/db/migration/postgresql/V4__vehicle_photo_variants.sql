@@ -0,0 +1,8 @@
+-- Image variants generated by VehiclePhotoProcessingService
+ALTER TABLE vehicle_photos ADD COLUMN thumbnail_url VARCHAR(500);
+ALTER TABLE vehicle_photos ADD COLUMN medium_url VARCHAR(500);
+ALTER TABLE vehicle_photos ADD COLUMN full_url VARCHAR(500);
+ALTER TABLE vehicle_photos ADD COLUMN processing_status VARCHAR(20) DEFAULT 'PENDING';
+
+-- Sweeper lookup of photos still waiting for processing
+CREATE INDEX idx_vehicle_photos_pending ON vehicle_photos (id) WHERE processing_status = 'PENDING';
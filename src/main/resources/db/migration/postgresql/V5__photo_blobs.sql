@@ -0,0 +1,11 @@
+-- Content-addressed photo storage, reference counted by PhotoBlobService
+CREATE TABLE photo_blobs (
+    sha256 VARCHAR(64) PRIMARY KEY,
+    extension VARCHAR(10) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    reference_count INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- NULL for photos uploaded before deduplication (stored as vehicleId_type_uuid.ext)
+ALTER TABLE vehicle_photos ADD COLUMN content_hash VARCHAR(64);
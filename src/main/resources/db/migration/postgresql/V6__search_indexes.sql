@@ -0,0 +1,22 @@
+-- Search indexes for PostgresSearchBackend. The indexed expressions must match
+-- PostgresSearchBackend.VEHICLE_DOCUMENT / CUSTOMER_DOCUMENT exactly.
+-- Runs outside a transaction (see .conf) so the indexes build CONCURRENTLY.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Prefix matching (to_tsquery 'abc:*')
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vehicles_search_tsv ON vehicles USING gin (
+    to_tsvector('simple', lower(license_plate || ' ' || brand || ' ' || model || ' ' ||
+        coalesce(color, '') || ' ' || coalesce(category, ''))));
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_search_tsv ON customers USING gin (
+    to_tsvector('simple', lower(customer_code || ' ' || first_name || ' ' || last_name || ' ' ||
+        email || ' ' || license_number)));
+
+-- Typo-tolerant matching (word similarity, <% operator)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vehicles_search_trgm ON vehicles USING gin (
+    lower(license_plate || ' ' || brand || ' ' || model || ' ' ||
+        coalesce(color, '') || ' ' || coalesce(category, '')) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_search_trgm ON customers USING gin (
+    lower(customer_code || ' ' || first_name || ' ' || last_name || ' ' ||
+        email || ' ' || license_number) gin_trgm_ops);
@@ -0,0 +1,17 @@
+-- Rate rules compiled by PricingService into per-category rate tables
+CREATE TABLE pricing_rules (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    organization_id BIGINT NOT NULL REFERENCES organizations (id),
+    name VARCHAR(100) NOT NULL,
+    rule_type VARCHAR(20) NOT NULL,
+    category VARCHAR(50),
+    multiplier NUMERIC(6, 4) NOT NULL,
+    start_date DATE,
+    end_date DATE,
+    min_days INTEGER,
+    utilization_threshold NUMERIC(5, 4),
+    active BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_pricing_rules_org_active ON pricing_rules (organization_id, active);
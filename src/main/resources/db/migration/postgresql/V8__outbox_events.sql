@@ -0,0 +1,24 @@
+-- Transactional outbox for domain events, delivered by OutboxDispatcher
+CREATE TABLE outbox_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    organization_id BIGINT,
+    event_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL,
+    available_at TIMESTAMP(6) NOT NULL,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP(6) NOT NULL,
+    processed_at TIMESTAMP(6)
+);
+
+CREATE INDEX idx_outbox_status_available ON outbox_events (status, available_at);
+
+-- One row per (handler, event) whose work has committed; makes redelivery idempotent
+CREATE TABLE processed_events (
+    id VARCHAR(150) PRIMARY KEY,
+    event_id BIGINT NOT NULL,
+    handler VARCHAR(100) NOT NULL,
+    processed_at TIMESTAMP(6) NOT NULL
+);
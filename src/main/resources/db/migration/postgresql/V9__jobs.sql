@@ -0,0 +1,18 @@
+-- Durable background job queue polled by JobWorker (SKIP LOCKED, per-type concurrency)
+CREATE TABLE jobs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    organization_id BIGINT,
+    job_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL,
+    max_attempts INTEGER NOT NULL,
+    run_at TIMESTAMP(6) NOT NULL,
+    locked_until TIMESTAMP(6),
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP(6) NOT NULL,
+    started_at TIMESTAMP(6),
+    finished_at TIMESTAMP(6)
+);
+
+CREATE INDEX idx_jobs_type_status_run_at ON jobs (job_type, status, run_at);
@@ -0,0 +1,12 @@
+-- Tables of an organization moved to its own schema (SCHEMA storage), run by TenantSchemaMigrator
+-- against each tenant schema. Copied from the shared tables as they are when the schema is
+-- provisioned, so a later shared migration that changes one of these tables needs a tenant
+-- migration too, written idempotently (IF NOT EXISTS): schemas provisioned after it already
+-- have the change. Shared reference tables (users, organizations, branches) stay in public.
+CREATE TABLE IF NOT EXISTS ${flyway:defaultSchema}.customers (LIKE public.customers INCLUDING ALL);
+CREATE TABLE IF NOT EXISTS ${flyway:defaultSchema}.vehicles (LIKE public.vehicles INCLUDING ALL);
+CREATE TABLE IF NOT EXISTS ${flyway:defaultSchema}.reservations (LIKE public.reservations INCLUDING ALL);
+CREATE TABLE IF NOT EXISTS ${flyway:defaultSchema}.rentals (LIKE public.rentals INCLUDING ALL);
+CREATE TABLE IF NOT EXISTS ${flyway:defaultSchema}.maintenance_records (LIKE public.maintenance_records INCLUDING ALL);
+CREATE TABLE IF NOT EXISTS ${flyway:defaultSchema}.vehicle_photos (LIKE public.vehicle_photos INCLUDING ALL);
+CREATE TABLE IF NOT EXISTS ${flyway:defaultSchema}.notifications (LIKE public.notifications INCLUDING ALL);
@@ -0,0 +1,8 @@
+-- Columns added to the shared tables (V4, V5, V10) after tenant schemas were first provisioned
+-- without migrations; schemas created since have them from V1.
+ALTER TABLE ${flyway:defaultSchema}.vehicle_photos ADD COLUMN IF NOT EXISTS thumbnail_url VARCHAR(500);
+ALTER TABLE ${flyway:defaultSchema}.vehicle_photos ADD COLUMN IF NOT EXISTS medium_url VARCHAR(500);
+ALTER TABLE ${flyway:defaultSchema}.vehicle_photos ADD COLUMN IF NOT EXISTS full_url VARCHAR(500);
+ALTER TABLE ${flyway:defaultSchema}.vehicle_photos ADD COLUMN IF NOT EXISTS processing_status VARCHAR(20) DEFAULT 'PENDING';
+ALTER TABLE ${flyway:defaultSchema}.vehicle_photos ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+ALTER TABLE ${flyway:defaultSchema}.vehicles ADD COLUMN IF NOT EXISTS current_branch_id BIGINT REFERENCES public.branches (id);
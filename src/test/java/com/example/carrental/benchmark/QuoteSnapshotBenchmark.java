@@ -0,0 +1,104 @@
+package com.example.carrental.benchmark;
+
+import com.example.carrental.services.QuoteSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded throughput of {@link QuoteSnapshot#quoteCents} over a 2,000-vehicle fleet with
+ * season and weekend multipliers, long-stay rules, surge and existing bookings. One operation is
+ * one quote; the target for the batch quote API is at least 50,000 ops/s per core.
+ *
+ * Not part of the test run. Start main() from the IDE, or after mvn test-compile:
+ * java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)
+ *      com.example.carrental.benchmark.QuoteSnapshotBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class QuoteSnapshotBenchmark {
+
+    private static final int VEHICLES = 2_000;
+    private static final int HORIZON = 730;
+    private static final int QUERIES = 4_096; // power of two for the cursor mask
+    private static final String[] CATEGORIES = {"economy", "compact", "suv", "luxury", "van"};
+
+    private QuoteSnapshot snapshot;
+    private int[] queryVehicle;
+    private int[] queryStart;
+    private int[] queryEnd;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        int origin = (int) LocalDate.now().toEpochDay();
+        QuoteSnapshot.Builder builder = QuoteSnapshot.builder(origin, HORIZON);
+
+        for (String category : CATEGORIES) {
+            long[] prefix = new long[HORIZON + 1];
+            for (int day = 0; day < HORIZON; day++) {
+                long multiplier = 10_000;
+                if ((origin + day + 3) % 7 >= 5) {
+                    multiplier = multiplier * 11_500 / 10_000; // weekend +15%
+                }
+                if (day % 365 >= 170 && day % 365 < 240) {
+                    multiplier = multiplier * 13_000 / 10_000; // summer +30%
+                }
+                prefix[day + 1] = prefix[day] + multiplier;
+            }
+            builder.category(category, prefix, new int[]{7, 28}, new long[]{9_000, 8_000}, 11_000);
+        }
+
+        for (long id = 1; id <= VEHICLES; id++) {
+            builder.vehicle(id, 2_500 + random.nextInt(20_000), CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    random.nextInt(20) != 0);
+            for (int b = 0; b < 4; b++) {
+                int from = origin + random.nextInt(HORIZON - 14);
+                builder.booking(id, from, from + 1 + random.nextInt(10));
+            }
+        }
+        snapshot = builder.build();
+
+        queryVehicle = new int[QUERIES];
+        queryStart = new int[QUERIES];
+        queryEnd = new int[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            queryVehicle[q] = random.nextInt(VEHICLES);
+            queryStart[q] = origin + random.nextInt(HORIZON - 40);
+            queryEnd[q] = queryStart[q] + random.nextInt(35);
+        }
+    }
+
+    @Benchmark
+    public long quote() {
+        int q = cursor++ & (QUERIES - 1);
+        return snapshot.quoteCents(queryVehicle[q], queryStart[q], queryEnd[q]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(QuoteSnapshotBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.carrental.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadReplicaRoutingDataSourceTest {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReadReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTx;
+    private TransactionTemplate readOnlyTx;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2Pool("rr_primary");
+        replica = h2Pool("rr_replica");
+
+        new JdbcTemplate(primary).execute("CREATE TABLE node_marker (name VARCHAR(20))");
+        new JdbcTemplate(primary).execute("INSERT INTO node_marker VALUES ('primary')");
+        new JdbcTemplate(replica).execute("CREATE TABLE node_marker (name VARCHAR(20))");
+        new JdbcTemplate(replica).execute("INSERT INTO node_marker VALUES ('replica')");
+        new JdbcTemplate(replica).execute("CREATE TABLE replica_lag (lag_seconds DOUBLE)");
+        new JdbcTemplate(replica).execute("INSERT INTO replica_lag VALUES (1)");
+
+        routingDataSource = new ReadReplicaRoutingDataSource(
+                primary, Map.of("replica-1", replica), "SELECT lag_seconds FROM replica_lag", 10.0);
+        routingDataSource.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTx = new TransactionTemplate(transactionManager);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() {
+        // When
+        String node = readOnlyTx.execute(status -> currentNode());
+
+        // Then
+        assertThat(node).isEqualTo("replica");
+        assertThat(routingDataSource.getReplicaLagSeconds("replica-1")).isEqualTo(1.0);
+    }
+
+    @Test
+    void writeTransaction_ShouldUsePrimary() {
+        // When
+        String node = writeTx.execute(status -> currentNode());
+
+        // Then
+        assertThat(node).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransaction_WhenReplicaLagsTooMuch_ShouldFallBackToPrimary() {
+        // Given
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET lag_seconds = 30");
+        routingDataSource.refreshReplicaHealth();
+
+        // When
+        String node = readOnlyTx.execute(status -> currentNode());
+
+        // Then
+        assertThat(routingDataSource.getHealthyReplicas()).isEmpty();
+        assertThat(node).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransaction_WhenReplicaCatchesUp_ShouldReturnToReplica() {
+        // Given
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET lag_seconds = 30");
+        routingDataSource.refreshReplicaHealth();
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET lag_seconds = 0");
+        routingDataSource.refreshReplicaHealth();
+
+        // When
+        String node = readOnlyTx.execute(status -> currentNode());
+
+        // Then
+        assertThat(routingDataSource.getHealthyReplicas()).containsExactly("replica-1");
+        assertThat(node).isEqualTo("replica");
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node_marker", String.class);
+    }
+
+    private HikariDataSource h2Pool(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(2);
+        return dataSource;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.carrental.config;
+
+import com.example.carrental.model.Organization.StorageMode;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TenantConnectionProviderTest {
+
+    private static final Long TENANT = 7L;
+
+    private HikariDataSource shared;
+    private JdbcTemplate jdbcTemplate;
+    private TenantStorageRegistry registry;
+    private TenantConnectionProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        shared = new HikariDataSource();
+        shared.setJdbcUrl("jdbc:h2:mem:tenant_cutover;DB_CLOSE_DELAY=-1");
+        shared.setUsername("sa");
+        shared.setPassword("");
+        shared.setPoolName("tenant_cutover");
+        shared.setMaximumPoolSize(4);
+
+        jdbcTemplate = new JdbcTemplate(shared);
+        jdbcTemplate.execute("CREATE TABLE vehicles (id BIGINT PRIMARY KEY, organization_id BIGINT, plate VARCHAR(20))");
+        jdbcTemplate.execute("INSERT INTO vehicles VALUES (1, 7, 'SHARED-1')");
+
+        TenancyProperties properties = new TenancyProperties();
+        properties.setSchemaSearchPathSql("SET SCHEMA %s");
+        properties.setResetSearchPathSql("SET SCHEMA PUBLIC");
+        properties.setCutoverWaitMs(5000);
+
+        registry = new TenantStorageRegistry(shared);
+        provider = new TenantConnectionProvider(shared, registry, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        shared.close();
+    }
+
+    @Test
+    void pauseAndDrain_ShouldOnlyWaitForTheTenantsOwnConnections() throws Exception {
+        // Given a tenant-less worker and another organization holding connections
+        Connection worker = provider.getConnection(TenantIdentifierResolver.SHARED_TENANT);
+        Connection otherTenant = provider.getConnection("8");
+        Connection tenant = provider.getConnection(String.valueOf(TENANT));
+
+        // When / Then the cutover only waits for the tenant's own connection
+        assertThat(registry.pauseAndDrain(TENANT, 100)).isFalse();
+        registry.resume(TENANT);
+
+        provider.releaseConnection(String.valueOf(TENANT), tenant);
+        assertThat(registry.pauseAndDrain(TENANT, 100)).isTrue();
+        registry.resume(TENANT);
+
+        provider.releaseConnection("8", otherTenant);
+        provider.releaseConnection(TenantIdentifierResolver.SHARED_TENANT, worker);
+    }
+
+    @Test
+    void cutover_ShouldHoldBackOnlyTheTenantUntilTheSwitch() throws Exception {
+        // Given the tenant is drained
+        assertThat(registry.pauseAndDrain(TENANT, 1000)).isTrue();
+
+        CompletableFuture<String> tenantRead = CompletableFuture.supplyAsync(() -> plateOf(String.valueOf(TENANT)));
+        assertThat(plateOf(TenantIdentifierResolver.SHARED_TENANT)).isEqualTo("SHARED-1");
+        assertThat(plateOf("8")).isEqualTo("SHARED-1");
+        Thread.sleep(200);
+        assertThat(tenantRead).isNotDone();
+
+        // When the last changes are copied and the tenant is switched to its schema
+        jdbcTemplate.execute("CREATE SCHEMA tenant_7");
+        jdbcTemplate.execute("CREATE TABLE tenant_7.vehicles (id BIGINT PRIMARY KEY, organization_id BIGINT, plate VARCHAR(20))");
+        jdbcTemplate.execute("INSERT INTO tenant_7.vehicles VALUES (1, 7, 'SCHEMA-1')");
+        registry.register(TENANT, StorageMode.SCHEMA, "tenant_7");
+        registry.resume(TENANT);
+
+        // Then the held back session proceeds against the tenant's own schema
+        assertThat(tenantRead.get(5, TimeUnit.SECONDS)).isEqualTo("SCHEMA-1");
+        assertThat(plateOf(TenantIdentifierResolver.SHARED_TENANT)).isEqualTo("SHARED-1");
+    }
+
+    @Test
+    void getConnection_WhenCutoverOutlastsTheWait_ShouldFail() throws Exception {
+        // Given
+        TenancyProperties impatient = new TenancyProperties();
+        impatient.setCutoverWaitMs(50);
+        TenantConnectionProvider impatientProvider = new TenantConnectionProvider(shared, registry, impatient);
+        assertThat(registry.pauseAndDrain(TENANT, 1000)).isTrue();
+
+        // When / Then
+        try {
+            assertThatThrownBy(() -> impatientProvider.getConnection(String.valueOf(TENANT)))
+                    .isInstanceOf(SQLException.class)
+                    .hasMessageContaining("storage cutover");
+        } finally {
+            registry.resume(TENANT);
+        }
+    }
+
+    private String plateOf(String tenantIdentifier) {
+        try {
+            Connection connection = provider.getConnection(tenantIdentifier);
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT plate FROM vehicles WHERE id = 1")) {
+                rs.next();
+                return rs.getString(1);
+            } finally {
+                provider.releaseConnection(tenantIdentifier, connection);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.carrental.controller;
+
+import com.example.carrental.services.PhotoFileService;
+import com.example.carrental.services.PhotoFileService.PhotoFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class PhotoFileControllerTest {
+
+    private static final String URL = "/uploads/vehicle-photos/ab/abcdef.jpg";
+    private static final String ETAG = "\"abcdef\"";
+
+    @Mock
+    private PhotoFileService photoFileService;
+
+    @InjectMocks
+    private PhotoFileController photoFileController;
+
+    @TempDir
+    Path directory;
+
+    private MockMvc mockMvc;
+    private PhotoFile file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockMvc = MockMvcBuilders.standaloneSetup(photoFileController).build();
+        Path path = Files.writeString(directory.resolve("abcdef.jpg"), "0123456789", StandardCharsets.US_ASCII);
+        file = new PhotoFile(path, 10, 1_700_000_000_000L, ETAG, "image/jpeg");
+        lenient().when(photoFileService.resolve("ab/abcdef.jpg")).thenReturn(Optional.of(file));
+        lenient().when(photoFileService.isPublic(file)).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void servePhoto_ShouldSendTheFileWithCachingHeaders() throws Exception {
+        mockMvc.perform(get(URL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(content().string("0123456789"))
+                .andExpect(header().string("ETag", ETAG))
+                .andExpect(header().string("Cache-Control", "public, max-age=31536000, immutable"))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().longValue("Content-Length", 10));
+    }
+
+    @Test
+    void servePhoto_WithAMatchingEtag_ShouldAnswerNotModified() throws Exception {
+        mockMvc.perform(get(URL).header("If-None-Match", "\"other\", W/" + ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", ETAG))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get(URL).header("If-None-Match", "\"other\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void servePhoto_WithARange_ShouldSendOnlyThoseBytes() throws Exception {
+        mockMvc.perform(get(URL).header("Range", "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 2-5/10"))
+                .andExpect(header().longValue("Content-Length", 4))
+                .andExpect(content().string("2345"));
+
+        mockMvc.perform(get(URL).header("Range", "bytes=-3").header("If-Range", ETAG))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 7-9/10"))
+                .andExpect(content().string("789"));
+    }
+
+    @Test
+    void servePhoto_WithAStaleIfRange_ShouldSendTheWholeFile() throws Exception {
+        mockMvc.perform(get(URL).header("Range", "bytes=2-5").header("If-Range", "\"older\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Range"))
+                .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void servePhoto_WithAnUnsatisfiableRange_ShouldAnswer416() throws Exception {
+        mockMvc.perform(get(URL).header("Range", "bytes=10-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */10"));
+    }
+
+    @Test
+    void servePhoto_OfAnUnknownOrDeletedFile_ShouldAnswer404() throws Exception {
+        // Given
+        when(photoFileService.resolve(anyString())).thenReturn(Optional.empty());
+        mockMvc.perform(get("/uploads/vehicle-photos/missing.jpg"))
+                .andExpect(status().isNotFound());
+
+        // When the cached file was deleted from disk
+        when(photoFileService.resolve("ab/abcdef.jpg")).thenReturn(Optional.of(file));
+        Files.delete(file.getPath());
+
+        // Then
+        mockMvc.perform(get(URL))
+                .andExpect(status().isNotFound());
+        verify(photoFileService).evict(file);
+    }
+
+    @Test
+    void servePhoto_OfAnInspectionPhoto_ShouldRequireASignedInUser() throws Exception {
+        // Given
+        when(photoFileService.isPublic(file)).thenReturn(false);
+
+        // When anonymous
+        mockMvc.perform(get(URL))
+                .andExpect(status().isNotFound());
+
+        // When signed in
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("agent", null, List.of()));
+
+        // Then served, but kept out of shared caches
+        mockMvc.perform(get(URL))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "private, max-age=31536000, immutable"))
+                .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void parseRange_ShouldIgnoreMultipleOrMalformedRanges() {
+        assertThat(PhotoFileController.parseRange("bytes=0-1,4-5", 10)).isEmpty();
+        assertThat(PhotoFileController.parseRange("bytes=abc", 10)).isEmpty();
+        assertThat(PhotoFileController.parseRange("items=0-1", 10)).isEmpty();
+        assertThat(PhotoFileController.parseRange("bytes=4-100", 10)).containsExactly(4, 9);
+        assertThat(PhotoFileController.parseRange("bytes=-0", 10)).isNull();
+        assertThat(PhotoFileController.parseRange("bytes=6-3", 10)).isNull();
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.carrental.integration;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.model.Branch;
+import com.example.carrental.model.Organization;
+import com.example.carrental.repository.BranchRepository;
+import com.example.carrental.repository.OrganizationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TenantRepositoryIsolationTest {
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Organization owner;
+    private Organization other;
+    private Long branchId;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.clear();
+        owner = organizationRepository.save(organization("Owner"));
+        other = organizationRepository.save(organization("Other"));
+        branchId = asTenant(owner, status -> branchRepository.save(Branch.builder()
+                .organization(owner)
+                .code("HQ")
+                .name("Head office")
+                .build()).getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        TenantContext.runUnscoped(() -> branchRepository.findById(branchId).ifPresent(branchRepository::delete));
+        organizationRepository.deleteAll(List.of(owner, other));
+    }
+
+    private static Organization organization(String name) {
+        Organization organization = new Organization();
+        organization.setName(name);
+        organization.setSlug(name.toLowerCase() + "-" + System.nanoTime());
+        return organization;
+    }
+
+    private <T> T asTenant(Organization organization, TransactionCallback<T> action) {
+        TenantContext.setTenantId(organization.getId());
+        try {
+            return transactionTemplate.execute(action);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    @Test
+    void idLookups_OfAnotherOrganizationsRow_ShouldNotFindIt() {
+        assertThat(asTenant(other, status -> branchRepository.findById(branchId))).isEmpty();
+        assertThat(asTenant(other, status -> branchRepository.existsById(branchId))).isFalse();
+        assertThatThrownBy(() -> asTenant(other, status -> branchRepository.getReferenceById(branchId)))
+                .isInstanceOf(EntityNotFoundException.class);
+
+        assertThat(asTenant(owner, status -> branchRepository.existsById(branchId))).isTrue();
+        assertThat(asTenant(owner, status -> branchRepository.getReferenceById(branchId).getCode())).isEqualTo("HQ");
+    }
+
+    @Test
+    void deleteById_OfAnotherOrganizationsRow_ShouldLeaveIt() {
+        // When
+        asTenant(other, status -> {
+            branchRepository.deleteById(branchId);
+            branchRepository.deleteAllById(List.of(branchId));
+            return null;
+        });
+
+        // Then
+        assertThat(asTenant(owner, status -> branchRepository.existsById(branchId))).isTrue();
+
+        // And the owner can still delete it
+        asTenant(owner, status -> {
+            branchRepository.deleteById(branchId);
+            return null;
+        });
+        assertThat(TenantContext.callUnscoped(() -> branchRepository.existsById(branchId))).isFalse();
+    }
+
+    @Test
+    void batchDeletes_ShouldBeRefused() {
+        assertThatThrownBy(() -> asTenant(other, status -> {
+            branchRepository.deleteAllInBatch();
+            return null;
+        })).isInstanceOf(UnsupportedOperationException.class);
+
+        assertThat(asTenant(owner, status -> branchRepository.existsById(branchId))).isTrue();
+    }
+
+    @Test
+    void repositoryUse_WithoutATenant_ShouldBeRefusedUnlessExplicitlyUnscoped() {
+        assertThatThrownBy(() -> branchRepository.findById(branchId))
+                .hasMessageContaining("without a tenant");
+        assertThatThrownBy(() -> transactionTemplate.execute(status -> branchRepository.findAll()))
+                .hasMessageContaining("without a tenant");
+
+        assertThat(TenantContext.callUnscoped(() -> branchRepository.findById(branchId))).isPresent();
+        assertThat(TenantContext.hasTenant()).isFalse();
+        assertThat(TenantContext.isUnscoped()).isFalse();
+    }
+
+    @Test
+    void queriesWithoutATenant_ShouldMatchNoRows() {
+        // A raw query outside the repositories, on a thread that did not opt in
+        Long count = transactionTemplate.execute(status -> entityManager
+                .createQuery("SELECT COUNT(b) FROM Branch b WHERE b.id = :id", Long.class)
+                .setParameter("id", branchId)
+                .getSingleResult());
+        Long unscoped = TenantContext.callUnscoped(() -> transactionTemplate.execute(status -> entityManager
+                .createQuery("SELECT COUNT(b) FROM Branch b WHERE b.id = :id", Long.class)
+                .setParameter("id", branchId)
+                .getSingleResult()));
+
+        assertThat(count).isZero();
+        assertThat(unscoped).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.carrental.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query plan regression test: the hot predicates must be served by an index.
+ * H2 reports a sequential scan as "tableScan" in EXPLAIN output. The SQL mirrors
+ * the repository queries including the organization_id predicate added by the tenantFilter.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class HotQueryPlanTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.update("INSERT INTO organizations (id, name, slug) VALUES (1, 'Plan Test', 'plan-test')");
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, created_at, updated_at, organization_id) " +
+                "VALUES (1, 'plan', 'plan@test.com', 'x', ?, ?, 1)", now, now);
+
+        List<Object[]> vehicles = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            vehicles.add(new Object[]{i, "PLN-" + i, now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO vehicles (id, license_plate, brand, model, model_year, mileage, status, " +
+                "daily_rate, seats, created_at, updated_at, organization_id) " +
+                "VALUES (?, ?, 'Toyota', 'Corolla', 2024, 1000, 'AVAILABLE', 50.00, 5, ?, ?, 1)", vehicles);
+
+        List<Object[]> customers = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            customers.add(new Object[]{i, "PLN-C" + i, "c" + i + "@test.com", "LIC" + i, now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO customers (id, organization_id, customer_code, first_name, last_name, email, " +
+                "license_number, status, created_at, updated_at) VALUES (?, 1, ?, 'Plan', 'Test', ?, ?, 'ACTIVE', ?, ?)", customers);
+
+        String[] statuses = {"PENDING", "CONFIRMED", "IN_PROGRESS", "COMPLETED", "CANCELLED"};
+        List<Object[]> reservations = new ArrayList<>();
+        for (int i = 1; i <= 5000; i++) {
+            LocalDate start = TODAY.plusDays(i % 365 - 180);
+            reservations.add(new Object[]{i, "PLN-R" + i, (i % 200) + 1, (i % 100) + 1,
+                    Date.valueOf(start), Date.valueOf(start.plusDays(3)), statuses[i % statuses.length], now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reservations (id, reservation_code, user_id, customer_id, vehicle_id, " +
+                "start_date, end_date, status, daily_rate, total_days, total_amount, created_at, updated_at, organization_id) " +
+                "VALUES (?, ?, 1, ?, ?, ?, ?, ?, 50.00, 4, 200.00, ?, ?, 1)", reservations);
+
+        List<Object[]> notifications = new ArrayList<>();
+        for (int i = 1; i <= 3000; i++) {
+            notifications.add(new Object[]{i, i % 4 == 0, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO notifications (id, user_id, organization_id, type, title, message, priority, " +
+                "is_read, created_at) VALUES (?, 1, 1, 'SYSTEM', 'Plan', 'Plan test', 'LOW', ?, ?)", notifications);
+
+        List<Object[]> maintenance = new ArrayList<>();
+        for (int i = 1; i <= 2000; i++) {
+            maintenance.add(new Object[]{i, (i % 100) + 1, now, now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO maintenance_records (id, vehicle_id, organization_id, maintenance_type, " +
+                "description, mileage_at_service, service_date, status, created_at, updated_at) " +
+                "VALUES (?, ?, 1, 'ROUTINE', 'Oil change', 1000, ?, 'COMPLETED', ?, ?)", maintenance);
+
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void conflictingReservationsQuery_ShouldUseIndex() {
+        assertIndexed("SELECT * FROM reservations WHERE organization_id = 1 AND vehicle_id = 7 " +
+                "AND status IN ('CONFIRMED', 'IN_PROGRESS') " +
+                "AND start_date <= DATE '2025-06-10' AND end_date >= DATE '2025-06-05'");
+    }
+
+    @Test
+    void pickupsForDateQuery_ShouldUseIndex() {
+        assertIndexed("SELECT * FROM reservations WHERE organization_id = 1 " +
+                "AND status = 'CONFIRMED' AND start_date = DATE '2025-06-01'");
+    }
+
+    @Test
+    void returnsForDateQuery_ShouldUseIndex() {
+        assertIndexed("SELECT * FROM reservations WHERE organization_id = 1 " +
+                "AND status = 'IN_PROGRESS' AND end_date = DATE '2025-06-01'");
+    }
+
+    @Test
+    void customerHistoryQuery_ShouldUseIndex() {
+        assertIndexed("SELECT * FROM reservations WHERE organization_id = 1 AND customer_id = 42 " +
+                "ORDER BY created_at DESC");
+    }
+
+    @Test
+    void unreadNotificationsQuery_ShouldUseIndex() {
+        assertIndexed("SELECT * FROM notifications WHERE organization_id = 1 AND user_id = 1 AND is_read = FALSE " +
+                "ORDER BY created_at DESC");
+    }
+
+    @Test
+    void vehicleMaintenanceHistoryQuery_ShouldUseIndex() {
+        assertIndexed("SELECT * FROM maintenance_records WHERE organization_id = 1 AND vehicle_id = 7 " +
+                "ORDER BY service_date DESC");
+    }
+
+    private void assertIndexed(String sql) {
+        // When
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+
+        // Then
+        assertThat(plan)
+                .as("Query plan for: %s", sql)
+                .doesNotContainIgnoringCase("tableScan");
+    }
+}
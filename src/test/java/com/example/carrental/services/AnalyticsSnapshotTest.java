@@ -0,0 +1,141 @@
+package com.example.carrental.services;
+
+import com.example.carrental.enums.CustomerSegment;
+import com.example.carrental.enums.CustomerStatus;
+import com.example.carrental.enums.ReservationStatus;
+import com.example.carrental.enums.VehicleStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static com.example.carrental.services.AnalyticsSnapshot.AMOUNT_CENTS;
+import static com.example.carrental.services.AnalyticsSnapshot.COUNT;
+import static com.example.carrental.services.AnalyticsSnapshot.CUSTOMER_MEASURES;
+import static com.example.carrental.services.AnalyticsSnapshot.RENTAL_DAYS;
+import static com.example.carrental.services.AnalyticsSnapshot.RESERVATION_MEASURES;
+import static com.example.carrental.services.AnalyticsSnapshot.SPENT_CENTS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AnalyticsSnapshotTest {
+
+    private static final int JAN_10 = (int) LocalDate.of(2026, 1, 10).toEpochDay();
+    private static final int FEB_05 = (int) LocalDate.of(2026, 2, 5).toEpochDay();
+    private static final int MAR_20 = (int) LocalDate.of(2026, 3, 20).toEpochDay();
+
+    private AnalyticsSnapshot snapshot() {
+        return AnalyticsSnapshot.builder(MAR_20)
+                .vehicle(1, "suv", VehicleStatus.AVAILABLE)
+                .vehicle(2, "compact", VehicleStatus.RENTED)
+                .vehicle(3, "suv", VehicleStatus.MAINTENANCE)
+                .customer(20, CustomerSegment.VIP, CustomerStatus.ACTIVE, JAN_10)
+                .customer(10, CustomerSegment.NEW, CustomerStatus.ACTIVE, FEB_05)
+                .customer(30, null, CustomerStatus.INACTIVE, FEB_05)
+                .reservation(20L, 1, ReservationStatus.COMPLETED, JAN_10, JAN_10 + 2, 3, 300_00)
+                .reservation(20L, 2, ReservationStatus.COMPLETED, FEB_05, FEB_05, 2, 150_00)
+                .reservation(10L, 3, ReservationStatus.CANCELLED, FEB_05, FEB_05 + 10, 4, 400_00)
+                .reservation(10L, 1, ReservationStatus.CONFIRMED, MAR_20 - 5, MAR_20 + 5, 1, 90_00)
+                .reservation(null, 2, ReservationStatus.COMPLETED, FEB_05, FEB_05 + 1, 1, 50_00)
+                .build();
+    }
+
+    private static int segment(CustomerSegment segment) {
+        return segment.ordinal() * RESERVATION_MEASURES;
+    }
+
+    @Test
+    void aggregateReservations_ShouldGroupFilteredRowsByCategoryAndSegment() {
+        // Given
+        AnalyticsSnapshot snapshot = snapshot();
+        AnalyticsSnapshot.Filter completed = AnalyticsSnapshot.Filter.all().statuses(ReservationStatus.COMPLETED);
+
+        // When
+        long[] byCategory = snapshot.aggregateReservations(completed, AnalyticsSnapshot.ReservationDimension.CATEGORY);
+        long[] bySegment = snapshot.aggregateReservations(completed, AnalyticsSnapshot.ReservationDimension.SEGMENT);
+
+        // Then
+        int suv = snapshot.categoryId("suv") * RESERVATION_MEASURES;
+        int compact = snapshot.categoryId("compact") * RESERVATION_MEASURES;
+        assertThat(byCategory[suv + COUNT]).isEqualTo(1);
+        assertThat(byCategory[suv + AMOUNT_CENTS]).isEqualTo(300_00);
+        assertThat(byCategory[compact + COUNT]).isEqualTo(2);
+        assertThat(byCategory[compact + AMOUNT_CENTS]).isEqualTo(200_00);
+        assertThat(byCategory[compact + RENTAL_DAYS]).isEqualTo(3);
+
+        assertThat(bySegment[segment(CustomerSegment.VIP) + AMOUNT_CENTS]).isEqualTo(450_00);
+        assertThat(bySegment[segment(CustomerSegment.NEW) + COUNT]).isZero();
+        // Walk-in reservation without a customer profile
+        int unassigned = CustomerSegment.values().length * RESERVATION_MEASURES;
+        assertThat(bySegment[unassigned + AMOUNT_CENTS]).isEqualTo(50_00);
+    }
+
+    @Test
+    void aggregateReservations_ShouldBucketMonthsFromTheFilterStart() {
+        // Given
+        AnalyticsSnapshot snapshot = snapshot();
+        AnalyticsSnapshot.Filter range = AnalyticsSnapshot.Filter.all()
+                .days((int) LocalDate.of(2026, 1, 1).toEpochDay(), (int) LocalDate.of(2026, 3, 31).toEpochDay());
+
+        // When
+        long[] byMonth = snapshot.aggregateReservations(range, AnalyticsSnapshot.ReservationDimension.START_MONTH);
+
+        // Then
+        assertThat(snapshot.groups(AnalyticsSnapshot.ReservationDimension.START_MONTH, range)).isEqualTo(3);
+        assertThat(byMonth[COUNT]).isEqualTo(1);
+        assertThat(byMonth[RESERVATION_MEASURES + COUNT]).isEqualTo(3);
+        assertThat(byMonth[2 * RESERVATION_MEASURES + COUNT]).isEqualTo(1);
+        assertThatThrownBy(() -> snapshot.groups(AnalyticsSnapshot.ReservationDimension.START_MONTH, AnalyticsSnapshot.Filter.all()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void aggregateCustomers_ShouldDeriveSpendAndRecencyFromReservations() {
+        // Given
+        AnalyticsSnapshot snapshot = snapshot();
+
+        // When
+        long[] bySpend = snapshot.aggregateCustomers(AnalyticsSnapshot.Filter.all(), AnalyticsSnapshot.CustomerDimension.SPEND_BAND);
+        long[] byRecency = snapshot.aggregateCustomers(AnalyticsSnapshot.Filter.all(), AnalyticsSnapshot.CustomerDimension.RECENCY);
+
+        // Then
+        // No completed spend (customer 10's confirmed booking does not count yet, 30 never rented)
+        assertThat(bySpend[COUNT]).isEqualTo(2);
+        // 450.00 lifetime spend falls in the 100 - 499.99 band
+        assertThat(bySpend[2 * CUSTOMER_MEASURES + COUNT]).isEqualTo(1);
+        assertThat(bySpend[2 * CUSTOMER_MEASURES + SPENT_CENTS]).isEqualTo(450_00);
+
+        // 10 starts in the future, 20 last rented 43 days ago, 30 never
+        assertThat(byRecency[COUNT]).isEqualTo(1);
+        assertThat(byRecency[CUSTOMER_MEASURES + COUNT]).isEqualTo(1);
+        assertThat(byRecency[4 * CUSTOMER_MEASURES + COUNT]).isEqualTo(1);
+    }
+
+    @Test
+    void aggregateReservations_ShouldMatchSequentialTotalsOnParallelScans() {
+        // Given
+        AnalyticsSnapshot.Builder builder = AnalyticsSnapshot.builder(MAR_20)
+                .vehicle(1, "suv", VehicleStatus.AVAILABLE)
+                .customer(1, CustomerSegment.REGULAR, CustomerStatus.ACTIVE, JAN_10);
+        long expectedCents = 0;
+        int rows = 200_000;
+        for (int r = 0; r < rows; r++) {
+            ReservationStatus status = r % 4 == 0 ? ReservationStatus.CANCELLED : ReservationStatus.COMPLETED;
+            builder.reservation(1L, 1, status, JAN_10, JAN_10 + r % 60, 1 + r % 7, r);
+            if (status == ReservationStatus.COMPLETED) {
+                expectedCents += r;
+            }
+        }
+        AnalyticsSnapshot snapshot = builder.build();
+
+        // When
+        long[] byStatus = snapshot.aggregateReservations(AnalyticsSnapshot.Filter.all(), AnalyticsSnapshot.ReservationDimension.STATUS);
+
+        // Then
+        int completed = ReservationStatus.COMPLETED.ordinal() * RESERVATION_MEASURES;
+        int cancelled = ReservationStatus.CANCELLED.ordinal() * RESERVATION_MEASURES;
+        assertThat(snapshot.reservationCount()).isEqualTo(rows);
+        assertThat(byStatus[completed + COUNT]).isEqualTo(rows * 3 / 4);
+        assertThat(byStatus[cancelled + COUNT]).isEqualTo(rows / 4);
+        assertThat(byStatus[completed + AMOUNT_CENTS]).isEqualTo(expectedCents);
+    }
+}
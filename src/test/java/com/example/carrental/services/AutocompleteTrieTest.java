@@ -0,0 +1,61 @@
+package com.example.carrental.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AutocompleteTrieTest {
+
+    @Test
+    void topK_ShouldReturnOneMatchPerEntityInKeyOrder() {
+        // Given
+        AutocompleteTrie<String> trie = new AutocompleteTrie<>();
+        trie.put(1, List.of("ABC-124"), List.of("plate ABC-124"));
+        trie.put(2, List.of("ABC-123"), List.of("plate ABC-123"));
+        trie.put(3, List.of("CUS-001", "abc@mail.com", "Abc"), List.of("code CUS-001", "email abc@mail.com", "last Abc"));
+        trie.put(4, List.of("XYZ-999"), List.of("plate XYZ-999"));
+
+        // When
+        List<String> all = trie.topK("abc", 10);
+        List<String> top2 = trie.topK("ABC", 2);
+
+        // Then
+        assertThat(all).containsExactly("last Abc", "plate ABC-123", "plate ABC-124");
+        assertThat(top2).containsExactly("last Abc", "plate ABC-123");
+        assertThat(trie.topK("q", 10)).isEmpty();
+        assertThat(trie.topK("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void put_ShouldReplacePreviousKeysOfTheSameEntity() {
+        // Given
+        AutocompleteTrie<String> trie = new AutocompleteTrie<>();
+        trie.put(1, List.of("ABC-123"), List.of("old"));
+
+        // When
+        trie.put(1, List.of("DEF-456"), List.of("new"));
+
+        // Then
+        assertThat(trie.topK("abc", 10)).isEmpty();
+        assertThat(trie.topK("def", 10)).containsExactly("new");
+        assertThat(trie.size()).isEqualTo(1);
+    }
+
+    @Test
+    void remove_ShouldDropAllKeysOfTheEntity() {
+        // Given
+        AutocompleteTrie<String> trie = new AutocompleteTrie<>();
+        trie.put(1, List.of("CUS-001", "ana@mail.com"), List.of("code", "email"));
+        trie.put(2, List.of("CUS-002"), List.of("other"));
+
+        // When
+        trie.remove(1);
+
+        // Then
+        assertThat(trie.topK("cus", 10)).containsExactly("other");
+        assertThat(trie.topK("ana", 10)).isEmpty();
+        assertThat(trie.size()).isEqualTo(1);
+    }
+}
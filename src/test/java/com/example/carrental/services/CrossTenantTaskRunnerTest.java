@@ -0,0 +1,64 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.model.Organization;
+import com.example.carrental.repository.OrganizationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CrossTenantTaskRunnerTest {
+
+    @Mock
+    private OrganizationRepository organizationRepository;
+
+    private static Organization organization(long id) {
+        Organization organization = new Organization();
+        organization.setId(id);
+        return organization;
+    }
+
+    @Test
+    void sum_WithSharedStorageOnly_ShouldRunOneUnscopedPass() {
+        // Given
+        CrossTenantTaskRunner runner = new CrossTenantTaskRunner(organizationRepository, false);
+
+        // When
+        int total = runner.sum(() -> TenantContext.isUnscoped() ? 3 : 0);
+
+        // Then
+        assertThat(total).isEqualTo(3);
+        verifyNoInteractions(organizationRepository);
+    }
+
+    @Test
+    void sum_WithIsolation_ShouldRunOncePerOrganizationAndSkipFailures() {
+        // Given
+        CrossTenantTaskRunner runner = new CrossTenantTaskRunner(organizationRepository, true);
+        when(organizationRepository.findAll()).thenReturn(List.of(organization(1L), organization(2L), organization(3L)));
+        List<Long> tenants = new ArrayList<>();
+
+        // When
+        int total = runner.sum(() -> {
+            Long tenantId = TenantContext.getTenantId();
+            tenants.add(tenantId);
+            if (tenantId == 2L) {
+                throw new RuntimeException("Tenant 2 is paused for a storage cutover");
+            }
+            return tenantId.intValue();
+        });
+
+        // Then
+        assertThat(tenants).containsExactly(1L, 2L, 3L);
+        assertThat(total).isEqualTo(4);
+        assertThat(TenantContext.hasTenant()).isFalse();
+    }
+}
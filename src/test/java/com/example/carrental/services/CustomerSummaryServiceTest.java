@@ -0,0 +1,246 @@
+package com.example.carrental.services;
+
+import com.example.carrental.enums.CustomerRankCriteria;
+import com.example.carrental.enums.CustomerSegment;
+import com.example.carrental.enums.CustomerSummaryDimension;
+import com.example.carrental.model.Customer;
+import com.example.carrental.model.CustomerSummaryCount;
+import com.example.carrental.model.CustomerTopRank;
+import com.example.carrental.model.Organization;
+import com.example.carrental.repository.CustomerSummaryCountRepository;
+import com.example.carrental.repository.CustomerTopRankRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerSummaryServiceTest {
+
+    private static final Long ORGANIZATION_ID = 10L;
+
+    @Mock
+    private CustomerSummaryCountRepository countRepository;
+
+    @Mock
+    private CustomerTopRankRepository topRankRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TypedQuery<Object[]> query;
+
+    private CustomerSummaryService service;
+    private Organization organization;
+
+    @BeforeEach
+    void setUp() {
+        service = new CustomerSummaryService(countRepository, topRankRepository, jdbcTemplate, transactionManager);
+        ReflectionTestUtils.setField(service, "topCapacity", 2);
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+
+        organization = new Organization();
+        organization.setId(ORGANIZATION_ID);
+
+        lenient().when(entityManager.createQuery(anyString(), eq(Object[].class))).thenReturn(query);
+        lenient().when(query.setParameter(anyString(), any())).thenReturn(query);
+        lenient().when(query.setHint(anyString(), any())).thenReturn(query);
+        lenient().when(query.setMaxResults(anyInt())).thenReturn(query);
+    }
+
+    private Customer customer(long id, CustomerSegment segment, String spent, int reservations, String category) {
+        return Customer.builder()
+                .id(id)
+                .organization(organization)
+                .segment(segment)
+                .totalSpent(new BigDecimal(spent))
+                .totalReservations(reservations)
+                .customerLifetimeValue(new BigDecimal(spent))
+                .preferredVehicleCategory(category)
+                .build();
+    }
+
+    private static CustomerTopRank entry(CustomerRankCriteria criteria, long customerId, long score) {
+        return CustomerTopRank.builder()
+                .organizationId(ORGANIZATION_ID)
+                .criteria(criteria)
+                .customerId(customerId)
+                .score(score)
+                .build();
+    }
+
+    @Test
+    void customerChanged_ShouldMoveTheCustomerBetweenBucketsAndAdjustSpend() {
+        // Given
+        when(countRepository.existsForOrganization(ORGANIZATION_ID)).thenReturn(true);
+        when(countRepository.countCustomers(ORGANIZATION_ID)).thenReturn(1L);
+        when(countRepository.increment(anyLong(), any(), anyString(), anyLong(), anyLong())).thenReturn(1);
+        CustomerSummaryService.Entry before = CustomerSummaryService.Entry.of(customer(7L, CustomerSegment.NEW, "100.00", 2, "SUV"));
+
+        // When
+        service.customerChanged(before, customer(7L, CustomerSegment.REGULAR, "150.00", 3, "suv"));
+
+        // Then the segment moves, the category only gains the spend
+        verify(countRepository).findForUpdate(ORGANIZATION_ID, CustomerSummaryDimension.SEGMENT, CustomerSummaryService.ANCHOR_BUCKET);
+        verify(countRepository).increment(ORGANIZATION_ID, CustomerSummaryDimension.SEGMENT, "NEW", -1, -10_000);
+        verify(countRepository).increment(ORGANIZATION_ID, CustomerSummaryDimension.SEGMENT, "REGULAR", 1, 15_000);
+        verify(countRepository).increment(ORGANIZATION_ID, CustomerSummaryDimension.PREFERRED_CATEGORY, "suv", 0, 5_000);
+        verify(countRepository, never()).save(any());
+    }
+
+    @Test
+    void customerChanged_IntoAFullRanking_ShouldEvictTheLowestEntry() {
+        // Given a ranking at capacity, out of five customers
+        when(countRepository.existsForOrganization(ORGANIZATION_ID)).thenReturn(true);
+        when(countRepository.countCustomers(ORGANIZATION_ID)).thenReturn(5L);
+        when(topRankRepository.findEntry(eq(ORGANIZATION_ID), any(), eq(7L))).thenReturn(Optional.empty());
+        when(topRankRepository.countEntries(eq(ORGANIZATION_ID), any())).thenReturn(2L);
+        CustomerTopRank lowest = entry(CustomerRankCriteria.SPENDING, 1L, 1);
+        when(topRankRepository.findLowest(eq(ORGANIZATION_ID), any(), any())).thenReturn(List.of(lowest));
+
+        // When
+        service.customerChanged(null, customer(7L, CustomerSegment.NEW, "500.00", 5, null));
+
+        // Then each criteria ranks the customer and drops its weakest entry
+        ArgumentCaptor<CustomerTopRank> saved = ArgumentCaptor.forClass(CustomerTopRank.class);
+        verify(topRankRepository, times(3)).save(saved.capture());
+        assertThat(saved.getAllValues()).extracting(CustomerTopRank::getScore).containsExactly(50_000L, 5L, 50_000L);
+        verify(topRankRepository, times(3)).findLowest(eq(ORGANIZATION_ID), any(), eq(PageRequest.of(0, 1)));
+        verify(topRankRepository, times(3)).deleteAll(List.of(lowest));
+    }
+
+    @Test
+    void customerChanged_BelowTheFloor_ShouldLeaveTheRanking() {
+        // Given a ranked customer while three customers are unranked
+        when(countRepository.existsForOrganization(ORGANIZATION_ID)).thenReturn(true);
+        when(countRepository.countCustomers(ORGANIZATION_ID)).thenReturn(5L);
+        CustomerTopRank current = entry(CustomerRankCriteria.SPENDING, 7L, 50_000);
+        when(topRankRepository.findEntry(eq(ORGANIZATION_ID), any(), eq(7L))).thenReturn(Optional.empty());
+        when(topRankRepository.findEntry(ORGANIZATION_ID, CustomerRankCriteria.SPENDING, 7L)).thenReturn(Optional.of(current));
+        when(topRankRepository.countEntries(eq(ORGANIZATION_ID), any())).thenReturn(2L);
+        when(topRankRepository.findLowest(eq(ORGANIZATION_ID), any(), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(entry(CustomerRankCriteria.SPENDING, 3L, 30_000), current));
+        CustomerSummaryService.Entry before = CustomerSummaryService.Entry.of(customer(7L, CustomerSegment.NEW, "500.00", 5, null));
+
+        // When the spend drops under the other entry's, after a refund
+        service.customerChanged(before, customer(7L, CustomerSegment.NEW, "100.00", 5, null));
+
+        // Then
+        verify(topRankRepository).delete(current);
+        assertThat(current.getScore()).isEqualTo(50_000L);
+    }
+
+    @Test
+    void getTopCustomerIds_WhenTheRankingRanDry_ShouldRefillUnderTheLock() {
+        // Given
+        when(countRepository.existsForOrganization(ORGANIZATION_ID)).thenReturn(true);
+        when(countRepository.countCustomers(ORGANIZATION_ID)).thenReturn(5L);
+        when(topRankRepository.findTopCustomerIds(eq(ORGANIZATION_ID), eq(CustomerRankCriteria.SPENDING), any()))
+                .thenReturn(List.of(1L), List.of(3L, 1L));
+        when(topRankRepository.countEntries(ORGANIZATION_ID, CustomerRankCriteria.SPENDING)).thenReturn(1L);
+        when(query.getResultList()).thenReturn(List.of(
+                new Object[]{3L, new BigDecimal("900.00")}, new Object[]{1L, new BigDecimal("400.00")}));
+
+        // When
+        List<Long> ids = service.getTopCustomerIds(ORGANIZATION_ID, CustomerRankCriteria.SPENDING, 2);
+
+        // Then
+        assertThat(ids).containsExactly(3L, 1L);
+        verify(countRepository).findForUpdate(ORGANIZATION_ID, CustomerSummaryDimension.SEGMENT, CustomerSummaryService.ANCHOR_BUCKET);
+        verify(query).setMaxResults(2);
+        verify(topRankRepository).deleteByCriteria(ORGANIZATION_ID, CustomerRankCriteria.SPENDING);
+        verify(topRankRepository).saveAll(List.of(
+                entry(CustomerRankCriteria.SPENDING, 3L, 90_000), entry(CustomerRankCriteria.SPENDING, 1L, 40_000)));
+    }
+
+    @Test
+    void getTopCustomerIds_WhenRefilledWhileWaitingForTheLock_ShouldNotRefillAgain() {
+        // Given
+        when(countRepository.existsForOrganization(ORGANIZATION_ID)).thenReturn(true);
+        when(countRepository.countCustomers(ORGANIZATION_ID)).thenReturn(5L);
+        when(topRankRepository.findTopCustomerIds(eq(ORGANIZATION_ID), eq(CustomerRankCriteria.SPENDING), any()))
+                .thenReturn(List.of(1L), List.of(3L, 1L));
+        when(topRankRepository.countEntries(ORGANIZATION_ID, CustomerRankCriteria.SPENDING)).thenReturn(1L, 2L);
+
+        // When
+        List<Long> ids = service.getTopCustomerIds(ORGANIZATION_ID, CustomerRankCriteria.SPENDING, 2);
+
+        // Then
+        assertThat(ids).containsExactly(3L, 1L);
+        verify(topRankRepository, never()).deleteByCriteria(any(), any());
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void getCounts_OfANewOrganization_ShouldClaimAndBuildTheSummaries() {
+        // Given
+        when(countRepository.existsForOrganization(ORGANIZATION_ID)).thenReturn(false);
+        when(jdbcTemplate.update(startsWith("INSERT INTO customer_summary_counts"), eq(ORGANIZATION_ID),
+                eq("SEGMENT"), eq(CustomerSummaryService.ANCHOR_BUCKET))).thenReturn(1);
+        when(query.getResultStream()).thenReturn(Stream.<Object[]>of(
+                new Object[]{7L, CustomerSegment.VIP, new BigDecimal("250.00"), 12, new BigDecimal("300.00"), "SUV"}));
+
+        // When
+        service.getCounts(ORGANIZATION_ID, CustomerSummaryDimension.SEGMENT);
+
+        // Then every segment is written, including the anchor the claim inserted
+        verify(countRepository).findForUpdate(ORGANIZATION_ID, CustomerSummaryDimension.SEGMENT, CustomerSummaryService.ANCHOR_BUCKET);
+        verify(countRepository).deleteByOrganizationId(ORGANIZATION_ID);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CustomerSummaryCount>> saved = ArgumentCaptor.forClass(List.class);
+        verify(countRepository).saveAll(saved.capture());
+        assertThat(saved.getValue())
+                .filteredOn(row -> row.getDimension() == CustomerSummaryDimension.SEGMENT)
+                .extracting(CustomerSummaryCount::getBucket)
+                .containsExactlyInAnyOrder("NEW", "REGULAR", "PREMIUM", "VIP", "CORPORATE");
+        verify(countRepository).findByDimension(ORGANIZATION_ID, CustomerSummaryDimension.SEGMENT);
+    }
+
+    @Test
+    void getCounts_WhenAConcurrentReadBuiltFirst_ShouldReadItsRows() {
+        // Given
+        when(countRepository.existsForOrganization(ORGANIZATION_ID)).thenReturn(false);
+        when(jdbcTemplate.update(startsWith("INSERT INTO customer_summary_counts"), eq(ORGANIZATION_ID),
+                eq("SEGMENT"), eq(CustomerSummaryService.ANCHOR_BUCKET)))
+                .thenThrow(new DuplicateKeyException("uk_customer_summary_counts_bucket"));
+        CustomerSummaryCount built = CustomerSummaryCount.builder()
+                .organizationId(ORGANIZATION_ID).dimension(CustomerSummaryDimension.SEGMENT).bucket("NEW").customers(4L).build();
+        when(countRepository.findByDimension(ORGANIZATION_ID, CustomerSummaryDimension.SEGMENT)).thenReturn(List.of(built));
+
+        // When
+        List<CustomerSummaryCount> counts = service.getCounts(ORGANIZATION_ID, CustomerSummaryDimension.SEGMENT);
+
+        // Then
+        assertThat(counts).containsExactly(built);
+        verify(transactionManager).rollback(any());
+        verify(countRepository, never()).deleteByOrganizationId(any());
+        verifyNoInteractions(entityManager);
+    }
+}
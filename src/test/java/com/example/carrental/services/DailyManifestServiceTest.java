@@ -0,0 +1,166 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.dto.ReservationResponseDTO;
+import com.example.carrental.enums.ReservationStatus;
+import com.example.carrental.mapper.ReservationMapper;
+import com.example.carrental.model.Reservation;
+import com.example.carrental.repository.ReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DailyManifestServiceTest {
+
+    private static final Long ORGANIZATION_ID = 10L;
+    private static final long NOW = 1_000_000L;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private ReservationMapper reservationMapper;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    // What the database currently holds, by reservation id
+    private final Map<Long, ReservationResponseDTO> rows = new HashMap<>();
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(ORGANIZATION_ID);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(reservationMapper.toResponseDTO(any())).thenAnswer(invocation ->
+                rows.get(invocation.<Reservation>getArgument(0).getId()));
+        lenient().when(reservationRepository.findManifestForDate(eq(ORGANIZATION_ID), any())).thenAnswer(invocation ->
+                rows.keySet().stream().map(DailyManifestServiceTest::reservation).toList());
+        lenient().when(reservationRepository.findForManifestByIdIn(anyCollection())).thenAnswer(invocation ->
+                invocation.<List<Long>>getArgument(0).stream()
+                        .filter(rows::containsKey)
+                        .map(DailyManifestServiceTest::reservation)
+                        .toList());
+
+        rows.put(1L, pickup(1L, "RES-1", "Airport"));
+        rows.put(2L, pickup(2L, "RES-2", "Downtown"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    private static Reservation reservation(Long id) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        return reservation;
+    }
+
+    private ReservationResponseDTO pickup(Long id, String code, String location) {
+        return ReservationResponseDTO.builder()
+                .id(id)
+                .reservationCode(code)
+                .status(ReservationStatus.CONFIRMED)
+                .startDate(today)
+                .endDate(today.plusDays(3))
+                .pickupLocation(location)
+                .build();
+    }
+
+    private DailyManifestService newInstance() {
+        return new DailyManifestService(reservationRepository, reservationMapper, transactionTemplate);
+    }
+
+    @Test
+    void getManifest_ShouldGiveTheSameEtagOnEveryInstance() {
+        // When
+        DailyManifestService.ManifestView first = newInstance().getManifest(DailyManifestService.Kind.PICKUPS, today, null, NOW);
+        DailyManifestService.ManifestView second = newInstance().getManifest(DailyManifestService.Kind.PICKUPS, today, null, NOW + 5);
+
+        // Then
+        assertThat(first.getReservations()).extracting(ReservationResponseDTO::getReservationCode)
+                .containsExactly("RES-1", "RES-2");
+        assertThat(first.getEtag()).isNotNull().isEqualTo(second.getEtag());
+    }
+
+    @Test
+    void reservationChanged_ShouldRefetchOnlyThatReservationAndChangeTheEtag() {
+        // Given
+        DailyManifestService service = newInstance();
+        String before = service.getManifest(DailyManifestService.Kind.PICKUPS, today, null, NOW).getEtag();
+
+        // When a change that does not alter the board is reported
+        service.reservationChanged(ORGANIZATION_ID, 1L);
+        String unchanged = service.getManifest(DailyManifestService.Kind.PICKUPS, today, null, NOW + 1).getEtag();
+
+        // And then a cancellation
+        ReservationResponseDTO cancelled = pickup(2L, "RES-2", "Downtown");
+        cancelled.setStatus(ReservationStatus.CANCELLED);
+        rows.put(2L, cancelled);
+        service.reservationChanged(ORGANIZATION_ID, 2L);
+        DailyManifestService.ManifestView after = service.getManifest(DailyManifestService.Kind.PICKUPS, today, null, NOW + 2);
+
+        // Then
+        assertThat(unchanged).isEqualTo(before);
+        assertThat(after.getEtag()).isNotEqualTo(before);
+        assertThat(after.getReservations()).extracting(ReservationResponseDTO::getId).containsExactly(1L);
+        verify(reservationRepository, times(1)).findManifestForDate(eq(ORGANIZATION_ID), any());
+        verify(reservationRepository).findForManifestByIdIn(List.of(2L));
+    }
+
+    @Test
+    void getManifest_ShouldReloadADayOnceItIsOlderThanTheMaxAge() {
+        // Given
+        DailyManifestService service = newInstance();
+        String before = service.getManifest(DailyManifestService.Kind.PICKUPS, today, null, NOW).getEtag();
+
+        // When another instance adds a pickup, which this one is never told about
+        rows.put(3L, pickup(3L, "RES-3", "Airport"));
+        DailyManifestService.ManifestView fresh = service.getManifest(DailyManifestService.Kind.PICKUPS, today, null, NOW + 30_000);
+        DailyManifestService.ManifestView reloaded = service.getManifest(DailyManifestService.Kind.PICKUPS, today, null, NOW + 60_000);
+
+        // Then
+        assertThat(fresh.getEtag()).isEqualTo(before);
+        assertThat(reloaded.getEtag()).isNotEqualTo(before);
+        assertThat(reloaded.getReservations()).extracting(ReservationResponseDTO::getReservationCode)
+                .containsExactly("RES-1", "RES-3", "RES-2");
+        assertThat(reloaded.getEtag()).isEqualTo(newInstance()
+                .getManifest(DailyManifestService.Kind.PICKUPS, today, null, NOW).getEtag());
+    }
+
+    @Test
+    void getManifest_ShouldFilterByLocationWithItsOwnEtag() {
+        // When
+        DailyManifestService service = newInstance();
+        DailyManifestService.ManifestView airport = service.getManifest(DailyManifestService.Kind.PICKUPS, today, " AIRPORT ", NOW);
+        DailyManifestService.ManifestView all = service.getManifest(DailyManifestService.Kind.PICKUPS, today, null, NOW);
+
+        // Then
+        assertThat(airport.getReservations()).extracting(ReservationResponseDTO::getId).containsExactly(1L);
+        assertThat(airport.getEtag()).isNotEqualTo(all.getEtag());
+    }
+}
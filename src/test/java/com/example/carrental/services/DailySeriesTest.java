@@ -0,0 +1,48 @@
+package com.example.carrental.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DailySeriesTest {
+
+    private static final long ORIGIN = 20_000;
+
+    private DailySeries series() {
+        // 5 days, fleet of 4 except a snapshot of 5 on day 2
+        return DailySeries.builder(ORIGIN, 5, 4)
+                .add(ORIGIN, DailySeries.REVENUE_CENTS, 10_000)
+                .add(ORIGIN + 1, DailySeries.REVENUE_CENTS, 2_550)
+                .add(ORIGIN + 4, DailySeries.REVENUE_CENTS, 700)
+                .add(ORIGIN + 1, DailySeries.RENTED_DAYS, 2)
+                .add(ORIGIN + 2, DailySeries.RENTED_DAYS, 3)
+                .fleetSize(ORIGIN + 2, 5)
+                .build();
+    }
+
+    @Test
+    void sum_ShouldTotalAnyWindowFromPrefixSums() {
+        // Given
+        DailySeries series = series();
+
+        // When / Then
+        assertThat(series.sum(DailySeries.REVENUE_CENTS, ORIGIN, ORIGIN + 4)).isEqualTo(13_250);
+        assertThat(series.sum(DailySeries.REVENUE_CENTS, ORIGIN + 1, ORIGIN + 3)).isEqualTo(2_550);
+        assertThat(series.sum(DailySeries.RENTED_DAYS, ORIGIN + 2, ORIGIN + 2)).isEqualTo(3);
+        assertThat(series.sum(DailySeries.RESERVATIONS, ORIGIN, ORIGIN + 4)).isZero();
+    }
+
+    @Test
+    void sum_ShouldClipToTheSeriesExceptForFleetDays() {
+        // Given
+        DailySeries series = series();
+
+        // When / Then
+        assertThat(series.sum(DailySeries.REVENUE_CENTS, ORIGIN - 10, ORIGIN + 10)).isEqualTo(13_250);
+        assertThat(series.sum(DailySeries.REVENUE_CENTS, ORIGIN + 5, ORIGIN + 9)).isZero();
+        // 4 + 4 + 5 snapshot, then 2 days outside at the default
+        assertThat(series.sum(DailySeries.FLEET_DAYS, ORIGIN, ORIGIN + 2)).isEqualTo(13);
+        assertThat(series.sum(DailySeries.FLEET_DAYS, ORIGIN - 2, ORIGIN - 1)).isEqualTo(8);
+        assertThat(series.sum(DailySeries.FLEET_DAYS, ORIGIN + 1, ORIGIN)).isZero();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.carrental.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EngagementScorerTest {
+
+    @Test
+    void code_ShouldScoreEachDimensionAgainstTheDefaultBounds() {
+        // Given
+        EngagementScorer scorer = EngagementScorer.DEFAULT;
+
+        // When / Then
+        // Rented 10 days ago, 5 reservations, 600.00 spent
+        assertThat(scorer.code(10, 5, 600_00)).isEqualTo(543);
+        // Exactly on a recency bound still earns the better score
+        assertThat(scorer.recencyScore(30)).isEqualTo(5);
+        assertThat(scorer.recencyScore(31)).isEqualTo(4);
+        assertThat(scorer.recencyScore(400)).isEqualTo(1);
+        assertThat(scorer.code(EngagementScorer.NEVER, 0, 0)).isEqualTo(111);
+    }
+
+    @Test
+    void composite_ShouldMapCodesOntoZeroToHundred() {
+        assertThat(EngagementScorer.composite(111)).isZero();
+        assertThat(EngagementScorer.composite(555)).isEqualTo(100);
+        assertThat(EngagementScorer.composite(333)).isEqualTo(50);
+    }
+
+    @Test
+    void fromPopulation_ShouldUseQuintilesOfActiveCustomers() {
+        // Given
+        int count = 105;
+        int[] recency = new int[count];
+        int[] frequency = new int[count];
+        long[] monetary = new long[count];
+        for (int i = 0; i < 100; i++) {
+            recency[i] = i + 1;
+            frequency[i] = i + 1;
+            monetary[i] = (i + 1) * 100L;
+        }
+        // Inactive customers stay out of the quintiles
+        for (int i = 100; i < count; i++) {
+            recency[i] = EngagementScorer.NEVER;
+        }
+
+        // When
+        EngagementScorer scorer = EngagementScorer.fromPopulation(recency, frequency, monetary, count);
+        int[] codes = scorer.codes(recency, frequency, monetary, count);
+
+        // Then
+        assertThat(scorer.getRecencyBounds()).containsExactly(20, 40, 60, 80);
+        assertThat(scorer.getFrequencyBounds()).containsExactly(21, 41, 61, 81);
+        assertThat(scorer.getMonetaryBounds()).containsExactly(2_100, 4_100, 6_100, 8_100);
+        assertThat(codes[0]).isEqualTo(511);
+        assertThat(codes[99]).isEqualTo(155);
+        assertThat(codes[100]).isEqualTo(111);
+        // Each fifth of the active customers gets its own recency score
+        assertThat(Arrays.stream(codes, 0, 100).filter(code -> code / 100 == 5).count()).isEqualTo(20);
+    }
+
+    @Test
+    void fromPopulation_ShouldKeepDefaultsForSmallPopulations() {
+        // Given
+        int[] recency = {5, 10, 15};
+        int[] frequency = {1, 2, 3};
+        long[] monetary = {100, 200, 300};
+
+        // When
+        EngagementScorer scorer = EngagementScorer.fromPopulation(recency, frequency, monetary, 3);
+
+        // Then
+        assertThat(scorer.getRecencyBounds()).containsExactly(EngagementScorer.DEFAULT.getRecencyBounds());
+        assertThat(scorer.getMonetaryBounds()).containsExactly(EngagementScorer.DEFAULT.getMonetaryBounds());
+        assertThatThrownBy(() -> new EngagementScorer(new int[]{1}, new int[4], new long[4]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
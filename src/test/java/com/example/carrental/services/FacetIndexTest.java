@@ -0,0 +1,70 @@
+package com.example.carrental.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FacetIndexTest {
+
+    private static final List<String> FACETS = List.of("category", "fuelType");
+
+    @Test
+    void search_ShouldIntersectFacetsAndCountDisjunctively() {
+        // Given
+        FacetIndex index = new FacetIndex(FACETS);
+        index.put(1, Map.of("category", "SUV", "fuelType", "Diesel"));
+        index.put(2, Map.of("category", "SUV", "fuelType", "Gasolina"));
+        index.put(3, Map.of("category", "Economy", "fuelType", "Gasolina"));
+        index.put(4, Map.of("category", "Compact", "fuelType", "Diesel"));
+
+        // When
+        FacetIndex.Result result = index.search(
+                Map.of("category", Set.of("SUV", "Economy"), "fuelType", Set.of("Gasolina")), List.of(), FACETS);
+
+        // Then
+        assertThat(result.getIds()).containsExactly(2, 3);
+        // category counts ignore the category filter but keep fuelType=Gasolina
+        assertThat(result.getCounts().get("category")).isEqualTo(Map.of("SUV", 1, "Economy", 1));
+        // fuelType counts ignore the fuelType filter but keep category in (SUV, Economy)
+        assertThat(result.getCounts().get("fuelType")).isEqualTo(Map.of("Diesel", 1, "Gasolina", 2));
+    }
+
+    @Test
+    void search_ShouldDropExcludedIdsFromResultsAndCounts() {
+        // Given
+        FacetIndex index = new FacetIndex(FACETS);
+        index.put(1, Map.of("category", "SUV", "fuelType", "Diesel"));
+        index.put(2, Map.of("category", "SUV", "fuelType", "Gasolina"));
+
+        // When
+        FacetIndex.Result result = index.search(Map.of(), List.of(2L), FACETS);
+
+        // Then
+        assertThat(result.getIds()).containsExactly(1);
+        assertThat(result.getCounts().get("fuelType")).isEqualTo(Map.of("Diesel", 1));
+    }
+
+    @Test
+    void put_ShouldMoveUpdatedEntityAndReuseRemovedSlots() {
+        // Given
+        FacetIndex index = new FacetIndex(FACETS);
+        index.put(1, Map.of("category", "SUV", "fuelType", "Diesel"));
+        index.put(2, Map.of("category", "SUV", "fuelType", "Diesel"));
+
+        // When
+        index.put(1, Map.of("category", "Economy", "fuelType", "Diesel"));
+        index.remove(2);
+        index.put(3, Map.of("category", "Compact"));
+
+        // Then
+        FacetIndex.Result result = index.search(Map.of(), List.of(), FACETS);
+        assertThat(result.getIds()).containsExactly(1, 3);
+        assertThat(result.getCounts().get("category")).isEqualTo(Map.of("Economy", 1, "Compact", 1));
+        assertThat(result.getCounts().get("fuelType")).isEqualTo(Map.of("Diesel", 1));
+        assertThat(index.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.carrental.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FleetDistributionProjectionTest {
+
+    private static final int AIRPORT = 0;
+    private static final int DOWNTOWN = 1;
+    private static final int SUV = 0;
+
+    private FleetDistributionProjection projection() {
+        // 3 days, two SUVs at the airport, none downtown
+        FleetDistributionProjection projection = new FleetDistributionProjection(3, 2, 1);
+        projection.vehicle(AIRPORT, SUV);
+        projection.vehicle(AIRPORT, SUV);
+        // One-way: picked up at the airport today, returned downtown today, available there tomorrow
+        projection.departure(0, AIRPORT, SUV);
+        projection.arrival(1, DOWNTOWN, SUV);
+        // Two downtown pickups
+        projection.departure(1, DOWNTOWN, SUV);
+        projection.departure(2, DOWNTOWN, SUV);
+        return projection;
+    }
+
+    @Test
+    void compute_ShouldRunDailyChangesOverVehiclesOnHand() {
+        // Given
+        FleetDistributionProjection projection = projection();
+
+        // When
+        projection.compute(0);
+
+        // Then
+        assertThat(new int[]{projection.projected(0, AIRPORT, SUV), projection.projected(1, AIRPORT, SUV),
+                projection.projected(2, AIRPORT, SUV)}).containsExactly(1, 1, 1);
+        assertThat(new int[]{projection.projected(0, DOWNTOWN, SUV), projection.projected(1, DOWNTOWN, SUV),
+                projection.projected(2, DOWNTOWN, SUV)}).containsExactly(0, 0, -1);
+        assertThat(projection.minimum(DOWNTOWN, SUV)).isEqualTo(-1);
+        assertThat(projection.minimumDay(DOWNTOWN, SUV)).isEqualTo(2);
+        assertThat(projection.firstShortageDay(DOWNTOWN, SUV)).isEqualTo(2);
+        assertThat(projection.firstShortageDay(AIRPORT, SUV)).isEqualTo(-1);
+    }
+
+    @Test
+    void recommendTransfers_ShouldMoveSpareVehiclesToBranchesFallingShort() {
+        // Given
+        FleetDistributionProjection projection = projection();
+        projection.compute(0);
+
+        // When
+        List<FleetDistributionProjection.Transfer> transfers = projection.recommendTransfers();
+
+        // Then
+        assertThat(transfers).hasSize(1);
+        FleetDistributionProjection.Transfer transfer = transfers.get(0);
+        assertThat(transfer.getFromBranch()).isEqualTo(AIRPORT);
+        assertThat(transfer.getToBranch()).isEqualTo(DOWNTOWN);
+        assertThat(transfer.getVehicles()).isEqualTo(1);
+        assertThat(transfer.getNeededByDay()).isEqualTo(2);
+    }
+
+    @Test
+    void recommendTransfers_ShouldLeaveShortfallUncoveredWhenNoBranchHasSpare() {
+        // Given: a safety stock of one leaves the airport nothing to give
+        FleetDistributionProjection projection = projection();
+        projection.compute(1);
+
+        // When / Then
+        assertThat(projection.shortfall(DOWNTOWN, SUV)).isEqualTo(2);
+        assertThat(projection.spare(AIRPORT, SUV)).isZero();
+        assertThat(projection.recommendTransfers()).isEmpty();
+    }
+
+    @Test
+    void departure_ShouldClampPastDaysAndIgnoreDaysBeyondTheHorizon() {
+        // Given
+        FleetDistributionProjection projection = new FleetDistributionProjection(3, 1, 1);
+        projection.vehicle(0, 0);
+        projection.vehicle(0, 0);
+        projection.departure(-2, 0, 0);
+        projection.departure(3, 0, 0);
+
+        // When
+        projection.compute(0);
+
+        // Then
+        assertThat(projection.projected(0, 0, 0)).isEqualTo(1);
+        assertThat(projection.projected(2, 0, 0)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.carrental.services;
+
+import com.example.carrental.enums.JobType;
+import com.example.carrental.model.Job;
+import com.example.carrental.repository.JobRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobWorkerTest {
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @Mock
+    private JobQueueService jobQueueService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    @Mock
+    private Executor wakeUpExecutor;
+
+    private JobWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        worker = new JobWorker(jobRepository, jobQueueService, transactionManager, new ObjectMapper(),
+                List.of(), new MockEnvironment(), meterRegistryProvider, wakeUpExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    private static Job job(int attempts, int maxAttempts) {
+        return Job.builder()
+                .id(1L)
+                .jobType(JobType.PHOTO_VARIANTS)
+                .payload("{}")
+                .status("RUNNING")
+                .attempts(attempts)
+                .maxAttempts(maxAttempts)
+                .runAt(LocalDateTime.now())
+                .lockedUntil(LocalDateTime.now().plusMinutes(10))
+                .build();
+    }
+
+    @Test
+    void claim_ShouldCountTheAttemptAndLeaseTheJob() {
+        // Given
+        Job queued = job(0, 3);
+        queued.setStatus("QUEUED");
+        queued.setLockedUntil(null);
+        when(jobRepository.findRunnableForUpdate(eq(JobType.PHOTO_VARIANTS), any(), any())).thenReturn(List.of(queued));
+
+        // When
+        List<Job> claimed = worker.claim(JobType.PHOTO_VARIANTS, 2);
+
+        // Then
+        assertThat(claimed).containsExactly(queued);
+        assertThat(queued.getStatus()).isEqualTo("RUNNING");
+        assertThat(queued.getAttempts()).isEqualTo(1);
+        assertThat(queued.getLockedUntil()).isAfter(queued.getStartedAt());
+    }
+
+    @Test
+    void complete_ShouldRetryWithBackoffUntilTheLastAttempt() {
+        // Given
+        Job failing = job(2, 3);
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(failing));
+
+        // When
+        String outcome = worker.complete(1L, "IOException: disk full");
+
+        // Then
+        assertThat(outcome).isEqualTo("retry");
+        assertThat(failing.getStatus()).isEqualTo("QUEUED");
+        assertThat(failing.getLockedUntil()).isNull();
+        assertThat(failing.getRunAt()).isAfter(LocalDateTime.now().plusSeconds(15));
+        assertThat(failing.getLastError()).isEqualTo("IOException: disk full");
+    }
+
+    @Test
+    void complete_ShouldDeadLetterAtMaxAttemptsAndClearErrorsOnSuccess() {
+        // Given
+        Job exhausted = job(3, 3);
+        Job succeeding = job(1, 3);
+        succeeding.setId(2L);
+        succeeding.setLastError("earlier failure");
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(exhausted));
+        when(jobRepository.findById(2L)).thenReturn(Optional.of(succeeding));
+
+        // When / Then
+        assertThat(worker.complete(1L, "boom")).isEqualTo("dead");
+        assertThat(exhausted.getStatus()).isEqualTo("DEAD");
+        assertThat(exhausted.getFinishedAt()).isNotNull();
+
+        assertThat(worker.complete(2L, null)).isEqualTo("success");
+        assertThat(succeeding.getStatus()).isEqualTo("SUCCEEDED");
+        assertThat(succeeding.getLastError()).isNull();
+    }
+
+    @Test
+    void backoffSeconds_ShouldDoubleUpToOneHour() {
+        assertThat(JobWorker.backoffSeconds(1)).isEqualTo(10);
+        assertThat(JobWorker.backoffSeconds(2)).isEqualTo(20);
+        assertThat(JobWorker.backoffSeconds(4)).isEqualTo(80);
+        assertThat(JobWorker.backoffSeconds(9)).isEqualTo(2560);
+        assertThat(JobWorker.backoffSeconds(10)).isEqualTo(3600);
+        assertThat(JobWorker.backoffSeconds(50)).isEqualTo(3600);
+    }
+
+    @Test
+    void refreshQueueState_ShouldDeadLetterExhaustedLeasesBeforeRequeueing() {
+        // Given
+        when(jobRepository.deadLetterExpired(any())).thenReturn(1);
+        when(jobRepository.requeueExpired(any())).thenReturn(2);
+        when(jobQueueService.getStats(any())).thenReturn(List.of());
+
+        // When
+        worker.refreshQueueState();
+
+        // Then
+        InOrder order = inOrder(jobRepository);
+        order.verify(jobRepository).deadLetterExpired(any());
+        order.verify(jobRepository).requeueExpired(any());
+    }
+
+    @Test
+    void wake_ShouldHandThePollToTheWakeUpExecutor() {
+        // When
+        worker.wake();
+
+        // Then
+        verify(wakeUpExecutor).execute(any());
+    }
+}
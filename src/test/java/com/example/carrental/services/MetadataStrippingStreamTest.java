@@ -0,0 +1,142 @@
+package com.example.carrental.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetadataStrippingStreamTest {
+
+    private static final String SECRET = "GPS 40.4168N 3.7038W SN-0042";
+
+    @TempDir
+    Path directory;
+
+    private static byte[] image(String format, int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, out);
+        return out.toByteArray();
+    }
+
+    private static byte[] insert(byte[] data, int offset, byte[] segment) {
+        byte[] result = new byte[data.length + segment.length];
+        System.arraycopy(data, 0, result, 0, offset);
+        System.arraycopy(segment, 0, result, offset, segment.length);
+        System.arraycopy(data, offset, result, offset + segment.length, data.length - offset);
+        return result;
+    }
+
+    private static byte[] jpegSegment(int marker, byte[] payload) {
+        ByteBuffer segment = ByteBuffer.allocate(4 + payload.length);
+        segment.put((byte) 0xFF).put((byte) marker).putShort((short) (payload.length + 2)).put(payload);
+        return segment.array();
+    }
+
+    /**
+     * EXIF with the orientation tag followed by camera data that must not survive
+     */
+    private static byte[] exif(int orientation) {
+        byte[] tags = {
+                'E', 'x', 'i', 'f', 0, 0,
+                'M', 'M', 0, 42, 0, 0, 0, 8,
+                0, 1,
+                0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+                0, 0, 0, 0
+        };
+        byte[] secret = SECRET.getBytes(StandardCharsets.US_ASCII);
+        byte[] payload = new byte[tags.length + secret.length];
+        System.arraycopy(tags, 0, payload, 0, tags.length);
+        System.arraycopy(secret, 0, payload, tags.length, secret.length);
+        return payload;
+    }
+
+    private static byte[] pngChunk(String type, byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(type.getBytes(StandardCharsets.US_ASCII));
+        crc.update(data);
+        ByteBuffer chunk = ByteBuffer.allocate(12 + data.length);
+        chunk.putInt(data.length).put(type.getBytes(StandardCharsets.US_ASCII)).put(data).putInt((int) crc.getValue());
+        return chunk.array();
+    }
+
+    private static byte[] strip(byte[] content, String extension) throws Exception {
+        try (InputStream in = new MetadataStrippingStream(new ByteArrayInputStream(content), extension)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static String ascii(byte[] bytes) {
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    void jpeg_ShouldKeepOnlyTheOrientationAndTheImage() throws Exception {
+        // Given a rotated phone photo with EXIF, XMP, a comment and a trailer after the image
+        byte[] jpeg = image("jpg", 40, 20);
+        byte[] tagged = insert(jpeg, 2, jpegSegment(0xE1, exif(6)));
+        tagged = insert(tagged, 2, jpegSegment(0xE1, ("http://ns.adobe.com/xap/1.0/\0" + SECRET).getBytes(StandardCharsets.US_ASCII)));
+        tagged = insert(tagged, 2, jpegSegment(0xFE, SECRET.getBytes(StandardCharsets.US_ASCII)));
+        tagged = insert(tagged, tagged.length, SECRET.getBytes(StandardCharsets.US_ASCII));
+
+        // When
+        byte[] stripped = strip(tagged, ".jpg");
+
+        // Then
+        assertThat(ascii(stripped)).doesNotContain(SECRET);
+        Path stored = Files.write(directory.resolve("stored.jpg"), stripped);
+        assertThat(VehiclePhotoProcessingService.readExifOrientation(stored)).isEqualTo(6);
+        BufferedImage decoded = ImageIO.read(stored.toFile());
+        assertThat(decoded.getWidth()).isEqualTo(40);
+        assertThat(decoded.getHeight()).isEqualTo(20);
+    }
+
+    @Test
+    void jpeg_WithoutMetadata_ShouldPassThroughUnchanged() throws Exception {
+        byte[] jpeg = image("jpg", 64, 48);
+
+        assertThat(strip(jpeg, ".jpg")).isEqualTo(jpeg);
+    }
+
+    @Test
+    void png_ShouldDropTextChunks() throws Exception {
+        // Given a text chunk right after IHDR (8 bytes signature, 25 bytes IHDR)
+        byte[] png = image("png", 30, 10);
+        byte[] tagged = insert(png, 33, pngChunk("tEXt", ("Comment\0" + SECRET).getBytes(StandardCharsets.ISO_8859_1)));
+
+        // When
+        byte[] stripped = strip(tagged, ".png");
+
+        // Then
+        assertThat(stripped).isEqualTo(png);
+        assertThat(ImageIO.read(new ByteArrayInputStream(stripped)).getWidth()).isEqualTo(30);
+    }
+
+    @Test
+    void webp_ShouldBlankMetadataChunksAndClearTheirFlags() throws Exception {
+        // Given an extended WebP header announcing EXIF, followed by the EXIF chunk
+        byte[] secret = SECRET.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer webp = ByteBuffer.allocate(12 + 18 + 8 + secret.length).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+        webp.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(webp.capacity() - 8).put("WEBP".getBytes(StandardCharsets.US_ASCII));
+        webp.put("VP8X".getBytes(StandardCharsets.US_ASCII)).putInt(10).put((byte) 0x08).put(new byte[9]);
+        webp.put("EXIF".getBytes(StandardCharsets.US_ASCII)).putInt(secret.length).put(secret);
+
+        // When
+        byte[] stripped = strip(webp.array(), ".webp");
+
+        // Then the size is unchanged, so the RIFF header stays valid
+        assertThat(stripped).hasSameSizeAs(webp.array());
+        assertThat(ascii(stripped)).doesNotContain(SECRET).contains("JUNK");
+        assertThat(stripped[20]).isZero();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.carrental.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MultipartStreamReaderTest {
+
+    private static final String BOUNDARY = "----FormBoundary7MA4YWxk";
+
+    @Test
+    void next_ShouldStreamEachFilePart() throws IOException {
+        // Given
+        byte[] front = randomBytes(200_000, 1);
+        byte[] damage = randomBytes(70_000, 2);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes("preamble to ignore\r\n".getBytes(StandardCharsets.US_ASCII));
+        writePart(body, "FRONT", "front.jpg", front);
+        writeField(body, "note", "scratch on bumper");
+        writePart(body, "DAMAGE", "damage.jpg", damage);
+        body.writeBytes(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+
+        MultipartStreamReader reader = new MultipartStreamReader(
+                trickle(body.toByteArray()), MultipartStreamReader.boundaryOf("multipart/form-data; boundary=" + BOUNDARY));
+
+        // When
+        MultipartStreamReader.Part first = reader.next();
+        byte[] firstContent = first.getInputStream().readAllBytes();
+        MultipartStreamReader.Part field = reader.next();
+        MultipartStreamReader.Part second = reader.next();
+        byte[] secondContent = second.getInputStream().readAllBytes();
+
+        // Then
+        assertThat(first.getName()).isEqualTo("FRONT");
+        assertThat(first.getFilename()).isEqualTo("front.jpg");
+        assertThat(first.getContentType()).isEqualTo("image/jpeg");
+        assertThat(firstContent).isEqualTo(front);
+        assertThat(field.isFile()).isFalse();
+        assertThat(second.getName()).isEqualTo("DAMAGE");
+        assertThat(secondContent).isEqualTo(damage);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void next_ShouldSkipUnreadContentAndKeepNearDelimiterBytes() throws IOException {
+        // Given - content containing the delimiter minus its last character
+        byte[] tricky = ("data\r\n--" + BOUNDARY.substring(0, BOUNDARY.length() - 1) + "!more").getBytes(StandardCharsets.US_ASCII);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writePart(body, "FRONT", "a.jpg", randomBytes(100_000, 3));
+        writePart(body, "BACK", "b.jpg", tricky);
+        body.writeBytes(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(body.toByteArray()), BOUNDARY);
+
+        // When
+        reader.next(); // left unread
+        MultipartStreamReader.Part second = reader.next();
+
+        // Then
+        assertThat(second.getName()).isEqualTo("BACK");
+        assertThat(second.getInputStream().readAllBytes()).isEqualTo(tricky);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void read_ShouldFailWhenClosingBoundaryIsMissing() throws IOException {
+        // Given
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"FRONT\"; filename=\"a.jpg\"\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        body.writeBytes(randomBytes(1000, 4));
+
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(body.toByteArray()), BOUNDARY);
+        InputStream part = reader.next().getInputStream();
+
+        // When / Then
+        assertThatThrownBy(part::readAllBytes)
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("closing boundary missing");
+    }
+
+    @Test
+    void boundaryOf_ShouldRejectNonMultipartContentTypes() {
+        assertThat(MultipartStreamReader.boundaryOf("multipart/form-data; boundary=\"abc\"")).isEqualTo("abc");
+        assertThat(MultipartStreamReader.boundaryOf("image/jpeg")).isNull();
+        assertThat(MultipartStreamReader.boundaryOf(null)).isNull();
+    }
+
+    private void writePart(ByteArrayOutputStream body, String name, String filename, byte[] content) {
+        body.writeBytes(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"; filename=\"" + filename + "\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        body.writeBytes(content);
+        body.writeBytes("\r\n".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void writeField(ByteArrayOutputStream body, String name, String value) {
+        body.writeBytes(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Returns at most a few hundred bytes per read, like a slow socket, so delimiters straddle reads
+     */
+    private InputStream trickle(byte[] content) {
+        Random random = new Random(42);
+        return new FilterInputStream(new ByteArrayInputStream(content)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1 + random.nextInt(700)));
+            }
+        };
+    }
+}
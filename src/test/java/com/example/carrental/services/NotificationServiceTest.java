@@ -0,0 +1,113 @@
+package com.example.carrental.services;
+
+import com.example.carrental.model.Customer;
+import com.example.carrental.model.Notification;
+import com.example.carrental.model.Organization;
+import com.example.carrental.model.Rental;
+import com.example.carrental.model.Reservation;
+import com.example.carrental.model.User;
+import com.example.carrental.model.VehicleModel;
+import com.example.carrental.repository.NotificationRepository;
+import com.example.carrental.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private NotificationService notificationService;
+
+    private Organization hertz;
+    private Organization avis;
+
+    @BeforeEach
+    void setUp() {
+        hertz = organization(1L);
+        avis = organization(2L);
+    }
+
+    private static Organization organization(long id) {
+        Organization organization = new Organization();
+        organization.setId(id);
+        return organization;
+    }
+
+    private static User user(long id, Organization organization) {
+        return User.builder().id(id).username("user" + id).organization(organization).build();
+    }
+
+    private static Rental rental(long id, Organization organization, String plate, String lastName) {
+        VehicleModel vehicle = new VehicleModel();
+        vehicle.setLicensePlate(plate);
+        Customer customer = new Customer();
+        customer.setFirstName("Ana");
+        customer.setLastName(lastName);
+        Reservation reservation = new Reservation();
+        reservation.setOrganization(organization);
+        reservation.setVehicle(vehicle);
+        reservation.setCustomer(customer);
+        return Rental.builder()
+                .id(id)
+                .rentalCode("RNT-" + id)
+                .reservation(reservation)
+                .expectedReturnDateTime(LocalDateTime.of(2026, 3, 20, 10, 0))
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createOverdueRentalAlerts_ShouldNotifyOnlyTheOrganizationsStaffAboutItsOwnRentals() {
+        // Given staff in two organizations, and a rental of the other one in the batch
+        User hertzAdmin = user(10L, hertz);
+        User hertzEmployee = user(11L, hertz);
+        lenient().when(userRepository.findByRoleName(anyString())).thenReturn(List.of(hertzAdmin, user(20L, avis)));
+        when(userRepository.findByRoleNameAndOrganizationId("ADMIN", 1L)).thenReturn(List.of(hertzAdmin));
+        when(userRepository.findByRoleNameAndOrganizationId("EMPLOYEE", 1L)).thenReturn(List.of(hertzEmployee, hertzAdmin));
+        List<Rental> rentals = List.of(rental(1L, hertz, "AAA-111", "Gómez"), rental(2L, avis, "BBB-222", "Pérez"));
+
+        // When
+        int sent = notificationService.createOverdueRentalAlerts(1L, rentals);
+
+        // Then
+        ArgumentCaptor<List<Notification>> saved = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).saveAll(saved.capture());
+        assertThat(sent).isEqualTo(2);
+        assertThat(saved.getValue()).extracting(Notification::getUser).containsExactly(hertzAdmin, hertzEmployee);
+        assertThat(saved.getValue()).allSatisfy(notification -> {
+            assertThat(notification.getOrganization()).isSameAs(hertz);
+            assertThat(notification.getMessage()).contains("AAA-111", "Gómez").doesNotContain("BBB-222", "Pérez");
+            assertThat(notification.getRelatedEntityId()).isEqualTo(1L);
+        });
+        verify(userRepository, never()).findByRoleNameAndOrganizationId(anyString(), eq(2L));
+    }
+
+    @Test
+    void createOverdueRentalAlerts_OfOnlyAnotherOrganizationsRentals_ShouldSendNothing() {
+        // When
+        int sent = notificationService.createOverdueRentalAlerts(1L, List.of(rental(2L, avis, "BBB-222", "Pérez")));
+
+        // Then
+        assertThat(sent).isZero();
+        verifyNoInteractions(userRepository, notificationRepository);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.enums.DomainEventType;
+import com.example.carrental.events.DomainEventHandler;
+import com.example.carrental.model.OutboxEvent;
+import com.example.carrental.model.ProcessedEvent;
+import com.example.carrental.repository.OutboxEventRepository;
+import com.example.carrental.repository.ProcessedEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private ProcessedEventRepository processedEventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private Executor wakeUpExecutor;
+
+    @Mock
+    private DomainEventHandler rollupHandler;
+
+    @Mock
+    private DomainEventHandler vehicleHandler;
+
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new OutboxDispatcher(outboxEventRepository, processedEventRepository,
+                List.of(rollupHandler, vehicleHandler), transactionManager, new ObjectMapper(), wakeUpExecutor);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 100);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", 60L);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+
+        lenient().when(rollupHandler.getName()).thenReturn("Rollup");
+        lenient().when(rollupHandler.supports(DomainEventType.RESERVATION_CREATED)).thenReturn(true);
+        lenient().when(vehicleHandler.supports(DomainEventType.RESERVATION_CREATED)).thenReturn(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    private OutboxEvent due(int attempts) {
+        OutboxEvent event = OutboxEvent.builder()
+                .id(1L)
+                .organizationId(5L)
+                .eventType(DomainEventType.RESERVATION_CREATED)
+                .aggregateId(10L)
+                .payload("{\"reservationId\": 10}")
+                .attempts(attempts)
+                .availableAt(LocalDateTime.now())
+                .build();
+        when(outboxEventRepository.findDueForUpdate(any(), any())).thenReturn(List.of(event), List.of());
+        when(outboxEventRepository.findById(1L)).thenReturn(Optional.of(event));
+        return event;
+    }
+
+    @Test
+    void poll_ShouldRunTheSupportingHandlersUnderTheEventsTenantAndMarkTheEventProcessed() {
+        // Given
+        OutboxEvent event = due(0);
+        AtomicReference<Long> tenant = new AtomicReference<>();
+        doAnswer(invocation -> {
+            tenant.set(TenantContext.getTenantId());
+            return null;
+        }).when(rollupHandler).handle(any());
+
+        // When
+        dispatcher.poll();
+
+        // Then
+        assertThat(event.getStatus()).isEqualTo("PROCESSED");
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getProcessedAt()).isNotNull();
+        assertThat(tenant.get()).isEqualTo(5L);
+        assertThat(TenantContext.hasTenant()).isFalse();
+        verify(processedEventRepository).save(argThat((ProcessedEvent marker) ->
+                marker.getId().equals("Rollup:1") && marker.getEventId().equals(1L)));
+        verify(vehicleHandler, never()).handle(any());
+    }
+
+    @Test
+    void poll_OfAnEventAlreadyHandled_ShouldSkipTheHandler() {
+        // Given the handler committed before the instance died, so the event is redelivered
+        OutboxEvent event = due(1);
+        when(processedEventRepository.existsById("Rollup:1")).thenReturn(true);
+
+        // When
+        dispatcher.poll();
+
+        // Then
+        assertThat(event.getStatus()).isEqualTo("PROCESSED");
+        verify(rollupHandler, never()).handle(any());
+        verify(processedEventRepository, never()).save(any());
+    }
+
+    @Test
+    void poll_WhenAHandlerFails_ShouldRollItBackAndRetryWithBackoff() {
+        // Given
+        OutboxEvent event = due(1);
+        doThrow(new IllegalStateException("rollup down")).when(rollupHandler).handle(any());
+
+        // When
+        dispatcher.poll();
+
+        // Then the second attempt waits 4 seconds instead of the lease
+        assertThat(event.getStatus()).isEqualTo("PENDING");
+        assertThat(event.getAttempts()).isEqualTo(2);
+        assertThat(event.getLastError()).isEqualTo("IllegalStateException: rollup down");
+        assertThat(event.getAvailableAt()).isCloseTo(LocalDateTime.now().plusSeconds(4), within(2, ChronoUnit.SECONDS));
+        verify(processedEventRepository, never()).save(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void poll_OnTheLastAttempt_ShouldMarkTheEventFailed() {
+        // Given
+        OutboxEvent event = due(2);
+        doThrow(new IllegalStateException("rollup down")).when(rollupHandler).handle(any());
+
+        // When
+        dispatcher.poll();
+
+        // Then
+        assertThat(event.getStatus()).isEqualTo("FAILED");
+        assertThat(event.getAttempts()).isEqualTo(3);
+        assertThat(event.getLastError()).contains("rollup down");
+    }
+
+    @Test
+    void poll_WithAnUnreadablePayload_ShouldRetryWithoutRunningHandlers() {
+        // Given
+        OutboxEvent event = due(0);
+        event.setPayload("not json");
+
+        // When
+        dispatcher.poll();
+
+        // Then
+        assertThat(event.getStatus()).isEqualTo("PENDING");
+        assertThat(event.getLastError()).isNotNull();
+        verify(rollupHandler, never()).handle(any());
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.carrental.services;
+
+import com.example.carrental.enums.JobType;
+import com.example.carrental.enums.RentalStatus;
+import com.example.carrental.model.Organization;
+import com.example.carrental.model.Rental;
+import com.example.carrental.model.Reservation;
+import com.example.carrental.repository.RentalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OverdueRentalEngineTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 20, 12, 30);
+
+    @Mock
+    private RentalRepository rentalRepository;
+
+    @Mock
+    private JobQueueService jobQueueService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CrossTenantTaskRunner crossTenantTaskRunner;
+
+    private OverdueRentalEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        engine = new OverdueRentalEngine(rentalRepository, jobQueueService, transactionTemplate, crossTenantTaskRunner);
+    }
+
+    private static Rental rental(long id, long organizationId, LocalDateTime expectedReturn) {
+        Organization organization = new Organization();
+        organization.setId(organizationId);
+        Reservation reservation = new Reservation();
+        reservation.setOrganization(organization);
+        return Rental.builder()
+                .id(id)
+                .reservation(reservation)
+                .status(RentalStatus.ACTIVE)
+                .expectedReturnDateTime(expectedReturn)
+                .lateReturnFee(BigDecimal.ZERO)
+                .build();
+    }
+
+    @Test
+    void lateReturnFee_ShouldChargeTenPerFullHourLate() {
+        LocalDateTime due = NOW.minusHours(3).minusMinutes(59);
+
+        assertThat(Rental.lateReturnFee(due, NOW)).isEqualByComparingTo("30");
+        assertThat(Rental.lateReturnFee(NOW.minusMinutes(59), NOW)).isEqualByComparingTo("0");
+        assertThat(Rental.lateReturnFee(NOW.plusHours(2), NOW)).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void detectNewlyOverdue_ShouldMarkRentalsAndQueueOneAlertPerOrganization() {
+        // Given
+        Rental first = rental(1L, 10L, NOW.minusHours(2).minusMinutes(5));
+        Rental second = rental(2L, 10L, NOW.minusMinutes(10));
+        Rental other = rental(3L, 20L, NOW.minusHours(1));
+        when(rentalRepository.findNewlyOverdueForUpdate(eq(NOW), any())).thenReturn(List.of(first, second, other));
+
+        // When
+        int detected = engine.detectNewlyOverdue(NOW);
+
+        // Then
+        assertThat(detected).isEqualTo(3);
+        assertThat(first.getStatus()).isEqualTo(RentalStatus.OVERDUE);
+        assertThat(first.getLateReturnFee()).isEqualByComparingTo("20");
+        assertThat(second.getLateReturnFee()).isEqualByComparingTo("0");
+        verify(jobQueueService).enqueue(JobType.OVERDUE_RENTAL_ALERT, 10L, Map.of("rentalIds", List.of(1L, 2L)));
+        verify(jobQueueService).enqueue(JobType.OVERDUE_RENTAL_ALERT, 20L, Map.of("rentalIds", List.of(3L)));
+    }
+
+    @Test
+    void accrueLateFees_ShouldOnlyWriteFeesThatCrossedAnotherHour() {
+        // Given
+        when(rentalRepository.findOverdueSummaries()).thenReturn(List.of(
+                // Stored fee is current
+                new Object[]{1L, 10L, NOW.minusHours(2).minusMinutes(10), new BigDecimal("20.00")},
+                // Crossed the third hour since the last tick
+                new Object[]{2L, 10L, NOW.minusHours(3), new BigDecimal("20.00")},
+                // Checked in on another instance after the read: the guarded update touches nothing
+                new Object[]{3L, 20L, NOW.minusHours(5), new BigDecimal("40.00")}));
+        when(rentalRepository.updateLateFeeIfOverdue(2L, BigDecimal.valueOf(30))).thenReturn(1);
+        when(rentalRepository.updateLateFeeIfOverdue(3L, BigDecimal.valueOf(50))).thenReturn(0);
+
+        // When
+        int accrued = engine.accrueLateFees(NOW);
+
+        // Then
+        assertThat(accrued).isEqualTo(1);
+        verify(rentalRepository, never()).updateLateFeeIfOverdue(eq(1L), any());
+        verify(rentalRepository, times(2)).updateLateFeeIfOverdue(anyLong(), any());
+    }
+
+    @Test
+    void getAccruedLateFees_ShouldReadTheRentalsTable() {
+        // Given
+        when(rentalRepository.sumOverdueLateFees(10L)).thenReturn(new BigDecimal("70"));
+        when(rentalRepository.countOverdue(10L)).thenReturn(2L);
+
+        // When / Then
+        assertThat(engine.getAccruedLateFees(10L)).isEqualTo(new BigDecimal("70.00"));
+        assertThat(engine.getOverdueCount(10L)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.carrental.services;
+
+import com.example.carrental.model.PhotoBlob;
+import com.example.carrental.repository.PhotoBlobRepository;
+import com.example.carrental.services.PhotoBlobStore.StagedBlob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PhotoBlobServiceTest {
+
+    private static final String SHA = "ab".repeat(32);
+
+    @Mock
+    private PhotoBlobStore photoBlobStore;
+
+    @Mock
+    private PhotoBlobRepository photoBlobRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PhotoBlobService photoBlobService;
+    private StagedBlob staged;
+
+    @BeforeEach
+    void setUp() {
+        photoBlobService = new PhotoBlobService(photoBlobStore, photoBlobRepository, jdbcTemplate, transactionManager);
+        staged = new StagedBlob(Paths.get("staging", SHA), SHA, 1024);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static PhotoBlob blob(int references) {
+        return PhotoBlob.builder().sha256(SHA).extension("jpg").sizeBytes(1024L).referenceCount(references).build();
+    }
+
+    @Test
+    void store_ShouldReuseAnIdenticalBlob() throws Exception {
+        // Given
+        when(photoBlobRepository.findForUpdate(SHA)).thenReturn(Optional.of(blob(2)));
+
+        // When
+        PhotoBlob stored = photoBlobService.store(staged, "jpg");
+
+        // Then
+        assertThat(stored.getReferenceCount()).isEqualTo(3);
+        verifyNoInteractions(jdbcTemplate);
+        verify(photoBlobStore, never()).publish(any(), any());
+        verify(photoBlobStore).discard(staged);
+    }
+
+    @Test
+    void store_ShouldPublishTheFirstReferenceAndDropTheBytesOnRollback() throws Exception {
+        // Given
+        when(photoBlobRepository.findForUpdate(SHA)).thenReturn(Optional.empty());
+        when(jdbcTemplate.update(startsWith("INSERT INTO photo_blobs"), eq(SHA), eq("jpg"), eq(1024L), any())).thenReturn(1);
+        when(photoBlobRepository.findById(SHA)).thenReturn(Optional.of(blob(1)));
+
+        // When
+        PhotoBlob stored = photoBlobService.store(staged, "jpg");
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        assertThat(stored.getReferenceCount()).isEqualTo(1);
+        verify(photoBlobStore).publish(staged, "jpg");
+        verify(photoBlobStore).delete(SHA, "jpg");
+    }
+
+    @Test
+    void store_ShouldTakeAReferenceWhenAConcurrentUploadInsertedFirst() throws Exception {
+        // Given
+        when(photoBlobRepository.findForUpdate(SHA)).thenReturn(Optional.empty(), Optional.of(blob(1)));
+        when(jdbcTemplate.update(startsWith("INSERT INTO photo_blobs"), eq(SHA), eq("jpg"), eq(1024L), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // When
+        PhotoBlob stored = photoBlobService.store(staged, "jpg");
+
+        // Then
+        assertThat(stored.getReferenceCount()).isEqualTo(2);
+        verify(photoBlobStore, never()).publish(any(), any());
+        verify(transactionManager).rollback(any());
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+    }
+
+    @Test
+    void release_ShouldDecrementSharedBlobs() {
+        // Given
+        PhotoBlob shared = blob(2);
+        when(photoBlobRepository.findForUpdate(SHA)).thenReturn(Optional.of(shared));
+
+        // When
+        boolean last = photoBlobService.release(SHA);
+
+        // Then
+        assertThat(last).isFalse();
+        assertThat(shared.getReferenceCount()).isEqualTo(1);
+        verify(photoBlobRepository, never()).delete(any());
+    }
+
+    @Test
+    void release_ShouldDeleteTheBytesAfterCommitOfTheLastReference() throws Exception {
+        // Given
+        PhotoBlob single = blob(1);
+        when(photoBlobRepository.findForUpdate(SHA)).thenReturn(Optional.of(single));
+        when(photoBlobRepository.existsById(SHA)).thenReturn(false);
+
+        // When
+        boolean last = photoBlobService.release(SHA);
+
+        // Then
+        assertThat(last).isTrue();
+        verify(photoBlobRepository).delete(single);
+        verify(photoBlobStore, never()).delete(anyString(), anyString());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(photoBlobStore).delete(SHA, "jpg");
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.carrental.services;
+
+import com.example.carrental.repository.VehiclePhotoRepository;
+import com.example.carrental.services.PhotoFileService.PhotoFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class PhotoFileServiceTest {
+
+    private final VehiclePhotoRepository vehiclePhotoRepository = mock(VehiclePhotoRepository.class);
+    private final PhotoFileService photoFileService = new PhotoFileService(vehiclePhotoRepository);
+
+    private Path directory;
+    private String name;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        directory = Files.createDirectories(Paths.get("uploads/vehicle-photos/test-" + UUID.randomUUID()));
+        name = directory.getFileName() + "/photo.webp";
+        Files.writeString(directory.resolve("photo.webp"), "webp bytes", StandardCharsets.US_ASCII);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(directory.resolve("photo.webp"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    void resolve_ShouldDescribeTheFileWithAContentEtag() throws Exception {
+        // When
+        PhotoFile file = photoFileService.resolve(name).orElseThrow();
+
+        // Then
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest("webp bytes".getBytes(StandardCharsets.US_ASCII));
+        assertThat(file.getEtag()).isEqualTo("\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"");
+        assertThat(file.getLength()).isEqualTo(10);
+        assertThat(file.getContentType()).isEqualTo("image/webp");
+        assertThat(file.getPath()).isEqualTo(directory.resolve("photo.webp").toAbsolutePath().normalize());
+    }
+
+    @Test
+    void resolve_ShouldServeCachedMetadataUntilEvicted() throws Exception {
+        // Given
+        PhotoFile file = photoFileService.resolve(name).orElseThrow();
+        Files.delete(file.getPath());
+
+        // When / Then
+        assertThat(photoFileService.resolve(name)).containsSame(file);
+        photoFileService.evict("/uploads/vehicle-photos/" + name);
+        assertThat(photoFileService.resolve(name)).isEmpty();
+    }
+
+    @Test
+    void resolve_OutsideThePhotoDirectory_ShouldFindNothing() {
+        assertThat(photoFileService.resolve("../../pom.xml")).isEmpty();
+        assertThat(photoFileService.resolve("")).isEmpty();
+        assertThat(photoFileService.resolve(directory.getFileName().toString())).isEmpty();
+    }
+
+    @Test
+    void isPublic_ShouldRememberGeneralPhotoFilesUntilEvicted() {
+        // Given
+        PhotoFile file = photoFileService.resolve(name).orElseThrow();
+        String url = "/uploads/vehicle-photos/" + name;
+        when(vehiclePhotoRepository.existsGeneralPhotoFile(url)).thenReturn(true, false);
+
+        // When / Then
+        assertThat(photoFileService.isPublic(file)).isTrue();
+        assertThat(photoFileService.isPublic(file)).isTrue();
+        verify(vehiclePhotoRepository, times(1)).existsGeneralPhotoFile(url);
+
+        // When the GENERAL photo is deleted
+        photoFileService.evict(url);
+
+        // Then
+        assertThat(photoFileService.isPublic(file)).isFalse();
+    }
+}
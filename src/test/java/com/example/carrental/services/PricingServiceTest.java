@@ -0,0 +1,198 @@
+package com.example.carrental.services;
+
+import com.example.carrental.dto.PriceQuoteDTO;
+import com.example.carrental.enums.PricingRuleType;
+import com.example.carrental.model.Organization;
+import com.example.carrental.model.PricingRule;
+import com.example.carrental.model.VehicleModel;
+import com.example.carrental.repository.OrganizationRepository;
+import com.example.carrental.repository.PricingRuleRepository;
+import com.example.carrental.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PricingServiceTest {
+
+    private static final Long ORGANIZATION_ID = 10L;
+
+    @Mock
+    private PricingRuleRepository pricingRuleRepository;
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @Mock
+    private OrganizationRepository organizationRepository;
+
+    private PricingService pricingService;
+    private Organization organization;
+    private VehicleModel suv;
+
+    @BeforeEach
+    void setUp() {
+        pricingService = new PricingService(pricingRuleRepository, vehicleRepository, organizationRepository);
+
+        organization = new Organization();
+        organization.setId(ORGANIZATION_ID);
+
+        suv = new VehicleModel();
+        suv.setId(1L);
+        suv.setOrganization(organization);
+        suv.setCategory("SUV");
+        suv.setDailyRate(new BigDecimal("100.00"));
+    }
+
+    private PricingRule rule(PricingRuleType type, String category, String multiplier) {
+        return PricingRule.builder()
+                .id(5L)
+                .organization(organization)
+                .name(type.name())
+                .ruleType(type)
+                .category(category)
+                .multiplier(new BigDecimal(multiplier))
+                .build();
+    }
+
+    @Test
+    void quote_WithoutRules_ShouldChargeTheDailyRatePerDay() {
+        // Given
+        when(pricingRuleRepository.findActiveByOrganizationId(ORGANIZATION_ID)).thenReturn(List.of());
+        LocalDate start = LocalDate.now().plusDays(10);
+
+        // When
+        PriceQuoteDTO quote = pricingService.quote(suv, start, start.plusDays(2));
+
+        // Then
+        assertThat(quote.getTotalDays()).isEqualTo(3);
+        assertThat(quote.getBaseAmount()).isEqualByComparingTo("300.00");
+        assertThat(quote.getTotalAmount()).isEqualByComparingTo("300.00");
+        assertThat(quote.getAverageDailyRate()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void quote_ShouldApplyWeekendSeasonAndLongStayRules() {
+        // Given a Friday to Monday rental, weekend +50%, the Monday in a +20% season, 10% off from 4 days
+        LocalDate friday = LocalDate.now().plusDays(7).with(TemporalAdjusters.next(DayOfWeek.FRIDAY));
+        LocalDate monday = friday.plusDays(3);
+        PricingRule weekend = rule(PricingRuleType.WEEKEND, null, "1.5000");
+        PricingRule season = rule(PricingRuleType.SEASON, "suv", "1.2000");
+        season.setStartDate(monday);
+        season.setEndDate(monday.plusDays(30));
+        PricingRule longStay = rule(PricingRuleType.LONG_STAY, null, "0.9000");
+        longStay.setMinDays(4);
+        PricingRule otherCategory = rule(PricingRuleType.WEEKEND, "Compact", "3.0000");
+        when(pricingRuleRepository.findActiveByOrganizationId(ORGANIZATION_ID))
+                .thenReturn(List.of(weekend, season, longStay, otherCategory));
+
+        // When
+        PriceQuoteDTO quote = pricingService.quote(suv, friday, monday);
+
+        // Then 100 x (1.0 + 1.5 + 1.5 + 1.2) = 520, less 10%
+        assertThat(quote.getTotalDays()).isEqualTo(4);
+        assertThat(quote.getSeasonalAmount()).isEqualByComparingTo("520.00");
+        assertThat(quote.getLongStayMultiplier()).isEqualByComparingTo("0.9000");
+        assertThat(quote.getSurgeMultiplier()).isEqualByComparingTo("1");
+        assertThat(quote.getTotalAmount()).isEqualByComparingTo("468.00");
+    }
+
+    @Test
+    void quote_OutsideTheRateTable_ShouldEvaluateTheRulesDayByDay() {
+        // Given a past weekend, before the rate table origin
+        LocalDate saturday = LocalDate.now().minusDays(14).with(TemporalAdjusters.previous(DayOfWeek.SATURDAY));
+        when(pricingRuleRepository.findActiveByOrganizationId(ORGANIZATION_ID))
+                .thenReturn(List.of(rule(PricingRuleType.WEEKEND, null, "1.5000")));
+
+        // When
+        PriceQuoteDTO quote = pricingService.quote(suv, saturday, saturday.plusDays(2));
+
+        // Then Saturday and Sunday at 150, Monday at 100
+        assertThat(quote.getTotalAmount()).isEqualByComparingTo("400.00");
+    }
+
+    @Test
+    void quote_WithEndBeforeStart_ShouldThrow() {
+        LocalDate start = LocalDate.now().plusDays(3);
+
+        assertThatThrownBy(() -> pricingService.quote(suv, start, start.minusDays(1)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("End date must be after start date");
+    }
+
+    @Test
+    void quote_ShouldNotKeepRulesLoadedBeforeARuleChangeCommitted() {
+        // Given a quote that reads the weekend rule while it is being deleted
+        LocalDate saturday = LocalDate.now().plusDays(7).with(TemporalAdjusters.next(DayOfWeek.SATURDAY));
+        PricingRule weekend = rule(PricingRuleType.WEEKEND, null, "1.5000");
+        when(pricingRuleRepository.findById(5L)).thenReturn(Optional.of(weekend));
+        when(pricingRuleRepository.findActiveByOrganizationId(ORGANIZATION_ID))
+                .thenAnswer(invocation -> {
+                    // The delete commits after this read but before the stale tables are cached
+                    pricingService.deleteRule(5L);
+                    return List.of(weekend);
+                })
+                .thenReturn(List.of());
+
+        // When
+        PriceQuoteDTO stale = pricingService.quote(suv, saturday, saturday);
+        PriceQuoteDTO next = pricingService.quote(suv, saturday, saturday);
+        PriceQuoteDTO cached = pricingService.quote(suv, saturday, saturday);
+
+        // Then
+        assertThat(stale.getTotalAmount()).isEqualByComparingTo("150.00");
+        assertThat(next.getTotalAmount()).isEqualByComparingTo("100.00");
+        assertThat(cached.getTotalAmount()).isEqualByComparingTo("100.00");
+        verify(pricingRuleRepository, times(2)).findActiveByOrganizationId(ORGANIZATION_ID);
+    }
+
+    @Test
+    void quote_ShouldReloadRulesChangedOnAnotherInstance() {
+        // Given the weekend rule is deleted on another instance, so no commit is seen here
+        ReflectionTestUtils.setField(pricingService, "rulesCheckIntervalMillis", 0L);
+        LocalDate saturday = LocalDate.now().plusDays(7).with(TemporalAdjusters.next(DayOfWeek.SATURDAY));
+        when(pricingRuleRepository.findRulesVersion(ORGANIZATION_ID))
+                .thenReturn(List.<Object[]>of(new Object[] {1L, 5L}), List.<Object[]>of(new Object[] {1L, 5L}))
+                .thenReturn(List.<Object[]>of(new Object[] {0L, null}));
+        when(pricingRuleRepository.findActiveByOrganizationId(ORGANIZATION_ID))
+                .thenReturn(List.of(rule(PricingRuleType.WEEKEND, null, "1.5000")))
+                .thenReturn(List.of());
+
+        // When
+        PriceQuoteDTO loaded = pricingService.quote(suv, saturday, saturday);
+        PriceQuoteDTO cached = pricingService.quote(suv, saturday, saturday);
+        PriceQuoteDTO afterDelete = pricingService.quote(suv, saturday, saturday);
+
+        // Then
+        assertThat(loaded.getTotalAmount()).isEqualByComparingTo("150.00");
+        assertThat(cached.getTotalAmount()).isEqualByComparingTo("150.00");
+        assertThat(afterDelete.getTotalAmount()).isEqualByComparingTo("100.00");
+        verify(pricingRuleRepository, times(2)).findActiveByOrganizationId(ORGANIZATION_ID);
+    }
+
+    @Test
+    void surgeMultiplier_ShouldTakeTheHighestReachedThreshold() {
+        PricingRule busy = rule(PricingRuleType.SURGE, null, "1.1000");
+        busy.setUtilizationThreshold(new BigDecimal("0.7000"));
+        PricingRule packed = rule(PricingRuleType.SURGE, null, "1.3000");
+        packed.setUtilizationThreshold(new BigDecimal("0.9000"));
+
+        assertThat(PricingService.surgeMultiplier(List.of(busy, packed), new BigDecimal("0.5"))).isEqualByComparingTo("1");
+        assertThat(PricingService.surgeMultiplier(List.of(busy, packed), new BigDecimal("0.8"))).isEqualByComparingTo("1.1");
+        assertThat(PricingService.surgeMultiplier(List.of(busy, packed), new BigDecimal("0.95"))).isEqualByComparingTo("1.3");
+    }
+}
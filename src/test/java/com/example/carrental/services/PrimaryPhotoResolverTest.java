@@ -0,0 +1,102 @@
+package com.example.carrental.services;
+
+import com.example.carrental.repository.VehiclePhotoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrimaryPhotoResolverTest {
+
+    @Mock
+    private VehiclePhotoRepository vehiclePhotoRepository;
+
+    private PrimaryPhotoResolver resolver;
+
+    // Primary photo URL per vehicle id, as stored
+    private final Map<Long, String> primaries = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        resolver = new PrimaryPhotoResolver(vehiclePhotoRepository);
+        lenient().when(vehiclePhotoRepository.findPrimaryPhotoUrlsByVehicleIds(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream()
+                        .filter(primaries::containsKey)
+                        .map(id -> new Object[]{id, primaries.get(id), primaries.get(id) + "?thumb"})
+                        .toList());
+        primaries.put(1L, "/photos/1.jpg");
+        primaries.put(2L, "/photos/2.jpg");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void resolve_ShouldLoadMissingVehiclesInOneQueryAndCacheTheAnswers() {
+        // When
+        Map<Long, PrimaryPhotoResolver.PrimaryPhoto> first = resolver.resolve(List.of(1L, 2L, 3L));
+        Map<Long, PrimaryPhotoResolver.PrimaryPhoto> second = resolver.resolve(List.of(1L, 2L, 3L));
+
+        // Then vehicle 3 has no photo, and that answer is cached too
+        assertThat(first).containsOnlyKeys(1L, 2L);
+        assertThat(first.get(1L).getPhotoUrl()).isEqualTo("/photos/1.jpg");
+        assertThat(first.get(1L).getThumbnailUrl()).isEqualTo("/photos/1.jpg?thumb");
+        assertThat(second).containsOnlyKeys(1L, 2L);
+        verify(vehiclePhotoRepository, times(1)).findPrimaryPhotoUrlsByVehicleIds(any());
+    }
+
+    @Test
+    void resolve_ShouldQueryOnlyUncachedVehiclesInChunks() {
+        // Given
+        resolver.resolve(List.of(1L));
+        List<Long> page = LongStream.rangeClosed(1, 601).boxed().toList();
+
+        // When
+        Map<Long, PrimaryPhotoResolver.PrimaryPhoto> photos = resolver.resolve(page);
+
+        // Then
+        assertThat(photos).containsOnlyKeys(1L, 2L);
+        verify(vehiclePhotoRepository).findPrimaryPhotoUrlsByVehicleIds(List.of(1L));
+        verify(vehiclePhotoRepository).findPrimaryPhotoUrlsByVehicleIds(argThat(ids -> ids.size() == 500 && !ids.contains(1L)));
+        verify(vehiclePhotoRepository).findPrimaryPhotoUrlsByVehicleIds(argThat(ids -> ids.size() == 100));
+    }
+
+    @Test
+    void evict_ShouldDropTheEntryAgainAfterCommit() {
+        // Given
+        resolver.resolve(List.of(1L));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When the primary photo changes, and a concurrent reader re-caches the old one before the commit
+        primaries.put(1L, "/photos/1-new.jpg");
+        resolver.evict(1L);
+        primaries.put(1L, "/photos/1.jpg");
+        assertThat(resolver.resolve(List.of(1L)).get(1L).getPhotoUrl()).isEqualTo("/photos/1.jpg");
+        primaries.put(1L, "/photos/1-new.jpg");
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Then
+        assertThat(resolver.resolve(List.of(1L)).get(1L).getPhotoUrl()).isEqualTo("/photos/1-new.jpg");
+        verify(vehiclePhotoRepository, times(3)).findPrimaryPhotoUrlsByVehicleIds(any());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.carrental.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuoteSnapshotTest {
+
+    private static final int ORIGIN = 20_000;
+
+    private QuoteSnapshot snapshot() {
+        // 10-day horizon, day 5 at +20%
+        long[] prefix = new long[11];
+        for (int day = 0; day < 10; day++) {
+            prefix[day + 1] = prefix[day] + (day == 5 ? 12_000 : 10_000);
+        }
+        return QuoteSnapshot.builder(ORIGIN, 10)
+                .category("suv", prefix, new int[]{7, 3}, new long[]{8_000, 9_000}, 11_000)
+                .vehicle(5, 4_500, "suv", true)
+                .vehicle(2, 10_000, "suv", false)
+                .booking(5, ORIGIN + 8, ORIGIN + 9)
+                .build();
+    }
+
+    @Test
+    void quoteCents_ShouldApplyDailyMultipliersLongStayAndSurge() {
+        // Given
+        QuoteSnapshot snapshot = snapshot();
+        int vehicle = snapshot.indexOf(5);
+
+        // When / Then
+        // 2 days x 45.00 x 1.1 surge
+        assertThat(snapshot.quoteCents(vehicle, ORIGIN, ORIGIN + 1)).isEqualTo(9_900);
+        // 4 days x 45.00 x 0.9 (3+ days) x 1.1
+        assertThat(snapshot.quoteCents(vehicle, ORIGIN, ORIGIN + 3)).isEqualTo(17_820);
+        // 7.2 day-multipliers x 45.00 x 0.8 (7+ days) x 1.1
+        assertThat(snapshot.quoteCents(vehicle, ORIGIN, ORIGIN + 6)).isEqualTo(28_512);
+    }
+
+    @Test
+    void quoteCents_ShouldReportBookedAndUnbookableVehiclesAsUnavailable() {
+        // Given
+        QuoteSnapshot snapshot = snapshot();
+
+        // When / Then
+        assertThat(snapshot.quoteCents(snapshot.indexOf(5), ORIGIN + 7, ORIGIN + 8)).isEqualTo(QuoteSnapshot.UNAVAILABLE);
+        assertThat(snapshot.quoteCents(snapshot.indexOf(2), ORIGIN, ORIGIN)).isEqualTo(QuoteSnapshot.UNAVAILABLE);
+        assertThat(snapshot.indexOf(99)).isNegative();
+        assertThat(snapshot.covers(ORIGIN, ORIGIN + 9)).isTrue();
+        assertThat(snapshot.covers(ORIGIN, ORIGIN + 10)).isFalse();
+        assertThat(snapshot.covers(ORIGIN - 1, ORIGIN)).isFalse();
+    }
+}
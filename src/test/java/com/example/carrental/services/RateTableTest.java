@@ -0,0 +1,68 @@
+package com.example.carrental.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateTableTest {
+
+    private static final LocalDate ORIGIN = LocalDate.of(2026, 1, 1);
+
+    // 1.0 on odd days of the month, 1.5 on even ones
+    private static long multiplier(LocalDate day) {
+        return day.getDayOfMonth() % 2 == 0 ? 15_000 : RateTable.SCALE;
+    }
+
+    @Test
+    void sum_ShouldMatchDayByDayEvaluationForEveryRange() {
+        // Given
+        RateTable table = new RateTable(ORIGIN, 60, RateTableTest::multiplier);
+
+        // When / Then
+        for (int from = 0; from < 60; from += 7) {
+            for (int to = from; to < 60; to += 5) {
+                LocalDate start = ORIGIN.plusDays(from);
+                LocalDate end = ORIGIN.plusDays(to);
+                long expected = 0;
+                for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+                    expected += multiplier(day);
+                }
+                assertThat(table.sum(start, end)).as("%s - %s", start, end).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void sum_OfOneDay_ShouldBeThatDaysMultiplier() {
+        RateTable table = new RateTable(ORIGIN, 10, RateTableTest::multiplier);
+
+        assertThat(table.sum(ORIGIN, ORIGIN)).isEqualTo(RateTable.SCALE);
+        assertThat(table.sum(ORIGIN.plusDays(1), ORIGIN.plusDays(1))).isEqualTo(15_000);
+    }
+
+    @Test
+    void covers_ShouldOnlyAcceptRangesInsideTheHorizon() {
+        RateTable table = new RateTable(ORIGIN, 10, RateTableTest::multiplier);
+
+        assertThat(table.getDays()).isEqualTo(10);
+        assertThat(table.covers(ORIGIN, ORIGIN.plusDays(9))).isTrue();
+        assertThat(table.covers(ORIGIN.minusDays(1), ORIGIN.plusDays(2))).isFalse();
+        assertThat(table.covers(ORIGIN.plusDays(5), ORIGIN.plusDays(10))).isFalse();
+        assertThat(table.covers(ORIGIN.plusDays(5), ORIGIN.plusDays(4))).isFalse();
+        assertThatThrownBy(() -> table.sum(ORIGIN, ORIGIN.plusDays(10)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void prefixSums_ShouldBeACopy() {
+        RateTable table = new RateTable(ORIGIN, 3, RateTableTest::multiplier);
+
+        long[] prefix = table.prefixSums();
+        prefix[3] = 0;
+
+        assertThat(table.prefixSums()).containsExactly(0, 10_000, 25_000, 35_000);
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.carrental.services;
+
+import com.example.carrental.config.TenantContext;
+import com.example.carrental.dto.CheckInRequestDTO;
+import com.example.carrental.dto.CheckOutRequestDTO;
+import com.example.carrental.dto.RentalBatchResultDTO;
+import com.example.carrental.dto.RentalResponseDTO;
+import com.example.carrental.enums.DomainEventType;
+import com.example.carrental.enums.RentalStatus;
+import com.example.carrental.enums.ReservationStatus;
+import com.example.carrental.enums.VehicleStatus;
+import com.example.carrental.model.Organization;
+import com.example.carrental.model.Rental;
+import com.example.carrental.model.Reservation;
+import com.example.carrental.model.User;
+import com.example.carrental.model.VehicleModel;
+import com.example.carrental.repository.RentalRepository;
+import com.example.carrental.repository.ReservationRepository;
+import com.example.carrental.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RentalServiceTest {
+
+    private static final Long ORGANIZATION_ID = 10L;
+
+    @Mock
+    private RentalRepository rentalRepository;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private BranchService branchService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private RentalService rentalService;
+    private User employee;
+    private Organization organization;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(ORGANIZATION_ID);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(rentalRepository.save(any(Rental.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        rentalService = new RentalService(rentalRepository, reservationRepository, userRepository, outboxService,
+                branchService, transactionTemplate, meterRegistryProvider);
+        ReflectionTestUtils.setField(rentalService, "entityManager", entityManager);
+
+        employee = new User();
+        employee.setId(3L);
+        employee.setUsername("desk");
+        lenient().when(userRepository.findByUsername("desk")).thenReturn(Optional.of(employee));
+
+        organization = new Organization();
+        organization.setId(ORGANIZATION_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    private Reservation reservation(String code, ReservationStatus status, VehicleStatus vehicleStatus) {
+        VehicleModel vehicle = new VehicleModel();
+        vehicle.setId(7L);
+        vehicle.setLicensePlate("ABC-123");
+        vehicle.setMileage(1000);
+        vehicle.setStatus(vehicleStatus);
+
+        Reservation reservation = new Reservation();
+        reservation.setId(5L);
+        reservation.setReservationCode(code);
+        reservation.setOrganization(organization);
+        reservation.setVehicle(vehicle);
+        reservation.setStatus(status);
+        reservation.setStartDate(LocalDate.now());
+        reservation.setEndDate(LocalDate.now().plusDays(2));
+        reservation.setReturnLocation("Airport");
+        reservation.setTotalAmount(new BigDecimal("150.00"));
+        return reservation;
+    }
+
+    private Rental activeRental(Reservation reservation) {
+        Rental rental = Rental.builder()
+                .id(9L)
+                .rentalCode("RNT1")
+                .reservation(reservation)
+                .pickupMileage(1000)
+                .fuelLevelPickup("full")
+                .pickupDateTime(LocalDateTime.now().minusDays(1))
+                .expectedReturnDateTime(LocalDateTime.now().plusDays(1))
+                .build();
+        reservation.setRental(rental);
+        return rental;
+    }
+
+    @Test
+    void checkOut_ShouldStartTheRentalAndRecordPickupMileage() {
+        // Given
+        Reservation reservation = reservation("RES-1", ReservationStatus.CONFIRMED, VehicleStatus.RESERVED);
+        when(reservationRepository.findForCheckOut("RES-1")).thenReturn(Optional.of(reservation));
+
+        // When
+        RentalResponseDTO result = rentalService.checkOut(new CheckOutRequestDTO("RES-1", 1200, "full", null), "desk");
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo(RentalStatus.ACTIVE);
+        assertThat(result.getReservationCode()).isEqualTo("RES-1");
+        assertThat(result.getPickupMileage()).isEqualTo(1200);
+        assertThat(reservation.getStatus()).isEqualTo(ReservationStatus.IN_PROGRESS);
+        assertThat(reservation.getVehicle().getStatus()).isEqualTo(VehicleStatus.RENTED);
+        assertThat(reservation.getVehicle().getMileage()).isEqualTo(1200);
+        assertThat(reservation.getRental().getPickupEmployee()).isSameAs(employee);
+        verify(rentalRepository).save(any(Rental.class));
+    }
+
+    @Test
+    void checkOut_BelowTheRecordedMileage_ShouldThrow() {
+        // Given
+        Reservation reservation = reservation("RES-1", ReservationStatus.CONFIRMED, VehicleStatus.RESERVED);
+        when(reservationRepository.findForCheckOut("RES-1")).thenReturn(Optional.of(reservation));
+
+        // When / Then
+        assertThatThrownBy(() -> rentalService.checkOut(new CheckOutRequestDTO("RES-1", 900, "full", null), "desk"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("below the vehicle's recorded mileage");
+        verify(rentalRepository, never()).save(any());
+    }
+
+    @Test
+    void checkIn_ShouldLockTheRentalCompleteItAndPublishTheEvent() {
+        // Given
+        Reservation reservation = reservation("RES-1", ReservationStatus.IN_PROGRESS, VehicleStatus.RENTED);
+        Rental rental = activeRental(reservation);
+        when(rentalRepository.findForCheckIn("RNT1")).thenReturn(Optional.of(rental));
+        when(branchService.resolve(ORGANIZATION_ID, "Airport")).thenReturn(null);
+
+        // When
+        RentalResponseDTO result = rentalService.checkIn(
+                new CheckInRequestDTO("RNT1", 1350, "1/2", null, null, new BigDecimal("25.00")), "desk");
+
+        // Then full to half tank is $100 of fuel on top of the rental and damage
+        verify(entityManager).refresh(rental, LockModeType.PESSIMISTIC_WRITE);
+        assertThat(result.getStatus()).isEqualTo(RentalStatus.COMPLETED);
+        assertThat(result.getDistanceDriven()).isEqualTo(350);
+        assertThat(result.getTotalFee()).isEqualByComparingTo("275.00");
+        assertThat(reservation.getStatus()).isEqualTo(ReservationStatus.COMPLETED);
+        assertThat(reservation.getVehicle().getStatus()).isEqualTo(VehicleStatus.RETURNED);
+        assertThat(reservation.getVehicle().getMileage()).isEqualTo(1350);
+        verify(outboxService).publish(eq(DomainEventType.RESERVATION_COMPLETED), eq(organization), eq(5L), anyMap());
+    }
+
+    @Test
+    void checkIn_OfAnotherOrganizationsRental_ShouldNotFindIt() {
+        // Given
+        Reservation reservation = reservation("RES-1", ReservationStatus.IN_PROGRESS, VehicleStatus.RENTED);
+        Organization other = new Organization();
+        other.setId(20L);
+        reservation.setOrganization(other);
+        when(rentalRepository.findForCheckIn("RNT1")).thenReturn(Optional.of(activeRental(reservation)));
+
+        // When / Then
+        assertThatThrownBy(() -> rentalService.checkIn(new CheckInRequestDTO("RNT1", 1350, "full", null, null, null), "desk"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Rental not found");
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void checkOutBatch_ShouldReportEachItemAndResolveTheEmployeeOnce() {
+        // Given
+        Reservation reservation = reservation("RES-1", ReservationStatus.CONFIRMED, VehicleStatus.RESERVED);
+        when(reservationRepository.findForCheckOut("RES-1")).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findForCheckOut("RES-404")).thenReturn(Optional.empty());
+
+        // When
+        List<RentalBatchResultDTO> results = rentalService.checkOutBatch(List.of(
+                new CheckOutRequestDTO("RES-1", 1100, "full", null),
+                new CheckOutRequestDTO("RES-404", 1100, "full", null)), "desk");
+
+        // Then
+        assertThat(results).extracting(RentalBatchResultDTO::getCode).containsExactly("RES-1", "RES-404");
+        assertThat(results.get(0).isSuccess()).isTrue();
+        assertThat(results.get(0).getRental().getStatus()).isEqualTo(RentalStatus.ACTIVE);
+        assertThat(results.get(1).isSuccess()).isFalse();
+        assertThat(results.get(1).getError()).contains("Reservation not found");
+        verify(userRepository, times(1)).findByUsername(anyString());
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void checkInBatch_OverTheLimit_ShouldBeRejected() {
+        List<CheckInRequestDTO> requests = Collections.nCopies(RentalService.MAX_BATCH_SIZE + 1,
+                new CheckInRequestDTO("RNT1", 1350, "full", null, null, null));
+
+        assertThatThrownBy(() -> rentalService.checkInBatch(requests, "desk"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("at most " + RentalService.MAX_BATCH_SIZE);
+        verifyNoInteractions(rentalRepository);
+    }
+
+    @Test
+    void getActiveAndOverdueRentals_ShouldQueryTheCurrentOrganizationOnly() {
+        // Given
+        Rental rental = activeRental(reservation("RES-1", ReservationStatus.IN_PROGRESS, VehicleStatus.RENTED));
+        when(rentalRepository.findByStatusForOrganization(RentalStatus.ACTIVE, ORGANIZATION_ID)).thenReturn(List.of(rental));
+        when(rentalRepository.findOverdueForOrganization(eq(ORGANIZATION_ID), any())).thenReturn(List.of());
+
+        // When / Then
+        assertThat(rentalService.getActiveRentals()).extracting(RentalResponseDTO::getRentalCode).containsExactly("RNT1");
+        assertThat(rentalService.getOverdueRentals()).isEmpty();
+        verify(rentalRepository, never()).findByStatusOrderByCreatedAtDesc(any());
+    }
+}
@@ -1,12 +1,16 @@
 package com.example.carrental.services;
 
 import com.example.carrental.dto.CreateReservationRequestDTO;
+import com.example.carrental.dto.PriceQuoteDTO;
 import com.example.carrental.dto.ReservationResponseDTO;
 import com.example.carrental.enums.ReservationStatus;
 import com.example.carrental.enums.VehicleStatus;
+import com.example.carrental.mapper.ReservationMapper;
+import com.example.carrental.model.Customer;
 import com.example.carrental.model.Reservation;
 import com.example.carrental.model.User;
 import com.example.carrental.model.VehicleModel;
+import com.example.carrental.repository.CustomerRepository;
 import com.example.carrental.repository.ReservationRepository;
 import com.example.carrental.repository.UserRepository;
 import com.example.carrental.repository.VehicleRepository;
@@ -15,6 +19,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -42,15 +47,28 @@ class ReservationServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CustomerRepository customerRepository;
+
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private PricingService pricingService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Spy
+    private ReservationMapper reservationMapper = new ReservationMapper();
+
     @InjectMocks
     private ReservationService reservationService;
 
     private CreateReservationRequestDTO validRequest;
     private VehicleModel sampleVehicle;
     private User sampleUser;
+    private Customer sampleCustomer;
     private Reservation sampleReservation;
 
     @BeforeEach
@@ -58,6 +76,7 @@ class ReservationServiceTest {
         // Setup valid request
         validRequest = new CreateReservationRequestDTO();
         validRequest.setVehicleId(1L);
+        validRequest.setCustomerId(1L);
         validRequest.setStartDate(LocalDate.now().plusDays(1));
         validRequest.setEndDate(LocalDate.now().plusDays(3));
         validRequest.setPickupLocation("Madrid Centro");
@@ -81,6 +100,10 @@ class ReservationServiceTest {
         sampleUser.setFirstName("Admin");
         sampleUser.setLastName("User");
 
+        // Setup sample customer
+        sampleCustomer = new Customer();
+        sampleCustomer.setId(1L);
+
         // Setup sample reservation
         sampleReservation = new Reservation();
         sampleReservation.setId(1L);
@@ -103,8 +126,20 @@ class ReservationServiceTest {
         // Given
         when(vehicleRepository.findById(1L)).thenReturn(Optional.of(sampleVehicle));
         when(userRepository.findByUsername("admin")).thenReturn(Optional.of(sampleUser));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(sampleCustomer));
         when(reservationRepository.findConflictingReservations(any(VehicleModel.class), any(LocalDate.class), any(LocalDate.class))).thenReturn(List.of());
-        when(reservationRepository.save(any(Reservation.class))).thenReturn(sampleReservation);
+        when(pricingService.quote(sampleVehicle, validRequest.getStartDate(), validRequest.getEndDate()))
+                .thenReturn(PriceQuoteDTO.builder()
+                        .vehicleId(1L)
+                        .totalDays(3)
+                        .totalAmount(BigDecimal.valueOf(135.00))
+                        .build());
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation saved = invocation.getArgument(0);
+            saved.setId(1L);
+            saved.setReservationCode("RES123456789");
+            return saved;
+        });
 
         // When
         ReservationResponseDTO result = reservationService.createReservation(validRequest, "admin");
@@ -118,7 +153,9 @@ class ReservationServiceTest {
         assertThat(result.getVehicleModel()).isEqualTo("Corolla");
         assertThat(result.getPickupLocation()).isEqualTo("Madrid Centro");
         assertThat(result.getReturnLocation()).isEqualTo("Madrid Aeropuerto");
+        assertThat(result.getTotalDays()).isEqualTo(3);
         assertThat(result.getTotalAmount()).isEqualTo(BigDecimal.valueOf(135.00));
+        assertThat(result.getCustomerId()).isEqualTo(1L);
 
         verify(reservationRepository, times(1)).save(any(Reservation.class));
         // Note: Notification service method has different signature
@@ -159,6 +196,7 @@ class ReservationServiceTest {
         sampleVehicle.setStatus(VehicleStatus.MAINTENANCE);
         when(vehicleRepository.findById(1L)).thenReturn(Optional.of(sampleVehicle));
         when(userRepository.findByUsername("admin")).thenReturn(Optional.of(sampleUser));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(sampleCustomer));
 
         // When & Then
         assertThatThrownBy(() -> reservationService.createReservation(validRequest, "admin"))
@@ -174,6 +212,7 @@ class ReservationServiceTest {
         // Given
         when(vehicleRepository.findById(1L)).thenReturn(Optional.of(sampleVehicle));
         when(userRepository.findByUsername("admin")).thenReturn(Optional.of(sampleUser));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(sampleCustomer));
 
         // Mock existing conflicting reservation
         Reservation conflictingReservation = new Reservation();
@@ -0,0 +1,116 @@
+package com.example.carrental.services;
+
+import com.example.carrental.model.Rental;
+import com.example.carrental.model.Reservation;
+import com.example.carrental.model.VehicleModel;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RollupAccumulatorTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 3, 10);
+
+    private static Reservation reservation(LocalDate start, LocalDate end, String amount) {
+        VehicleModel vehicle = new VehicleModel();
+        vehicle.setId(7L);
+        vehicle.setCategory(" SUV ");
+
+        Reservation reservation = new Reservation();
+        reservation.setVehicle(vehicle);
+        reservation.setStartDate(start);
+        reservation.setEndDate(end);
+        reservation.setTotalAmount(amount != null ? new BigDecimal(amount) : null);
+        return reservation;
+    }
+
+    private static Map<String, long[]> rows(RollupAccumulator accumulator) {
+        Map<String, long[]> rows = new HashMap<>();
+        accumulator.forEach((scope, scopeKey, day, values) -> rows.put(scope + "|" + scopeKey + "|" + day, values));
+        return rows;
+    }
+
+    @Test
+    void reservationCompleted_ShouldSpreadTheAmountWithLeftoverCentsFirst() {
+        // Given
+        RollupAccumulator accumulator = new RollupAccumulator();
+
+        // When 100.00 over three days
+        accumulator.reservationCompleted(reservation(START, START.plusDays(2), "100.00"));
+
+        // Then
+        Map<String, long[]> rows = rows(accumulator);
+        assertThat(rows).hasSize(9);
+        assertThat(rows.get("ORGANIZATION||" + START)[DailySeries.REVENUE_CENTS]).isEqualTo(3334);
+        assertThat(rows.get("ORGANIZATION||" + START.plusDays(1))[DailySeries.REVENUE_CENTS]).isEqualTo(3333);
+        assertThat(rows.get("ORGANIZATION||" + START.plusDays(2))[DailySeries.REVENUE_CENTS]).isEqualTo(3333);
+        assertThat(rows.values()).allSatisfy(values -> assertThat(values[DailySeries.RENTED_DAYS]).isEqualTo(1));
+        assertThat(rows.get("CATEGORY|suv|" + START)[DailySeries.REVENUE_CENTS]).isEqualTo(3334);
+        assertThat(rows.get("VEHICLE|7|" + START.plusDays(2))[DailySeries.REVENUE_CENTS]).isEqualTo(3333);
+    }
+
+    @Test
+    void reservationCompleted_ShouldEndAtTheActualReturn() {
+        // Given a five day booking returned on its second day
+        Reservation reservation = reservation(START, START.plusDays(4), "90.00");
+        reservation.setRental(Rental.builder().actualReturnDateTime(START.plusDays(1).atTime(9, 30)).build());
+        RollupAccumulator accumulator = new RollupAccumulator();
+
+        // When
+        accumulator.reservationCompleted(reservation);
+
+        // Then
+        Map<String, long[]> rows = rows(accumulator);
+        assertThat(rows.get("ORGANIZATION||" + START)[DailySeries.REVENUE_CENTS]).isEqualTo(4500);
+        assertThat(rows.get("ORGANIZATION||" + START.plusDays(1))[DailySeries.REVENUE_CENTS]).isEqualTo(4500);
+        assertThat(rows).doesNotContainKey("ORGANIZATION||" + START.plusDays(2));
+    }
+
+    @Test
+    void reservationCompleted_WithAReturnBeforeTheStart_ShouldCountTheStartDay() {
+        // Given
+        Reservation reservation = reservation(START, START.plusDays(3), "40.00");
+        reservation.setRental(Rental.builder().actualReturnDateTime(LocalDateTime.of(START.minusDays(2), LocalTime.NOON)).build());
+        RollupAccumulator accumulator = new RollupAccumulator();
+
+        // When
+        accumulator.reservationCompleted(reservation);
+
+        // Then
+        Map<String, long[]> rows = rows(accumulator);
+        assertThat(rows).containsOnlyKeys("ORGANIZATION||" + START, "CATEGORY|suv|" + START, "VEHICLE|7|" + START);
+        assertThat(rows.get("ORGANIZATION||" + START)[DailySeries.RENTED_DAYS]).isEqualTo(1);
+        assertThat(rows.get("ORGANIZATION||" + START)[DailySeries.REVENUE_CENTS]).isEqualTo(4000);
+    }
+
+    @Test
+    void createdAndCancelled_ShouldCountOnTheirOwnDaysAndAddUp() {
+        // Given
+        Reservation first = reservation(START, START.plusDays(1), null);
+        first.setCreatedAt(START.minusDays(5).atStartOfDay());
+        first.setCancelledAt(START.minusDays(1).atTime(8, 0));
+        Reservation second = reservation(START, START.plusDays(1), null);
+        second.setCreatedAt(START.minusDays(5).atTime(18, 0));
+        RollupAccumulator accumulator = new RollupAccumulator();
+        assertThat(accumulator.isEmpty()).isTrue();
+
+        // When
+        accumulator.reservationCreated(first);
+        accumulator.reservationCreated(second);
+        accumulator.reservationCancelled(first);
+
+        // Then
+        Map<String, long[]> rows = rows(accumulator);
+        assertThat(rows.get("ORGANIZATION||" + START.minusDays(5))[DailySeries.RESERVATIONS]).isEqualTo(2);
+        assertThat(rows.get("ORGANIZATION||" + START.minusDays(1))[DailySeries.CANCELLATIONS]).isEqualTo(1);
+        assertThat(rows.get("VEHICLE|7|" + START.minusDays(1))[DailySeries.RESERVATIONS]).isZero();
+        assertThat(accumulator.isEmpty()).isFalse();
+    }
+}
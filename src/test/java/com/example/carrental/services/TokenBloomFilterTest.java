@@ -0,0 +1,59 @@
+package com.example.carrental.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBloomFilterTest {
+
+    @Test
+    void mightContain_ShouldFindEveryAddedId() {
+        // Given
+        TokenBloomFilter filter = TokenBloomFilter.create(10_000, 0.0001);
+        String[] ids = new String[10_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID().toString();
+            filter.add(ids[i]);
+        }
+
+        // When / Then
+        for (String id : ids) {
+            assertThat(filter.mightContain(id)).isTrue();
+        }
+    }
+
+    @Test
+    void mightContain_ShouldKeepFalsePositivesNearTheConfiguredRate() {
+        // Given
+        TokenBloomFilter filter = TokenBloomFilter.create(10_000, 0.001);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(UUID.randomUUID().toString());
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        // About 100 expected; allow for randomness
+        assertThat(falsePositives).isLessThan(300);
+        assertThat(filter.hashCount()).isEqualTo(10);
+        assertThat(filter.bitCount() % 64).isZero();
+    }
+
+    @Test
+    void create_ShouldRejectInvalidRates() {
+        assertThat(TokenBloomFilter.create(0, 0.01).mightContain("anything")).isFalse();
+        assertThatThrownBy(() -> TokenBloomFilter.create(100, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TokenBloomFilter.create(100, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
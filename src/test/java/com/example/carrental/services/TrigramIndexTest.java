@@ -0,0 +1,60 @@
+package com.example.carrental.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.put(1L, "Toyota Corolla ABC-123");
+        index.put(2L, "Toyota Corollas");
+        index.put(3L, "Corola Sedan");
+        index.put(4L, "Honda Civic");
+    }
+
+    @Test
+    void search_ShouldRankExactThenPrefixThenFuzzyMatches() {
+        assertThat(index.search("corolla", 10)).containsExactly(1L, 2L, 3L);
+        assertThat(index.search("CoRoLLa ", 2)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void search_ShouldTolerateATypoButNotUnrelatedText() {
+        assertThat(index.search("corlla", 10)).containsExactly(1L, 2L, 3L);
+        assertThat(index.search("civc", 10)).containsExactly(4L);
+        assertThat(index.search("mazda", 10)).isEmpty();
+        assertThat(index.search("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void search_ShouldBreakTiesByIdAndMatchJoinedPlates() {
+        assertThat(index.search("toyota", 10)).containsExactly(1L, 2L);
+        assertThat(index.search("abc123", 10)).containsExactly(1L);
+        assertThat(index.search("abc-123", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void putAndRemove_ShouldReplaceTheIndexedText() {
+        // When
+        index.put(2L, "Honda Accord");
+        index.remove(4L);
+
+        // Then
+        assertThat(index.search("corollas", 10)).doesNotContain(2L);
+        assertThat(index.search("honda", 10)).containsExactly(2L);
+        assertThat(index.search("civic", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void tokenize_ShouldKeepHyphenatedChunksJoined() {
+        assertThat(TrigramIndex.tokenize("CUS-001 Ana  María")).containsExactly("cus", "001", "cus001", "ana", "maría");
+        assertThat(TrigramIndex.tokenize(null)).isEmpty();
+    }
+}
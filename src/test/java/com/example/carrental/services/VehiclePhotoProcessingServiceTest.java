@@ -0,0 +1,211 @@
+package com.example.carrental.services;
+
+import com.example.carrental.model.VehicleModel;
+import com.example.carrental.model.VehiclePhoto;
+import com.example.carrental.repository.VehiclePhotoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VehiclePhotoProcessingServiceTest {
+
+    @Mock
+    private VehiclePhotoRepository vehiclePhotoRepository;
+
+    @Mock
+    private JobQueueService jobQueueService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PrimaryPhotoResolver primaryPhotoResolver;
+
+    @Mock
+    private CrossTenantTaskRunner crossTenantTaskRunner;
+
+    @TempDir
+    Path directory;
+
+    private VehiclePhotoProcessingService service;
+    private final List<String> variantUrls = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        service = new VehiclePhotoProcessingService(vehiclePhotoRepository, jobQueueService, transactionTemplate,
+                primaryPhotoResolver, crossTenantTaskRunner);
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (String url : variantUrls) {
+            Files.deleteIfExists(Paths.get("." + url));
+        }
+    }
+
+    private static byte[] jpeg(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * The JPEG with a big-endian EXIF segment holding only the orientation tag, right after SOI
+     */
+    private static byte[] withOrientation(byte[] jpeg, int orientation) {
+        byte[] app1 = {
+                (byte) 0xFF, (byte) 0xE1, 0, 34,
+                'E', 'x', 'i', 'f', 0, 0,
+                'M', 'M', 0, 42, 0, 0, 0, 8,
+                0, 1,
+                0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+                0, 0, 0, 0
+        };
+        byte[] result = new byte[jpeg.length + app1.length];
+        System.arraycopy(jpeg, 0, result, 0, 2);
+        System.arraycopy(app1, 0, result, 2, app1.length);
+        System.arraycopy(jpeg, 2, result, 2 + app1.length, jpeg.length - 2);
+        return result;
+    }
+
+    private BufferedImage variant(String url) throws Exception {
+        return ImageIO.read(Paths.get("." + url).toFile());
+    }
+
+    @Test
+    void generateVariants_ShouldDownscaleEachVariantFromTheLargestFirst() throws Exception {
+        // Given
+        Path source = directory.resolve("wide-" + UUID.randomUUID() + ".png");
+        ImageIO.write(new BufferedImage(3200, 1600, BufferedImage.TYPE_INT_ARGB), "png", source.toFile());
+
+        // When
+        String[] urls = service.generateVariants(source);
+        variantUrls.addAll(List.of(urls));
+
+        // Then
+        assertThat(urls[0]).startsWith("/uploads/vehicle-photos/variants/wide-").contains("_full.");
+        assertThat(urls[1]).contains("_medium.");
+        assertThat(urls[2]).contains("_thumb.");
+        assertThat(variant(urls[0]).getWidth()).isEqualTo(1600);
+        assertThat(variant(urls[0]).getHeight()).isEqualTo(800);
+        assertThat(variant(urls[1]).getWidth()).isEqualTo(800);
+        assertThat(variant(urls[2]).getWidth()).isEqualTo(320);
+        assertThat(variant(urls[2]).getHeight()).isEqualTo(160);
+    }
+
+    @Test
+    void generateVariants_ShouldApplyTheExifOrientationAndNeverUpscale() throws Exception {
+        // Given a 400x200 phone photo taken rotated
+        Path source = directory.resolve("phone-" + UUID.randomUUID() + ".jpg");
+        Files.write(source, withOrientation(jpeg(400, 200), 6));
+
+        // When
+        String[] urls = service.generateVariants(source);
+        variantUrls.addAll(List.of(urls));
+
+        // Then
+        assertThat(VehiclePhotoProcessingService.readExifOrientation(source)).isEqualTo(6);
+        assertThat(variant(urls[0]).getWidth()).isEqualTo(200);
+        assertThat(variant(urls[0]).getHeight()).isEqualTo(400);
+        assertThat(variant(urls[2]).getHeight()).isEqualTo(320);
+    }
+
+    @Test
+    void readExifOrientation_WithoutExif_ShouldBeUpright() throws Exception {
+        Path plain = Files.write(directory.resolve("plain.jpg"), jpeg(10, 10));
+        Path notJpeg = Files.writeString(directory.resolve("notes.txt"), "not an image");
+
+        assertThat(VehiclePhotoProcessingService.readExifOrientation(plain)).isEqualTo(1);
+        assertThat(VehiclePhotoProcessingService.readExifOrientation(notJpeg)).isEqualTo(1);
+        assertThat(VehiclePhotoProcessingService.readExifOrientation(directory.resolve("missing.jpg"))).isEqualTo(1);
+    }
+
+    @Test
+    void process_ShouldStoreTheVariantUrlsAndEvictThePrimaryPhoto() throws Exception {
+        // Given a pending primary photo
+        Path upload = Files.createDirectories(Paths.get("uploads/vehicle-photos"))
+                .resolve("test-" + UUID.randomUUID() + ".jpg");
+        Files.write(upload, jpeg(100, 50));
+        VehicleModel vehicle = new VehicleModel();
+        vehicle.setId(7L);
+        VehiclePhoto photo = new VehiclePhoto();
+        photo.setId(1L);
+        photo.setVehicle(vehicle);
+        photo.setIsPrimary(true);
+        photo.setProcessingStatus("PENDING");
+        photo.setPhotoUrl("/uploads/vehicle-photos/" + upload.getFileName());
+        when(vehiclePhotoRepository.findById(1L)).thenReturn(Optional.of(photo));
+
+        // When
+        try {
+            service.process(1L);
+            variantUrls.addAll(List.of(photo.getFullUrl(), photo.getMediumUrl(), photo.getThumbnailUrl()));
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+
+        // Then
+        assertThat(photo.getProcessingStatus()).isEqualTo("READY");
+        assertThat(photo.getThumbnailUrl()).contains("_thumb.");
+        assertThat(Files.exists(Paths.get("." + photo.getFullUrl()))).isTrue();
+        verify(primaryPhotoResolver).evict(7L);
+    }
+
+    @Test
+    void process_OfAnUnreadableUpload_ShouldMarkThePhotoFailed() {
+        // Given
+        VehiclePhoto photo = new VehiclePhoto();
+        photo.setId(1L);
+        photo.setProcessingStatus("PENDING");
+        photo.setPhotoUrl("/uploads/vehicle-photos/missing-" + UUID.randomUUID() + ".jpg");
+        when(vehiclePhotoRepository.findById(1L)).thenReturn(Optional.of(photo));
+
+        // When
+        service.process(1L);
+
+        // Then
+        assertThat(photo.getProcessingStatus()).isEqualTo("FAILED");
+        verifyNoInteractions(primaryPhotoResolver);
+    }
+
+    @Test
+    void process_OfAPhotoAlreadyDone_ShouldDoNothing() {
+        // Given
+        VehiclePhoto photo = new VehiclePhoto();
+        photo.setProcessingStatus("READY");
+        when(vehiclePhotoRepository.findById(1L)).thenReturn(Optional.of(photo));
+
+        // When
+        service.process(1L);
+
+        // Then
+        verifyNoInteractions(transactionTemplate);
+    }
+}